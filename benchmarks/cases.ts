@@ -0,0 +1,214 @@
+/**
+ * Benchmark Cases
+ *
+ * Each case prepares its input outside the measured region and then times a
+ * single pipeline stage on it. Downstream stages (dedup, merge, output
+ * builders) run on findings parsed from a mix of all three synthetic reports.
+ */
+
+import {
+  DEFAULT_MERGE_STRATEGY,
+  type ExistingIssue,
+  type Finding,
+  type RunContext,
+} from "../src/core/types.js";
+import {
+  planIssueSync,
+  resolveIssuesConfig,
+} from "../src/github/issue-plan.js";
+import { generateIssueTitle } from "../src/output/issue-formatter.js";
+import { buildLlmJson } from "../src/output/build-llm-json.js";
+import { buildSarifLog } from "../src/output/build-sarif.js";
+import {
+  parsePmdOutput,
+  parseSpotBugsOutput,
+  parseTrunkOutput,
+} from "../src/parsers.js";
+import { deduplicateFindings, mergeIssues } from "../src/utils/fingerprints.js";
+import {
+  generatePmdOutput,
+  generateSpotBugsOutput,
+  generateTrunkOutput,
+} from "./generators.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+export interface BenchmarkCase<T = unknown> {
+  name: string;
+  /** Build the input for `size` findings (not measured) */
+  setup: (size: number) => T;
+  /** The measured operation; the return value is kept alive until sampled */
+  run: (input: T) => unknown;
+}
+
+/** Named sizes accepted on the command line */
+export const BENCHMARK_SIZES: Record<string, number> = {
+  "1k": 1_000,
+  "100k": 100_000,
+  "1m": 1_000_000,
+};
+
+// ============================================================================
+// Shared Inputs
+// ============================================================================
+
+/** Fraction of findings repeated to give deduplication real work */
+const DUPLICATE_RATIO = 0.1;
+
+/**
+ * Parse a mix of PMD, SpotBugs and Trunk output totalling `size` findings.
+ */
+function buildFindings(size: number): Finding[] {
+  const third = Math.floor(size / 3);
+  return [
+    ...parsePmdOutput(generatePmdOutput(third)),
+    ...parseSpotBugsOutput(generateSpotBugsOutput(third)),
+    ...parseTrunkOutput(generateTrunkOutput(size - 2 * third)),
+  ];
+}
+
+function buildContext(): RunContext {
+  return {
+    repo: {
+      owner: "bench",
+      name: "synthetic",
+      defaultBranch: "main",
+      commit: "0000000000000000000000000000000000000000",
+    },
+    profile: {
+      languages: ["typescript", "java", "python"],
+      packageManager: "pnpm",
+      isMonorepo: true,
+      workspacePackages: [],
+      hasTypeScript: true,
+      hasEslint: true,
+      hasPrettier: false,
+      hasTrunk: true,
+      hasDependencyCruiser: false,
+      hasKnip: false,
+      rootPath: process.cwd(),
+      hasPython: true,
+      hasJava: true,
+      hasRuff: true,
+      hasMypy: false,
+      hasPmd: true,
+      hasSpotBugs: true,
+      hasRust: false,
+      hasClippy: false,
+      hasCargoDeny: false,
+    },
+    config: { version: 1 },
+    cadence: "weekly",
+    runNumber: 1,
+    workspacePath: process.cwd(),
+    outputDir: ".",
+    toolVersions: { pmd: "7.0.0", spotbugs: "4.8.3", trunk: "1.22.0" },
+  };
+}
+
+/** Fraction of merged findings that already have an open issue */
+const TRACKED_RATIO = 0.5;
+
+/**
+ * Open issues for a share of the findings (matched by fingerprint), plus
+ * as many stale issues that the plan will close.
+ */
+function buildIssueSnapshot(findings: Finding[]): ExistingIssue[] {
+  const tracked = findings.slice(
+    0,
+    Math.floor(findings.length * TRACKED_RATIO),
+  );
+  const issues: ExistingIssue[] = tracked.map((finding, i) => ({
+    number: i + 1,
+    title: generateIssueTitle(finding),
+    body: "",
+    state: "open",
+    labels: ["vibeCheck"],
+    metadata: {
+      fingerprint: finding.fingerprint,
+      lastSeenRun: 0,
+      consecutiveMisses: 0,
+    },
+  }));
+  for (let i = 0; i < tracked.length; i++) {
+    issues.push({
+      number: tracked.length + i + 1,
+      title: `[vibeCheck] stale: rule-${i}`,
+      body: "",
+      state: "open",
+      labels: ["vibeCheck"],
+      metadata: {
+        fingerprint: `sha256:stale-${i}`,
+        lastSeenRun: 0,
+        consecutiveMisses: 0,
+      },
+    });
+  }
+  return issues;
+}
+
+// ============================================================================
+// Cases
+// ============================================================================
+
+function defineCase<T>(benchmark: BenchmarkCase<T>): BenchmarkCase {
+  return benchmark as BenchmarkCase;
+}
+
+export const BENCHMARK_CASES: BenchmarkCase[] = [
+  defineCase({
+    name: "parsePmdOutput",
+    setup: (size) => generatePmdOutput(size),
+    run: (input) => parsePmdOutput(input),
+  }),
+  defineCase({
+    name: "parseSpotBugsOutput",
+    setup: (size) => generateSpotBugsOutput(size),
+    run: (input) => parseSpotBugsOutput(input),
+  }),
+  defineCase({
+    name: "deduplicateFindings",
+    setup: (size) => {
+      const findings = buildFindings(size);
+      const duplicates = findings.slice(0, Math.floor(size * DUPLICATE_RATIO));
+      return [...findings, ...duplicates];
+    },
+    run: (input) => deduplicateFindings(input),
+  }),
+  defineCase({
+    name: "mergeIssues",
+    setup: (size) => buildFindings(size),
+    run: (input) => mergeIssues(input, DEFAULT_MERGE_STRATEGY),
+  }),
+  defineCase({
+    name: "buildSarifLog",
+    setup: (size) => ({ findings: buildFindings(size), context: buildContext() }),
+    run: ({ findings, context }) => buildSarifLog(findings, context),
+  }),
+  defineCase({
+    name: "buildLlmJson",
+    setup: (size) => ({ findings: buildFindings(size), context: buildContext() }),
+    run: ({ findings, context }) => buildLlmJson(findings, context),
+  }),
+  defineCase({
+    name: "planIssueSync",
+    setup: (size) => {
+      const findings = mergeIssues(buildFindings(size), DEFAULT_MERGE_STRATEGY);
+      const context = buildContext();
+      return {
+        findings,
+        existingIssues: buildIssueSnapshot(findings),
+        context,
+        config: {
+          ...resolveIssuesConfig(context.config),
+          severity_threshold: "info" as const,
+          confidence_threshold: "low" as const,
+        },
+        generatedAt: "2024-01-01T00:00:00.000Z",
+      };
+    },
+    run: (input) => planIssueSync(input),
+  }),
+];
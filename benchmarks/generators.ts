@@ -0,0 +1,205 @@
+/**
+ * Synthetic Tool Outputs
+ *
+ * Deterministic generators for large PMD, SpotBugs and Trunk reports. The
+ * same size always produces byte-identical output (seeded PRNG), so runs on
+ * different commits measure the same workload.
+ */
+
+import type {
+  PmdFileReport,
+  PmdOutput,
+  SpotBugsSarifOutput,
+  TrunkOutput,
+} from "../src/parsers.js";
+
+// ============================================================================
+// Helpers
+// ============================================================================
+
+/** Violations per synthetic source file (roughly what large repos show) */
+const FINDINGS_PER_FILE = 8;
+
+/**
+ * mulberry32: small, fast, seedable PRNG.
+ */
+function createRandom(seed: number): () => number {
+  let state = seed >>> 0;
+  return () => {
+    state = (state + 0x6d2b79f5) >>> 0;
+    let t = state;
+    t = Math.imul(t ^ (t >>> 15), t | 1);
+    t ^= t + Math.imul(t ^ (t >>> 7), t | 61);
+    return ((t ^ (t >>> 14)) >>> 0) / 4294967296;
+  };
+}
+
+function pick<T>(random: () => number, items: readonly T[]): T {
+  return items[Math.floor(random() * items.length)];
+}
+
+function javaPath(fileIndex: number): string {
+  return `src/main/java/com/example/module${fileIndex % 50}/pkg${fileIndex % 400}/Class${fileIndex}.java`;
+}
+
+// ============================================================================
+// PMD
+// ============================================================================
+
+const PMD_RULES = [
+  { rule: "UnusedLocalVariable", ruleset: "Best Practices", priority: 3 },
+  { rule: "EmptyCatchBlock", ruleset: "Error Prone", priority: 2 },
+  { rule: "CyclomaticComplexity", ruleset: "Design", priority: 3 },
+  { rule: "AvoidDuplicateLiterals", ruleset: "Error Prone", priority: 4 },
+  { rule: "GodClass", ruleset: "Design", priority: 3 },
+  { rule: "HardCodedCryptoKey", ruleset: "Security", priority: 1 },
+  { rule: "UseUtilityClass", ruleset: "Design", priority: 4 },
+  { rule: "CloseResource", ruleset: "Error Prone", priority: 2 },
+] as const;
+
+/**
+ * Generate a PMD JSON report with `count` violations.
+ */
+export function generatePmdOutput(count: number, seed = 1): PmdOutput {
+  const random = createRandom(seed);
+  const files: PmdFileReport[] = [];
+
+  for (let i = 0; i < count; i += FINDINGS_PER_FILE) {
+    const filename = javaPath(files.length);
+    const violations = [];
+    for (let j = i; j < Math.min(count, i + FINDINGS_PER_FILE); j++) {
+      const rule = pick(random, PMD_RULES);
+      const line = 1 + Math.floor(random() * 2000);
+      violations.push({
+        beginline: line,
+        begincolumn: 1 + Math.floor(random() * 80),
+        endline: line + Math.floor(random() * 20),
+        endcolumn: 1 + Math.floor(random() * 80),
+        description: `${rule.rule} violation in ${filename} near line ${line}`,
+        rule: rule.rule,
+        ruleset: rule.ruleset,
+        priority: rule.priority,
+        externalInfoUrl: `https://pmd.github.io/pmd/pmd_rules_java.html#${rule.rule.toLowerCase()}`,
+      });
+    }
+    files.push({ filename, violations });
+  }
+
+  return {
+    formatVersion: 0,
+    pmdVersion: "7.0.0",
+    timestamp: "2024-01-01T00:00:00.000Z",
+    files,
+    processingErrors: [],
+    configurationErrors: [],
+  };
+}
+
+// ============================================================================
+// SpotBugs
+// ============================================================================
+
+const SPOTBUGS_RULES = [
+  { id: "NP_NULL_ON_SOME_PATH", category: "CORRECTNESS" },
+  { id: "EI_EXPOSE_REP", category: "MALICIOUS_CODE" },
+  { id: "DM_DEFAULT_ENCODING", category: "I18N" },
+  { id: "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE", category: "SECURITY" },
+  { id: "SE_BAD_FIELD", category: "BAD_PRACTICE" },
+  { id: "URF_UNREAD_FIELD", category: "PERFORMANCE" },
+] as const;
+
+/**
+ * Generate a SpotBugs SARIF report with `count` results in a single run.
+ */
+export function generateSpotBugsOutput(
+  count: number,
+  seed = 2,
+): SpotBugsSarifOutput {
+  const random = createRandom(seed);
+  const results: SpotBugsSarifOutput["runs"][number]["results"] = [];
+
+  for (let i = 0; i < count; i++) {
+    const rule = pick(random, SPOTBUGS_RULES);
+    const line = 1 + Math.floor(random() * 2000);
+    results.push({
+      ruleId: rule.id,
+      level: "warning",
+      message: { text: `${rule.id} detected in method${i % 97}()` },
+      locations: [
+        {
+          physicalLocation: {
+            artifactLocation: {
+              uri: javaPath(Math.floor(i / FINDINGS_PER_FILE)),
+            },
+            region: { startLine: line, endLine: line + 1 },
+          },
+        },
+      ],
+      properties: {
+        category: rule.category,
+        rank: 1 + Math.floor(random() * 20),
+        confidence: 1 + Math.floor(random() * 3),
+      },
+    });
+  }
+
+  return {
+    version: "2.1.0",
+    $schema: "https://json.schemastore.org/sarif-2.1.0.json",
+    runs: [
+      {
+        tool: {
+          driver: {
+            name: "SpotBugs",
+            version: "4.8.3",
+            rules: SPOTBUGS_RULES.map((rule) => ({
+              id: rule.id,
+              shortDescription: { text: `${rule.id} description` },
+              helpUri: `https://spotbugs.readthedocs.io/en/latest/bugDescriptions.html#${rule.id}`,
+            })),
+          },
+        },
+        results,
+      },
+    ],
+  };
+}
+
+// ============================================================================
+// Trunk
+// ============================================================================
+
+const TRUNK_LINTERS = [
+  { linter: "eslint", code: "no-unused-vars", ext: "ts" },
+  { linter: "eslint", code: "@typescript-eslint/no-explicit-any", ext: "ts" },
+  { linter: "ruff", code: "F401", ext: "py" },
+  { linter: "markdownlint", code: "MD013", ext: "md" },
+  { linter: "shellcheck", code: "SC2086", ext: "sh" },
+  { linter: "yamllint", code: "line-length", ext: "yaml" },
+] as const;
+
+const TRUNK_LEVELS = ["LEVEL_HIGH", "LEVEL_MEDIUM", "LEVEL_LOW"] as const;
+
+/**
+ * Generate a Trunk check report with `count` issues.
+ */
+export function generateTrunkOutput(count: number, seed = 3): TrunkOutput {
+  const random = createRandom(seed);
+  const issues: TrunkOutput["issues"] = [];
+
+  for (let i = 0; i < count; i++) {
+    const linter = pick(random, TRUNK_LINTERS);
+    const fileIndex = Math.floor(i / FINDINGS_PER_FILE);
+    issues.push({
+      file: `packages/pkg${fileIndex % 60}/src/file${fileIndex}.${linter.ext}`,
+      line: 1 + Math.floor(random() * 1000),
+      column: 1 + Math.floor(random() * 80),
+      message: `${linter.code}: synthetic issue ${i % 500}`,
+      code: linter.code,
+      linter: linter.linter,
+      level: pick(random, TRUNK_LEVELS),
+    });
+  }
+
+  return { issues };
+}
@@ -0,0 +1,94 @@
+/**
+ * Benchmark Case Runner
+ *
+ * Child-process entry point: runs one case at one size in a fresh heap and
+ * reports the measurement to the parent. Started by run.ts with --expose-gc.
+ */
+
+import { performance } from "node:perf_hooks";
+import { BENCHMARK_CASES } from "./cases.js";
+
+export interface CaseMeasurement {
+  name: string;
+  size: number;
+  iterations: number;
+  /** Median wall time of one measured iteration */
+  medianMs: number;
+  /** Findings processed per second at the median */
+  findingsPerSec: number;
+  /** Largest heap growth over the prepared input while a result was live */
+  peakHeapMb: number;
+  /** Peak resident set size of the whole process (input included) */
+  maxRssMb: number;
+}
+
+/**
+ * Warmup and measured iterations, scaled down for large inputs.
+ */
+function getIterations(size: number): { warmup: number; measured: number } {
+  if (size <= 10_000) return { warmup: 5, measured: 20 };
+  if (size <= 100_000) return { warmup: 2, measured: 5 };
+  return { warmup: 1, measured: 3 };
+}
+
+function collectGarbage(): void {
+  const gc = (globalThis as { gc?: () => void }).gc;
+  if (!gc) {
+    throw new Error("run-case requires --expose-gc");
+  }
+  gc();
+}
+
+function median(values: number[]): number {
+  const sorted = [...values].sort((a, b) => a - b);
+  const mid = Math.floor(sorted.length / 2);
+  return sorted.length % 2 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+}
+
+function measure(name: string, size: number): CaseMeasurement {
+  const benchmark = BENCHMARK_CASES.find((c) => c.name === name);
+  if (!benchmark) {
+    throw new Error(`Unknown benchmark case: ${name}`);
+  }
+
+  const input = benchmark.setup(size);
+  const { warmup, measured } = getIterations(size);
+
+  for (let i = 0; i < warmup; i++) {
+    benchmark.run(input);
+  }
+
+  const timings: number[] = [];
+  let peakHeap = 0;
+  for (let i = 0; i < measured; i++) {
+    collectGarbage();
+    const heapBefore = process.memoryUsage().heapUsed;
+
+    const start = performance.now();
+    const result = benchmark.run(input);
+    timings.push(performance.now() - start);
+
+    // Sample before the result becomes unreachable
+    peakHeap = Math.max(peakHeap, process.memoryUsage().heapUsed - heapBefore);
+    void result;
+  }
+
+  const medianMs = median(timings);
+  return {
+    name,
+    size,
+    iterations: measured,
+    medianMs,
+    findingsPerSec: size / (medianMs / 1000),
+    peakHeapMb: peakHeap / (1024 * 1024),
+    maxRssMb: process.resourceUsage().maxRSS / 1024,
+  };
+}
+
+const [name, size] = process.argv.slice(2);
+const measurement = measure(name, Number(size));
+if (process.send) {
+  process.send(measurement, () => process.disconnect());
+} else {
+  console.log(JSON.stringify(measurement));
+}
@@ -0,0 +1,272 @@
+/**
+ * Findings Pipeline Benchmarks
+ *
+ * Runs every case at every requested size, each in its own child process so
+ * heap measurements do not leak between cases, and compares the results
+ * with benchmarks/baseline.json. Exits non-zero on a regression.
+ *
+ * Usage:
+ *   pnpm bench                                  # 1k, 100k, 1m; compare
+ *   pnpm bench --sizes 1k,100k                  # subset of sizes
+ *   pnpm bench --cases parsePmdOutput,mergeIssues
+ *   pnpm bench --update-baseline                # record current numbers
+ *   pnpm bench --tolerance 0.2                  # allowed slowdown/growth
+ *   pnpm bench --baseline /tmp/base.json        # use another baseline file
+ *   pnpm bench --require-baseline               # fail if nothing was compared
+ */
+
+import { fork } from "node:child_process";
+import { existsSync, readFileSync, writeFileSync } from "node:fs";
+import { extname } from "node:path";
+import { fileURLToPath } from "node:url";
+import { BENCHMARK_CASES, BENCHMARK_SIZES } from "./cases.js";
+import type { CaseMeasurement } from "./run-case.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+interface BaselineEntry {
+  findingsPerSec: number;
+  peakHeapMb: number;
+}
+
+interface Baseline {
+  updatedAt: string;
+  node: string;
+  cases: Record<string, BaselineEntry>;
+}
+
+interface BenchOptions {
+  sizes: string[];
+  cases: string[];
+  updateBaseline: boolean;
+  tolerance: number;
+  baselinePath: string;
+  /** Fail instead of passing when no measured case has a baseline entry */
+  requireBaseline: boolean;
+}
+
+const DEFAULT_BASELINE_PATH = fileURLToPath(
+  new URL("./baseline.json", import.meta.url),
+);
+/** Case runner next to this file, with the same extension (.ts under tsx) */
+const CASE_RUNNER = fileURLToPath(
+  new URL(
+    `./run-case${extname(fileURLToPath(import.meta.url))}`,
+    import.meta.url,
+  ),
+);
+
+/** Default allowed relative change before a result counts as a regression */
+const DEFAULT_TOLERANCE = 0.3;
+
+/** Heap differences below this are noise (GC timing, allocator slack) */
+const HEAP_NOISE_FLOOR_MB = 8;
+
+// ============================================================================
+// Running
+// ============================================================================
+
+function parseArgs(args: string[]): BenchOptions {
+  const options: BenchOptions = {
+    sizes: Object.keys(BENCHMARK_SIZES),
+    cases: BENCHMARK_CASES.map((c) => c.name),
+    updateBaseline: false,
+    tolerance: DEFAULT_TOLERANCE,
+    baselinePath: DEFAULT_BASELINE_PATH,
+    requireBaseline: false,
+  };
+
+  for (let i = 0; i < args.length; i++) {
+    const arg = args[i];
+    if (arg === "--sizes" && args[i + 1]) {
+      options.sizes = args[++i].split(",");
+    } else if (arg === "--cases" && args[i + 1]) {
+      options.cases = args[++i].split(",");
+    } else if (arg === "--update-baseline") {
+      options.updateBaseline = true;
+    } else if (arg === "--tolerance" && args[i + 1]) {
+      options.tolerance = Number(args[++i]);
+    } else if (arg === "--baseline" && args[i + 1]) {
+      options.baselinePath = args[++i];
+    } else if (arg === "--require-baseline") {
+      options.requireBaseline = true;
+    }
+  }
+
+  for (const size of options.sizes) {
+    if (!(size in BENCHMARK_SIZES)) {
+      throw new Error(
+        `Unknown size "${size}" (expected ${Object.keys(BENCHMARK_SIZES).join(", ")})`,
+      );
+    }
+  }
+  return options;
+}
+
+/**
+ * Run one case in a fresh process with an exposed GC and room for 1m inputs.
+ */
+function runCase(name: string, size: number): Promise<CaseMeasurement> {
+  return new Promise((resolve, reject) => {
+    const child = fork(CASE_RUNNER, [name, String(size)], {
+      execArgv: [...process.execArgv, "--expose-gc", "--max-old-space-size=8192"],
+      stdio: ["ignore", "inherit", "inherit", "ipc"],
+    });
+
+    let measurement: CaseMeasurement | null = null;
+    child.on("message", (message) => {
+      measurement = message as CaseMeasurement;
+    });
+    child.on("error", reject);
+    child.on("exit", (code) => {
+      if (measurement) {
+        resolve(measurement);
+      } else {
+        reject(new Error(`${name} at ${size} exited with code ${code}`));
+      }
+    });
+  });
+}
+
+// ============================================================================
+// Baseline Comparison
+// ============================================================================
+
+function caseKey(name: string, size: string): string {
+  return `${name}/${size}`;
+}
+
+function loadBaseline(path: string): Baseline | null {
+  if (!existsSync(path)) return null;
+  return JSON.parse(readFileSync(path, "utf-8")) as Baseline;
+}
+
+/**
+ * Describe how a measurement regressed against its baseline, or null if not.
+ */
+function findRegression(
+  current: CaseMeasurement,
+  baseline: BaselineEntry,
+  tolerance: number,
+): string | null {
+  const problems: string[] = [];
+
+  const minThroughput = baseline.findingsPerSec * (1 - tolerance);
+  if (current.findingsPerSec < minThroughput) {
+    const drop = 1 - current.findingsPerSec / baseline.findingsPerSec;
+    problems.push(`throughput -${(drop * 100).toFixed(0)}%`);
+  }
+
+  const maxHeap = baseline.peakHeapMb * (1 + tolerance);
+  if (
+    current.peakHeapMb > maxHeap &&
+    current.peakHeapMb - baseline.peakHeapMb > HEAP_NOISE_FLOOR_MB
+  ) {
+    const growth = current.peakHeapMb / baseline.peakHeapMb - 1;
+    problems.push(`peak heap +${(growth * 100).toFixed(0)}%`);
+  }
+
+  return problems.length > 0 ? problems.join(", ") : null;
+}
+
+function formatRate(findingsPerSec: number): string {
+  if (findingsPerSec >= 1_000_000) {
+    return `${(findingsPerSec / 1_000_000).toFixed(2)}M/s`;
+  }
+  if (findingsPerSec >= 1_000) {
+    return `${(findingsPerSec / 1_000).toFixed(1)}k/s`;
+  }
+  return `${findingsPerSec.toFixed(0)}/s`;
+}
+
+// ============================================================================
+// Main
+// ============================================================================
+
+async function main(): Promise<void> {
+  const options = parseArgs(process.argv.slice(2));
+  const baseline = loadBaseline(options.baselinePath);
+  const results = new Map<string, CaseMeasurement>();
+  const regressions: string[] = [];
+  let compared = 0;
+
+  console.log(
+    `Benchmarking ${options.cases.length} cases at ${options.sizes.join(", ")} (node ${process.version})\n`,
+  );
+
+  for (const size of options.sizes) {
+    for (const name of options.cases) {
+      const key = caseKey(name, size);
+      const measurement = await runCase(name, BENCHMARK_SIZES[size]);
+      results.set(key, measurement);
+
+      const previous = baseline?.cases[key];
+      const regression = previous
+        ? findRegression(measurement, previous, options.tolerance)
+        : null;
+      if (previous) {
+        compared++;
+      }
+      if (regression) {
+        regressions.push(`${key}: ${regression}`);
+      }
+
+      const status = !previous ? "new" : regression ? "REGRESSED" : "ok";
+      console.log(
+        `  ${key.padEnd(28)} ${formatRate(measurement.findingsPerSec).padStart(10)}` +
+          `  ${measurement.medianMs.toFixed(1).padStart(9)}ms` +
+          `  heap ${measurement.peakHeapMb.toFixed(1).padStart(7)}MB` +
+          `  rss ${measurement.maxRssMb.toFixed(0).padStart(5)}MB  ${status}`,
+      );
+    }
+  }
+
+  if (options.updateBaseline) {
+    const updated: Baseline = {
+      updatedAt: new Date().toISOString(),
+      node: process.version,
+      // Keep entries for sizes/cases not run this time
+      cases: { ...baseline?.cases },
+    };
+    for (const [key, measurement] of results) {
+      updated.cases[key] = {
+        findingsPerSec: Math.round(measurement.findingsPerSec),
+        peakHeapMb: Number(measurement.peakHeapMb.toFixed(1)),
+      };
+    }
+    writeFileSync(options.baselinePath, JSON.stringify(updated, null, 2) + "\n");
+    console.log(`\nBaseline updated: ${options.baselinePath}`);
+    return;
+  }
+
+  if (compared === 0) {
+    const message = baseline
+      ? `\nNo measured case has an entry in ${options.baselinePath}; run with --update-baseline to record one.`
+      : `\nNo baseline found at ${options.baselinePath}; run with --update-baseline to record one.`;
+    if (options.requireBaseline) {
+      console.error(message);
+      process.exit(1);
+    }
+    console.log(message);
+    return;
+  }
+
+  if (regressions.length > 0) {
+    console.error(
+      `\n${regressions.length} regression(s) beyond ${(options.tolerance * 100).toFixed(0)}% tolerance:`,
+    );
+    for (const regression of regressions) {
+      console.error(`  ${regression}`);
+    }
+    process.exit(1);
+  }
+
+  console.log("\nNo regressions against baseline.");
+}
+
+main().catch((error) => {
+  console.error("Benchmark failed:", error);
+  process.exit(1);
+});
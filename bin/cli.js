@@ -44,6 +44,9 @@ Options for 'analyze':
   --severity-threshold <s>   Min severity: critical, high, medium, low, info
   --confidence-threshold <c> Min confidence: high, medium, low
   --merge-strategy <s>       How to merge findings: none, same-file, same-rule, same-linter, same-tool
+  --concurrency <n>          Max analysis tools running at once (default: CPU cores)
+  --incremental              Only analyze files changed since the last run (supported tools)
+  --no-cache                 Re-run every tool instead of replaying cached findings
 
 Environment Variables:
   GITHUB_TOKEN               Required for issue creation
@@ -7,20 +7,21 @@
  * Reference: vibeCheck_spec.md section 9
  */
 
-import { existsSync, mkdirSync, readFileSync, writeFileSync } from "node:fs";
-import { join } from "node:path";
+import { appendFileSync, existsSync, mkdirSync, writeFileSync } from "node:fs";
+import { join, resolve } from "node:path";
+import { FileInventory } from "./file-inventory.js";
 import { detectRepo } from "./repo-detect.js";
-import { buildSarifLog, writeSarifFile } from "../output/build-sarif.js";
+import { writeSarif } from "../output/build-sarif.js";
 import {
   buildLlmJson,
   writeLlmJsonFile,
-  type FindingStats,
 } from "../output/build-llm-json.js";
 import { processFindings } from "../github/sarif-to-issues.js";
 import {
   deduplicateFindings,
   mergeIssues,
 } from "../utils/fingerprints.js";
+import { writeFindingsStore } from "../utils/findings-store.js";
 import { buildRepoInfo, getRunNumber } from "../utils/shared.js";
 import {
   loadVibeCopConfig,
@@ -29,7 +30,15 @@ import {
   parseSeverityThreshold,
   parseConfidenceThreshold,
 } from "./config-loader.js";
-import { getToolsToRun, executeTools } from "../tools/tool-registry.js";
+import {
+  getToolsToRun,
+  executeTools,
+  getToolVersions,
+} from "../tools/tool-registry.js";
+import {
+  loadIncrementalState,
+  saveIncrementalState,
+} from "../tools/incremental.js";
 import type {
   Cadence,
   Confidence,
@@ -52,15 +61,27 @@ export interface AnalyzeOptions {
   cadence?: Cadence;
   outputDir?: string;
   skipIssues?: boolean;
+  /** Plan issue changes (written to issue-plan.json) without applying them */
+  planIssues?: boolean;
   severityThreshold?: Severity | "info";
   confidenceThreshold?: Confidence;
   mergeStrategy?: MergeStrategy;
+  /** Max analysis tools running at once (default: available cores) */
+  concurrency?: number;
+  /** Let supported tools analyze only files changed since their last run */
+  incremental?: boolean;
+  /** Set to false to ignore the findings cache */
+  cache?: boolean;
+  /** SARIF will be uploaded to Code Scanning, which needs it uncompressed */
+  codeScanning?: boolean;
 }
 
 export interface AnalyzeResult {
   findings: Finding[];
   profile: RepoProfile;
   context: RunContext;
+  /** SARIF file, or the directory of split SARIF files (unset if disabled) */
+  sarifPath?: string;
   stats: {
     totalFindings: number;
     uniqueFindings: number;
@@ -85,7 +106,10 @@ export async function analyze(
   const severityThreshold = options.severityThreshold || "info";
   const confidenceThreshold = options.confidenceThreshold || "low";
   const mergeStrategy = options.mergeStrategy || DEFAULT_MERGE_STRATEGY;
-  const outputDir = options.outputDir || join(rootPath, ".vibecheck-output");
+  // Absolute: tools run with cwd at rootPath and are handed paths in here
+  const outputDir = resolve(
+    options.outputDir || join(rootPath, ".vibecheck-output"),
+  );
 
   // Validate threshold values
   if (!isValidSeverityThreshold(severityThreshold)) {
@@ -111,7 +135,12 @@ export async function analyze(
 
   // Step 1: Detect repo profile
   console.log("Step 1: Detecting repository profile...");
-  const profile = await detectRepo(rootPath);
+  const inventoryStart = Date.now();
+  const inventory = await FileInventory.build(rootPath);
+  console.log(
+    `  Files: ${inventory.size} (from ${inventory.source === "git" ? "git ls-files" : "directory walk"}, ${Date.now() - inventoryStart}ms)`,
+  );
+  const profile = await detectRepo(rootPath, inventory);
   console.log(`  Languages: ${profile.languages.join(", ")}`);
   console.log(`  Package manager: ${profile.packageManager}`);
   console.log(`  Monorepo: ${profile.isMonorepo}`);
@@ -125,7 +154,16 @@ export async function analyze(
   // Step 3: Run analysis tools using registry
   console.log("Step 3: Running analysis tools...");
   const toolsToRun = getToolsToRun(profile, cadence, config);
-  const allFindings = executeTools(toolsToRun, rootPath, config);
+  const incrementalState = loadIncrementalState(outputDir);
+  const allFindings = await executeTools(toolsToRun, rootPath, config, {
+    concurrency: options.concurrency,
+    outputDir,
+    cadence,
+    incremental: options.incremental,
+    incrementalState,
+    cache: options.cache,
+    inventory,
+  });
 
   // Step 4: Deduplicate findings
   console.log("Step 4: Deduplicating findings...");
@@ -163,19 +201,24 @@ export async function analyze(
     runNumber: getRunNumber(),
     workspacePath: rootPath,
     outputDir,
+    toolVersions: getToolVersions(toolsToRun),
   };
 
   // Step 5: Generate outputs
   console.log("Step 5: Generating outputs...");
 
-  // Write all findings (before merge) for debugging
-  const allFindingsPath = join(outputDir, "findings-all.json");
-  writeFileSync(allFindingsPath, JSON.stringify(uniqueFindings, null, 2));
+  // Write all findings (before merge) for debugging; raw tool output goes
+  // to a side file (findings-all.ndjson.raw)
+  const allFindingsPath = join(outputDir, "findings-all.ndjson");
+  writeFindingsStore(allFindingsPath, uniqueFindings);
   console.log(`  All findings: ${allFindingsPath}`);
 
+  // Baselines are only valid once the findings they describe are on disk
+  saveIncrementalState(outputDir, incrementalState);
+
   // Write merged findings for issue creation
-  const findingsPath = join(outputDir, "findings.json");
-  writeFileSync(findingsPath, JSON.stringify(mergedFindings, null, 2));
+  const findingsPath = join(outputDir, "findings.ndjson");
+  writeFindingsStore(findingsPath, mergedFindings);
   console.log(`  Merged findings: ${findingsPath}`);
 
   // Write context
@@ -184,58 +227,96 @@ export async function analyze(
   console.log(`  Context: ${contextPath}`);
 
   // Build SARIF (use all unique findings for code scanning)
+  let sarifPath: string | undefined;
   if (config.output?.sarif !== false) {
-    const sarif = buildSarifLog(uniqueFindings, context);
-    const sarifPath = join(outputDir, "results.sarif");
-    writeSarifFile(sarif, sarifPath);
-    console.log(`  SARIF: ${sarifPath}`);
-  }
+    let gzip = config.output?.sarif_gzip ?? false;
+    if (gzip && options.codeScanning) {
+      console.warn(
+        "  Ignoring output.sarif_gzip: Code Scanning upload needs uncompressed SARIF",
+      );
+      gzip = false;
+    }
 
-  // Build LLM JSON (use merged findings for agent consumption)
-  if (config.output?.llm_json !== false) {
-    const findingStats: FindingStats = {
-      totalFindings: allFindings.length,
-      uniqueFindings: uniqueFindings.length,
-      mergedFindings: mergedFindings.length,
-    };
-    const llmJson = buildLlmJson(mergedFindings, context, findingStats);
-    const llmJsonPath = join(outputDir, "results.llm.json");
-    writeLlmJsonFile(llmJson, llmJsonPath);
-    console.log(`  LLM JSON: ${llmJsonPath}`);
+    const sarif = await writeSarif(
+      uniqueFindings,
+      context,
+      join(outputDir, "results.sarif"),
+      { gzip },
+    );
+    const sarifMb = (sarif.bytes / 1024 / 1024).toFixed(1);
+    sarifPath =
+      sarif.files.length === 1 ? sarif.files[0] : join(outputDir, "sarif");
+    console.log(
+      sarif.files.length === 1
+        ? `  SARIF: ${sarifPath} (${sarifMb} MB)`
+        : `  SARIF: ${sarif.files.length} files in ${sarifPath} (${sarifMb} MB, split for upload limits)`,
+    );
+    if (sarif.closing.length > 0) {
+      console.log(
+        `  SARIF: ${sarif.closing.length} empty file(s) closing categories no longer uploaded`,
+      );
+    }
   }
 
+  // Build LLM JSON (use merged findings for agent consumption). It is
+  // written once, after issue processing has filled in the issue stats.
+  const llmJson =
+    config.output?.llm_json !== false
+      ? buildLlmJson(mergedFindings, context, {
+          totalFindings: allFindings.length,
+          uniqueFindings: uniqueFindings.length,
+          mergedFindings: mergedFindings.length,
+        })
+      : null;
+  const llmJsonPath = join(outputDir, "results.llm.json");
+
   console.log("");
 
   // Step 6: Create/update issues (use merged findings)
   let issueStats = { created: 0, updated: 0, closed: 0 };
-  if (
-    !options.skipIssues &&
-    config.issues?.enabled !== false &&
-    process.env.GITHUB_TOKEN
-  ) {
-    console.log("Step 6: Processing GitHub issues...");
-    const stats = await processFindings(mergedFindings, context);
-    issueStats = {
-      created: stats.created,
-      updated: stats.updated,
-      closed: stats.closed,
-    };
-    console.log(`  Created: ${issueStats.created}`);
-    console.log(`  Updated: ${issueStats.updated}`);
-    console.log(`  Closed: ${issueStats.closed}`);
-
-    // Update LLM JSON with issue stats
-    if (config.output?.llm_json !== false) {
-      const llmJsonPath = join(outputDir, "results.llm.json");
-      const llmJsonContent = JSON.parse(readFileSync(llmJsonPath, "utf-8"));
-      llmJsonContent.summary.issuesCreated = issueStats.created;
-      llmJsonContent.summary.issuesUpdated = issueStats.updated;
-      llmJsonContent.summary.issuesClosed = issueStats.closed;
-      writeFileSync(llmJsonPath, JSON.stringify(llmJsonContent, null, 2));
-      console.log(`  Updated LLM JSON with issue stats`);
+  try {
+    if (
+      !options.skipIssues &&
+      config.issues?.enabled !== false &&
+      process.env.GITHUB_TOKEN
+    ) {
+      console.log("Step 6: Processing GitHub issues...");
+      const stats = await processFindings(mergedFindings, context, {
+        planOnly: options.planIssues,
+      });
+      issueStats = {
+        created: stats.created,
+        updated: stats.updated,
+        closed: stats.closed,
+      };
+      if (stats.planned) {
+        console.log(
+          `  Planned (not applied): ${stats.planned.create} to create, ${stats.planned.update} to update, ${stats.planned.close} to close`,
+        );
+      } else {
+        console.log(`  Created: ${issueStats.created}`);
+        console.log(`  Updated: ${issueStats.updated}`);
+        console.log(`  Closed: ${issueStats.closed}`);
+      }
+      console.log(
+        `  API requests: ${stats.apiRequests} (${stats.cachedResponses} not modified)`,
+      );
+      console.log(`  Rate-limit wait: ${(stats.throttledMs / 1000).toFixed(1)}s`);
+
+      // Add issue stats to the LLM JSON (once they were applied)
+      if (llmJson && !options.planIssues) {
+        llmJson.summary.issuesCreated = issueStats.created;
+        llmJson.summary.issuesUpdated = issueStats.updated;
+        llmJson.summary.issuesClosed = issueStats.closed;
+      }
+    } else {
+      console.log("Step 6: Skipping GitHub issues (disabled or no token)");
+    }
+  } finally {
+    if (llmJson) {
+      writeLlmJsonFile(llmJson, llmJsonPath);
+      console.log(`  LLM JSON: ${llmJsonPath}`);
     }
-  } else {
-    console.log("Step 6: Skipping GitHub issues (disabled or no token)");
   }
 
   console.log("");
@@ -251,6 +332,7 @@ export async function analyze(
     findings: mergedFindings,
     profile,
     context,
+    sarifPath,
     stats: {
       totalFindings: allFindings.length,
       uniqueFindings: uniqueFindings.length,
@@ -285,6 +367,8 @@ async function main() {
       options.outputDir = args[++i];
     } else if (arg === "--skip-issues") {
       options.skipIssues = true;
+    } else if (arg === "--plan-issues") {
+      options.planIssues = true;
     } else if (arg === "--severity" && args[i + 1]) {
       try {
         options.severityThreshold = parseSeverityThreshold(args[++i]);
@@ -301,6 +385,14 @@ async function main() {
       }
     } else if ((arg === "--merge" || arg === "--merge-strategy") && args[i + 1]) {
       options.mergeStrategy = args[++i] as MergeStrategy;
+    } else if (arg === "--concurrency" && args[i + 1]) {
+      options.concurrency = parseInt(args[++i], 10);
+    } else if (arg === "--incremental") {
+      options.incremental = true;
+    } else if (arg === "--no-cache") {
+      options.cache = false;
+    } else if (arg === "--code-scanning") {
+      options.codeScanning = true;
     } else if (arg === "--help" || arg === "-h") {
       console.log(`
 Usage: analyze [options]
@@ -311,9 +403,14 @@ Options:
   --config <path>        Path to vibecheck config file (default: vibecheck.yml)
   --output <path>        Output directory (default: .vibecheck-output)
   --skip-issues          Skip GitHub issue creation
+  --plan-issues          Write the issue plan without changing any issue
   --severity <level>     Severity threshold: info, low, medium, high, critical
   --confidence <level>   Confidence threshold: low, medium, high
   --merge-strategy <s>   Merge strategy: none, same-file, same-rule, same-linter, same-tool
+  --concurrency <n>      Max analysis tools running at once (default: CPU cores)
+  --incremental          Only analyze files changed since the last run (supported tools)
+  --no-cache             Re-run every tool instead of replaying cached findings
+  --code-scanning        SARIF is uploaded to Code Scanning (never gzip it)
   --help, -h             Show this help message
 `);
       process.exit(0);
@@ -331,6 +428,14 @@ Options:
       console.log(`    ${tool}: ${count}`);
     }
 
+    // Set output for GitHub Actions: the SARIF actually written
+    if (process.env.GITHUB_OUTPUT) {
+      appendFileSync(
+        process.env.GITHUB_OUTPUT,
+        `sarif_path=${result.sarifPath ?? ""}\n`,
+      );
+    }
+
     // Exit with error code if findings exceed threshold on scheduled runs
     if (process.env.GITHUB_EVENT_NAME === "schedule") {
       const criticalFindings = result.findings.filter(
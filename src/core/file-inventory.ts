@@ -0,0 +1,260 @@
+/**
+ * File Inventory
+ *
+ * One listing of the repository's files, built once at startup and shared by
+ * repo detection, tool selection, the runners' file discovery and the
+ * findings cache, so none of them walk the tree on their own.
+ *
+ * Inside a git repository the listing comes from `git ls-files` (tracked plus
+ * untracked, non-ignored files), which respects .gitignore and supplies
+ * content ids for clean files from the index. Elsewhere the tree is walked in
+ * parallel, skipping the common build and dependency directories. Sizes and
+ * mtimes are read concurrently; content hashes are computed on first use.
+ */
+
+import { createHash } from "node:crypto";
+import { readFileSync } from "node:fs";
+import { readdir, stat } from "node:fs/promises";
+import { extname, join, posix } from "node:path";
+import { COMMON_EXCLUDE_DIRS } from "../tools/exclusions.js";
+import { runProcess } from "../tools/process-runner.js";
+import { mapWithConcurrency } from "../utils/shared.js";
+
+/** Concurrent stat/readdir calls while building the inventory */
+const FS_CONCURRENCY = 64;
+
+// ============================================================================
+// Types
+// ============================================================================
+
+export interface InventoryFile {
+  /** Repo-relative path with forward slashes */
+  path: string;
+  /** Lowercase extension including the dot ("" if none) */
+  extension: string;
+  size: number;
+  mtimeMs: number;
+}
+
+/** Where the file list came from */
+export type InventorySource = "git" | "walk";
+
+// ============================================================================
+// Inventory
+// ============================================================================
+
+export class FileInventory {
+  readonly rootPath: string;
+  readonly source: InventorySource;
+  /** Every file, sorted by path */
+  readonly files: readonly InventoryFile[];
+  private readonly byPath: Map<string, InventoryFile>;
+  /** Content ids computed so far, seeded with git's blob ids for clean files */
+  private readonly hashes: Map<string, string>;
+  private byExtension: Map<string, InventoryFile[]> | undefined;
+
+  private constructor(
+    rootPath: string,
+    source: InventorySource,
+    files: InventoryFile[],
+    blobIds: Map<string, string>,
+  ) {
+    this.rootPath = rootPath;
+    this.source = source;
+    this.files = files.sort((a, b) => (a.path < b.path ? -1 : a.path > b.path ? 1 : 0));
+    this.byPath = new Map(files.map((file) => [file.path, file]));
+    this.hashes = blobIds;
+  }
+
+  /**
+   * Build the inventory for a repository.
+   */
+  static async build(rootPath: string): Promise<FileInventory> {
+    const listing = await listGitFiles(rootPath);
+    const paths = listing ? [...listing.paths] : await walkFiles(rootPath);
+
+    const files = (
+      await mapWithConcurrency(paths, FS_CONCURRENCY, async (path) => {
+        try {
+          const stats = await stat(join(rootPath, path));
+          if (!stats.isFile()) return null;
+          return {
+            path,
+            extension: extname(path).toLowerCase(),
+            size: stats.size,
+            mtimeMs: stats.mtimeMs,
+          };
+        } catch {
+          // Deleted from the working tree, or a dangling symlink
+          return null;
+        }
+      })
+    ).filter((file): file is InventoryFile => file !== null);
+
+    return new FileInventory(
+      rootPath,
+      listing ? "git" : "walk",
+      files,
+      listing?.blobIds ?? new Map(),
+    );
+  }
+
+  get size(): number {
+    return this.files.length;
+  }
+
+  get(path: string): InventoryFile | undefined {
+    return this.byPath.get(path);
+  }
+
+  /**
+   * Files with any of the given extensions (".java", ".py"), in path order.
+   */
+  withExtension(...extensions: string[]): InventoryFile[] {
+    if (!this.byExtension) {
+      this.byExtension = new Map();
+      for (const file of this.files) {
+        const group = this.byExtension.get(file.extension);
+        if (group) group.push(file);
+        else this.byExtension.set(file.extension, [file]);
+      }
+    }
+    if (extensions.length === 1) {
+      return this.byExtension.get(extensions[0]) ?? [];
+    }
+    return this.files.filter((file) => extensions.includes(file.extension));
+  }
+
+  /**
+   * Files with the given base name (e.g. "Cargo.toml"), in path order.
+   */
+  named(fileName: string): InventoryFile[] {
+    return this.withExtension(extname(fileName).toLowerCase()).filter(
+      (file) => posix.basename(file.path) === fileName,
+    );
+  }
+
+  /**
+   * True if any file lives under the given repo-relative directory.
+   */
+  hasFilesUnder(dir: string): boolean {
+    const prefix = dir === "." || dir === "" ? "" : `${dir.replace(/\/+$/, "")}/`;
+    // Paths are sorted, so the first path >= prefix decides
+    let low = 0;
+    let high = this.files.length;
+    while (low < high) {
+      const mid = (low + high) >>> 1;
+      if (this.files[mid].path < prefix) low = mid + 1;
+      else high = mid;
+    }
+    return low < this.files.length && this.files[low].path.startsWith(prefix);
+  }
+
+  /**
+   * Content id of a file: its git blob id, computed on first use for files
+   * that are modified or not in git's index. Returns null for unknown or
+   * unreadable files.
+   */
+  contentHash(path: string): string | null {
+    const known = this.hashes.get(path);
+    if (known !== undefined) return known;
+    if (!this.byPath.has(path)) return null;
+
+    try {
+      const hash = gitBlobId(readFileSync(join(this.rootPath, path)));
+      this.hashes.set(path, hash);
+      return hash;
+    } catch {
+      return null;
+    }
+  }
+}
+
+// ============================================================================
+// Listing
+// ============================================================================
+
+/**
+ * List files from git: the index plus untracked, non-ignored files.
+ * Returns null outside a git repository.
+ */
+async function listGitFiles(
+  rootPath: string,
+): Promise<{ paths: Set<string>; blobIds: Map<string, string> } | null> {
+  const [staged, untracked, modified] = await Promise.all([
+    runProcess("git", ["ls-files", "-s", "-z"], { cwd: rootPath }),
+    runProcess("git", ["ls-files", "-z", "--others", "--exclude-standard"], {
+      cwd: rootPath,
+    }),
+    runProcess("git", ["ls-files", "-z", "--modified"], { cwd: rootPath }),
+  ]);
+  if (staged.status !== 0) return null;
+
+  const paths = new Set<string>();
+  const blobIds = new Map<string, string>();
+  for (const record of staged.stdout.split("\0")) {
+    // <mode> <blob> <stage>\t<path>
+    const tab = record.indexOf("\t");
+    if (tab === -1) continue;
+    const [mode, blob] = record.substring(0, tab).split(" ");
+    // Submodules (gitlinks) are directories, not files
+    if (mode === "160000") continue;
+    const path = record.substring(tab + 1);
+    paths.add(path);
+    blobIds.set(path, blob);
+  }
+
+  for (const path of untracked.stdout.split("\0")) {
+    if (path) paths.add(path);
+  }
+  // The index does not reflect unstaged edits: hash those on demand
+  for (const path of modified.stdout.split("\0")) {
+    if (path) blobIds.delete(path);
+  }
+
+  return { paths, blobIds };
+}
+
+/**
+ * Walk the tree level by level with bounded concurrency, skipping the
+ * common build and dependency directories.
+ */
+async function walkFiles(rootPath: string): Promise<string[]> {
+  const files: string[] = [];
+  let level = [""];
+
+  while (level.length > 0) {
+    const listings = await mapWithConcurrency(level, FS_CONCURRENCY, async (dir) => {
+      try {
+        return { dir, entries: await readdir(join(rootPath, dir), { withFileTypes: true }) };
+      } catch {
+        return { dir, entries: [] };
+      }
+    });
+
+    level = [];
+    for (const { dir, entries } of listings) {
+      for (const entry of entries) {
+        const path = dir ? `${dir}/${entry.name}` : entry.name;
+        if (entry.isDirectory()) {
+          if (!COMMON_EXCLUDE_DIRS.includes(entry.name)) level.push(path);
+        } else if (entry.isFile() || entry.isSymbolicLink()) {
+          files.push(path);
+        }
+      }
+    }
+  }
+
+  return files;
+}
+
+/**
+ * Git's blob id for some content, so hashed files and index entries share
+ * one id space.
+ */
+function gitBlobId(content: Buffer): string {
+  return createHash("sha1")
+    .update(`blob ${content.length}\0`)
+    .update(content)
+    .digest("hex");
+}
@@ -7,33 +7,24 @@
  * Reference: vibeCheck_spec.md section 5.3
  */
 
-import { existsSync, readdirSync, readFileSync } from "node:fs";
+import { existsSync, readFileSync } from "node:fs";
 import { readdir } from "node:fs/promises";
 import { join, resolve } from "node:path";
+import { shouldExcludePath } from "../tools/exclusions.js";
+import { FileInventory } from "./file-inventory.js";
 import type { Language, PackageManager, RepoProfile } from "./types.js";
 
 /**
- * Check if any files with a given extension exist in common directories.
+ * Check if any source files with a given extension exist in the repo,
+ * outside build output and dependency directories.
  */
 function hasFilesWithExtension(
-  rootPath: string,
+  inventory: FileInventory,
   extension: string,
-  dirs: string[],
 ): boolean {
-  for (const dir of dirs) {
-    const dirPath = join(rootPath, dir);
-    if (existsSync(dirPath)) {
-      try {
-        const files = readdirSync(dirPath);
-        if (files.some((f) => f.endsWith(extension))) {
-          return true;
-        }
-      } catch {
-        // ignore
-      }
-    }
-  }
-  return false;
+  return inventory
+    .withExtension(extension)
+    .some((file) => !shouldExcludePath(file.path));
 }
 
 /**
@@ -55,7 +46,10 @@ function detectPackageManager(rootPath: string): PackageManager {
 /**
  * Detect programming languages present in the repo
  */
-async function detectLanguages(rootPath: string): Promise<Language[]> {
+async function detectLanguages(
+  rootPath: string,
+  inventory: FileInventory,
+): Promise<Language[]> {
   const languages: Language[] = [];
 
   // TypeScript detection
@@ -94,15 +88,8 @@ async function detectLanguages(rootPath: string): Promise<Language[]> {
     existsSync(join(rootPath, "requirements.txt")) ||
     existsSync(join(rootPath, "Pipfile"));
 
-  // Also check for .py files in common directories (including test-fixtures for demo)
-  const hasPythonFiles = hasFilesWithExtension(rootPath, ".py", [
-    "src",
-    "lib",
-    "app",
-    "scripts",
-    "test-fixtures",
-    ".",
-  ]);
+  // Also check for .py files anywhere in the repo (including test-fixtures for demo)
+  const hasPythonFiles = hasFilesWithExtension(inventory, ".py");
 
   if (hasPythonProject || hasPythonFiles) {
     languages.push("python");
@@ -119,15 +106,8 @@ async function detectLanguages(rootPath: string): Promise<Language[]> {
   // Rust detection - check for project files or .rs files in key directories
   const hasRustProject = existsSync(join(rootPath, "Cargo.toml"));
 
-  // Also check for .rs files in common directories (including test-fixtures for demo)
-  const hasRustFiles = hasFilesWithExtension(rootPath, ".rs", [
-    "src",
-    "lib",
-    "bin",
-    "examples",
-    "test-fixtures",
-    ".",
-  ]);
+  // Also check for .rs files anywhere in the repo (including test-fixtures for demo)
+  const hasRustFiles = hasFilesWithExtension(inventory, ".rs");
 
   if (hasRustProject || hasRustFiles) {
     languages.push("rust");
@@ -139,14 +119,8 @@ async function detectLanguages(rootPath: string): Promise<Language[]> {
     existsSync(join(rootPath, "build.gradle")) ||
     existsSync(join(rootPath, "build.gradle.kts"));
 
-  // Also check for .java files in common directories (including test-fixtures for demo)
-  const hasJavaFiles = hasFilesWithExtension(rootPath, ".java", [
-    "src",
-    "lib",
-    "app",
-    "test-fixtures",
-    ".",
-  ]);
+  // Also check for .java files anywhere in the repo (including test-fixtures for demo)
+  const hasJavaFiles = hasFilesWithExtension(inventory, ".java");
 
   if (hasJavaProject || hasJavaFiles) {
     languages.push("java");
@@ -450,14 +424,17 @@ function detectToolConfigs(rootPath: string): {
 }
 
 /**
- * Main detection function - builds complete RepoProfile
+ * Main detection function - builds complete RepoProfile.
+ * Pass the run's file inventory to avoid listing the repo again.
  */
 export async function detectRepo(
   rootPath: string = process.cwd(),
+  inventory?: FileInventory,
 ): Promise<RepoProfile> {
   const resolvedPath = resolve(rootPath);
+  const files = inventory ?? (await FileInventory.build(resolvedPath));
 
-  const languages = await detectLanguages(resolvedPath);
+  const languages = await detectLanguages(resolvedPath, files);
   const packageManager = detectPackageManager(resolvedPath);
   const { isMonorepo, workspacePackages } = await detectMonorepo(resolvedPath);
   const toolConfigs = detectToolConfigs(resolvedPath);
@@ -62,6 +62,10 @@ interface SemgrepConfig extends ToolConfig {
   rules_path?: string;
 }
 
+interface TrunkToolConfig extends ToolConfig {
+  incremental?: boolean; // Only check files changed since the last run
+}
+
 // Python tool configs
 interface RuffConfig extends ToolConfig {
   config_path?: string;
@@ -84,12 +88,14 @@ interface BanditConfig extends ToolConfig {
 interface PmdConfig extends ToolConfig {
   config_path?: string;
   rulesets?: string[]; // PMD rulesets to use
+  incremental?: boolean; // Only analyze files changed since the last run
 }
 
 interface SpotBugsConfig extends ToolConfig {
   config_path?: string;
   effort?: "min" | "default" | "max";
   threshold?: "low" | "medium" | "high";
+  incremental?: boolean; // Only analyze classes compiled from changed files
 }
 
 // Rust tool configs
@@ -116,6 +122,7 @@ export interface ToolsConfig {
   dependency_cruiser?: DependencyCruiserConfig;
   knip?: KnipConfig;
   semgrep?: SemgrepConfig;
+  trunk?: TrunkToolConfig;
   // Python tools
   ruff?: RuffConfig;
   mypy?: MypyConfig;
@@ -149,10 +156,14 @@ export interface IssuesConfig {
   close_resolved: boolean;
   assignees?: string[];
   project?: string | null;
+  /** GitHub API used to fetch and reconcile issues (default: graphql) */
+  api?: "graphql" | "rest";
 }
 
 export interface OutputConfig {
   sarif: boolean;
+  /** Write SARIF gzip-compressed (.sarif.gz) */
+  sarif_gzip?: boolean;
   llm_json: boolean;
   artifact_retention_days: number;
 }
@@ -162,14 +173,36 @@ export interface LlmConfig {
   pr_branch_prefix: string;
 }
 
+export interface ExecutionConfig {
+  /** Max analysis tools running at once (default: available cores) */
+  concurrency?: number;
+  /** Reuse a class-data-sharing archive for JVM tools (default: true) */
+  jvm_class_cache?: boolean;
+  /** Time limit per tool in minutes; its processes are killed (default: 60) */
+  tool_timeout_minutes?: number;
+  /** Per-tool overrides of tool_timeout_minutes */
+  tool_timeouts?: Partial<Record<ToolName, number>>;
+}
+
+export interface CacheConfig {
+  /** Replay findings for tools whose inputs are unchanged (default: true) */
+  enabled?: boolean;
+  /** Size bound for .vibecheck-output/cache; LRU entries are evicted beyond it */
+  max_size_mb?: number;
+}
+
 export interface VibeCopConfig {
   version: number;
+  /** Extra paths never analyzed, in .gitignore syntax */
+  exclude?: string[];
   schedule?: ScheduleConfig;
   trunk?: TrunkConfig;
   tools?: ToolsConfig;
   issues?: IssuesConfig;
   output?: OutputConfig;
   llm?: LlmConfig;
+  execution?: ExecutionConfig;
+  cache?: CacheConfig;
 }
 
 /**
@@ -185,6 +218,7 @@ export const DEFAULT_CONFIG: VibeCopConfig = {
     confidence_threshold: "low",
     close_resolved: true, // Auto-close issues when findings are resolved
     assignees: [],
+    api: "graphql",
   },
   llm: {
     agent_hint: "codex",
@@ -343,6 +377,8 @@ export interface LlmJsonOutput {
   generatedAt: string;
   profile: Pick<RepoProfile, "isMonorepo" | "languages" | "packageManager">;
   summary: LlmJsonSummary;
+  /** Versions of the external tools that produced the findings */
+  toolVersions?: Record<string, string>;
   findings: Omit<Finding, "rawOutput">[];
 }
 
@@ -357,6 +393,8 @@ export interface SarifMessage {
 interface SarifArtifactLocation {
   uri: string;
   uriBaseId?: string;
+  /** Index into run.artifacts */
+  index?: number;
 }
 
 interface SarifRegion {
@@ -377,6 +415,8 @@ export interface SarifLocation {
 
 export interface SarifResult {
   ruleId: string;
+  /** Index into tool.driver.rules */
+  ruleIndex?: number;
   level: "none" | "note" | "warning" | "error";
   message: SarifMessage;
   locations: SarifLocation[];
@@ -406,6 +446,7 @@ interface SarifToolDriver {
   version?: string;
   informationUri?: string;
   rules?: SarifRule[];
+  properties?: Record<string, unknown>;
 }
 
 export interface SarifTool {
@@ -420,9 +461,17 @@ export interface SarifInvocation {
   workingDirectory?: SarifArtifactLocation;
 }
 
+export interface SarifArtifact {
+  location: SarifArtifactLocation;
+}
+
 export interface SarifRun {
   tool: SarifTool;
   invocations?: SarifInvocation[];
+  /** Files referenced by results (each listed once) */
+  artifacts?: SarifArtifact[];
+  /** Upload category; set when the log is split into several files */
+  automationDetails?: { id: string };
   results: SarifResult[];
 }
 
@@ -449,6 +498,8 @@ export interface ExistingIssue {
   state: "open" | "closed";
   labels: string[];
   metadata?: IssueMetadata;
+  /** GraphQL node ID (set when fetched through the GraphQL API) */
+  nodeId?: string;
 }
 
 export interface IssueCreateParams {
@@ -526,4 +577,6 @@ export interface RunContext {
   runNumber: number;
   workspacePath: string;
   outputDir: string;
+  /** Versions of the external tools that ran, keyed by tool name */
+  toolVersions?: Record<string, string>;
 }
@@ -16,6 +16,8 @@ import {
   extractFingerprintFromBody,
   extractRunMetadata,
 } from "../utils/fingerprints.js";
+import { getHttpCacheDir, installHttpCache } from "./http-cache.js";
+import { RateLimiter } from "./rate-limiter.js";
 
 // ============================================================================
 // Client Initialization
@@ -23,11 +25,21 @@ import {
 
 let octokitInstance: Octokit | null = null;
 
+/** Shared limiter for all issue mutations in this process */
+const rateLimiter = new RateLimiter();
+
+/** API round trips made by this process */
+let requestCount = 0;
+
+/** Conditional-request cache, once enabled for a repository */
+let httpCache: { hits: () => number } | null = null;
+
 /**
- * Get or create Octokit instance.
- * Uses GITHUB_TOKEN from environment.
+ * Get or create the shared Octokit instance.
+ * Uses GITHUB_TOKEN from environment. Every response feeds its rate-limit
+ * headers to the limiter, including reads made outside withRateLimit.
  */
-function getOctokit(): Octokit {
+export function getOctokit(): Octokit {
   if (!octokitInstance) {
     const token = process.env.GITHUB_TOKEN || process.env.GH_TOKEN;
     if (!token) {
@@ -36,16 +48,46 @@ function getOctokit(): Octokit {
       );
     }
     octokitInstance = new Octokit({ auth: token });
+    octokitInstance.hook.after("request", (response) => {
+      requestCount++;
+      rateLimiter.observe(response.headers);
+    });
+    octokitInstance.hook.error("request", (error) => {
+      requestCount++;
+      // 304s (conditional cache hits) and rate-limit errors carry headers too
+      rateLimiter.observe(
+        (error as { response?: { headers?: Record<string, string> } }).response
+          ?.headers,
+      );
+      throw error;
+    });
   }
   return octokitInstance;
 }
 
+/**
+ * Serve unchanged REST listings (labels, and issues with `issues.api: rest`)
+ * from the on-disk ETag cache under the output directory. GraphQL queries
+ * bypass it. Enabled once per process.
+ */
+export function enableHttpCache(
+  outputDir: string,
+  owner: string,
+  repo: string,
+): void {
+  if (httpCache) return;
+  httpCache = installHttpCache(
+    getOctokit(),
+    getHttpCacheDir(outputDir, owner, repo),
+  );
+}
+
 // ============================================================================
 // Issue Search & Fetch
 // ============================================================================
 
 /** GitHub API issue shape (common fields we use) */
-interface GitHubIssueResponse {
+export interface GitHubIssueResponse {
   number: number;
   title: string;
   body: string | null;
@@ -57,7 +99,9 @@ interface GitHubIssueResponse {
 /**
  * Convert a GitHub API issue response to our ExistingIssue type.
  */
-function convertToExistingIssue(issue: GitHubIssueResponse): ExistingIssue {
+export function convertToExistingIssue(
+  issue: GitHubIssueResponse,
+): ExistingIssue {
   const existingIssue: ExistingIssue = {
     number: issue.number,
     title: issue.title,
@@ -409,22 +453,28 @@ export function parseGitHubRepository(): {
 // ============================================================================
 
 /**
- * Simple delay function for rate limiting.
+ * Execute an issue mutation under the shared rate limiter.
+ * Calls may be issued concurrently; the limiter bounds how many run at once,
+ * waits out exhausted quota and retries after secondary rate limits.
  */
-function delay(ms: number): Promise<void> {
-  return new Promise((resolve) => setTimeout(resolve, ms));
+export function withRateLimit<T>(fn: () => Promise<T>): Promise<T> {
+  return rateLimiter.schedule(fn);
 }
 
 /**
- * Execute with rate limit awareness.
- * Adds delays between API calls to avoid hitting rate limits.
- * Default 500ms is safer for GitHub's secondary rate limits on content creation.
+ * API round trips so far, responses replayed from the conditional cache,
+ * time spent waiting on rate limits, and secondary limits received.
  */
-export async function withRateLimit<T>(
-  fn: () => Promise<T>,
-  delayMs: number = 500,
-): Promise<T> {
-  const result = await fn();
-  await delay(delayMs);
-  return result;
+export function getApiStats(): {
+  requests: number;
+  cachedResponses: number;
+  throttledMs: number;
+  secondaryLimits: number;
+} {
+  return {
+    requests: requestCount,
+    cachedResponses: httpCache?.hits() ?? 0,
+    throttledMs: rateLimiter.throttledMs,
+    secondaryLimits: rateLimiter.secondaryLimits,
+  };
 }
@@ -0,0 +1,163 @@
+/**
+ * Conditional Request Cache
+ *
+ * On-disk ETag / Last-Modified cache for GitHub REST GET requests. Each
+ * cached response is replayed when GitHub answers a conditional request
+ * with 304 Not Modified, which does not count against the primary rate
+ * limit. Label listings and REST issue listings therefore cost almost
+ * nothing on runs where nothing changed.
+ *
+ * Entries live under <outputDir>/http-cache/<owner>__<repo>, so CI can
+ * restore them per repository between runs. GraphQL requests (POST) are
+ * never cached: with the default `issues.api: graphql`, the open-issue
+ * listing is a GraphQL query and only the label listing is revalidated.
+ */
+
+import { createHash } from "node:crypto";
+import {
+  existsSync,
+  mkdirSync,
+  readFileSync,
+  renameSync,
+  writeFileSync,
+} from "node:fs";
+import { join } from "node:path";
+import type { Octokit } from "@octokit/rest";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+/** Cache directory inside the output directory */
+const HTTP_CACHE_DIR = "http-cache";
+
+interface CachedResponse {
+  url: string;
+  etag?: string;
+  lastModified?: string;
+  headers: Record<string, string | number | undefined>;
+  data: unknown;
+}
+
+/** Subset of the Octokit request options the cache inspects */
+interface RequestOptions {
+  method: string;
+  url: string;
+  headers: Record<string, string | number | undefined>;
+  [key: string]: unknown;
+}
+
+/** Rate-limit headers taken from the 304 instead of the cached response */
+const FRESH_HEADERS = [
+  "x-ratelimit-limit",
+  "x-ratelimit-remaining",
+  "x-ratelimit-reset",
+  "x-ratelimit-used",
+  "date",
+];
+
+// ============================================================================
+// Cache Keys
+// ============================================================================
+
+/**
+ * Key a request by method, URL template and parameters (not headers, so
+ * the auth token never reaches the disk).
+ */
+function requestKey(options: RequestOptions): string {
+  const params: Record<string, unknown> = {};
+  for (const key of Object.keys(options).sort()) {
+    if (key === "headers" || key === "request" || key === "baseUrl") continue;
+    params[key] = options[key];
+  }
+  return createHash("sha256").update(JSON.stringify(params)).digest("hex");
+}
+
+// ============================================================================
+// Hook
+// ============================================================================
+
+/**
+ * Directory holding a repository's cache entries.
+ */
+export function getHttpCacheDir(
+  outputDir: string,
+  owner: string,
+  repo: string,
+): string {
+  return join(outputDir, HTTP_CACHE_DIR, `${owner}__${repo}`);
+}
+
+/**
+ * Install the conditional-request cache on an Octokit instance.
+ * Returns counters for reporting.
+ */
+export function installHttpCache(
+  octokit: Octokit,
+  cacheDir: string,
+): { hits: () => number } {
+  let hits = 0;
+
+  octokit.hook.wrap("request", async (request, rawOptions) => {
+    const options = rawOptions as unknown as RequestOptions;
+    if (options.method !== "GET") {
+      return request(rawOptions);
+    }
+
+    const entryPath = join(cacheDir, `${requestKey(options)}.json`);
+    let cached: CachedResponse | null = null;
+    if (existsSync(entryPath)) {
+      try {
+        cached = JSON.parse(readFileSync(entryPath, "utf-8")) as CachedResponse;
+      } catch {
+        cached = null;
+      }
+    }
+
+    if (cached) {
+      options.headers = { ...options.headers };
+      if (cached.etag) options.headers["if-none-match"] = cached.etag;
+      if (cached.lastModified) {
+        options.headers["if-modified-since"] = cached.lastModified;
+      }
+    }
+
+    try {
+      const response = await request(rawOptions);
+      const etag = response.headers.etag;
+      const lastModified = response.headers["last-modified"];
+      if (response.status === 200 && (etag || lastModified)) {
+        const entry: CachedResponse = {
+          url: response.url,
+          etag,
+          lastModified,
+          headers: response.headers,
+          data: response.data,
+        };
+        // Write then rename, so a killed run never leaves a torn entry
+        mkdirSync(cacheDir, { recursive: true });
+        writeFileSync(`${entryPath}.tmp`, JSON.stringify(entry));
+        renameSync(`${entryPath}.tmp`, entryPath);
+      }
+      return response;
+    } catch (error) {
+      const { status, response } = error as {
+        status?: number;
+        response?: { headers?: Record<string, string | number | undefined> };
+      };
+      if (status !== 304 || !cached) {
+        throw error;
+      }
+
+      hits++;
+      const headers = { ...cached.headers };
+      for (const name of FRESH_HEADERS) {
+        const value = response?.headers?.[name];
+        if (value !== undefined) headers[name] = value;
+      }
+      return { status: 200, url: cached.url, headers, data: cached.data };
+    }
+  });
+
+  return { hits: () => hits };
+}
@@ -0,0 +1,438 @@
+/**
+ * Issue Gateway
+ *
+ * The API surface processFindings uses to read and reconcile issues. The
+ * GraphQL gateway fetches every vibeCheck/vibeCop issue (bodies and labels
+ * included) in one paginated query, and coalesces updates and closes into
+ * aliased multi-mutation requests, so a run touching hundreds of issues
+ * makes a handful of round trips instead of one per issue. The REST gateway
+ * keeps the previous one-call-per-operation behavior (issues.api: rest).
+ *
+ * Issue creation stays on REST in both: the new issue number is needed
+ * immediately, and REST accepts assignee logins directly.
+ */
+
+import type {
+  ExistingIssue,
+  IssueCreateParams,
+  IssueUpdateParams,
+} from "../core/types.js";
+import {
+  closeIssue as restCloseIssue,
+  convertToExistingIssue,
+  createIssue as restCreateIssue,
+  getOctokit,
+  searchIssuesByLabel,
+  updateIssue as restUpdateIssue,
+  withRateLimit,
+} from "./github.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+/** Issue fields an update may change */
+type IssueChanges = Omit<IssueUpdateParams, "number">;
+
+/** What a mutation needs to address an issue */
+type IssueRef = Pick<ExistingIssue, "number" | "nodeId">;
+
+export interface IssueGateway {
+  /** Open issues carrying any of the labels (deduplicated, PRs excluded) */
+  fetchOpenIssues(labels: string[]): Promise<ExistingIssue[]>;
+  createIssue(params: IssueCreateParams): Promise<number>;
+  updateIssue(issue: IssueRef, changes: IssueChanges): Promise<void>;
+  /** Comment on an issue with the reason, then close it as completed */
+  closeIssue(issue: IssueRef, reason: string): Promise<void>;
+}
+
+// ============================================================================
+// REST Gateway
+// ============================================================================
+
+class RestIssueGateway implements IssueGateway {
+  constructor(
+    private readonly owner: string,
+    private readonly repo: string,
+  ) {}
+
+  async fetchOpenIssues(labels: string[]): Promise<ExistingIssue[]> {
+    // REST label filters are AND-ed, so query each label separately
+    const issues: ExistingIssue[] = [];
+    for (const label of labels) {
+      issues.push(
+        ...(await searchIssuesByLabel(this.owner, this.repo, [label], "open")),
+      );
+    }
+    return dedupeByNumber(issues);
+  }
+
+  createIssue(params: IssueCreateParams): Promise<number> {
+    return withRateLimit(() => restCreateIssue(this.owner, this.repo, params));
+  }
+
+  updateIssue(issue: IssueRef, changes: IssueChanges): Promise<void> {
+    return withRateLimit(() =>
+      restUpdateIssue(this.owner, this.repo, {
+        number: issue.number,
+        ...changes,
+      }),
+    );
+  }
+
+  closeIssue(issue: IssueRef, reason: string): Promise<void> {
+    return withRateLimit(() =>
+      restCloseIssue(this.owner, this.repo, issue.number, reason),
+    );
+  }
+}
+
+// ============================================================================
+// GraphQL Gateway
+// ============================================================================
+
+/** Mutations per request; keeps each request well under GitHub's cost limits */
+const MAX_MUTATIONS_PER_REQUEST = 25;
+
+const ISSUES_QUERY = `
+  query ($owner: String!, $name: String!, $labels: [String!], $cursor: String) {
+    repository(owner: $owner, name: $name) {
+      issues(first: 100, after: $cursor, states: OPEN, labels: $labels) {
+        pageInfo { hasNextPage endCursor }
+        nodes {
+          id
+          number
+          title
+          body
+          state
+          labels(first: 50) { nodes { name } }
+        }
+      }
+    }
+  }
+`;
+
+const LABELS_QUERY = `
+  query ($owner: String!, $name: String!, $cursor: String) {
+    repository(owner: $owner, name: $name) {
+      labels(first: 100, after: $cursor) {
+        pageInfo { hasNextPage endCursor }
+        nodes { id name }
+      }
+    }
+  }
+`;
+
+interface PageInfo {
+  hasNextPage: boolean;
+  endCursor: string | null;
+}
+
+interface IssuesQueryResult {
+  repository: {
+    issues: {
+      pageInfo: PageInfo;
+      nodes: Array<{
+        id: string;
+        number: number;
+        title: string;
+        body: string;
+        state: string;
+        labels: { nodes: Array<{ name: string }> };
+      }>;
+    };
+  };
+}
+
+interface LabelsQueryResult {
+  repository: {
+    labels: {
+      pageInfo: PageInfo;
+      nodes: Array<{ id: string; name: string }>;
+    };
+  };
+}
+
+/** One GraphQL mutation field within a batched request */
+interface MutationCall {
+  field: "updateIssue" | "closeIssue" | "addComment";
+  inputType: "UpdateIssueInput" | "CloseIssueInput" | "AddCommentInput";
+  input: Record<string, unknown>;
+}
+
+/** A caller-visible operation: one or more mutations applied in order */
+interface QueuedOperation {
+  calls: MutationCall[];
+  resolve: () => void;
+  reject: (error: Error) => void;
+}
+
+class GraphQLIssueGateway implements IssueGateway {
+  private readonly rest: RestIssueGateway;
+  private queue: QueuedOperation[] = [];
+  private flushScheduled = false;
+  private labelIds: Promise<Map<string, string>> | null = null;
+
+  constructor(
+    private readonly owner: string,
+    private readonly repo: string,
+  ) {
+    this.rest = new RestIssueGateway(owner, repo);
+  }
+
+  async fetchOpenIssues(labels: string[]): Promise<ExistingIssue[]> {
+    // GraphQL label filters are OR-ed: one query covers every label
+    const octokit = getOctokit();
+    const issues: ExistingIssue[] = [];
+    let cursor: string | null = null;
+
+    do {
+      const result = await octokit.graphql<IssuesQueryResult>(ISSUES_QUERY, {
+        owner: this.owner,
+        name: this.repo,
+        labels,
+        cursor,
+      });
+      const page = result.repository.issues;
+      for (const node of page.nodes) {
+        issues.push({
+          ...convertToExistingIssue({
+            number: node.number,
+            title: node.title,
+            body: node.body,
+            state: node.state.toLowerCase(),
+            labels: node.labels.nodes,
+          }),
+          nodeId: node.id,
+        });
+      }
+      cursor = page.pageInfo.hasNextPage ? page.pageInfo.endCursor : null;
+    } while (cursor);
+
+    return dedupeByNumber(issues);
+  }
+
+  createIssue(params: IssueCreateParams): Promise<number> {
+    return this.rest.createIssue(params);
+  }
+
+  async updateIssue(issue: IssueRef, changes: IssueChanges): Promise<void> {
+    const labelIds = changes.labels
+      ? await this.resolveLabelIds(changes.labels)
+      : undefined;
+
+    // Issues created this run (no node ID) or unknown labels: use REST
+    if (!issue.nodeId || labelIds === null) {
+      return this.rest.updateIssue(issue, changes);
+    }
+
+    return this.enqueue([
+      {
+        field: "updateIssue",
+        inputType: "UpdateIssueInput",
+        input: {
+          id: issue.nodeId,
+          title: changes.title,
+          body: changes.body,
+          labelIds,
+          state: changes.state?.toUpperCase(),
+        },
+      },
+    ]);
+  }
+
+  closeIssue(issue: IssueRef, reason: string): Promise<void> {
+    if (!issue.nodeId) {
+      return this.rest.closeIssue(issue, reason);
+    }
+
+    return this.enqueue([
+      {
+        field: "addComment",
+        inputType: "AddCommentInput",
+        input: { subjectId: issue.nodeId, body: reason },
+      },
+      {
+        field: "closeIssue",
+        inputType: "CloseIssueInput",
+        input: { issueId: issue.nodeId, stateReason: "COMPLETED" },
+      },
+    ]);
+  }
+
+  // --------------------------------------------------------------------------
+  // Labels
+  // --------------------------------------------------------------------------
+
+  /**
+   * Map label names to node IDs, or null if any label does not exist.
+   * The repo's labels are fetched once per run.
+   */
+  private async resolveLabelIds(names: string[]): Promise<string[] | null> {
+    this.labelIds ??= this.fetchLabelIds();
+    const byName = await this.labelIds;
+    const ids: string[] = [];
+    for (const name of names) {
+      const id = byName.get(name.toLowerCase());
+      if (!id) return null;
+      ids.push(id);
+    }
+    return ids;
+  }
+
+  private async fetchLabelIds(): Promise<Map<string, string>> {
+    const octokit = getOctokit();
+    const byName = new Map<string, string>();
+    let cursor: string | null = null;
+
+    do {
+      const result = await octokit.graphql<LabelsQueryResult>(LABELS_QUERY, {
+        owner: this.owner,
+        name: this.repo,
+        cursor,
+      });
+      const page = result.repository.labels;
+      for (const label of page.nodes) {
+        byName.set(label.name.toLowerCase(), label.id);
+      }
+      cursor = page.pageInfo.hasNextPage ? page.pageInfo.endCursor : null;
+    } while (cursor);
+
+    return byName;
+  }
+
+  // --------------------------------------------------------------------------
+  // Batching
+  // --------------------------------------------------------------------------
+
+  /**
+   * Queue an operation. Everything queued in the same tick is sent together;
+   * a full batch is sent immediately.
+   */
+  private enqueue(calls: MutationCall[]): Promise<void> {
+    return new Promise((resolve, reject) => {
+      this.queue.push({ calls, resolve, reject });
+
+      const queuedCalls = this.queue.reduce((n, op) => n + op.calls.length, 0);
+      if (queuedCalls >= MAX_MUTATIONS_PER_REQUEST) {
+        void this.flush();
+      } else if (!this.flushScheduled) {
+        this.flushScheduled = true;
+        setImmediate(() => {
+          this.flushScheduled = false;
+          void this.flush();
+        });
+      }
+    });
+  }
+
+  /**
+   * Send queued operations as aliased mutations, one request per batch.
+   * Operations are never split across requests.
+   */
+  private async flush(): Promise<void> {
+    while (this.queue.length > 0) {
+      const batch: QueuedOperation[] = [];
+      let callCount = 0;
+      while (
+        this.queue.length > 0 &&
+        (batch.length === 0 ||
+          callCount + this.queue[0].calls.length <= MAX_MUTATIONS_PER_REQUEST)
+      ) {
+        const op = this.queue.shift()!;
+        batch.push(op);
+        callCount += op.calls.length;
+      }
+      await this.sendBatch(batch);
+    }
+  }
+
+  private async sendBatch(batch: QueuedOperation[]): Promise<void> {
+    const variables: Record<string, unknown> = {};
+    const declarations: string[] = [];
+    const fields: string[] = [];
+    const aliasesByOp: string[][] = [];
+
+    let index = 0;
+    for (const op of batch) {
+      const aliases: string[] = [];
+      for (const call of op.calls) {
+        const alias = `m${index}`;
+        declarations.push(`$${alias}: ${call.inputType}!`);
+        fields.push(
+          `${alias}: ${call.field}(input: $${alias}) { clientMutationId }`,
+        );
+        variables[alias] = call.input;
+        aliases.push(alias);
+        index++;
+      }
+      aliasesByOp.push(aliases);
+    }
+
+    const document =
+      `mutation (${declarations.join(", ")}) {\n` +
+      `  ${fields.join("\n  ")}\n` +
+      `}`;
+
+    try {
+      await withRateLimit(() => getOctokit().graphql(document, variables));
+      for (const op of batch) op.resolve();
+    } catch (error) {
+      // Partial failure: GraphQL reports errors per alias in `path`
+      const { errors } = error as {
+        errors?: Array<{ path?: unknown[]; message: string }>;
+      };
+      if (!errors) {
+        const failure =
+          error instanceof Error ? error : new Error(String(error));
+        for (const op of batch) op.reject(failure);
+        return;
+      }
+
+      const failed = new Map<string, string>();
+      for (const e of errors) {
+        const alias = e.path?.[0];
+        if (typeof alias === "string") failed.set(alias, e.message);
+      }
+
+      batch.forEach((op, i) => {
+        const failedAlias = aliasesByOp[i].find((alias) => failed.has(alias));
+        // Errors without a path can't be attributed: fail the whole batch
+        if (failedAlias || failed.size === 0) {
+          const message = failedAlias
+            ? failed.get(failedAlias)
+            : errors[0]?.message;
+          op.reject(new Error(`GraphQL mutation failed: ${message}`));
+        } else {
+          op.resolve();
+        }
+      });
+    }
+  }
+}
+
+// ============================================================================
+// Factory
+// ============================================================================
+
+function dedupeByNumber(issues: ExistingIssue[]): ExistingIssue[] {
+  const seen = new Set<number>();
+  return issues.filter((issue) => {
+    if (seen.has(issue.number)) return false;
+    seen.add(issue.number);
+    return true;
+  });
+}
+
+/**
+ * Create the issue gateway for a repository.
+ */
+export function createIssueGateway(
+  owner: string,
+  repo: string,
+  api: "graphql" | "rest" = "graphql",
+): IssueGateway {
+  return api === "rest"
+    ? new RestIssueGateway(owner, repo)
+    : new GraphQLIssueGateway(owner, repo);
+}
@@ -0,0 +1,289 @@
+/**
+ * Issue Index
+ *
+ * Multi-key index over existing issues used to match findings to issues
+ * (fingerprint, tool+rule, rule, normalized title, trunk sublinter) and to
+ * find merged findings that supersede single-rule issues. Every lookup is
+ * O(1) amortized, so reconciliation stays near-linear in issues + findings
+ * instead of scanning keys or findings per item.
+ *
+ * Matching order and tie-breaking are the same as the linear scans this
+ * replaces: within a key, open issues win, then the newest issue.
+ */
+
+import type { ExistingIssue, Finding } from "../core/types.js";
+import { generateIssueTitle } from "../output/issue-formatter.js";
+import { extractSublinter } from "../utils/fingerprints.js";
+import { buildFingerprintMap } from "./github.js";
+
+// ============================================================================
+// Title Helpers
+// ============================================================================
+
+/**
+ * Normalize an issue title for duplicate detection.
+ * Removes occurrence counts and normalizes whitespace.
+ * e.g., "[vibeCheck] Duplicate Code: 22 lines (126 occurrences)" -> "duplicate code: 22 lines"
+ *
+ * @internal Exported for tests
+ */
+export function normalizeIssueTitle(title: string): string {
+  return title
+    .toLowerCase()
+    .replace(/\[vibecheck\]\s*/i, "") // Remove [vibeCheck] prefix
+    .replace(/\s*\(\d+\s*occurrences?\)/gi, "") // Remove occurrence counts
+    .replace(/\s+in\s+\S+$/, "") // Remove "in filename" suffix
+    .replace(/\s+/g, " ") // Normalize whitespace
+    .trim();
+}
+
+/**
+ * Rule IDs distinctive enough to match across tools (trunk vs standalone),
+ * e.g. b105, md001, @typescript-eslint/no-unused-vars, no-unused-vars.
+ */
+function isDistinctiveRuleId(ruleId: string): boolean {
+  return (
+    /^[a-z]+\d+$/.test(ruleId) || ruleId.includes("/") || ruleId.includes("-")
+  );
+}
+
+// ============================================================================
+// Issue Index
+// ============================================================================
+
+export interface IssueMatch {
+  issue: ExistingIssue | undefined;
+  matchedBy: string;
+}
+
+/**
+ * Rank for issues registered before their number is known (created in this
+ * run). Above any real issue number, and increasing in registration order,
+ * so the most recently created issue is the newest, as it will be on GitHub.
+ */
+const PENDING_RANK_BASE = Number.MAX_SAFE_INTEGER / 2;
+
+export class IssueIndex {
+  private readonly byFingerprint: Map<string, ExistingIssue>;
+  /** tool|rule -> issues, best first (insertion order of keys is kept) */
+  private readonly byToolRule = new Map<string, ExistingIssue[]>();
+  private readonly byRule = new Map<string, ExistingIssue[]>();
+  private readonly byTitle = new Map<string, ExistingIssue[]>();
+  /** First tool|rule key matching each sublinter queried so far */
+  private readonly sublinterKeys = new Map<string, string | null>();
+  private readonly ranks = new Map<ExistingIssue, number>();
+  private pendingCount = 0;
+
+  constructor(issues: ExistingIssue[]) {
+    this.byFingerprint = buildFingerprintMap(issues);
+
+    for (const issue of issues) {
+      this.addToBucket(this.byTitle, normalizeIssueTitle(issue.title), issue);
+
+      // Extract tool and rule from issue title
+      const titleMatch = issue.title.match(
+        /\[vibeCheck\]\s+(\w+)(?::\s+(\S+)|[\s(])/i,
+      );
+      const ruleId = titleMatch?.[2]?.toLowerCase();
+      if (titleMatch && ruleId) {
+        const toolOrSublinter = titleMatch[1].toLowerCase();
+        this.addToolRule(`${toolOrSublinter}|${ruleId}`, issue);
+        // Also index by rule only for cross-tool matching (trunk vs standalone)
+        this.addToBucket(this.byRule, ruleId, issue);
+      }
+    }
+  }
+
+  /**
+   * Register an issue created for a finding, so later findings match it.
+   */
+  register(issue: ExistingIssue, finding: Finding): void {
+    this.rank(issue); // fix registration order before any comparison
+    this.byFingerprint.set(finding.fingerprint, issue);
+    this.addToolRule(
+      `${finding.tool.toLowerCase()}|${finding.ruleId.toLowerCase()}`,
+      issue,
+    );
+    this.addToBucket(this.byRule, finding.ruleId.toLowerCase(), issue);
+    this.addToBucket(this.byTitle, normalizeIssueTitle(issue.title), issue);
+  }
+
+  /**
+   * Find the issue for a finding, trying each strategy in order.
+   */
+  match(finding: Finding): IssueMatch {
+    // Strategy 1: Fingerprint (most reliable)
+    const fpMatch = this.byFingerprint.get(finding.fingerprint);
+    if (fpMatch) return { issue: fpMatch, matchedBy: "fingerprint" };
+
+    // Strategy 2: Tool + Rule (exact match)
+    const tool = finding.tool.toLowerCase();
+    const ruleId = finding.ruleId.toLowerCase();
+    const toolRuleKey = `${tool}|${ruleId}`;
+    const toolRuleMatch = this.best(this.byToolRule, toolRuleKey);
+    if (toolRuleMatch) {
+      return { issue: toolRuleMatch, matchedBy: `tool+rule(${toolRuleKey})` };
+    }
+
+    // Strategy 3: Merged rule matching ("TS2578+TS2322" matches either rule)
+    if (ruleId.includes("+")) {
+      for (const rule of ruleId.split("+")) {
+        const match = this.best(this.byToolRule, `${tool}|${rule}`);
+        if (match) return { issue: match, matchedBy: `merged-rule(${rule})` };
+      }
+    }
+
+    // Strategy 4: Rule only (catches trunk vs standalone tool mismatches)
+    if (isDistinctiveRuleId(ruleId)) {
+      const ruleOnlyMatch = this.best(this.byRule, ruleId);
+      if (ruleOnlyMatch) {
+        return { issue: ruleOnlyMatch, matchedBy: `rule-only(${ruleId})` };
+      }
+    }
+
+    // Strategy 5: Normalized title (for legacy issues without fingerprints)
+    const normalizedTitle = normalizeIssueTitle(generateIssueTitle(finding));
+    const titleMatch = this.best(this.byTitle, normalizedTitle);
+    if (titleMatch) {
+      return { issue: titleMatch, matchedBy: `title(${normalizedTitle})` };
+    }
+
+    // Strategy 6: Sublinter matching (for trunk: markdownlint, yamllint, ...)
+    if (tool === "trunk") {
+      const sublinter = extractSublinter(finding);
+      const key = this.findSublinterKey(sublinter);
+      const match = key ? this.best(this.byToolRule, key) : undefined;
+      if (match) return { issue: match, matchedBy: `sublinter(${sublinter})` };
+    }
+
+    return { issue: undefined, matchedBy: "none" };
+  }
+
+  /**
+   * Issues grouped by normalized title (used to close legacy duplicates).
+   */
+  titleGroups(): IterableIterator<[string, ExistingIssue[]]> {
+    return this.byTitle.entries();
+  }
+
+  // --------------------------------------------------------------------------
+  // Buckets
+  // --------------------------------------------------------------------------
+
+  private rank(issue: ExistingIssue): number {
+    let rank = this.ranks.get(issue);
+    if (rank === undefined) {
+      rank = issue.number || PENDING_RANK_BASE + this.pendingCount++;
+      this.ranks.set(issue, rank);
+    }
+    return rank;
+  }
+
+  /**
+   * Insert an issue into a bucket kept sorted newest-first.
+   */
+  private addToBucket(
+    map: Map<string, ExistingIssue[]>,
+    key: string,
+    issue: ExistingIssue,
+  ): void {
+    const bucket = map.get(key);
+    if (!bucket) {
+      map.set(key, [issue]);
+      return;
+    }
+
+    // Ties keep insertion order, like the stable sort this replaces
+    const rank = this.rank(issue);
+    let low = 0;
+    let high = bucket.length;
+    while (low < high) {
+      const mid = (low + high) >>> 1;
+      if (this.rank(bucket[mid]) >= rank) low = mid + 1;
+      else high = mid;
+    }
+    bucket.splice(low, 0, issue);
+  }
+
+  private addToolRule(key: string, issue: ExistingIssue): void {
+    const isNewKey = !this.byToolRule.has(key);
+    this.addToBucket(this.byToolRule, key, issue);
+
+    // A new key may be the first match for a sublinter that had none
+    if (isNewKey) {
+      for (const [sublinter, found] of this.sublinterKeys) {
+        if (found === null && sublinterMatchesKey(sublinter, key)) {
+          this.sublinterKeys.set(sublinter, key);
+        }
+      }
+    }
+  }
+
+  /**
+   * Best issue for a key: the newest open issue, else the newest issue.
+   * Issue state is checked at lookup time, since issues may be closed
+   * after they were indexed.
+   */
+  private best(
+    map: Map<string, ExistingIssue[]>,
+    key: string,
+  ): ExistingIssue | undefined {
+    const bucket = map.get(key);
+    if (!bucket) return undefined;
+    return bucket.find((issue) => issue.state === "open") ?? bucket[0];
+  }
+
+  /**
+   * First tool|rule key (in insertion order) belonging to a sublinter.
+   * Scans keys once per distinct sublinter; later keys update the result.
+   */
+  private findSublinterKey(sublinter: string): string | null {
+    let key = this.sublinterKeys.get(sublinter);
+    if (key === undefined) {
+      key = null;
+      for (const candidate of this.byToolRule.keys()) {
+        if (sublinterMatchesKey(sublinter, candidate)) {
+          key = candidate;
+          break;
+        }
+      }
+      this.sublinterKeys.set(sublinter, key);
+    }
+    return key;
+  }
+}
+
+function sublinterMatchesKey(sublinter: string, key: string): boolean {
+  return key.startsWith(`${sublinter}|`) || key.includes(`|${sublinter}`);
+}
+
+// ============================================================================
+// Merged Findings
+// ============================================================================
+
+/**
+ * Whether a finding groups several rules or occurrences into one issue.
+ */
+function isMergedFinding(finding: Finding): boolean {
+  return (
+    finding.ruleId.includes("+") ||
+    finding.title.includes("issues across") ||
+    finding.title.includes("occurrences)")
+  );
+}
+
+/**
+ * Index merged findings by tool and by trunk sublinter. Each key maps to
+ * the first merged finding (in finding order) for that tool or sublinter.
+ * Any merged finding for a tool supersedes that tool's single-rule issues.
+ */
+export function indexMergedFindings(findings: Finding[]): Map<string, Finding> {
+  const index = new Map<string, Finding>();
+  for (const finding of findings) {
+    if (!isMergedFinding(finding)) continue;
+    for (const key of [finding.tool.toLowerCase(), extractSublinter(finding)]) {
+      if (!index.has(key)) index.set(key, finding);
+    }
+  }
+  return index;
+}
@@ -0,0 +1,629 @@
+/**
+ * Issue Sync Plan
+ *
+ * Splits issue reconciliation into two phases. planIssueSync() is pure: it
+ * turns findings and a snapshot of open issues into a serializable list of
+ * create/update/close/skip actions, each with its reason, without touching
+ * the network. That makes a run's effects reviewable (--plan-only) and the
+ * planner benchmarkable offline.
+ *
+ * applyIssuePlan() executes a plan through an IssueGateway. Every completed
+ * action is appended to a journal next to the plan, so a run that fails
+ * part-way can be resumed (--apply <plan>) without repeating work.
+ */
+
+import { createHash } from "node:crypto";
+import {
+  appendFileSync,
+  existsSync,
+  readFileSync,
+  rmSync,
+  writeFileSync,
+} from "node:fs";
+import { join } from "node:path";
+import {
+  DEFAULT_CONFIG,
+  type ExistingIssue,
+  type Finding,
+  type IssuesConfig,
+  type RunContext,
+  type VibeCopConfig,
+} from "../core/types.js";
+import {
+  detectLanguagesInFindings,
+  generateIssueBody,
+  generateIssueTitle,
+  getLabelsForFinding,
+} from "../output/issue-formatter.js";
+import { compareFindingsForSort, meetsThresholds } from "../scoring.js";
+import { deduplicateFindings } from "../utils/fingerprints.js";
+import {
+  arraysEqual,
+  loadJsonFile,
+  mapWithConcurrency,
+} from "../utils/shared.js";
+import type { IssueGateway } from "./issue-gateway.js";
+import { IssueIndex, indexMergedFindings } from "./issue-index.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+/** Issue settings with defaults applied */
+type ResolvedIssuesConfig = Required<Omit<IssuesConfig, "project">>;
+
+/** An existing issue, as far as applying an action needs to know it */
+interface IssueRef {
+  number: number;
+  nodeId?: string;
+  title: string;
+}
+
+interface CreateAction {
+  id: string;
+  type: "create";
+  reason: string;
+  fingerprint: string;
+  title: string;
+  body: string;
+  labels: string[];
+  assignees: string[];
+}
+
+interface UpdateAction {
+  id: string;
+  type: "update";
+  reason: string;
+  issue: IssueRef;
+  title: string;
+  body: string;
+  labels: string[];
+}
+
+interface CloseAction {
+  id: string;
+  type: "close";
+  reason: string;
+  issue: IssueRef;
+  comment: string;
+}
+
+interface SkipAction {
+  id: string;
+  type: "skip";
+  reason: string;
+  fingerprint: string;
+}
+
+type IssueAction = CreateAction | UpdateAction | CloseAction | SkipAction;
+
+interface IssuePlan {
+  version: 1;
+  /** Digest of the actions; ties a journal to the plan it belongs to */
+  digest: string;
+  generatedAt: string;
+  /** issues.api at planning time, so --apply uses the same gateway */
+  api?: ResolvedIssuesConfig["api"];
+  /** cache.enabled at planning time, so --apply uses the HTTP cache too */
+  httpCache?: boolean;
+  summary: {
+    create: number;
+    update: number;
+    close: number;
+    skip: number;
+    belowThreshold: number;
+    maxReached: number;
+  };
+  actions: IssueAction[];
+}
+
+interface PlanInput {
+  findings: Finding[];
+  /** Open issues at planning time */
+  existingIssues: ExistingIssue[];
+  context: RunContext;
+  config: ResolvedIssuesConfig;
+  /** Timestamp written into issue bodies (default: now) */
+  generatedAt?: string;
+}
+
+const SUPERSEDED_COMMENT = `🔄 This issue has been superseded by a consolidated issue that groups all related findings together.\n\nThe individual findings are now tracked in a single merged issue for better organization.\n\nClosed automatically by vibeCheck.`;
+
+const DUPLICATE_COMMENT = `🔄 This is a duplicate issue. The findings are now tracked in a newer issue.\n\nClosed automatically by vibeCheck.`;
+
+const RESOLVED_COMMENT = `This issue appears to be resolved. The finding was not detected in the latest analysis.\n\nClosed automatically by vibeCheck.`;
+
+// ============================================================================
+// Configuration
+// ============================================================================
+
+/**
+ * Apply DEFAULT_CONFIG to the repo's issue settings.
+ */
+export function resolveIssuesConfig(
+  config: VibeCopConfig,
+): ResolvedIssuesConfig {
+  // Assert non-null since DEFAULT_CONFIG.issues is defined in types.ts
+  const defaults = DEFAULT_CONFIG.issues!;
+  const issues = config.issues;
+  return {
+    enabled: issues?.enabled ?? defaults.enabled,
+    label: issues?.label ?? defaults.label,
+    max_new_per_run: issues?.max_new_per_run ?? defaults.max_new_per_run,
+    severity_threshold: issues?.severity_threshold ?? defaults.severity_threshold,
+    confidence_threshold:
+      issues?.confidence_threshold ?? defaults.confidence_threshold,
+    close_resolved: issues?.close_resolved ?? defaults.close_resolved,
+    assignees: issues?.assignees ?? defaults.assignees ?? [],
+    api: issues?.api ?? defaults.api ?? "graphql",
+  };
+}
+
+// ============================================================================
+// Planning
+// ============================================================================
+
+function toRef(issue: ExistingIssue): IssueRef {
+  return { number: issue.number, nodeId: issue.nodeId, title: issue.title };
+}
+
+/**
+ * Plan the issue changes for a run. Pure: the snapshot is not modified and
+ * no API calls are made.
+ *
+ * Each issue is written at most once. When several findings match the same
+ * issue, the last differing content wins, which is the state the previous
+ * one-call-per-finding loop left behind.
+ */
+export function planIssueSync(input: PlanInput): IssuePlan {
+  const { context, config } = input;
+  const generatedAt = input.generatedAt ?? new Date().toISOString();
+  const actions: IssueAction[] = [];
+
+  // Deduplicate findings, then filter by threshold
+  const uniqueFindings = deduplicateFindings(input.findings);
+  const filteredFindings = uniqueFindings.filter((finding) =>
+    meetsThresholds(
+      finding.severity,
+      finding.confidence,
+      config.severity_threshold,
+      config.confidence_threshold,
+    ),
+  );
+  const belowThreshold = uniqueFindings.length - filteredFindings.length;
+
+  // Sort findings by severity (descending) then confidence (descending)
+  // This ensures high severity/confidence issues are created first when hitting max_new_per_run
+  const actionableFindings = [...filteredFindings].sort(compareFindingsForSort);
+
+  // Detect which languages have findings (for conditional lang: labels)
+  const languagesInRun = detectLanguagesInFindings(actionableFindings);
+
+  // Track which fingerprints we've seen in this run
+  const seenFingerprints = new Set<string>();
+
+  const issueIndex = new IssueIndex(input.existingIssues);
+  const writes = new Map<ExistingIssue, CreateAction | UpdateAction>();
+  let created = 0;
+  let maxReached = 0;
+
+  for (const finding of actionableFindings) {
+    seenFingerprints.add(finding.fingerprint);
+
+    const { issue, matchedBy } = issueIndex.match(finding);
+
+    if (!issue) {
+      // No existing issue found - create new one (respect max cap)
+      if (created >= config.max_new_per_run) {
+        maxReached++;
+        actions.push({
+          id: `skip:${finding.fingerprint}`,
+          type: "skip",
+          reason: `max_new_per_run (${config.max_new_per_run}) reached`,
+          fingerprint: finding.fingerprint,
+        });
+        continue;
+      }
+
+      const title = generateIssueTitle(finding);
+      const body = generateIssueBody(finding, context, generatedAt);
+      const labels = getLabelsForFinding(finding, config.label, languagesInRun);
+
+      // Register the planned issue so subsequent findings won't create duplicates
+      const newIssue: ExistingIssue = {
+        number: 0,
+        title,
+        body,
+        state: "open",
+        labels,
+        metadata: {
+          fingerprint: finding.fingerprint,
+          lastSeenRun: context.runNumber,
+          consecutiveMisses: 0,
+        },
+      };
+      issueIndex.register(newIssue, finding);
+
+      const action: CreateAction = {
+        id: `create:${finding.fingerprint}`,
+        type: "create",
+        reason: "no matching open issue",
+        fingerprint: finding.fingerprint,
+        title,
+        body,
+        labels,
+        assignees: config.assignees,
+      };
+      writes.set(newIssue, action);
+      actions.push(action);
+      created++;
+      continue;
+    }
+
+    // Mark the issue's fingerprint as seen
+    if (issue.metadata?.fingerprint) {
+      seenFingerprints.add(issue.metadata.fingerprint);
+    }
+
+    const title = generateIssueTitle(finding);
+    const body = generateIssueBody(finding, context, generatedAt);
+    const labels = getLabelsForFinding(finding, config.label, languagesInRun);
+
+    // Skip update if content hasn't changed (avoid unnecessary API calls)
+    const labelsMatch = arraysEqual(
+      [...(issue.labels || [])].sort(),
+      [...labels].sort(),
+    );
+    if (issue.title === title && issue.body === body && labelsMatch) {
+      actions.push({
+        id: `skip:${finding.fingerprint}`,
+        type: "skip",
+        reason: `no changes (matched by ${matchedBy})`,
+        fingerprint: finding.fingerprint,
+      });
+      continue;
+    }
+
+    const reason = `matched by ${matchedBy}`;
+    const pending = writes.get(issue);
+    if (pending) {
+      Object.assign(pending, { title, body, labels });
+      if (pending.type === "update") pending.reason = reason;
+      continue;
+    }
+
+    const action: UpdateAction = {
+      id: `update:#${issue.number}`,
+      type: "update",
+      reason,
+      issue: toRef(issue),
+      title,
+      body,
+      labels,
+    };
+    writes.set(issue, action);
+    actions.push(action);
+  }
+
+  actions.push(
+    ...planCloses(
+      input.existingIssues,
+      actionableFindings,
+      issueIndex,
+      seenFingerprints,
+      config.close_resolved,
+    ),
+  );
+
+  const count = (type: IssueAction["type"]) =>
+    actions.filter((action) => action.type === type).length;
+
+  return {
+    version: 1,
+    digest: createHash("sha256")
+      .update(JSON.stringify(actions))
+      .digest("hex")
+      .slice(0, 16),
+    generatedAt,
+    api: config.api,
+    httpCache: context.config.cache?.enabled !== false,
+    summary: {
+      create: count("create"),
+      update: count("update"),
+      close: count("close"),
+      skip: count("skip"),
+      belowThreshold,
+      maxReached,
+    },
+    actions,
+  };
+}
+
+/**
+ * Plan closes: resolved issues and issues superseded by merged findings
+ * (when close_resolved is set), then pre-existing duplicates (always, to
+ * clean up legacy duplicates). An issue is closed once, for the first
+ * reason that applies.
+ */
+function planCloses(
+  existingIssues: ExistingIssue[],
+  findings: Finding[],
+  issueIndex: IssueIndex,
+  seenFingerprints: Set<string>,
+  closeResolved: boolean,
+): CloseAction[] {
+  const closes: CloseAction[] = [];
+  const closing = new Set<number>();
+  const close = (issue: ExistingIssue, reason: string, comment: string) => {
+    if (closing.has(issue.number)) return;
+    closing.add(issue.number);
+    closes.push({
+      id: `close:#${issue.number}`,
+      type: "close",
+      reason,
+      issue: toRef(issue),
+      comment,
+    });
+  };
+
+  if (closeResolved) {
+    // Issues whose finding was not detected in this run
+    for (const issue of existingIssues) {
+      const fingerprint = issue.metadata?.fingerprint;
+      if (issue.state !== "open" || !fingerprint) continue;
+      if (seenFingerprints.has(fingerprint)) continue;
+      close(issue, "finding no longer detected", RESOLVED_COMMENT);
+    }
+
+    // Issues superseded by merged findings
+    const mergedFindings = indexMergedFindings(findings);
+    for (const issue of existingIssues) {
+      if (issue.state !== "open") continue;
+      const supersededBy = findSupersedingFinding(
+        issue,
+        mergedFindings,
+        seenFingerprints,
+      );
+      if (supersededBy) {
+        close(
+          issue,
+          `superseded by merged finding: ${supersededBy.title}`,
+          SUPERSEDED_COMMENT,
+        );
+      }
+    }
+  }
+
+  // When multiple open issues share a normalized title, keep only the newest
+  // one (highest issue number) and close the others as duplicates. Issues
+  // planned for creation (number 0) never take part.
+  for (const [normalizedTitle, group] of issueIndex.titleGroups()) {
+    const issues = group.filter((issue) => issue.number > 0);
+    if (issues.length <= 1) continue; // No duplicates
+
+    // Buckets are kept newest first
+    const [keeper, ...duplicates] = issues;
+    for (const dup of duplicates) {
+      close(
+        dup,
+        `duplicate of #${keeper.number} ("${normalizedTitle}")`,
+        DUPLICATE_COMMENT,
+      );
+    }
+  }
+
+  return closes;
+}
+
+/**
+ * The merged finding superseding an existing issue, if any.
+ *
+ * This handles merge strategy changes where:
+ * - Old issues were created with a finer-grained strategy (e.g., same-rule)
+ * - New run uses a coarser strategy (e.g., same-linter or same-tool)
+ * - Result: multiple old issues should be closed in favor of one merged issue
+ *
+ * Also handles:
+ * - Trunk issues being superseded by merged sublinter findings
+ * - Standalone tool issues being superseded by merged findings
+ *
+ * `mergedFindings` comes from indexMergedFindings (tool/sublinter -> first
+ * merged finding).
+ */
+function findSupersedingFinding(
+  issue: ExistingIssue,
+  mergedFindings: Map<string, Finding>,
+  seenFingerprints: Set<string>,
+): Finding | undefined {
+  // If this issue's fingerprint was seen, it's not superseded (it was updated)
+  if (
+    issue.metadata?.fingerprint &&
+    seenFingerprints.has(issue.metadata.fingerprint)
+  ) {
+    return undefined;
+  }
+
+  // Extract tool and rule from the issue title
+  const titleMatch = issue.title.match(/\[vibeCheck\]\s+(\w+)(?::\s+(\S+))?/i);
+  if (!titleMatch) {
+    return undefined;
+  }
+
+  const issueToolOrSublinter = titleMatch[1].toLowerCase();
+  const issueRuleId = titleMatch[2]?.toLowerCase();
+
+  // Check if this looks like a single-rule issue (has a specific rule ID)
+  const isSingleRuleIssue = !!issueRuleId && !issueRuleId.includes("+");
+  if (!isSingleRuleIssue) {
+    return undefined;
+  }
+
+  // Any merged finding for the same tool or sublinter supersedes single-rule
+  // issues, whether or not its merged ruleId names this rule (a same-linter
+  // or same-tool merge represents ALL rules from that tool/linter)
+  return mergedFindings.get(issueToolOrSublinter);
+}
+
+// ============================================================================
+// Plan Files
+// ============================================================================
+
+/**
+ * Where a run's plan is written.
+ */
+export function getIssuePlanPath(outputDir: string): string {
+  return join(outputDir, "issue-plan.json");
+}
+
+export function writeIssuePlan(plan: IssuePlan, path: string): void {
+  writeFileSync(path, JSON.stringify(plan, null, 2));
+}
+
+export function readIssuePlan(path: string): IssuePlan {
+  const plan = loadJsonFile<IssuePlan>(path);
+  if (plan.version !== 1) {
+    throw new Error(`Unsupported issue plan version: ${plan.version}`);
+  }
+  return plan;
+}
+
+// ============================================================================
+// Apply
+// ============================================================================
+
+/** Issue creations in flight at once while applying a plan */
+const CREATE_CONCURRENCY = 3;
+
+interface JournalEntry {
+  digest: string;
+  id: string;
+  /** Issue number, for creates */
+  number?: number;
+}
+
+/**
+ * Read the IDs of actions already applied for this plan. Entries written
+ * for other plans are ignored.
+ */
+function readJournal(path: string, digest: string): Set<string> {
+  const done = new Set<string>();
+  if (!existsSync(path)) return done;
+
+  for (const line of readFileSync(path, "utf-8").split("\n")) {
+    if (!line.trim()) continue;
+    try {
+      const entry = JSON.parse(line) as JournalEntry;
+      if (entry.digest === digest) done.add(entry.id);
+    } catch {
+      // A line torn by a crash: the action is simply applied again
+    }
+  }
+  return done;
+}
+
+/**
+ * Apply a plan: creates and updates first, then closes (so merged issues
+ * exist before the issues they supersede are closed). Within a phase,
+ * creates run CREATE_CONCURRENCY at a time, since GitHub's secondary limits
+ * punish bursts of content creation. Updates and closes all start at once,
+ * so the gateway can batch them into GraphQL mutations.
+ *
+ * Completed actions are journaled at `<plan>.journal`. If any action fails,
+ * the remaining actions of the phase still run, and the error is thrown
+ * afterwards; applying the same plan again skips everything journaled.
+ */
+export async function applyIssuePlan(
+  plan: IssuePlan,
+  gateway: IssueGateway,
+  planPath: string,
+): Promise<void> {
+  const journalPath = `${planPath}.journal`;
+  const done = readJournal(journalPath, plan.digest);
+  if (done.size > 0) {
+    console.log(`Resuming plan: ${done.size} action(s) already applied`);
+  }
+
+  const record = (entry: Omit<JournalEntry, "digest">) => {
+    appendFileSync(
+      journalPath,
+      JSON.stringify({ digest: plan.digest, ...entry }) + "\n",
+    );
+  };
+
+  const applyAction = async (action: IssueAction): Promise<void> => {
+    switch (action.type) {
+      case "create": {
+        const number = await gateway.createIssue({
+          title: action.title,
+          body: action.body,
+          labels: action.labels,
+          assignees: action.assignees,
+        });
+        record({ id: action.id, number });
+        console.log(`Created issue #${number}`);
+        return;
+      }
+      case "update":
+        console.log(
+          `Updating issue #${action.issue.number} (${action.reason})`,
+        );
+        await gateway.updateIssue(action.issue, {
+          title: action.title,
+          body: action.body,
+          labels: action.labels,
+        });
+        record({ id: action.id });
+        return;
+      case "close":
+        console.log(
+          `Closing issue #${action.issue.number} (${action.reason})`,
+        );
+        await gateway.closeIssue(action.issue, action.comment);
+        record({ id: action.id });
+        return;
+      case "skip":
+        return;
+    }
+  };
+
+  const runPhase = async (types: IssueAction["type"][]) => {
+    const pending = plan.actions.filter(
+      (action) => types.includes(action.type) && !done.has(action.id),
+    );
+    const failures: Array<{ action: IssueAction; error: unknown }> = [];
+    const attempt = async (action: IssueAction) => {
+      try {
+        await applyAction(action);
+      } catch (error) {
+        failures.push({ action, error });
+      }
+    };
+
+    await Promise.all([
+      mapWithConcurrency(
+        pending.filter((action) => action.type === "create"),
+        CREATE_CONCURRENCY,
+        attempt,
+      ),
+      Promise.all(
+        pending.filter((action) => action.type !== "create").map(attempt),
+      ),
+    ]);
+
+    for (const { action, error } of failures) {
+      const message = error instanceof Error ? error.message : String(error);
+      console.error(`  Failed: ${action.id}: ${message}`);
+    }
+    if (failures.length > 0) {
+      throw new Error(
+        `${failures.length} issue action(s) failed; resume with --apply ${planPath}`,
+      );
+    }
+  };
+
+  await runPhase(["create", "update"]);
+  await runPhase(["close"]);
+
+  // Fully applied: a later plan with the same digest must run again
+  rmSync(journalPath, { force: true });
+}
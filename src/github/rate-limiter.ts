@@ -0,0 +1,225 @@
+/**
+ * GitHub Rate Limiter
+ *
+ * Schedules issue mutations against the GitHub API. Instead of sleeping a
+ * fixed interval after every call, it spends the primary quota reported by
+ * the `x-ratelimit-*` headers (a token bucket refilled at the reset time)
+ * and only slows down when GitHub signals a secondary rate limit (403/429
+ * with `retry-after`, or a "secondary rate limit" message). After such a
+ * signal it pauses, drops to serial requests at GitHub's documented pace
+ * for content creation, and retries the request.
+ */
+
+// ============================================================================
+// Types
+// ============================================================================
+
+/** Response headers as exposed by Octokit */
+type ResponseHeaders = Record<string, string | number | undefined>;
+
+export interface RateLimiterOptions {
+  /** Mutations in flight at once before any limit is signalled */
+  concurrency?: number;
+  /** Retries of a single request after a rate-limit response */
+  maxRetries?: number;
+}
+
+/** Default number of concurrent mutations */
+const DEFAULT_CONCURRENCY = 4;
+
+/** Default retries per request */
+const DEFAULT_MAX_RETRIES = 3;
+
+/**
+ * Pace after a secondary limit: GitHub allows about 80 content-creating
+ * requests per minute.
+ */
+const SECONDARY_LIMIT_INTERVAL_MS = 750;
+
+/** Wait when a secondary limit arrives without retry-after (GitHub: >= 1 minute) */
+const SECONDARY_LIMIT_BACKOFF_MS = 60_000;
+
+/** Primary quota kept in reserve for reads made outside the limiter */
+const QUOTA_RESERVE = 10;
+
+function sleep(ms: number): Promise<void> {
+  return new Promise((resolve) => setTimeout(resolve, ms));
+}
+
+function readHeader(
+  headers: ResponseHeaders | undefined,
+  name: string,
+): number | null {
+  const value = headers?.[name];
+  if (value === undefined) return null;
+  const parsed = Number(value);
+  return Number.isFinite(parsed) ? parsed : null;
+}
+
+// ============================================================================
+// Rate Limiter
+// ============================================================================
+
+export class RateLimiter {
+  private concurrency: number;
+  private readonly maxRetries: number;
+
+  private active = 0;
+  private readonly waiting: (() => void)[] = [];
+
+  /** Serializes token acquisition so waits are not double-counted */
+  private gate: Promise<void> = Promise.resolve();
+
+  /** Primary quota left, as of the latest response (null until known) */
+  private remaining: number | null = null;
+  /** When the primary quota resets (epoch ms) */
+  private resetAt = 0;
+  /** No request may start before this time (secondary-limit backoff) */
+  private pausedUntil = 0;
+  /** Minimum spacing between request starts (0 until a secondary limit) */
+  private intervalMs = 0;
+  private nextStartAt = 0;
+
+  private throttled = 0;
+  private secondaryLimitHits = 0;
+
+  constructor(options: RateLimiterOptions = {}) {
+    this.concurrency = Math.max(1, options.concurrency ?? DEFAULT_CONCURRENCY);
+    this.maxRetries = options.maxRetries ?? DEFAULT_MAX_RETRIES;
+  }
+
+  /** Total time requests were held back by the limiter */
+  get throttledMs(): number {
+    return this.throttled;
+  }
+
+  /** Number of secondary rate-limit responses received */
+  get secondaryLimits(): number {
+    return this.secondaryLimitHits;
+  }
+
+  /**
+   * Record the rate-limit headers of any GitHub response.
+   */
+  observe(headers: ResponseHeaders | undefined): void {
+    const remaining = readHeader(headers, "x-ratelimit-remaining");
+    const reset = readHeader(headers, "x-ratelimit-reset");
+    if (remaining !== null) this.remaining = remaining;
+    if (reset !== null) this.resetAt = reset * 1000;
+  }
+
+  /**
+   * Run a request under the limiter, retrying it after rate-limit responses.
+   */
+  async schedule<T>(fn: () => Promise<T>): Promise<T> {
+    await this.acquireSlot();
+    try {
+      for (let attempt = 0; ; attempt++) {
+        await this.acquireToken();
+        try {
+          return await fn();
+        } catch (error) {
+          const waitMs = this.getRateLimitWait(error, attempt);
+          if (waitMs === null || attempt >= this.maxRetries) {
+            throw error;
+          }
+          console.warn(
+            `  GitHub rate limit hit, retrying in ${Math.ceil(waitMs / 1000)}s`,
+          );
+          this.pausedUntil = Math.max(this.pausedUntil, Date.now() + waitMs);
+        }
+      }
+    } finally {
+      this.releaseSlot();
+    }
+  }
+
+  // --------------------------------------------------------------------------
+  // Concurrency
+  // --------------------------------------------------------------------------
+
+  private acquireSlot(): Promise<void> {
+    if (this.active < this.concurrency) {
+      this.active++;
+      return Promise.resolve();
+    }
+    return new Promise((resolve) => this.waiting.push(resolve));
+  }
+
+  private releaseSlot(): void {
+    this.active--;
+    while (this.active < this.concurrency && this.waiting.length > 0) {
+      this.active++;
+      this.waiting.shift()!();
+    }
+  }
+
+  // --------------------------------------------------------------------------
+  // Tokens
+  // --------------------------------------------------------------------------
+
+  /**
+   * Wait until a request may start: after any backoff, at the current pace,
+   * and only while primary quota is left (otherwise until it resets).
+   */
+  private acquireToken(): Promise<void> {
+    const turn = this.gate.then(async () => {
+      const now = Date.now();
+      let startAt = Math.max(now, this.pausedUntil, this.nextStartAt);
+      if (
+        this.remaining !== null &&
+        this.remaining <= QUOTA_RESERVE &&
+        this.resetAt > startAt
+      ) {
+        startAt = this.resetAt;
+      }
+
+      if (startAt > now) {
+        this.throttled += startAt - now;
+        await sleep(startAt - now);
+      }
+
+      this.nextStartAt = Date.now() + this.intervalMs;
+      if (this.remaining !== null) this.remaining--;
+    });
+    this.gate = turn;
+    return turn;
+  }
+
+  /**
+   * How long to wait before retrying after an error, or null if the error
+   * is not a rate limit. Secondary limits also switch to serial, paced
+   * requests for the rest of the run.
+   */
+  private getRateLimitWait(error: unknown, attempt: number): number | null {
+    const { status, response, message } = error as {
+      status?: number;
+      response?: { headers?: ResponseHeaders };
+      message?: string;
+    };
+    if (status !== 403 && status !== 429) return null;
+
+    const headers = response?.headers;
+    this.observe(headers);
+
+    const retryAfter = readHeader(headers, "retry-after");
+    const isSecondary =
+      retryAfter !== null || /secondary rate limit|abuse/i.test(message ?? "");
+
+    if (isSecondary) {
+      this.secondaryLimitHits++;
+      this.concurrency = 1;
+      this.intervalMs = SECONDARY_LIMIT_INTERVAL_MS;
+      return retryAfter !== null
+        ? retryAfter * 1000
+        : SECONDARY_LIMIT_BACKOFF_MS * 2 ** attempt;
+    }
+
+    // Primary quota exhausted: wait for the reset
+    if (readHeader(headers, "x-ratelimit-remaining") === 0) {
+      return Math.max(0, this.resetAt - Date.now());
+    }
+
+    return null;
+  }
+}
@@ -143,6 +143,7 @@ export function buildLlmJson(
       severityThreshold,
       confidenceThreshold,
     ),
+    toolVersions: context.toolVersions,
     findings: enrichedFindings,
   };
 }
@@ -159,7 +160,7 @@ export function writeLlmJsonFile(output: LlmJsonOutput, path: string): void {
  */
 async function main() {
   const args = process.argv.slice(2);
-  const findingsPath = args[0] || "findings.json";
+  const findingsPath = args[0] || "findings.ndjson";
   const outputPath = args[1] || "results.llm.json";
   const contextPath = args[2] || "context.json";
 
@@ -3,15 +3,39 @@
  *
  * Converts internal Finding[] model to SARIF 2.1.0 format.
  *
+ * Results reference their rule by `ruleIndex` and their files through the
+ * run's `artifacts` table. writeSarif() streams results to disk one at a
+ * time (optionally gzipped), so the full log is never held in memory, and
+ * splits it into one file per upload category when it would exceed GitHub's
+ * code scanning limits.
+ *
  * Reference: vibeCheck_spec.md section 6.1
  */
 
-import { existsSync, readFileSync, writeFileSync } from "node:fs";
+import { once } from "node:events";
+import {
+  createWriteStream,
+  existsSync,
+  mkdirSync,
+  readFileSync,
+  rmSync,
+  writeFileSync,
+} from "node:fs";
+import { dirname, join } from "node:path";
+import type { Writable } from "node:stream";
+import { finished } from "node:stream/promises";
+import { createGzip } from "node:zlib";
 import { loadFindingsAndContext } from "../utils/cli-utils.js";
-import { severityToSarifLevel, groupBy } from "../utils/shared.js";
+import {
+  severityToSarifLevel,
+  groupBy,
+  stableBucket,
+} from "../utils/shared.js";
+import { definePathForm } from "../utils/symbol-table.js";
 import type {
   Finding,
   RunContext,
+  SarifArtifact,
   SarifLog,
   SarifResult,
   SarifRule,
@@ -21,22 +45,51 @@ import type {
 const SARIF_SCHEMA =
   "https://raw.githubusercontent.com/oasis-tcs/sarif-spec/master/Schemata/sarif-schema-2.1.0.json";
 
+/** GitHub code scanning accepts at most this many results per run */
+const MAX_RESULTS_PER_RUN = 25_000;
+
+/** GitHub code scanning accepts at most this many runs per file */
+const MAX_RUNS_PER_FILE = 20;
+
 /**
- * Group findings by tool for separate SARIF runs.
+ * Uncompressed size budget per file. GitHub caps uploads at 10 MB gzipped;
+ * compact SARIF compresses well beyond 10:1, so this leaves headroom.
  */
-function groupFindingsByTool(findings: Finding[]): Map<string, Finding[]> {
-  return groupBy(findings, (f) => f.tool);
+const MAX_FILE_BYTES = 100 * 1024 * 1024;
+
+/** Category prefix for split files (matches the upload step's category) */
+const SARIF_CATEGORY = "vibeCheck";
+
+// ============================================================================
+// Run Tables
+// ============================================================================
+
+/** Rules and artifacts of one run; results point into them by index */
+interface RunTables {
+  rules: SarifRule[];
+  ruleIndex: Map<string, number>;
+  artifacts: SarifArtifact[];
+  artifactIndex: Map<string, number>;
 }
 
+/** SARIF URIs use forward slashes; memoized per distinct path */
+const normalizeUri = definePathForm((path) => path.replace(/\\/g, "/"));
+
 /**
- * Extract unique rules from findings.
+ * Collect the unique rules and files of a run's findings.
  */
-function extractRules(findings: Finding[]): SarifRule[] {
-  const ruleMap = new Map<string, SarifRule>();
+function buildRunTables(findings: Finding[]): RunTables {
+  const tables: RunTables = {
+    rules: [],
+    ruleIndex: new Map(),
+    artifacts: [],
+    artifactIndex: new Map(),
+  };
 
   for (const finding of findings) {
-    if (!ruleMap.has(finding.ruleId)) {
-      ruleMap.set(finding.ruleId, {
+    if (!tables.ruleIndex.has(finding.ruleId)) {
+      tables.ruleIndex.set(finding.ruleId, tables.rules.length);
+      tables.rules.push({
         id: finding.ruleId,
         name: finding.ruleId,
         shortDescription: { text: finding.title },
@@ -49,33 +102,48 @@ function extractRules(findings: Finding[]): SarifRule[] {
         },
       });
     }
+
+    for (const loc of finding.locations) {
+      const uri = normalizeUri(loc.path);
+      if (!tables.artifactIndex.has(uri)) {
+        tables.artifactIndex.set(uri, tables.artifacts.length);
+        tables.artifacts.push({ location: { uri, uriBaseId: "%SRCROOT%" } });
+      }
+    }
   }
 
-  return Array.from(ruleMap.values());
+  return tables;
 }
 
 /**
  * Convert a Finding to a SARIF Result.
+ *
+ * The URI stays on each location (GitHub code scanning requires it); its
+ * base ID and the finding's issue labels are not repeated per result.
  */
-function findingToSarifResult(finding: Finding): SarifResult {
+function findingToSarifResult(
+  finding: Finding,
+  tables: RunTables,
+): SarifResult {
   return {
     ruleId: finding.ruleId,
+    ruleIndex: tables.ruleIndex.get(finding.ruleId),
     level: severityToSarifLevel(finding.severity),
     message: { text: finding.message },
-    locations: finding.locations.map((loc) => ({
-      physicalLocation: {
-        artifactLocation: {
-          uri: loc.path.replace(/\\/g, "/"),
-          uriBaseId: "%SRCROOT%",
-        },
-        region: {
-          startLine: Number(loc.startLine) || 1,
-          startColumn: Number(loc.startColumn) || 1,
-          endLine: Number(loc.endLine) || Number(loc.startLine) || 1,
-          endColumn: Number(loc.endColumn) || 1,
+    locations: finding.locations.map((loc) => {
+      const uri = normalizeUri(loc.path);
+      return {
+        physicalLocation: {
+          artifactLocation: { uri, index: tables.artifactIndex.get(uri) },
+          region: {
+            startLine: Number(loc.startLine) || 1,
+            startColumn: Number(loc.startColumn) || 1,
+            endLine: Number(loc.endLine) || Number(loc.startLine) || 1,
+            endColumn: Number(loc.endColumn) || 1,
+          },
         },
-      },
-    })),
+      };
+    }),
     fingerprints: {
       vibeCheckFingerprint: finding.fingerprint,
     },
@@ -83,29 +151,46 @@ function findingToSarifResult(finding: Finding): SarifResult {
       confidence: finding.confidence,
       autofix: finding.autofix,
       layer: finding.layer,
-      labels: finding.labels,
     },
   };
 }
 
+// ============================================================================
+// Runs
+// ============================================================================
+
+/** A run of one tool's findings (or a slice of them, when split) */
+interface RunSpec {
+  toolName: string;
+  findings: Finding[];
+  /** Upload category, for runs written to their own file */
+  category?: string;
+}
+
+/** A SARIF file to write and its runs */
+interface PlannedFile {
+  path: string;
+  runs: RunSpec[];
+}
+
 /**
- * Build a SARIF run for a specific tool.
+ * Build a SARIF run without its results.
  */
-function buildSarifRun(
-  toolName: string,
-  findings: Finding[],
+function buildRunHeader(
+  spec: RunSpec,
+  tables: RunTables,
   context: RunContext,
-): SarifRun {
-  const rules = extractRules(findings);
-  const results = findings.map(findingToSarifResult);
+): Omit<SarifRun, "results"> {
+  const toolVersion = context.toolVersions?.[spec.toolName];
 
   return {
     tool: {
       driver: {
-        name: `vibeCheck/${toolName}`,
+        name: `vibeCheck/${spec.toolName}`,
         version: "0.1.0",
         informationUri: "https://github.com/<OWNER>/vibeCheck",
-        rules,
+        rules: tables.rules,
+        ...(toolVersion ? { properties: { toolVersion } } : {}),
       },
     },
     invocations: [
@@ -113,40 +198,49 @@ function buildSarifRun(
         executionSuccessful: true,
         startTimeUtc: new Date().toISOString(),
         workingDirectory: {
-          uri: context.workspacePath.replace(/\\/g, "/"),
+          uri: normalizeUri(context.workspacePath),
         },
       },
     ],
-    results,
+    ...(spec.category ? { automationDetails: { id: spec.category } } : {}),
+    artifacts: tables.artifacts,
   };
 }
 
+/** Run emitted when there are no findings */
+const EMPTY_RUN: SarifRun = {
+  tool: {
+    driver: {
+      name: "vibeCheck",
+      version: "0.1.0",
+      informationUri: "https://github.com/<OWNER>/vibeCheck",
+    },
+  },
+  results: [],
+};
+
 /**
  * Build complete SARIF log from findings.
+ *
+ * @internal Exported for tests
  */
 export function buildSarifLog(
   findings: Finding[],
   context: RunContext,
 ): SarifLog {
-  const groupedFindings = groupFindingsByTool(findings);
   const runs: SarifRun[] = [];
 
-  for (const [toolName, toolFindings] of groupedFindings) {
-    runs.push(buildSarifRun(toolName, toolFindings, context));
+  for (const [toolName, toolFindings] of groupBy(findings, (f) => f.tool)) {
+    const tables = buildRunTables(toolFindings);
+    runs.push({
+      ...buildRunHeader({ toolName, findings: toolFindings }, tables, context),
+      results: toolFindings.map((f) => findingToSarifResult(f, tables)),
+    });
   }
 
   // If no findings, create an empty run for vibeCheck
   if (runs.length === 0) {
-    runs.push({
-      tool: {
-        driver: {
-          name: "vibeCheck",
-          version: "0.1.0",
-          informationUri: "https://github.com/<OWNER>/vibeCheck",
-        },
-      },
-      results: [],
-    });
+    runs.push(EMPTY_RUN);
   }
 
   return {
@@ -156,11 +250,349 @@ export function buildSarifLog(
   };
 }
 
+// ============================================================================
+// Streaming Writer
+// ============================================================================
+
+export interface SarifWriteOptions {
+  /** Gzip each file (.sarif.gz) */
+  gzip?: boolean;
+  /** Results per run before splitting (default: GitHub's limit) */
+  maxResultsPerRun?: number;
+  /** Estimated uncompressed bytes per file before splitting */
+  maxBytesPerFile?: number;
+}
+
+interface SarifWriteResult {
+  files: string[];
+  /** Files of empty runs closing categories no longer uploaded */
+  closing: string[];
+  results: number;
+  /** Uncompressed bytes written */
+  bytes: number;
+}
+
+/** Bytes buffered before a write to the underlying stream */
+const WRITE_BUFFER_BYTES = 64 * 1024;
+
+/**
+ * Rough serialized size of a finding's result, used to plan splits before
+ * anything is written.
+ */
+function estimateResultBytes(finding: Finding): number {
+  let bytes = 400 + finding.message.length + finding.ruleId.length;
+  for (const loc of finding.locations) {
+    bytes += 150 + loc.path.length;
+  }
+  return bytes;
+}
+
 /**
- * Write SARIF log to file.
+ * Slice a tool's findings into a power-of-two number of buckets by a hash
+ * of their file path, doubling until every bucket fits the limits. A file's
+ * findings always share a bucket, and a bucket only changes when the count
+ * does, so findings keep their upload category from run to run.
  */
-export function writeSarifFile(sarif: SarifLog, outputPath: string): void {
-  writeFileSync(outputPath, JSON.stringify(sarif, null, 2), "utf-8");
+function sliceByPath(
+  findings: Finding[],
+  estimates: Map<Finding, number>,
+  maxResults: number,
+  maxBytes: number,
+): Finding[][] {
+  for (let count = 1; ; count *= 2) {
+    const slices = Array.from({ length: count }, (): Finding[] => []);
+    const bytes = new Array<number>(count).fill(0);
+    for (const finding of findings) {
+      const path = normalizeUri(finding.locations[0]?.path ?? "");
+      const i = stableBucket(path, count);
+      slices[i].push(finding);
+      bytes[i] += estimates.get(finding) ?? 0;
+    }
+    const fits = slices.every(
+      (slice, i) => slice.length <= maxResults && bytes[i] <= maxBytes,
+    );
+    // A single file past the limits cannot be split further
+    if (fits || count >= findings.length) return slices;
+  }
+}
+
+/**
+ * Decide which files to write. Everything goes into one file unless a run
+ * or the file would exceed GitHub's upload limits; then every tool's
+ * findings are sliced into runs written to <dir>/sarif/<tool>[-<n>].sarif,
+ * each with its own upload category.
+ */
+function planSarifFiles(
+  findings: Finding[],
+  outputPath: string,
+  options: SarifWriteOptions,
+): PlannedFile[] {
+  const maxResults = options.maxResultsPerRun ?? MAX_RESULTS_PER_RUN;
+  const maxBytes = options.maxBytesPerFile ?? MAX_FILE_BYTES;
+  const suffix = options.gzip ? ".gz" : "";
+  const groups = groupBy(findings, (f) => f.tool);
+
+  const estimates = new Map<Finding, number>();
+  let totalBytes = 0;
+  for (const finding of findings) {
+    const bytes = estimateResultBytes(finding);
+    estimates.set(finding, bytes);
+    totalBytes += bytes;
+  }
+
+  const fits =
+    groups.size <= MAX_RUNS_PER_FILE &&
+    totalBytes <= maxBytes &&
+    [...groups.values()].every((group) => group.length <= maxResults);
+  if (fits) {
+    const runs = [...groups].map(([toolName, toolFindings]) => ({
+      toolName,
+      findings: toolFindings,
+    }));
+    return [{ path: `${outputPath}${suffix}`, runs }];
+  }
+
+  const files: PlannedFile[] = [];
+  const splitDir = join(dirname(outputPath), "sarif");
+  for (const [toolName, toolFindings] of groups) {
+    const slices = sliceByPath(toolFindings, estimates, maxResults, maxBytes);
+    slices.forEach((sliceFindings, i) => {
+      if (sliceFindings.length === 0) return;
+      const name = slices.length > 1 ? `${toolName}-${i + 1}` : toolName;
+      files.push({
+        path: join(splitDir, `${name}.sarif${suffix}`),
+        runs: [
+          {
+            toolName,
+            findings: sliceFindings,
+            category: `${SARIF_CATEGORY}/${name}/`,
+          },
+        ],
+      });
+    });
+  }
+  return files;
+}
+
+// ============================================================================
+// Upload Categories
+// ============================================================================
+
+/**
+ * A tool's run under an upload category. Code scanning keeps a category's
+ * alerts open until that tool uploads to it again, so runs that disappear
+ * (a slice that moved, a tool without findings, a switch between one file
+ * and split files) are closed with an empty run.
+ */
+interface UploadedRun {
+  category: string;
+  toolName: string;
+}
+
+/** Uploaded runs of the previous write, kept next to the SARIF output */
+const CATEGORIES_FILE = "sarif-categories.json";
+
+/** Category the upload step assigns to the single results.sarif */
+const SINGLE_FILE_CATEGORY = `${SARIF_CATEGORY}/`;
+
+function uploadedRunKey(run: UploadedRun): string {
+  return `${run.category}\0${run.toolName}`;
+}
+
+function loadUploadedRuns(path: string): UploadedRun[] {
+  try {
+    return JSON.parse(readFileSync(path, "utf-8")) as UploadedRun[];
+  } catch {
+    return [];
+  }
+}
+
+/**
+ * Add empty runs for every previously uploaded run missing from `files`:
+ * into the single file when the single-file category is still uploaded,
+ * otherwise into <dir>/sarif/<name>.sarif per category. Returns the closing
+ * files and the runs now uploaded.
+ */
+function planClosingRuns(
+  files: PlannedFile[],
+  previous: UploadedRun[],
+  outputPath: string,
+  gzip: boolean,
+): { closing: PlannedFile[]; uploaded: UploadedRun[] } {
+  const single =
+    files.length === 1 && !files[0].runs[0]?.category ? files[0] : null;
+  const uploaded = files.flatMap((file) =>
+    file.runs.map((run) => ({
+      category: run.category ?? SINGLE_FILE_CATEGORY,
+      toolName: run.toolName,
+    })),
+  );
+  const current = new Set(uploaded.map(uploadedRunKey));
+  const missing = previous.filter((run) => !current.has(uploadedRunKey(run)));
+
+  const closing: PlannedFile[] = [];
+  for (const [category, runs] of groupBy(missing, (run) => run.category)) {
+    if (single && category === SINGLE_FILE_CATEGORY) {
+      for (const { toolName } of runs) {
+        single.runs.push({ toolName, findings: [] });
+      }
+      continue;
+    }
+    const name = category.slice(0, -1).split("/").pop() || SARIF_CATEGORY;
+    closing.push({
+      path: join(
+        dirname(outputPath),
+        "sarif",
+        `${name}.sarif${gzip ? ".gz" : ""}`,
+      ),
+      runs: runs.map(({ toolName }) => ({ toolName, findings: [], category })),
+    });
+  }
+  return { closing, uploaded };
+}
+
+/**
+ * Buffered writer over a file, optionally through gzip, that respects
+ * backpressure.
+ */
+class SarifFileWriter {
+  private readonly file: Writable;
+  private readonly stream: Writable;
+  private buffer = "";
+  bytes = 0;
+
+  constructor(path: string, gzip: boolean) {
+    mkdirSync(dirname(path), { recursive: true });
+    this.file = createWriteStream(path);
+    if (gzip) {
+      const gzipStream = createGzip();
+      gzipStream.pipe(this.file);
+      this.stream = gzipStream;
+    } else {
+      this.stream = this.file;
+    }
+  }
+
+  async write(text: string): Promise<void> {
+    this.buffer += text;
+    if (this.buffer.length >= WRITE_BUFFER_BYTES) {
+      await this.flush();
+    }
+  }
+
+  async close(): Promise<void> {
+    await this.flush();
+    this.stream.end();
+    await finished(this.file);
+  }
+
+  private async flush(): Promise<void> {
+    if (!this.buffer) return;
+    const chunk = Buffer.from(this.buffer, "utf-8");
+    this.buffer = "";
+    this.bytes += chunk.length;
+    if (!this.stream.write(chunk)) {
+      await once(this.stream, "drain");
+    }
+  }
+}
+
+/**
+ * Stream runs to one file: the log envelope and each run header are
+ * serialized on their own, and results one at a time.
+ */
+async function writeSarifFile(
+  path: string,
+  runs: RunSpec[],
+  context: RunContext,
+  gzip: boolean,
+): Promise<{ results: number; bytes: number }> {
+  const writer = new SarifFileWriter(path, gzip);
+  let results = 0;
+
+  try {
+    await writer.write(
+      `{"version":"2.1.0","$schema":${JSON.stringify(SARIF_SCHEMA)},"runs":[`,
+    );
+
+    if (runs.length === 0) {
+      await writer.write(JSON.stringify(EMPTY_RUN));
+    }
+
+    for (const [runIndex, spec] of runs.entries()) {
+      const tables = buildRunTables(spec.findings);
+      const header = JSON.stringify(buildRunHeader(spec, tables, context));
+      // Reopen the header object to append the results array
+      await writer.write(
+        `${runIndex > 0 ? "," : ""}${header.slice(0, -1)},"results":[`,
+      );
+
+      for (const [i, finding] of spec.findings.entries()) {
+        const result = JSON.stringify(findingToSarifResult(finding, tables));
+        await writer.write(i > 0 ? `,${result}` : result);
+        results++;
+      }
+      await writer.write("]}");
+    }
+
+    await writer.write("]}\n");
+  } finally {
+    await writer.close();
+  }
+
+  return { results, bytes: writer.bytes };
+}
+
+/**
+ * Write findings as SARIF to `outputPath` (or, when split, to a `sarif/`
+ * directory next to it). Stale output from a previous layout is removed,
+ * and runs uploaded last time but gone now are closed with empty runs.
+ */
+export async function writeSarif(
+  findings: Finding[],
+  context: RunContext,
+  outputPath: string,
+  options: SarifWriteOptions = {},
+): Promise<SarifWriteResult> {
+  const gzip = options.gzip ?? false;
+  const files = planSarifFiles(findings, outputPath, options);
+  const categoriesPath = join(dirname(outputPath), CATEGORIES_FILE);
+  const { closing, uploaded } = planClosingRuns(
+    files,
+    loadUploadedRuns(categoriesPath),
+    outputPath,
+    gzip,
+  );
+
+  rmSync(join(dirname(outputPath), "sarif"), { recursive: true, force: true });
+  for (const stale of [outputPath, `${outputPath}.gz`]) {
+    rmSync(stale, { force: true });
+  }
+
+  const written: SarifWriteResult = {
+    files: [],
+    closing: [],
+    results: 0,
+    bytes: 0,
+  };
+  for (const [paths, planned] of [
+    [written.files, files],
+    [written.closing, closing],
+  ] as const) {
+    for (const file of planned) {
+      const { results, bytes } = await writeSarifFile(
+        file.path,
+        file.runs,
+        context,
+        gzip,
+      );
+      paths.push(file.path);
+      written.results += results;
+      written.bytes += bytes;
+    }
+  }
+  writeFileSync(categoriesPath, JSON.stringify(uploaded, null, 2));
+  return written;
 }
 
 /**
@@ -200,7 +632,7 @@ export function loadSarifFile(path: string): SarifLog | null {
  */
 async function main() {
   const args = process.argv.slice(2);
-  const findingsPath = args[0] || "findings.json";
+  const findingsPath = args[0] || "findings.ndjson";
   const outputPath = args[1] || "results.sarif";
   const contextPath = args[2] || "context.json";
 
@@ -210,14 +642,10 @@ async function main() {
   );
 
   // Build and write SARIF
-  const sarif = buildSarifLog(findings, context);
-  writeSarifFile(sarif, outputPath);
+  const { files, results } = await writeSarif(findings, context, outputPath);
 
-  console.log(`SARIF output written to: ${outputPath}`);
-  console.log(`Total runs: ${sarif.runs.length}`);
-  console.log(
-    `Total results: ${sarif.runs.reduce((sum, run) => sum + run.results.length, 0)}`,
-  );
+  console.log(`SARIF output written to: ${files.join(", ")}`);
+  console.log(`Total results: ${results}`);
 }
 
 // Run if called directly
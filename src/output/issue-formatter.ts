@@ -461,13 +461,14 @@ function messageContainsLocations(message: string): boolean {
 
 /**
  * Generate the issue body for a finding.
+ * Pass a fixed timestamp to make the body deterministic (issue plans).
  */
 export function generateIssueBody(
   finding: Finding,
   context: RunContext,
+  timestamp: string = new Date().toISOString(),
 ): string {
   const { repo, runNumber } = context;
-  const timestamp = new Date().toISOString();
   const severityEmoji = getSeverityEmoji(finding.severity);
 
   // Build sections
@@ -34,6 +34,7 @@ export {
 export {
   parsePmdOutput,
   parseSpotBugsOutput,
+  type PmdFileReport,
   type PmdOutput,
   type SpotBugsSarifOutput,
 } from "./parsers/java.js";
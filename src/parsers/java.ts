@@ -31,7 +31,7 @@ interface PmdViolation {
   externalInfoUrl: string;
 }
 
-interface PmdFileReport {
+export interface PmdFileReport {
   filename: string;
   violations: PmdViolation[];
 }
@@ -46,35 +46,42 @@ export interface PmdOutput {
 }
 
 /**
- * Parse PMD JSON output into Findings.
+ * Parse a single PMD file report into Findings.
  */
-export function parsePmdOutput(output: PmdOutput): Finding[] {
+function parsePmdFileReport(file: PmdFileReport): Finding[] {
+  return parseResults(file.violations, (violation) =>
+    createFinding({
+      result: violation,
+      tool: "pmd",
+      ruleId: violation.rule,
+      title: `PMD: ${violation.rule}`,
+      message: violation.description,
+      severity: mapPmdSeverity(violation.priority),
+      confidence: mapPmdConfidence(violation.ruleset),
+      location: buildLocation(
+        file.filename,
+        violation.beginline,
+        violation.begincolumn,
+        violation.endline,
+        violation.endcolumn,
+      ),
+      evidence: {
+        links: violation.externalInfoUrl ? [violation.externalInfoUrl] : [],
+      },
+      extraLabels: [`ruleset:${violation.ruleset}`],
+    }),
+  );
+}
+
+/**
+ * Parse PMD JSON output into Findings. Streamed reports are parsed through
+ * here too, a batch of file reports at a time (see parse-shards).
+ */
+export function parsePmdOutput(output: Pick<PmdOutput, "files">): Finding[] {
   const findings: Finding[] = [];
 
   for (const file of output.files) {
-    const fileFindings = parseResults(file.violations, (violation) =>
-      createFinding({
-        result: violation,
-        tool: "pmd",
-        ruleId: violation.rule,
-        title: `PMD: ${violation.rule}`,
-        message: violation.description,
-        severity: mapPmdSeverity(violation.priority),
-        confidence: mapPmdConfidence(violation.ruleset),
-        location: buildLocation(
-          file.filename,
-          violation.beginline,
-          violation.begincolumn,
-          violation.endline,
-          violation.endcolumn,
-        ),
-        evidence: {
-          links: violation.externalInfoUrl ? [violation.externalInfoUrl] : [],
-        },
-        extraLabels: [`ruleset:${violation.ruleset}`],
-      }),
-    );
-    findings.push(...fileFindings);
+    findings.push(...parsePmdFileReport(file));
   }
 
   return findings;
@@ -0,0 +1,219 @@
+/**
+ * Parse Pool
+ *
+ * Parses large tool outputs on a small pool of worker threads, so turning a
+ * multi-hundred-megabyte report into findings does not block the event loop
+ * while other tools are still streaming output (see executeTools concurrency).
+ *
+ * Outputs are split with shardParseInput and the shard results are
+ * concatenated in shard order, so findings come out in exactly the order the
+ * inline parser would produce. Findings from workers arrive as structured
+ * clones and are interned again on the main thread. Small outputs are parsed
+ * inline; any worker failure falls back to inline parsing for that shard and
+ * disables the pool.
+ */
+
+import { availableParallelism } from "node:os";
+import { extname } from "node:path";
+import { fileURLToPath } from "node:url";
+import { Worker } from "node:worker_threads";
+import type { Finding } from "../core/types.js";
+import { internFinding } from "../utils/symbol-table.js";
+import {
+  countParseItems,
+  parseShardInline,
+  shardParseInput,
+  type ParseInputs,
+  type ParseKind,
+  type ParseRequest,
+  type ParseResponse,
+} from "./parse-shards.js";
+
+// ============================================================================
+// Thresholds
+// ============================================================================
+
+/** Below this many records a whole output is parsed inline */
+const POOL_MIN_ITEMS = 5000;
+
+/** Below this many records a single shard is parsed inline */
+const SHARD_MIN_ITEMS = 500;
+
+/** Upper bound on parse workers (they compete with the tools themselves) */
+const MAX_WORKERS = 4;
+
+// ============================================================================
+// Worker Pool
+// ============================================================================
+
+interface PendingTask {
+  request: ParseRequest;
+  resolve: (findings: Finding[]) => void;
+}
+
+interface PoolWorker {
+  worker: Worker;
+  task: PendingTask | null;
+}
+
+class ParseWorkerPool {
+  private readonly workers: PoolWorker[] = [];
+  private readonly queue: PendingTask[] = [];
+  private readonly size: number;
+  private nextId = 0;
+  private failed = false;
+
+  constructor(size: number) {
+    this.size = size;
+  }
+
+  /** False once a worker has failed to start or crashed */
+  get usable(): boolean {
+    return !this.failed;
+  }
+
+  run<K extends ParseKind>(kind: K, shard: ParseInputs[K]): Promise<Finding[]> {
+    if (this.failed) {
+      return Promise.resolve(parseShardInline(kind, shard));
+    }
+
+    return new Promise((resolve) => {
+      this.queue.push({
+        request: { id: this.nextId++, kind, shard },
+        resolve,
+      });
+      this.dispatch();
+    });
+  }
+
+  private dispatch(): void {
+    while (this.queue.length > 0) {
+      const slot =
+        this.workers.find((w) => w.task === null) ?? this.spawn();
+      if (!slot) return;
+
+      const task = this.queue.shift()!;
+      slot.task = task;
+      // Keep the process alive only while the worker has work
+      slot.worker.ref();
+      slot.worker.postMessage(task.request);
+    }
+  }
+
+  private spawn(): PoolWorker | null {
+    if (this.failed || this.workers.length >= this.size) return null;
+
+    let worker: Worker;
+    try {
+      worker = new Worker(fileURLToPath(getWorkerUrl()));
+    } catch {
+      this.disable();
+      return null;
+    }
+
+    const slot: PoolWorker = { worker, task: null };
+    worker.on("message", (response: ParseResponse) => {
+      const task = slot.task;
+      slot.task = null;
+      worker.unref();
+      if (task) {
+        if (response.findings) {
+          // Structured clones share no strings with this thread's table
+          response.findings.forEach(internFinding);
+          task.resolve(response.findings);
+        } else {
+          task.resolve(
+            parseShardInline(task.request.kind, task.request.shard),
+          );
+        }
+      }
+      this.dispatch();
+    });
+    worker.on("error", () => this.disable());
+    worker.on("exit", () => this.disable());
+
+    this.workers.push(slot);
+    return slot;
+  }
+
+  /**
+   * Stop using workers: finish in-flight and queued shards inline.
+   */
+  private disable(): void {
+    if (this.failed) return;
+    this.failed = true;
+
+    const orphaned = [
+      ...this.workers.flatMap((w) => (w.task ? [w.task] : [])),
+      ...this.queue.splice(0),
+    ];
+    for (const slot of this.workers) {
+      slot.task = null;
+      void slot.worker.terminate();
+    }
+    this.workers.length = 0;
+
+    for (const task of orphaned) {
+      task.resolve(parseShardInline(task.request.kind, task.request.shard));
+    }
+  }
+}
+
+/**
+ * Worker module next to this one, with the same extension (.ts under tsx,
+ * .js when built). Workers inherit execArgv, so the tsx loader carries over.
+ */
+function getWorkerUrl(): URL {
+  const ext = extname(fileURLToPath(import.meta.url));
+  return new URL(`./parse-worker${ext}`, import.meta.url);
+}
+
+let pool: ParseWorkerPool | null = null;
+
+function getPool(): ParseWorkerPool {
+  if (!pool) {
+    const size = Math.max(1, Math.min(MAX_WORKERS, availableParallelism() - 1));
+    pool = new ParseWorkerPool(size);
+  }
+  return pool;
+}
+
+// ============================================================================
+// Public API
+// ============================================================================
+
+/**
+ * Parse a complete tool output, sharding it across the pool when large.
+ */
+export async function parseInPool<K extends ParseKind>(
+  kind: K,
+  input: ParseInputs[K],
+): Promise<Finding[]> {
+  if (countParseItems(kind, input) < POOL_MIN_ITEMS || !getPool().usable) {
+    return parseShardInline(kind, input);
+  }
+
+  const shards = shardParseInput(kind, input);
+  if (shards.length < 2) {
+    return parseShardInline(kind, input);
+  }
+
+  const results = await Promise.all(
+    shards.map((shard) => getPool().run(kind, shard)),
+  );
+  return results.flat();
+}
+
+/**
+ * Parse one pre-built shard, on the pool unless it is small. Used by
+ * streaming runners that cut shards as output arrives.
+ */
+export function parseShard<K extends ParseKind>(
+  kind: K,
+  shard: ParseInputs[K],
+): Promise<Finding[]> {
+  if (countParseItems(kind, shard) < SHARD_MIN_ITEMS) {
+    return Promise.resolve(parseShardInline(kind, shard));
+  }
+  return getPool().run(kind, shard);
+}
@@ -0,0 +1,176 @@
+/**
+ * Parse Shards
+ *
+ * Splits large tool outputs into self-contained slices that can be parsed
+ * independently (on a worker thread or inline). Concatenating the parsed
+ * slices in order yields the same findings as parsing the whole output.
+ */
+
+import type { Finding } from "../core/types.js";
+import {
+  parsePmdOutput,
+  parseSpotBugsOutput,
+  type PmdOutput,
+  type SpotBugsSarifOutput,
+} from "./java.js";
+import { parseSemgrepOutput, type SemgrepOutput } from "./security.js";
+import {
+  parseEslintOutput,
+  parseTrunkOutput,
+  type EslintOutput,
+  type TrunkOutput,
+} from "./typescript.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+/** Parser input for each shardable tool output */
+export interface ParseInputs {
+  /** Only the file reports are needed, so streamed reports can be sharded */
+  pmd: Pick<PmdOutput, "files">;
+  spotbugs: SpotBugsSarifOutput;
+  eslint: EslintOutput;
+  semgrep: SemgrepOutput;
+  trunk: TrunkOutput;
+}
+
+export type ParseKind = keyof ParseInputs;
+
+/** Message sent to a parse worker */
+export interface ParseRequest {
+  id: number;
+  kind: ParseKind;
+  shard: ParseInputs[ParseKind];
+}
+
+/** Message sent back by a parse worker */
+export interface ParseResponse {
+  id: number;
+  findings?: Finding[];
+  error?: string;
+}
+
+// ============================================================================
+// Parsers
+// ============================================================================
+
+/** Parser for each kind (same functions the runners call directly) */
+export const SHARD_PARSERS: {
+  [K in ParseKind]: (input: ParseInputs[K]) => Finding[];
+} = {
+  pmd: parsePmdOutput,
+  spotbugs: parseSpotBugsOutput,
+  eslint: parseEslintOutput,
+  semgrep: parseSemgrepOutput,
+  trunk: parseTrunkOutput,
+};
+
+/**
+ * Run the parser for a kind on one shard.
+ */
+export function parseShardInline<K extends ParseKind>(
+  kind: K,
+  shard: ParseInputs[K],
+): Finding[] {
+  return SHARD_PARSERS[kind](shard);
+}
+
+// ============================================================================
+// Sharding
+// ============================================================================
+
+/**
+ * Split an array into consecutive chunks.
+ */
+function chunk<T>(items: T[], size: number): T[][] {
+  const chunks: T[][] = [];
+  for (let i = 0; i < items.length; i += size) {
+    chunks.push(items.slice(i, i + size));
+  }
+  return chunks;
+}
+
+/** Findings-producing items per shard */
+const SHARD_ITEMS = 2000;
+
+/** PMD and ESLint shards are per file report; files hold many records each */
+const FILE_SHARD_SIZE = 200;
+
+/**
+ * Count the records a parser will turn into findings (used for thresholds).
+ */
+export function countParseItems<K extends ParseKind>(
+  kind: K,
+  input: ParseInputs[K],
+): number {
+  switch (kind) {
+    case "pmd":
+      return (input as ParseInputs["pmd"]).files.reduce(
+        (sum, file) => sum + file.violations.length,
+        0,
+      );
+    case "spotbugs":
+      return (input as SpotBugsSarifOutput).runs.reduce(
+        (sum, run) => sum + run.results.length,
+        0,
+      );
+    case "eslint":
+      return (input as EslintOutput).reduce(
+        (sum, file) => sum + file.messages.length,
+        0,
+      );
+    case "semgrep":
+      return (input as SemgrepOutput).results.length;
+    case "trunk":
+      return (input as TrunkOutput).issues.length;
+    default:
+      return 0;
+  }
+}
+
+/**
+ * Split a tool output into shards: per file report for PMD and ESLint, per
+ * run/result slice for SARIF, per result slice for Semgrep and Trunk.
+ */
+export function shardParseInput<K extends ParseKind>(
+  kind: K,
+  input: ParseInputs[K],
+): ParseInputs[K][] {
+  switch (kind) {
+    case "pmd": {
+      const { files } = input as ParseInputs["pmd"];
+      return chunk(files, FILE_SHARD_SIZE).map((shard) => ({
+        files: shard,
+      })) as ParseInputs[K][];
+    }
+    case "spotbugs": {
+      // Each shard keeps its run's driver so rule descriptions still resolve
+      const output = input as SpotBugsSarifOutput;
+      return output.runs.flatMap((run) =>
+        chunk(run.results, SHARD_ITEMS).map((results) => ({
+          ...output,
+          runs: [{ ...run, results }],
+        })),
+      ) as ParseInputs[K][];
+    }
+    case "eslint":
+      return chunk(input as EslintOutput, FILE_SHARD_SIZE) as ParseInputs[K][];
+    case "semgrep": {
+      const output = input as SemgrepOutput;
+      return chunk(output.results, SHARD_ITEMS).map((results) => ({
+        ...output,
+        results,
+      })) as ParseInputs[K][];
+    }
+    case "trunk": {
+      const output = input as TrunkOutput;
+      return chunk(output.issues, SHARD_ITEMS).map((issues) => ({
+        ...output,
+        issues,
+      })) as ParseInputs[K][];
+    }
+    default:
+      return [input];
+  }
+}
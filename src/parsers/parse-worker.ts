@@ -0,0 +1,33 @@
+/**
+ * Parse Worker
+ *
+ * Worker-thread entry point for the parse pool. Receives one shard at a time
+ * and replies with the findings produced by the regular parser for its kind.
+ */
+
+import { parentPort } from "node:worker_threads";
+import {
+  SHARD_PARSERS,
+  type ParseKind,
+  type ParseInputs,
+  type ParseRequest,
+  type ParseResponse,
+} from "./parse-shards.js";
+
+const port = parentPort;
+
+port?.on("message", (request: ParseRequest) => {
+  let response: ParseResponse;
+  try {
+    const parse = SHARD_PARSERS[request.kind] as (
+      input: ParseInputs[ParseKind],
+    ) => ReturnType<(typeof SHARD_PARSERS)[ParseKind]>;
+    response = { id: request.id, findings: parse(request.shard) };
+  } catch (error) {
+    response = {
+      id: request.id,
+      error: error instanceof Error ? error.message : String(error),
+    };
+  }
+  port.postMessage(response);
+});
@@ -0,0 +1,338 @@
+/**
+ * Exclusions
+ *
+ * One compiled matcher for the paths vibeCheck never analyzes: dependency
+ * and build directories (COMMON_EXCLUDE_DIRS) and the `exclude` patterns
+ * from the vibeCheck config. The matcher is pushed down into
+ * tool invocations (glob lists, a regex for mypy, explicit file lists) so
+ * tools skip those files instead of analyzing them, and serves as the
+ * post-filter for findings that still point into them.
+ *
+ * Literal directory names are held in a set and literal anchored paths in a
+ * trie keyed by path segment, so the common patterns cost one lookup per
+ * segment; only wildcard patterns fall back to regular expressions.
+ *
+ * The repo's .gitignore is deliberately not merged in: git never ignores
+ * tracked files (e.g. a committed Cargo.lock listed in .gitignore), and
+ * ignored untracked files are already absent from the file inventory.
+ */
+
+import { createHash } from "node:crypto";
+import type { FileInventory } from "../core/file-inventory.js";
+import type { Finding } from "../core/types.js";
+import { definePathForm } from "../utils/symbol-table.js";
+
+/** Common directories to exclude from analysis */
+export const COMMON_EXCLUDE_DIRS = [
+  ".trunk",
+  "node_modules",
+  ".git",
+  "build",
+  "target",
+  "dist",
+  "venv",
+  ".venv",
+  "__pycache__",
+];
+
+/** Memoized results kept per matcher before the memo is reset */
+const MEMO_LIMIT = 200_000;
+
+// ============================================================================
+// Types
+// ============================================================================
+
+export interface ExclusionOptions {
+  /** Directory names skipped at any depth (default: COMMON_EXCLUDE_DIRS) */
+  dirs?: readonly string[];
+  /** Extra patterns in .gitignore syntax (config `exclude`) */
+  patterns?: readonly string[];
+}
+
+/** One .gitignore-style line, parsed */
+interface ExclusionRule {
+  /** Pattern without `!`, leading `/` or trailing `/` */
+  pattern: string;
+  negated: boolean;
+  /** Trailing `/`: only matches directories */
+  dirOnly: boolean;
+  /** Contains a `/`: matched from the repo root, not at any depth */
+  anchored: boolean;
+}
+
+interface TrieNode {
+  children: Map<string, TrieNode>;
+  /** Set if a rule ends here; true when that rule only matches directories */
+  dirOnly?: boolean;
+}
+
+// ============================================================================
+// Matcher
+// ============================================================================
+
+export class ExclusionMatcher {
+  /** Changes whenever the compiled exclusions do (for cache keys) */
+  readonly signature: string;
+  private readonly dirNames: Set<string>;
+  private readonly rules: ExclusionRule[];
+  /** Literal unanchored names -> dirOnly */
+  private readonly names = new Map<string, boolean>();
+  /** Literal anchored paths */
+  private readonly prefixes: TrieNode = { children: new Map() };
+  /** Wildcard patterns */
+  private readonly globs: RegExp[] = [];
+  /** Every rule in file order; set when negations make order significant */
+  private readonly ordered: { regex: RegExp; negated: boolean }[] | null;
+  private memo = new Map<string, boolean>();
+
+  private constructor(dirNames: readonly string[], rules: ExclusionRule[]) {
+    this.dirNames = new Set(dirNames);
+    this.rules = rules;
+    this.signature = createHash("sha256")
+      .update(JSON.stringify([dirNames, rules]))
+      .digest("hex")
+      .substring(0, 16);
+
+    if (rules.some((rule) => rule.negated)) {
+      // Last matching rule wins, so rules cannot be split by kind
+      this.ordered = rules.map((rule) => ({
+        regex: compileRule(rule),
+        negated: rule.negated,
+      }));
+      return;
+    }
+
+    this.ordered = null;
+    for (const rule of rules) {
+      if (hasWildcard(rule.pattern)) {
+        this.globs.push(compileRule(rule));
+      } else if (!rule.anchored) {
+        // A directory-only entry does not weaken an unrestricted one
+        this.names.set(rule.pattern, (this.names.get(rule.pattern) ?? true) && rule.dirOnly);
+      } else {
+        let node = this.prefixes;
+        for (const segment of rule.pattern.split("/")) {
+          let child = node.children.get(segment);
+          if (!child) {
+            child = { children: new Map() };
+            node.children.set(segment, child);
+          }
+          node = child;
+        }
+        node.dirOnly = (node.dirOnly ?? true) && rule.dirOnly;
+      }
+    }
+  }
+
+  /**
+   * Compile a matcher. Without options it matches COMMON_EXCLUDE_DIRS only.
+   */
+  static compile(options: ExclusionOptions = {}): ExclusionMatcher {
+    const rules = (options.patterns ?? [])
+      .map(parseRule)
+      .filter((rule): rule is ExclusionRule => rule !== null);
+    return new ExclusionMatcher(options.dirs ?? COMMON_EXCLUDE_DIRS, rules);
+  }
+
+  /**
+   * True if a repo-relative path is excluded (itself or a parent directory).
+   */
+  excludes(path: string): boolean {
+    let excluded = this.memo.get(path);
+    if (excluded === undefined) {
+      if (this.memo.size >= MEMO_LIMIT) this.memo = new Map();
+      excluded = this.test(path);
+      this.memo.set(path, excluded);
+    }
+    return excluded;
+  }
+
+  /**
+   * Like excludes, without memoization (for callers that memoize themselves).
+   */
+  test(rawPath: string): boolean {
+    const path = rawPath.replace(/\\/g, "/").replace(/^\.\//, "");
+    const segments = path.split("/");
+    const last = segments.length - 1;
+
+    // Excluded directory names; a bare name is the directory itself
+    for (let i = 0; i < last; i++) {
+      if (this.dirNames.has(segments[i])) return true;
+    }
+    if (last === 0 && this.dirNames.has(path)) return true;
+
+    if (this.ordered) {
+      let excluded = false;
+      for (const rule of this.ordered) {
+        if (rule.regex.test(path)) excluded = !rule.negated;
+      }
+      return excluded;
+    }
+
+    for (let i = 0; i <= last; i++) {
+      const dirOnly = this.names.get(segments[i]);
+      if (dirOnly !== undefined && (!dirOnly || i < last)) return true;
+    }
+
+    let node: TrieNode | undefined = this.prefixes;
+    for (let i = 0; i <= last && node; i++) {
+      node = node.children.get(segments[i]);
+      if (node?.dirOnly !== undefined && (!node.dirOnly || i < last)) {
+        return true;
+      }
+    }
+
+    return this.globs.some((regex) => regex.test(path));
+  }
+
+  // ==========================================================================
+  // Tool-native forms
+  // ==========================================================================
+
+  /**
+   * Exclusions as glob patterns (`**\/node_modules/**`), for tools that take
+   * glob lists: ruff, bandit, semgrep, jscpd. With negated rules only the
+   * directory names are expressed; the post-filter handles the rest.
+   */
+  toGlobs(): string[] {
+    const globs = [...this.dirNames].map((name) => `**/${name}/**`);
+    if (this.ordered) return globs;
+
+    for (const rule of this.rules) {
+      const base = rule.anchored ? rule.pattern : `**/${rule.pattern}`;
+      if (!rule.dirOnly) globs.push(base);
+      globs.push(`${base}/**`);
+    }
+    return globs;
+  }
+
+  /**
+   * Exclusions as one regular expression over relative paths, for tools that
+   * take a regex (mypy's --exclude). The syntax is shared by JavaScript and
+   * Python.
+   */
+  toRegex(): string {
+    const sources: string[] = [];
+    if (this.dirNames.size > 0) {
+      const names = [...this.dirNames].map(escapeRegex).join("|");
+      sources.push(`(?:^|/)(?:${names})/`);
+    }
+    if (!this.ordered) {
+      for (const rule of this.rules) sources.push(compileRule(rule).source);
+    }
+    // An empty pattern would match every path
+    return sources.length > 0 ? sources.join("|") : "(?!)";
+  }
+
+  /**
+   * Files from the inventory that are not excluded, optionally limited to
+   * some extensions. Used to hand tools explicit file lists.
+   */
+  selectFiles(inventory: FileInventory, extensions?: string[]): string[] {
+    const files = extensions
+      ? inventory.withExtension(...extensions)
+      : inventory.files;
+    return files.map((file) => file.path).filter((path) => !this.excludes(path));
+  }
+
+  /**
+   * Drop excluded locations from findings, and findings left without any.
+   * Findings without locations are kept.
+   */
+  filterFindings(findings: Finding[]): Finding[] {
+    return findings.filter((finding) => {
+      if (!finding.locations.some((loc) => this.excludes(loc.path))) {
+        return true;
+      }
+      finding.locations = finding.locations.filter(
+        (loc) => !this.excludes(loc.path),
+      );
+      return finding.locations.length > 0;
+    });
+  }
+}
+
+// ============================================================================
+// Defaults
+// ============================================================================
+
+const DEFAULT_EXCLUSIONS = ExclusionMatcher.compile();
+
+/**
+ * Check if a path should be excluded from analysis.
+ * Returns true if the path is inside any of the common exclude directories.
+ */
+export function shouldExcludePath(filePath: string): boolean {
+  return excludedPath(filePath);
+}
+
+/** Memoized per distinct path in the shared symbol table */
+const excludedPath = definePathForm((filePath) =>
+  DEFAULT_EXCLUSIONS.test(filePath),
+);
+
+// ============================================================================
+// Pattern Compilation
+// ============================================================================
+
+/**
+ * Parse one .gitignore line. Returns null for blanks and comments.
+ */
+function parseRule(line: string): ExclusionRule | null {
+  let pattern = line.trimEnd();
+  if (!pattern || pattern.startsWith("#")) return null;
+
+  const negated = pattern.startsWith("!");
+  if (negated) pattern = pattern.substring(1);
+  if (pattern.startsWith("\\")) pattern = pattern.substring(1); // \# or \!
+
+  const dirOnly = pattern.endsWith("/");
+  pattern = pattern.replace(/\/+$/, "");
+  const anchored = pattern.includes("/");
+  pattern = pattern.replace(/^\/+/, "");
+
+  return pattern ? { pattern, negated, dirOnly, anchored } : null;
+}
+
+function hasWildcard(pattern: string): boolean {
+  return /[*?[]/.test(pattern);
+}
+
+function escapeRegex(value: string): string {
+  return value.replace(/[.*+?^${}()|[\]\\]/g, "\\$&");
+}
+
+/**
+ * Compile a rule to a regex over a relative path. A rule matching a
+ * directory also matches everything inside it.
+ */
+function compileRule(rule: ExclusionRule): RegExp {
+  let body = "";
+  const { pattern } = rule;
+  for (let i = 0; i < pattern.length; i++) {
+    const char = pattern[i];
+    if (char === "*" && pattern[i + 1] === "*") {
+      const slashAfter = pattern[i + 2] === "/";
+      body += slashAfter ? "(?:.*/)?" : ".*";
+      i += slashAfter ? 2 : 1;
+    } else if (char === "*") {
+      body += "[^/]*";
+    } else if (char === "?") {
+      body += "[^/]";
+    } else if (char === "[") {
+      const close = pattern.indexOf("]", i + 1);
+      if (close === -1) {
+        body += "\\[";
+      } else {
+        body += `[${pattern.substring(i + 1, close).replace(/^!/, "^").replace(/\\/g, "\\\\")}]`;
+        i = close;
+      }
+    } else {
+      body += escapeRegex(char);
+    }
+  }
+
+  const prefix = rule.anchored ? "^" : "(?:^|/)";
+  const suffix = rule.dirOnly ? "/" : "(?:/|$)";
+  return new RegExp(`${prefix}${body}${suffix}`);
+}
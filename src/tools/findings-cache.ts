@@ -0,0 +1,207 @@
+/**
+ * Findings Cache
+ *
+ * Content-addressed cache of tool results under .vibecheck-output/cache.
+ * An entry is keyed by (tool, tool binary, config hash, content of the files
+ * the tool reads), so a tool whose inputs are unchanged since any earlier run
+ * is replayed from disk instead of re-executed. Cached findings keep their
+ * fingerprints, so issue matching is unaffected.
+ *
+ * Content ids come from the run's file inventory: git blob ids from the
+ * index, with modified and untracked files hashed on first use, so keys
+ * cost no extra `git ls-files` and only hash the files a tool reads.
+ */
+
+import { createHash } from "node:crypto";
+import {
+  existsSync,
+  mkdirSync,
+  readdirSync,
+  readFileSync,
+  realpathSync,
+  statSync,
+  unlinkSync,
+  utimesSync,
+  writeFileSync,
+} from "node:fs";
+import { join, relative } from "node:path";
+import type { FileInventory } from "../core/file-inventory.js";
+import type { Finding, ToolName } from "../core/types.js";
+import { findExecutable } from "./tool-resolution.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+/** Cache directory inside the output directory */
+const CACHE_DIR = "cache";
+
+/** Default size bound for the cache directory */
+export const DEFAULT_CACHE_MAX_SIZE_MB = 256;
+
+/**
+ * How a tool participates in the cache.
+ * Tools that depend on external state (advisory databases, remote rule
+ * registries) should not declare this.
+ */
+export interface ToolCacheSpec {
+  /** Executable whose identity stands in for the tool version */
+  command: string;
+  /**
+   * File name suffixes the tool reads (e.g. ".java", "pom.xml").
+   * Omit to key on every file in the repo.
+   */
+  inputs?: string[];
+}
+
+interface CacheEntry {
+  tool: ToolName;
+  key: string;
+  createdAt: string;
+  findings: Finding[];
+}
+
+// ============================================================================
+// Tool Identity
+// ============================================================================
+
+/**
+ * Identity of an installed tool: resolved path, size and mtime of the binary.
+ * Changes whenever the tool is upgraded. Returns null if the tool is missing.
+ */
+function getToolIdentity(rootPath: string, command: string): string | null {
+  const localBin = join(rootPath, "node_modules", ".bin", command);
+  const resolved =
+    findExecutable(command) ?? (existsSync(localBin) ? localBin : null);
+  if (!resolved) return null;
+
+  try {
+    const realPath = realpathSync(resolved);
+    const stats = statSync(realPath);
+    return `${realPath}:${stats.size}:${stats.mtimeMs}`;
+  } catch {
+    return null;
+  }
+}
+
+// ============================================================================
+// Cache
+// ============================================================================
+
+export class FindingsCache {
+  private readonly dir: string;
+  private readonly maxSizeBytes: number;
+  private readonly inventory: FileInventory;
+  /** Repo-relative prefix of the output directory, whose files are not inputs */
+  private readonly outputPrefix: string;
+
+  private constructor(
+    outputDir: string,
+    maxSizeMb: number,
+    inventory: FileInventory,
+  ) {
+    this.dir = join(outputDir, CACHE_DIR);
+    this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    this.inventory = inventory;
+    this.outputPrefix = `${relative(inventory.rootPath, outputDir).replace(/\\/g, "/")}/`;
+  }
+
+  /**
+   * Open the cache for this run. Returns null if the inventory did not come
+   * from git (no content ids for the whole tree), in which case nothing is
+   * cached.
+   */
+  static open(
+    inventory: FileInventory,
+    outputDir: string,
+    maxSizeMb = DEFAULT_CACHE_MAX_SIZE_MB,
+  ): FindingsCache | null {
+    if (inventory.source !== "git") return null;
+    return new FindingsCache(outputDir, maxSizeMb, inventory);
+  }
+
+  /**
+   * Compute the cache key for a tool run, or null if it cannot be cached.
+   */
+  computeKey(
+    tool: ToolName,
+    spec: ToolCacheSpec,
+    configHash: string,
+  ): string | null {
+    const identity = getToolIdentity(this.inventory.rootPath, spec.command);
+    if (!identity) return null;
+
+    const hash = createHash("sha256");
+    hash.update(`${tool}\0${identity}\0${configHash}\0`);
+    for (const { path } of this.inventory.files) {
+      if (path.startsWith(this.outputPrefix)) continue;
+      if (spec.inputs && !spec.inputs.some((suffix) => path.endsWith(suffix))) {
+        continue;
+      }
+      hash.update(`${path}\0${this.inventory.contentHash(path)}\n`);
+    }
+    return hash.digest("hex");
+  }
+
+  private entryPath(tool: ToolName, key: string): string {
+    return join(this.dir, `${tool}-${key.substring(0, 32)}.json`);
+  }
+
+  /**
+   * Look up cached findings. Hits are touched so eviction is least-recently-used.
+   */
+  get(tool: ToolName, key: string): Finding[] | null {
+    const path = this.entryPath(tool, key);
+    if (!existsSync(path)) return null;
+
+    try {
+      const entry = JSON.parse(readFileSync(path, "utf-8")) as CacheEntry;
+      if (entry.key !== key) return null;
+      const now = new Date();
+      utimesSync(path, now, now);
+      return entry.findings;
+    } catch {
+      return null;
+    }
+  }
+
+  /**
+   * Store findings for a tool run.
+   */
+  set(tool: ToolName, key: string, findings: Finding[]): void {
+    mkdirSync(this.dir, { recursive: true });
+    const entry: CacheEntry = {
+      tool,
+      key,
+      createdAt: new Date().toISOString(),
+      findings,
+    };
+    writeFileSync(this.entryPath(tool, key), JSON.stringify(entry));
+  }
+
+  /**
+   * Delete least-recently-used entries until the cache fits its size bound.
+   */
+  evict(): number {
+    if (!existsSync(this.dir)) return 0;
+
+    const entries = readdirSync(this.dir)
+      .filter((name) => name.endsWith(".json"))
+      .map((name) => {
+        const path = join(this.dir, name);
+        const stats = statSync(path);
+        return { path, size: stats.size, mtimeMs: stats.mtimeMs };
+      })
+      .sort((a, b) => a.mtimeMs - b.mtimeMs);
+
+    let totalSize = entries.reduce((sum, e) => sum + e.size, 0);
+    let evicted = 0;
+    for (const entry of entries) {
+      if (totalSize <= this.maxSizeBytes) break;
+      unlinkSync(entry.path);
+      totalSize -= entry.size;
+      evicted++;
+    }
+    return evicted;
+  }
+}
@@ -0,0 +1,293 @@
+/**
+ * Incremental Analysis Helpers
+ *
+ * Shared plumbing for tools that can analyze only the files changed since
+ * the last analyzed commit and carry forward findings for everything else.
+ *
+ * State lives in the output directory (.vibecheck-output) so it can be
+ * restored between CI runs alongside the previous findings-all.ndjson.
+ */
+
+import { createHash } from "node:crypto";
+import { existsSync, readFileSync, statSync, writeFileSync } from "node:fs";
+import { join } from "node:path";
+import type { Finding, ToolName } from "../core/types.js";
+import { readFindingsStore } from "../utils/findings-store.js";
+import { runProcess } from "./process-runner.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+/**
+ * File name of the persisted per-tool incremental state
+ *
+ * @internal Exported for tests
+ */
+export const INCREMENTAL_STATE_FILE = "incremental-state.json";
+
+/** File name of the previous run's unmerged findings (findings store) */
+const PREVIOUS_FINDINGS_FILE = "findings-all.ndjson";
+
+/** Pre-store JSON array, still read when restored from an older cache */
+const LEGACY_PREVIOUS_FINDINGS_FILE = "findings-all.json";
+
+interface ToolIncrementalState {
+  /** Commit the tool last analyzed successfully */
+  commit: string;
+  /** Hash of the tool configuration used for that run */
+  configKey?: string;
+  updatedAt: string;
+}
+
+/**
+ * Per-tool record of the last analyzed commit.
+ *
+ * Only tools marked as analyzed during this run are persisted. A tool that is
+ * skipped or fails has no findings in the new findings-all.ndjson, so its
+ * baseline must not survive into the next run.
+ */
+export class IncrementalState {
+  private readonly previous: Record<string, ToolIncrementalState>;
+  private readonly current: Record<string, ToolIncrementalState> = {};
+
+  constructor(previous: Record<string, ToolIncrementalState> = {}) {
+    this.previous = previous;
+  }
+
+  /** Baseline left by the previous run, if any */
+  baseline(tool: ToolName): ToolIncrementalState | undefined {
+    return this.previous[tool];
+  }
+
+  /** Record that the tool's findings now reflect this commit */
+  markAnalyzed(tool: ToolName, commit: string, configKey?: string): void {
+    this.current[tool] = {
+      commit,
+      configKey,
+      updatedAt: new Date().toISOString(),
+    };
+  }
+
+  /** Keep the previous baseline when findings are replayed, not recomputed */
+  retain(tool: ToolName): void {
+    const baseline = this.previous[tool];
+    if (baseline) {
+      this.current[tool] = baseline;
+    }
+  }
+
+  toJSON(): Record<string, ToolIncrementalState> {
+    return this.current;
+  }
+}
+
+/** Result of deciding how a tool should run */
+export type IncrementalPlan =
+  | { mode: "full"; reason: string; headCommit: string | null }
+  | {
+      mode: "incremental";
+      baseCommit: string;
+      headCommit: string;
+      /** Paths (relative to rootPath) added, modified or deleted since baseCommit */
+      changedFiles: Set<string>;
+    };
+
+// ============================================================================
+// State Persistence
+// ============================================================================
+
+/**
+ * Load incremental state from the output directory.
+ */
+export function loadIncrementalState(outputDir: string): IncrementalState {
+  const statePath = join(outputDir, INCREMENTAL_STATE_FILE);
+  if (!existsSync(statePath)) {
+    return new IncrementalState();
+  }
+  try {
+    return new IncrementalState(JSON.parse(readFileSync(statePath, "utf-8")));
+  } catch {
+    console.warn(`Ignoring unreadable ${INCREMENTAL_STATE_FILE}`);
+    return new IncrementalState();
+  }
+}
+
+/**
+ * Persist incremental state to the output directory.
+ */
+export function saveIncrementalState(
+  outputDir: string,
+  state: IncrementalState,
+): void {
+  writeFileSync(
+    join(outputDir, INCREMENTAL_STATE_FILE),
+    JSON.stringify(state, null, 2),
+  );
+}
+
+// ============================================================================
+// Git Helpers
+// ============================================================================
+
+/**
+ * Get the commit currently checked out, or null outside a git repo.
+ */
+export async function getHeadCommit(rootPath: string): Promise<string | null> {
+  const result = await runProcess("git", ["rev-parse", "HEAD"], {
+    cwd: rootPath,
+  });
+  if (result.status !== 0) return null;
+  return result.stdout.trim() || null;
+}
+
+/**
+ * List files changed between a commit and the working tree.
+ * Includes committed, uncommitted and untracked changes. Paths are relative
+ * to rootPath. Returns null if the commit is unknown (e.g. shallow clone).
+ *
+ * @internal Exported for tests
+ */
+export async function getChangedFiles(
+  rootPath: string,
+  sinceCommit: string,
+): Promise<Set<string> | null> {
+  // -z: paths verbatim, not C-quoted (non-ASCII, quotes, newlines)
+  const diff = await runProcess(
+    "git",
+    ["diff", "-z", "--name-only", "--relative", "--no-renames", sinceCommit],
+    { cwd: rootPath },
+  );
+  if (diff.status !== 0) return null;
+
+  const untracked = await runProcess(
+    "git",
+    ["ls-files", "-z", "--others", "--exclude-standard"],
+    { cwd: rootPath },
+  );
+
+  const changed = new Set<string>();
+  for (const output of [diff.stdout, untracked.stdout]) {
+    for (const path of output.split("\0")) {
+      if (path) changed.add(path);
+    }
+  }
+  return changed;
+}
+
+/**
+ * Decide whether a tool can run incrementally.
+ * Falls back to a full run when there is no baseline commit, the tool
+ * configuration changed, there are no previous findings to carry forward,
+ * or git cannot diff against the baseline.
+ */
+export async function planIncrementalRun(
+  rootPath: string,
+  outputDir: string,
+  tool: ToolName,
+  state: IncrementalState,
+  configKey?: string,
+): Promise<IncrementalPlan> {
+  const headCommit = await getHeadCommit(rootPath);
+  if (!headCommit) {
+    return { mode: "full", reason: "not a git repository", headCommit };
+  }
+
+  const baseline = state.baseline(tool);
+  if (!baseline) {
+    return { mode: "full", reason: "no previous baseline", headCommit };
+  }
+  const baseCommit = baseline.commit;
+
+  if (baseline.configKey !== configKey) {
+    return { mode: "full", reason: "configuration changed", headCommit };
+  }
+
+  if (
+    !existsSync(join(outputDir, PREVIOUS_FINDINGS_FILE)) &&
+    !existsSync(join(outputDir, LEGACY_PREVIOUS_FINDINGS_FILE))
+  ) {
+    return { mode: "full", reason: "previous findings missing", headCommit };
+  }
+
+  const changedFiles = await getChangedFiles(rootPath, baseCommit);
+  if (!changedFiles) {
+    return {
+      mode: "full",
+      reason: `baseline ${baseCommit.substring(0, 8)} not found in history`,
+      headCommit,
+    };
+  }
+
+  return { mode: "incremental", baseCommit, headCommit, changedFiles };
+}
+
+// ============================================================================
+// Config Hashing
+// ============================================================================
+
+/**
+ * Hash a tool's configuration so baselines are invalidated when it changes.
+ * Accepts a comma-separated list of config names or paths; files that exist
+ * under rootPath contribute their contents, other entries their name.
+ */
+export function hashToolConfig(rootPath: string, config: string): string {
+  const hash = createHash("sha256");
+  for (const entry of config.split(",")) {
+    const name = entry.trim();
+    hash.update(name);
+    const fullPath = join(rootPath, name);
+    if (name && existsSync(fullPath) && statSync(fullPath).isFile()) {
+      hash.update(readFileSync(fullPath));
+    }
+  }
+  return hash.digest("hex").substring(0, 16);
+}
+
+// ============================================================================
+// Findings Carry-Forward
+// ============================================================================
+
+/**
+ * Load a tool's findings (raw output included) from the previous run's
+ * findings-all.ndjson. Other tools' findings are skipped while reading.
+ */
+export function loadPreviousFindings(
+  outputDir: string,
+  tool: ToolName,
+): Finding[] {
+  const storePath = join(outputDir, PREVIOUS_FINDINGS_FILE);
+  const legacyPath = join(outputDir, LEGACY_PREVIOUS_FINDINGS_FILE);
+  const findingsPath = existsSync(storePath) ? storePath : legacyPath;
+  if (!existsSync(findingsPath)) return [];
+
+  try {
+    if (findingsPath === storePath) {
+      return readFindingsStore(storePath, {
+        withRaw: true,
+        filter: (f) => f.tool === tool,
+      });
+    }
+    const findings = JSON.parse(readFileSync(findingsPath, "utf-8")) as Finding[];
+    return findings.filter((f) => f.tool === tool);
+  } catch {
+    console.warn(`  Could not read previous findings from ${findingsPath}`);
+    return [];
+  }
+}
+
+/**
+ * Keep previous findings whose primary file is unchanged and still exists.
+ * Findings in changed files are dropped because the fresh run replaces them.
+ */
+export function carryForwardFindings(
+  previous: Finding[],
+  changedFiles: Set<string>,
+  rootPath: string,
+): Finding[] {
+  return previous.filter((finding) => {
+    const path = finding.locations[0]?.path;
+    if (!path) return false;
+    return !changedFiles.has(path) && existsSync(join(rootPath, path));
+  });
+}
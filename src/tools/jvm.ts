@@ -0,0 +1,114 @@
+/**
+ * JVM Launch Helpers
+ *
+ * PMD and SpotBugs are launched as fresh JVMs, and on CI runners class
+ * loading is a large share of their wall time. These helpers let each
+ * launch reuse a dynamic class-data-sharing (AppCDS) archive stored in the
+ * output directory, so classes are mapped from the archive instead of being
+ * loaded and verified on every run.
+ */
+
+import { createHash } from "node:crypto";
+import { existsSync, mkdirSync, realpathSync } from "node:fs";
+import { join } from "node:path";
+import { findExecutable } from "./tool-resolution.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+/** Directory (inside the output dir) holding CDS archives */
+const JVM_CDS_DIR = "jvm-cds";
+
+/** Lets JDKs without dynamic CDS (before 13) skip the archive flags */
+const IGNORE_UNRECOGNIZED = "-XX:+IgnoreUnrecognizedVMOptions";
+
+export interface JvmLaunchOptions {
+  /**
+   * Allow this launch to create the archive if it does not exist yet.
+   * Only one concurrent launch per tool should dump, or they race on the file.
+   */
+  dumpArchive: boolean;
+}
+
+// ============================================================================
+// Archive Resolution
+// ============================================================================
+
+/**
+ * Resolve a path through symlinks, keeping the original if that fails.
+ */
+function safeRealpath(path: string | null): string {
+  if (!path) return "";
+  try {
+    return realpathSync(path);
+  } catch {
+    return path;
+  }
+}
+
+/**
+ * Archive path for a tool. Keyed on the Java binary and the tool launcher so
+ * a JDK or tool upgrade starts a fresh archive instead of reusing one the JVM
+ * would reject.
+ */
+function getArchivePath(outputDir: string, tool: string): string {
+  const javaPath = process.env.JAVA_HOME
+    ? join(process.env.JAVA_HOME, "bin", "java")
+    : findExecutable("java");
+
+  const key = createHash("sha256")
+    .update(safeRealpath(javaPath))
+    .update("\0")
+    .update(safeRealpath(findExecutable(tool)))
+    .digest("hex")
+    .substring(0, 12);
+
+  return join(outputDir, JVM_CDS_DIR, `${tool}-${key}.jsa`);
+}
+
+// ============================================================================
+// Environment
+// ============================================================================
+
+/**
+ * Build the environment for launching a JVM tool with class-data sharing.
+ *
+ * Options go through JAVA_TOOL_OPTIONS, which every HotSpot launcher honors
+ * regardless of how the tool's wrapper script builds its command line.
+ * -XX:ArchiveClassesAtExit only exists from JDK 13, and HotSpot refuses to
+ * start on an unrecognized -XX option, so the flags are preceded by
+ * -XX:+IgnoreUnrecognizedVMOptions: older JDKs (e.g. 11) start without
+ * class-data sharing instead of failing. An unusable archive only produces
+ * a JVM warning on stderr.
+ */
+export function buildJvmToolEnv(
+  tool: string,
+  outputDir: string,
+  options: JvmLaunchOptions,
+): NodeJS.ProcessEnv {
+  const archivePath = getArchivePath(outputDir, tool);
+
+  // JAVA_TOOL_OPTIONS is whitespace-separated; don't risk a split path
+  if (/\s/.test(archivePath)) {
+    return process.env;
+  }
+
+  let flag: string | null = null;
+  if (existsSync(archivePath)) {
+    flag = `${IGNORE_UNRECOGNIZED} -XX:SharedArchiveFile=${archivePath} -Xshare:auto`;
+  } else if (options.dumpArchive) {
+    mkdirSync(join(outputDir, JVM_CDS_DIR), { recursive: true });
+    flag = `${IGNORE_UNRECOGNIZED} -XX:ArchiveClassesAtExit=${archivePath}`;
+  }
+
+  if (!flag) {
+    return process.env;
+  }
+
+  const existing = process.env.JAVA_TOOL_OPTIONS;
+  return {
+    ...process.env,
+    JAVA_TOOL_OPTIONS: existing ? `${existing} ${flag}` : flag,
+  };
+}
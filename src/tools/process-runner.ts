@@ -0,0 +1,395 @@
+/**
+ * Process Runner
+ *
+ * Async replacement for spawnSync so analysis tools can run concurrently
+ * without blocking the event loop.
+ *
+ * Commands are spawned directly (no /bin/sh hop, no shell quoting) except on
+ * Windows, where npm's `.cmd` shims can only be started through a shell.
+ * Every process started while a tool runs inside `runInProcessScope` is
+ * cancelled with the tool and recorded against it (exit code, duration,
+ * peak RSS, output bytes).
+ *
+ * On POSIX each command gets its own process group, and timeouts and
+ * cancellation signal the whole group: wrappers (npx, the pmd/spotbugs/trunk
+ * launcher scripts) start the real tool as a grandchild that shares the
+ * stdout pipe, and killing only the wrapper would leave it running.
+ */
+
+import { spawn } from "node:child_process";
+import { AsyncLocalStorage } from "node:async_hooks";
+import { createWriteStream, readFileSync } from "node:fs";
+import { finished } from "node:stream/promises";
+import { MAX_OUTPUT_BUFFER } from "../utils/shared.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+export interface ProcessRunOptions {
+  cwd?: string;
+  env?: NodeJS.ProcessEnv;
+  /** Run through a shell (default: only on Windows, for .cmd shims) */
+  shell?: boolean;
+  /** Max bytes captured per stream before the process is killed */
+  maxBuffer?: number;
+  /** Kill the process after this many milliseconds */
+  timeout?: number;
+  /** Kill the process when aborted (in addition to the tool's scope signal) */
+  signal?: AbortSignal;
+  /**
+   * Receive stdout incrementally instead of buffering it.
+   * When set, `stdout` in the result is empty and maxBuffer does not apply to it.
+   */
+  onStdout?: (chunk: string) => void;
+  /** Like onStdout, but called once per line (without the line break) */
+  onStdoutLine?: (line: string) => void;
+  /**
+   * Stream stdout to this file (with backpressure) instead of buffering it.
+   * When set, `stdout` in the result is empty and maxBuffer does not apply to it.
+   */
+  stdoutFile?: string;
+}
+
+export interface ProcessResult {
+  stdout: string;
+  stderr: string;
+  /** Exit code, or null if the process was killed or failed to start */
+  status: number | null;
+  /** Set when the process failed to start, timed out, was aborted, or overflowed maxBuffer */
+  error?: Error;
+  /** Wall time from spawn to exit */
+  durationMs: number;
+  /** Bytes written to stdout (including streamed output) */
+  stdoutBytes: number;
+  /** Bytes written to stderr */
+  stderrBytes: number;
+  /** Sampled peak resident memory of the process tree (Linux only) */
+  peakRssBytes?: number;
+}
+
+/** One process run, as recorded against the tool that started it */
+export interface ProcessRecord {
+  command: string;
+  status: number | null;
+  durationMs: number;
+  stdoutBytes: number;
+  stderrBytes: number;
+  peakRssBytes?: number;
+  error?: string;
+}
+
+interface ProcessScope {
+  signal: AbortSignal;
+  records: ProcessRecord[];
+}
+
+// ============================================================================
+// Scope
+// ============================================================================
+
+/** Windows needs a shell to start .cmd/.bat shims (npx, spotbugs.bat) */
+export const SPAWN_SHELL = process.platform === "win32";
+
+/** Start each command in its own process group (POSIX only) */
+const USE_PROCESS_GROUPS = process.platform !== "win32";
+
+/** Grace period between SIGTERM and SIGKILL */
+const KILL_GRACE_MS = 5_000;
+
+/** Interval between peak RSS samples */
+const RSS_SAMPLE_MS = 250;
+
+const processScope = new AsyncLocalStorage<ProcessScope>();
+
+/** Process groups still running, killed if vibecheck itself goes away */
+const liveGroups = new Set<number>();
+
+/**
+ * Run `fn` with every process it starts tied to `signal` and recorded in
+ * `records`.
+ */
+export function runInProcessScope<T>(
+  signal: AbortSignal,
+  records: ProcessRecord[],
+  fn: () => Promise<T>,
+): Promise<T> {
+  return processScope.run({ signal, records }, fn);
+}
+
+// ============================================================================
+// Runner
+// ============================================================================
+
+/**
+ * Run a command asynchronously and capture its output.
+ * Mirrors the spawnSync result shape used by the runners (stdout, stderr,
+ * status, error) so call sites only need an `await`.
+ */
+export function runProcess(
+  command: string,
+  args: string[],
+  options: ProcessRunOptions = {},
+): Promise<ProcessResult> {
+  const {
+    cwd,
+    env,
+    shell = SPAWN_SHELL,
+    maxBuffer = MAX_OUTPUT_BUFFER,
+    timeout,
+    onStdoutLine,
+    stdoutFile,
+  } = options;
+  const onStdout = onStdoutLine ? splitLines(onStdoutLine) : options.onStdout;
+
+  const scope = processScope.getStore();
+  const signals = [options.signal, scope?.signal].filter(
+    (s): s is AbortSignal => s !== undefined,
+  );
+  const signal = signals.length > 1 ? AbortSignal.any(signals) : signals[0];
+
+  const startTime = Date.now();
+
+  const result = new Promise<ProcessResult>((resolve) => {
+    const stdoutChunks: string[] = [];
+    const stderrChunks: string[] = [];
+    let stdoutBytes = 0;
+    let stderrBytes = 0;
+    let peakRssBytes: number | undefined;
+    let error: Error | undefined;
+    let settled = false;
+    let timer: NodeJS.Timeout | undefined;
+    let killTimer: NodeJS.Timeout | undefined;
+    let sampler: NodeJS.Timeout | undefined;
+
+    if (signal?.aborted) {
+      resolve({
+        stdout: "",
+        stderr: "",
+        status: null,
+        error: abortError(signal),
+        durationMs: 0,
+        stdoutBytes: 0,
+        stderrBytes: 0,
+      });
+      return;
+    }
+
+    const child = spawn(command, args, {
+      cwd,
+      env,
+      shell,
+      detached: USE_PROCESS_GROUPS,
+    });
+    const group = USE_PROCESS_GROUPS ? child.pid : undefined;
+    if (group !== undefined) trackGroup(group);
+    const file = stdoutFile ? createWriteStream(stdoutFile) : null;
+    const fileDone = file
+      ? finished(child.stdout.pipe(file)).catch((err: Error) => {
+          error ??= err;
+        })
+      : Promise.resolve();
+
+    const onAbort = () => kill(abortError(signal!));
+
+    const finish = async (status: number | null) => {
+      if (settled) return;
+      settled = true;
+      clearTimeout(timer);
+      clearTimeout(killTimer);
+      clearInterval(sampler);
+      signal?.removeEventListener("abort", onAbort);
+      if (group !== undefined) liveGroups.delete(group);
+      // stdout may never end if the process failed to start
+      if (file && !file.writableEnded) file.end();
+      await fileDone;
+      if (onStdoutLine) onStdout?.("\n");
+      resolve({
+        stdout: stdoutChunks.join(""),
+        stderr: stderrChunks.join(""),
+        status,
+        error,
+        durationMs: Date.now() - startTime,
+        stdoutBytes,
+        stderrBytes,
+        peakRssBytes,
+      });
+    };
+
+    const signalTree = (name: NodeJS.Signals) => {
+      if (group === undefined || !killGroup(group, name)) child.kill(name);
+    };
+
+    const kill = (reason: Error) => {
+      error ??= reason;
+      signalTree("SIGTERM");
+      // Tools that trap SIGTERM (JVMs running shutdown hooks) get a grace period
+      killTimer ??= setTimeout(() => signalTree("SIGKILL"), KILL_GRACE_MS);
+    };
+
+    child.stderr.setEncoding("utf-8");
+
+    if (file) {
+      child.stdout.on("data", (chunk: Buffer) => {
+        stdoutBytes += chunk.length;
+      });
+    } else {
+      child.stdout.setEncoding("utf-8");
+      child.stdout.on("data", (chunk: string) => {
+        stdoutBytes += Buffer.byteLength(chunk);
+        if (onStdout) {
+          onStdout(chunk);
+          return;
+        }
+        if (stdoutBytes > maxBuffer) {
+          kill(new Error(`stdout maxBuffer (${maxBuffer} bytes) exceeded`));
+          return;
+        }
+        stdoutChunks.push(chunk);
+      });
+    }
+
+    child.stderr.on("data", (chunk: string) => {
+      stderrBytes += Buffer.byteLength(chunk);
+      if (stderrBytes > maxBuffer) {
+        kill(new Error(`stderr maxBuffer (${maxBuffer} bytes) exceeded`));
+        return;
+      }
+      stderrChunks.push(chunk);
+    });
+
+    if (timeout) {
+      timer = setTimeout(() => {
+        kill(new Error(`Process timed out after ${timeout}ms`));
+      }, timeout);
+    }
+    signal?.addEventListener("abort", onAbort, { once: true });
+
+    if (child.pid !== undefined && process.platform === "linux") {
+      const pid = child.pid;
+      sampler = setInterval(() => {
+        const rss = sampleTreeRss(pid);
+        if (rss > (peakRssBytes ?? 0)) peakRssBytes = rss;
+      }, RSS_SAMPLE_MS);
+      sampler.unref();
+    }
+
+    child.on("error", (err) => {
+      error ??= err;
+      void finish(null);
+    });
+
+    child.on("close", (code) => {
+      void finish(error ? null : code);
+    });
+  });
+
+  if (!scope) return result;
+  return result.then((run) => {
+    scope.records.push({
+      command: [command, ...args.slice(0, 1)].join(" "),
+      status: run.status,
+      durationMs: run.durationMs,
+      stdoutBytes: run.stdoutBytes,
+      stderrBytes: run.stderrBytes,
+      peakRssBytes: run.peakRssBytes,
+      error: run.error?.message,
+    });
+    return run;
+  });
+}
+
+// ============================================================================
+// Process Groups
+// ============================================================================
+
+/**
+ * Signal every process in a group. Returns false if the group is gone.
+ */
+function killGroup(group: number, name: NodeJS.Signals): boolean {
+  try {
+    process.kill(-group, name);
+    return true;
+  } catch {
+    return false;
+  }
+}
+
+let exitHandlersInstalled = false;
+
+/**
+ * Record a running group. Detached groups no longer receive the terminal's
+ * Ctrl-C, so they are signalled when vibecheck exits or is interrupted.
+ */
+function trackGroup(group: number): void {
+  liveGroups.add(group);
+  if (exitHandlersInstalled) return;
+  exitHandlersInstalled = true;
+
+  const killAll = (name: NodeJS.Signals) => {
+    for (const live of liveGroups) killGroup(live, name);
+    liveGroups.clear();
+  };
+  process.on("exit", () => killAll("SIGKILL"));
+  for (const name of ["SIGINT", "SIGTERM", "SIGHUP"] as const) {
+    process.once(name, () => {
+      killAll("SIGTERM");
+      // Listener removed by once(): re-raise for the default behaviour
+      process.kill(process.pid, name);
+    });
+  }
+}
+
+/**
+ * Adapt a per-line callback to stdout chunks. The trailing partial line is
+ * flushed by a final "\n" when the process exits.
+ */
+function splitLines(onLine: (line: string) => void): (chunk: string) => void {
+  let pending = "";
+  return (chunk) => {
+    const lines = (pending + chunk).split("\n");
+    pending = lines.pop() ?? "";
+    for (const line of lines) {
+      if (line) onLine(line.endsWith("\r") ? line.slice(0, -1) : line);
+    }
+  };
+}
+
+function abortError(signal: AbortSignal): Error {
+  const reason: unknown = signal.reason;
+  return reason instanceof Error
+    ? reason
+    : new Error(`Process aborted${reason ? `: ${String(reason)}` : ""}`);
+}
+
+// ============================================================================
+// Memory Sampling
+// ============================================================================
+
+/**
+ * Resident memory of a process and its descendants, from /proc.
+ * Wrapper scripts (pmd, spotbugs, npx) start the real tool as a child, so the
+ * whole tree is summed. Returns 0 once the process has exited.
+ */
+function sampleTreeRss(pid: number): number {
+  let total = 0;
+  const pending = [pid];
+  while (pending.length > 0) {
+    const current = pending.pop()!;
+    try {
+      const status = readFileSync(`/proc/${current}/status`, "utf-8");
+      const match = /^VmRSS:\s+(\d+) kB/m.exec(status);
+      if (match) total += Number(match[1]) * 1024;
+      const children = readFileSync(
+        `/proc/${current}/task/${current}/children`,
+        "utf-8",
+      );
+      for (const child of children.split(" ")) {
+        if (child.trim()) pending.push(Number(child));
+      }
+    } catch {
+      // Exited between samples, or /proc is unavailable
+    }
+  }
+  return total;
+}
@@ -4,129 +4,765 @@
  * Runners for Java analysis tools: PMD, SpotBugs
  */
 
-import { spawnSync } from "node:child_process";
-import { existsSync } from "node:fs";
-import { join } from "node:path";
+import {
+  existsSync,
+  mkdirSync,
+  readdirSync,
+  readFileSync,
+  writeFileSync,
+} from "node:fs";
+import { availableParallelism, totalmem } from "node:os";
+import { join, posix } from "node:path";
+import type { FileInventory } from "../../core/file-inventory.js";
 import type { Finding } from "../../core/types.js";
-import { isToolAvailable, safeParseJson } from "../tool-utils.js";
 import {
-  parsePmdOutput,
-  parseSpotBugsOutput,
-  type PmdOutput,
-  type SpotBugsSarifOutput,
-} from "../../parsers.js";
-import { MAX_OUTPUT_BUFFER } from "../../utils/shared.js";
+  carryForwardFindings,
+  getHeadCommit,
+  hashToolConfig,
+  loadPreviousFindings,
+  planIncrementalRun,
+  type IncrementalPlan,
+} from "../incremental.js";
+import { buildJvmToolEnv } from "../jvm.js";
+import { runProcess } from "../process-runner.js";
+import { resolveTool } from "../tool-resolution.js";
+import { COMMON_EXCLUDE_DIRS } from "../exclusions.js";
+import { safeParseJson, type ToolRunContext } from "../tool-utils.js";
+import type { PmdFileReport, SpotBugsSarifOutput } from "../../parsers.js";
+import { parseInPool, parseShard } from "../../parsers/parse-pool.js";
+import { JsonArrayStreamer } from "../../utils/json-stream.js";
+import { mapWithConcurrency, stableBucket } from "../../utils/shared.js";
+
+/** PMD analysis cache, reused across runs (restore .vibecheck-output in CI) */
+const PMD_CACHE_FILE = "pmd.cache";
+
+/** File reports per parse shard while streaming the PMD report */
+const PMD_STREAM_SHARD_FILES = 200;
+
+/** File list handed to PMD (changed files in incremental mode) */
+const PMD_FILE_LIST = "pmd-file-list.txt";
+
+/** Memory budgeted per PMD analysis thread when sizing --threads */
+const PMD_MEMORY_PER_THREAD = 512 * 1024 * 1024;
+
+const MB = 1024 * 1024;
+
+/** Files per PMD process before the file list is split into shards */
+const PMD_FILES_PER_SHARD = 10_000;
+
+/** Fewest threads a shard process gets; below this, shards stop paying off */
+const PMD_MIN_THREADS_PER_SHARD = 4;
+
+// ============================================================================
+// PMD Sharding
+// ============================================================================
+
+/** How one PMD run is split across processes */
+export interface PmdShardPlan {
+  /** File lists, one per PMD process, each sorted by path */
+  shards: string[][];
+  /** --threads for each process */
+  threadsPerShard: number;
+  /**
+   * -Xmx (MB) for each process when sharded. A single process keeps the JVM
+   * default; several would each default to a quarter of physical memory.
+   */
+  heapMbPerShard?: number;
+}
+
+/**
+ * Size PMD's thread pool from available cores and memory, and split very
+ * large file lists into shards by a stable hash of each path. A file stays
+ * in the same shard, and so hits the same pmd-<n>.cache, from run to run
+ * (as long as the shard count holds) regardless of what else changed.
+ *
+ * @internal Exported for tests
+ */
+export function planPmdShards(
+  files: string[],
+  cores: number = availableParallelism(),
+  memoryBytes: number = totalmem(),
+): PmdShardPlan {
+  const threads = Math.max(
+    1,
+    Math.min(cores, Math.floor(memoryBytes / PMD_MEMORY_PER_THREAD)),
+  );
+  const shardCount = Math.max(
+    1,
+    Math.min(
+      Math.ceil(files.length / PMD_FILES_PER_SHARD),
+      Math.floor(threads / PMD_MIN_THREADS_PER_SHARD),
+    ),
+  );
+  if (shardCount === 1) {
+    return { shards: [[...files].sort()], threadsPerShard: threads };
+  }
+
+  const shards = Array.from({ length: shardCount }, (): string[] => []);
+  for (const path of files) {
+    shards[stableBucket(path, shardCount)].push(path);
+  }
+
+  const threadsPerShard = Math.max(1, Math.floor(threads / shardCount));
+  return {
+    shards: shards.map((shard) => shard.sort()),
+    threadsPerShard,
+    heapMbPerShard: (threadsPerShard * PMD_MEMORY_PER_THREAD) / MB,
+  };
+}
+
+/**
+ * Cap a PMD process's heap through PMD_JAVA_OPTS (read by the pmd launcher
+ * script). An -Xmx the user already set there wins.
+ *
+ * @internal Exported for tests
+ */
+export function withPmdHeap(
+  env: NodeJS.ProcessEnv,
+  heapMb: number,
+): NodeJS.ProcessEnv {
+  const existing = env.PMD_JAVA_OPTS;
+  if (existing && /(^|\s)-Xmx/.test(existing)) {
+    return env;
+  }
+  const flag = `-Xmx${heapMb}m`;
+  return { ...env, PMD_JAVA_OPTS: existing ? `${existing} ${flag}` : flag };
+}
 
 /**
  * Run PMD static analyzer for Java code.
+ *
+ * In incremental mode only .java files changed since the last analyzed commit
+ * are checked; findings for unchanged files are carried forward from the
+ * previous findings-all.ndjson. Monthly runs (and runs without a usable
+ * baseline) analyze the whole tree.
+ *
+ * Threads are sized from the machine (see planPmdShards); very large file
+ * lists run as several PMD processes whose findings are merged by path.
  */
-export function runPmd(rootPath: string, configPath?: string): Finding[] {
+export async function runPmd(
+  rootPath: string,
+  configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running PMD...");
 
   try {
-    const { available } = isToolAvailable("pmd", false);
-    if (!available) {
+    // PATH lookup instead of `pmd --version`, which would start a JVM
+    const pmd = await resolveTool({ command: "pmd", probe: "path" });
+    if (!pmd.available) {
       console.log("  PMD not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
     // Use quickstart ruleset if no config provided
     const rulesets = configPath || "rulesets/java/quickstart.xml";
-    // PMD 7.x requires a file for --ignore-list, so we use glob patterns instead
-    // to exclude common directories from scanning
-    const args = [
-      "check",
-      "-d",
-      ".",
-      "-R",
-      rulesets,
-      "-f",
-      "json",
-      "--no-progress",
-    ];
-
-    const result = spawnSync("pmd", args, {
-      cwd: rootPath,
-      encoding: "utf-8",
-      shell: true,
-      maxBuffer: MAX_OUTPUT_BUFFER,
-    });
-
-    // PMD outputs JSON to stdout
-    const output = result.stdout || "";
-    const parsed = safeParseJson<PmdOutput>(output);
-    if (parsed) {
-      return parsePmdOutput(parsed);
+    const configKey = hashToolConfig(rootPath, rulesets);
+    const { outputDir, incrementalState } = context;
+    mkdirSync(outputDir, { recursive: true });
+
+    // Full runs still record HEAD so later runs can go incremental from here
+    const plan: IncrementalPlan = context.incremental
+      ? await planIncrementalRun(
+          rootPath,
+          outputDir,
+          "pmd",
+          incrementalState,
+          configKey,
+        )
+      : {
+          mode: "full",
+          reason: "incremental disabled",
+          headCommit: await getHeadCommit(rootPath),
+        };
+
+    let carriedForward: Finding[] = [];
+    // PMD gets an explicit file list: `-d .` would also scan target/, build/
+    // and every other excluded directory
+    let javaFiles: string[];
+
+    if (plan.mode === "incremental") {
+      javaFiles = [...plan.changedFiles].filter(
+        (path) =>
+          path.endsWith(".java") &&
+          !context.exclusions.excludes(path) &&
+          existsSync(join(rootPath, path)),
+      );
+      carriedForward = carryForwardFindings(
+        loadPreviousFindings(outputDir, "pmd"),
+        plan.changedFiles,
+        rootPath,
+      );
+      console.log(
+        `  Incremental since ${plan.baseCommit.substring(0, 8)}: ` +
+          `${javaFiles.length} changed Java files, ${carriedForward.length} findings carried forward`,
+      );
+    } else {
+      if (context.incremental) {
+        console.log(`  Full analysis (${plan.reason})`);
+      }
+      javaFiles = context.exclusions.selectFiles(context.inventory, [".java"]);
     }
+
+    if (javaFiles.length === 0) {
+      if (plan.headCommit) {
+        incrementalState.markAnalyzed("pmd", plan.headCommit, configKey);
+      }
+      return carriedForward;
+    }
+
+    const { shards, threadsPerShard, heapMbPerShard } =
+      planPmdShards(javaFiles);
+    console.log(
+      shards.length > 1
+        ? `  Checking ${javaFiles.length} files in ${shards.length} shards, ${threadsPerShard} threads each`
+        : `  Checking ${javaFiles.length} files with ${threadsPerShard} threads`,
+    );
+
+    const shardResults = await mapWithConcurrency(
+      shards,
+      shards.length,
+      async (files, index) => {
+        // Each process keeps its own file list and cache: PMD locks neither
+        const suffix = shards.length > 1 ? `-${index}` : "";
+        const fileListPath = join(
+          outputDir,
+          PMD_FILE_LIST.replace(".txt", `${suffix}.txt`),
+        );
+        writeFileSync(fileListPath, files.join("\n") + "\n");
+
+        const args = [
+          "check",
+          "--file-list",
+          fileListPath,
+          "-R",
+          rulesets,
+          "-f",
+          "json",
+          "--no-progress",
+          "--threads",
+          String(threadsPerShard),
+          "--cache",
+          join(outputDir, PMD_CACHE_FILE.replace(".cache", `${suffix}.cache`)),
+        ];
+
+        // Stream the report: files[] entries are batched and parsed on the
+        // parse pool while PMD is still running, so report size never has to
+        // fit in a single string. Batches are joined in report order.
+        const parsedShards: Promise<Finding[]>[] = [];
+        let pendingFiles: PmdFileReport[] = [];
+        const flushShard = () => {
+          if (pendingFiles.length === 0) return;
+          parsedShards.push(parseShard("pmd", { files: pendingFiles }));
+          pendingFiles = [];
+        };
+        const streamer = new JsonArrayStreamer<PmdFileReport>("files", (file) => {
+          pendingFiles.push(file);
+          if (pendingFiles.length >= PMD_STREAM_SHARD_FILES) flushShard();
+        });
+
+        // Only the first process may create the archive; the rest reuse it next run
+        const env = context.jvmClassCache
+          ? buildJvmToolEnv("pmd", outputDir, { dumpArchive: index === 0 })
+          : process.env;
+        const result = await runProcess("pmd", args, {
+          cwd: rootPath,
+          env: heapMbPerShard ? withPmdHeap(env, heapMbPerShard) : env,
+          onStdout: (chunk) => streamer.write(chunk),
+        });
+        flushShard();
+        const findings = (await Promise.all(parsedShards)).flat();
+
+        const label =
+          shards.length > 1 ? `PMD shard ${index + 1}/${shards.length}` : "PMD";
+        if (streamer.error) {
+          console.warn(
+            `  Failed to parse ${label} JSON output: ${streamer.error.message}`,
+          );
+        } else if (!streamer.complete) {
+          console.warn(
+            `  ${label} report ended early (exit code ${result.status}), ` +
+              `kept ${streamer.elementCount} complete file reports`,
+          );
+          if (result.stderr) {
+            console.log(`  stderr: ${result.stderr.substring(0, 200)}`);
+          }
+        }
+        return { findings, complete: !streamer.error && streamer.complete };
+      },
+    );
+
+    // PMD's worker threads report files in completion order: sort by path
+    // (stable, so each file keeps PMD's violation order) for a report that
+    // does not depend on thread or shard scheduling
+    const findings = shardResults
+      .flatMap((shard) => shard.findings)
+      .sort((a, b) => comparePaths(a.locations[0]?.path, b.locations[0]?.path));
+
+    if (!shardResults.every((shard) => shard.complete)) {
+      context.markIncomplete("incomplete PMD report");
+    } else if (plan.headCommit) {
+      // Only a complete report is a valid baseline for the next incremental run
+      incrementalState.markAnalyzed("pmd", plan.headCommit, configKey);
+    }
+
+    return [...carriedForward, ...findings];
   } catch (error) {
     console.warn("PMD failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
 }
 
+function comparePaths(a = "", b = ""): number {
+  return a < b ? -1 : a > b ? 1 : 0;
+}
+
+// ============================================================================
+// SpotBugs Module Discovery
+// ============================================================================
+
+/** Build files that mark a Maven or Gradle module */
+const JAVA_BUILD_FILES = ["pom.xml", "build.gradle", "build.gradle.kts"];
+
+/** Directories holding dependency jars (mvn dependency:copy-dependencies, lib/) */
+const JAVA_DEPENDENCY_DIRS = [join("target", "dependency"), join("target", "lib"), "lib"];
+
+/** How deep to look for nested modules */
+const MAX_MODULE_DEPTH = 6;
+
+/**
+ * A compiled Java module that SpotBugs can analyze
+ *
+ * @internal Exported for tests
+ */
+export interface JavaModule {
+  /** Module directory relative to rootPath ("." for the root) */
+  path: string;
+  /** Compiled class directories (absolute) */
+  classDirs: string[];
+  /** Dependency jars found in the module (absolute) */
+  jars: string[];
+}
+
+/**
+ * Find the compiled class directories of a module.
+ * Maven writes target/classes; Gradle writes build/classes/<lang>/main.
+ */
+function findClassDirs(moduleDir: string): string[] {
+  const mavenClasses = join(moduleDir, "target", "classes");
+  if (existsSync(mavenClasses)) {
+    return [mavenClasses];
+  }
+
+  const gradleClasses = join(moduleDir, "build", "classes");
+  if (!existsSync(gradleClasses)) {
+    return [];
+  }
+
+  const mainDirs = readdirSync(gradleClasses, { withFileTypes: true })
+    .filter((entry) => entry.isDirectory())
+    .map((entry) => join(gradleClasses, entry.name, "main"))
+    .filter((dir) => existsSync(dir))
+    .sort();
+
+  // Older Gradle layouts put classes directly under build/classes
+  return mainDirs.length > 0 ? mainDirs : [gradleClasses];
+}
+
+/**
+ * List jar files in a module's dependency directories.
+ */
+function findDependencyJars(moduleDir: string): string[] {
+  const jars: string[] = [];
+  for (const dir of JAVA_DEPENDENCY_DIRS) {
+    const fullDir = join(moduleDir, dir);
+    if (!existsSync(fullDir)) continue;
+    for (const entry of readdirSync(fullDir).sort()) {
+      if (entry.endsWith(".jar")) {
+        jars.push(join(fullDir, entry));
+      }
+    }
+  }
+  return jars;
+}
+
+/**
+ * Check whether a directory holding a build file can be a module root
+ * (not hidden, not inside sources or build output, not too deep).
+ */
+function isModuleDir(dir: string): boolean {
+  if (dir === ".") return true;
+  const segments = dir.split("/");
+  return (
+    segments.length <= MAX_MODULE_DEPTH &&
+    segments.every(
+      (name) =>
+        !name.startsWith(".") &&
+        name !== "src" &&
+        !COMMON_EXCLUDE_DIRS.includes(name),
+    )
+  );
+}
+
+/**
+ * Discover every Maven/Gradle module with compiled classes.
+ * Build files come from the run's file inventory; class directories are
+ * build output, so they are looked up on disk.
+ * Modules are returned in path order so merged output is deterministic.
+ *
+ * @internal Exported for tests
+ */
+export function discoverJavaModules(
+  rootPath: string,
+  inventory: FileInventory,
+): JavaModule[] {
+  const modules: JavaModule[] = [];
+
+  const moduleDirs = new Set(
+    JAVA_BUILD_FILES.flatMap((name) => inventory.named(name))
+      .map((file) => posix.dirname(file.path))
+      .filter(isModuleDir),
+  );
+
+  for (const path of moduleDirs) {
+    const dir = join(rootPath, path);
+    const classDirs = findClassDirs(dir);
+    if (classDirs.length > 0) {
+      modules.push({ path, classDirs, jars: findDependencyJars(dir) });
+    }
+  }
+
+  // Fall back to the legacy fixed locations for repos without build files
+  if (modules.length === 0) {
+    for (const candidate of [".", "test-fixtures"]) {
+      const classDirs = findClassDirs(join(rootPath, candidate));
+      if (classDirs.length > 0) {
+        modules.push({ path: candidate, classDirs, jars: [] });
+        break;
+      }
+    }
+  }
+
+  return modules.sort((a, b) => a.path.localeCompare(b.path));
+}
+
+/**
+ * Build the auxiliary classpath for one module: every other module's classes
+ * plus all dependency jars, so cross-module types resolve during analysis.
+ *
+ * @internal Exported for tests
+ */
+export function buildAuxClasspath(
+  module: JavaModule,
+  modules: JavaModule[],
+): string[] {
+  const entries = new Set<string>();
+  for (const other of modules) {
+    if (other !== module) {
+      other.classDirs.forEach((dir) => entries.add(dir));
+    }
+    other.jars.forEach((jar) => entries.add(jar));
+  }
+  return [...entries];
+}
+
+// ============================================================================
+// SpotBugs Incremental Analysis
+// ============================================================================
+
+/** Changed classes beyond which a full SpotBugs run is cheaper than -onlyAnalyze */
+const SPOTBUGS_MAX_CHANGED_CLASSES = 1000;
+
+/** A changed .java source and the path SpotBugs reports it under */
+export interface ChangedJavaSource {
+  /** Package name ("" for the default package) */
+  packageName: string;
+  /** Simple name of the file's top-level class */
+  className: string;
+  /** Package-relative source path, as in SpotBugs SARIF (com/acme/Foo.java) */
+  sourceKey: string;
+}
+
+/**
+ * Read the package of a changed .java file. The source root is not known,
+ * so the package declaration decides where the file's classes live.
+ *
+ * @internal Exported for tests
+ */
+export function describeJavaSource(
+  path: string,
+  content: string,
+): ChangedJavaSource {
+  const className = posix.basename(path, ".java");
+  const packageName = /^\s*package\s+([\w.]+)\s*;/m.exec(content)?.[1] ?? "";
+  const packagePath = packageName.replace(/\./g, "/");
+  return {
+    packageName,
+    className,
+    sourceKey: packagePath ? `${packagePath}/${className}.java` : `${className}.java`,
+  };
+}
+
+/**
+ * Fully qualified names of the classes compiled from changed sources in one
+ * module: the top-level class and its nested and anonymous classes
+ * (Foo$Bar, Foo$1). Sorted, for a stable -onlyAnalyze list.
+ *
+ * @internal Exported for tests
+ */
+export function findCompiledClasses(
+  module: JavaModule,
+  sources: ChangedJavaSource[],
+): string[] {
+  const classes = new Set<string>();
+  const listings = new Map<string, string[]>();
+
+  for (const classDir of module.classDirs) {
+    for (const source of sources) {
+      const dir = join(classDir, ...source.packageName.split(".").filter(Boolean));
+      let entries = listings.get(dir);
+      if (!entries) {
+        entries = existsSync(dir) ? readdirSync(dir) : [];
+        listings.set(dir, entries);
+      }
+
+      for (const entry of entries) {
+        if (!entry.endsWith(".class")) continue;
+        const name = entry.slice(0, -".class".length);
+        if (name === source.className || name.startsWith(`${source.className}$`)) {
+          classes.add(source.packageName ? `${source.packageName}.${name}` : name);
+        }
+      }
+    }
+  }
+
+  return [...classes].sort();
+}
+
+/**
+ * True if a SARIF source path refers to one of the given package-relative
+ * source keys. SpotBugs reports paths relative to the source root, but may
+ * report longer paths when a source path is configured.
+ */
+function matchesSourceKey(path: string, keys: Iterable<string>): boolean {
+  for (const key of keys) {
+    if (path === key || path.endsWith(`/${key}`)) return true;
+  }
+  return false;
+}
+
 /**
  * Run SpotBugs bytecode analyzer for Java code.
  * Note: SpotBugs requires compiled .class files.
+ *
+ * Each module found via pom.xml/build.gradle is analyzed separately with the
+ * rest of the build on its auxiliary classpath. Modules run on a bounded pool
+ * (each SpotBugs run is its own JVM) and results merge in module order.
+ *
+ * In incremental mode changed .java files are mapped to their compiled
+ * classes (nested classes included), and only modules containing them are
+ * re-run with -onlyAnalyze; findings for untouched classes are carried
+ * forward from the previous findings-all.ndjson. Build file or jar changes
+ * and monthly runs analyze every module.
  */
-export function runSpotBugs(rootPath: string, configPath?: string): Finding[] {
+export async function runSpotBugs(
+  rootPath: string,
+  configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running SpotBugs...");
 
   try {
-    // Check if compiled classes exist (standard locations + test-fixtures)
-    const targetClasses = join(rootPath, "target", "classes");
-    const buildClasses = join(rootPath, "build", "classes");
-    const testFixturesClasses = join(
-      rootPath,
-      "test-fixtures",
-      "target",
-      "classes",
-    );
-
-    let classesDir: string | null = null;
-    if (existsSync(targetClasses)) {
-      classesDir = targetClasses;
-    } else if (existsSync(buildClasses)) {
-      classesDir = buildClasses;
-    } else if (existsSync(testFixturesClasses)) {
-      classesDir = testFixturesClasses;
-    }
-
-    if (!classesDir) {
+    const modules = discoverJavaModules(rootPath, context.inventory);
+    if (modules.length === 0) {
       console.log(
-        "  No compiled classes found (target/classes, build/classes, or test-fixtures/target/classes), skipping",
+        "  No compiled classes found (target/classes or build/classes in any module), skipping",
       );
       return [];
     }
 
-    const { available } = isToolAvailable("spotbugs", false);
-    if (!available) {
+    const spotbugs = await resolveTool({ command: "spotbugs", probe: "path" });
+    if (!spotbugs.available) {
       console.log("  SpotBugs not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
-    const args = ["-sarif", classesDir];
-    if (configPath) {
-      args.unshift("-exclude", configPath);
+    const { outputDir, incrementalState } = context;
+    mkdirSync(outputDir, { recursive: true });
+
+    // The module layout decides the auxiliary classpath, so it is part of the config
+    const configKey = hashToolConfig(
+      rootPath,
+      [configPath ?? "", ...modules.map((module) => module.path)].join(","),
+    );
+    let plan: IncrementalPlan = context.incremental
+      ? await planIncrementalRun(
+          rootPath,
+          outputDir,
+          "spotbugs",
+          incrementalState,
+          configKey,
+        )
+      : {
+          mode: "full",
+          reason: "incremental disabled",
+          headCommit: await getHeadCommit(rootPath),
+        };
+
+    let carriedForward: Finding[] = [];
+    // Classes to analyze per module; undefined means the whole module
+    let onlyAnalyze: (string[] | undefined)[] = modules.map(() => undefined);
+    let targets = modules.map((_, index) => index);
+
+    if (plan.mode === "incremental") {
+      const changed = [...plan.changedFiles];
+      // Dependency changes can alter findings in classes that did not change
+      const buildChange = changed.find(
+        (path) =>
+          JAVA_BUILD_FILES.includes(posix.basename(path)) || path.endsWith(".jar"),
+      );
+
+      const sources = changed
+        .filter(
+          (path) => path.endsWith(".java") && existsSync(join(rootPath, path)),
+        )
+        .map((path) =>
+          describeJavaSource(path, readFileSync(join(rootPath, path), "utf-8")),
+        );
+      const classes = buildChange
+        ? []
+        : modules.map((module) => findCompiledClasses(module, sources));
+      const classCount = classes.reduce((sum, list) => sum + list.length, 0);
+
+      if (buildChange) {
+        plan = {
+          mode: "full",
+          reason: `${buildChange} changed`,
+          headCommit: plan.headCommit,
+        };
+      } else if (classCount > SPOTBUGS_MAX_CHANGED_CLASSES) {
+        plan = {
+          mode: "full",
+          reason: `${classCount} changed classes`,
+          headCommit: plan.headCommit,
+        };
+      } else {
+        onlyAnalyze = classes;
+        targets = targets.filter((index) => classes[index].length > 0);
+
+        // Deleted sources have no package to read: their findings are dropped
+        // because no .java file in the inventory matches the reported path
+        const changedKeys = new Set(sources.map((source) => source.sourceKey));
+        const javaFiles = new Map<string, string[]>();
+        for (const file of context.inventory.withExtension(".java")) {
+          const name = posix.basename(file.path);
+          const group = javaFiles.get(name);
+          if (group) group.push(file.path);
+          else javaFiles.set(name, [file.path]);
+        }
+        carriedForward = loadPreviousFindings(outputDir, "spotbugs").filter((finding) => {
+          const path = finding.locations[0]?.path;
+          if (!path || matchesSourceKey(path, changedKeys)) return false;
+          return (javaFiles.get(posix.basename(path)) ?? []).some((file) =>
+            matchesSourceKey(file, [path]),
+          );
+        });
+        console.log(
+          `  Incremental since ${plan.baseCommit.substring(0, 8)}: ` +
+            `${classCount} changed classes in ${targets.length} module(s), ` +
+            `${carriedForward.length} findings carried forward`,
+        );
+      }
+    }
+    if (plan.mode === "full" && context.incremental) {
+      console.log(`  Full analysis (${plan.reason})`);
     }
 
-    const result = spawnSync("spotbugs", args, {
-      cwd: rootPath,
-      encoding: "utf-8",
-      shell: true,
-      maxBuffer: MAX_OUTPUT_BUFFER,
-    });
-
-    // SpotBugs outputs SARIF to stdout when using -sarif
-    const output = result.stdout || "";
-    if (output.includes('"$schema"') && output.includes('"runs"')) {
-      const parsed = safeParseJson<SpotBugsSarifOutput>(output);
-      if (parsed) {
-        return parseSpotBugsOutput(parsed);
+    if (targets.length === 0) {
+      if (plan.headCommit) {
+        incrementalState.markAnalyzed("spotbugs", plan.headCommit, configKey);
       }
+      return carriedForward;
     }
+
+    const parallelism = Math.max(1, Math.floor(availableParallelism() / 2));
+    console.log(
+      `  Analyzing ${targets.length} module(s) with up to ${Math.min(parallelism, targets.length)} in parallel`,
+    );
+
+    const moduleResults = await mapWithConcurrency(
+      targets,
+      parallelism,
+      async (
+        index,
+        position,
+      ): Promise<{ findings: Finding[]; complete: boolean }> => {
+        const module = modules[index];
+        const args = ["-sarif"];
+        if (configPath) {
+          args.push("-exclude", configPath);
+        }
+        const classes = onlyAnalyze[index];
+        if (classes) {
+          args.push("-onlyAnalyze", classes.join(","));
+        }
+
+        const auxClasspath = buildAuxClasspath(module, modules);
+        if (auxClasspath.length > 0) {
+          // A file avoids command-line length limits on large builds
+          const auxFile = join(outputDir, `spotbugs-aux-${index}.txt`);
+          writeFileSync(auxFile, auxClasspath.join("\n") + "\n");
+          args.push("-auxclasspathFromFile", auxFile);
+        }
+        args.push(...module.classDirs);
+
+        // Stream the SARIF report to a file so large modules never hit maxBuffer
+        const sarifPath = join(outputDir, `spotbugs-${index}.sarif`);
+        const result = await runProcess("spotbugs", args, {
+          cwd: rootPath,
+          stdoutFile: sarifPath,
+          // Only the first module may create the archive; the rest reuse it next run
+          env: context.jvmClassCache
+            ? buildJvmToolEnv("spotbugs", outputDir, { dumpArchive: position === 0 })
+            : undefined,
+        });
+
+        // SpotBugs outputs SARIF to stdout when using -sarif
+        const output = existsSync(sarifPath) ? readFileSync(sarifPath, "utf-8") : "";
+        if (output.includes('"$schema"') && output.includes('"runs"')) {
+          const parsed = safeParseJson<SpotBugsSarifOutput>(output);
+          if (parsed) {
+            const findings = await parseInPool("spotbugs", parsed);
+            console.log(`  ${module.path}: ${findings.length} findings`);
+            return { findings, complete: true };
+          }
+        }
+
+        console.warn(
+          `  ${module.path}: no SARIF output (exit code ${result.status})`,
+        );
+        if (result.stderr) {
+          console.log(`  stderr: ${result.stderr.substring(0, 200)}`);
+        }
+        return { findings: [], complete: false };
+      },
+    );
+
+    if (!moduleResults.every((module) => module.complete)) {
+      context.markIncomplete("a module produced no SARIF report");
+    } else if (plan.headCommit) {
+      // A module without a report would lose its findings from the baseline
+      incrementalState.markAnalyzed("spotbugs", plan.headCommit, configKey);
+    }
+
+    return [...carriedForward, ...moduleResults.flatMap((module) => module.findings)];
   } catch (error) {
     console.warn("SpotBugs failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
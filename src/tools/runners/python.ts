@@ -4,12 +4,12 @@
  * Runners for Python analysis tools: Ruff, Mypy, Bandit
  */
 
-import { spawnSync } from "node:child_process";
 import type { Finding } from "../../core/types.js";
+import { runProcess } from "../process-runner.js";
 import {
-  EXCLUDE_DIRS_PYTHON,
   isToolAvailable,
   safeParseJson,
+  type ToolRunContext,
 } from "../tool-utils.js";
 import {
   parseRuffOutput,
@@ -22,32 +22,36 @@ import { MAX_OUTPUT_BUFFER } from "../../utils/shared.js";
 /**
  * Run Ruff linter for Python code.
  */
-export function runRuff(rootPath: string, configPath?: string): Finding[] {
+export async function runRuff(
+  rootPath: string,
+  configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running ruff...");
 
   try {
     const { available } = isToolAvailable("ruff", false);
     if (!available) {
       console.log("  Ruff not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
+    // --extend-exclude keeps ruff's own default excludes
     const args = [
       "check",
       "--output-format",
       "json",
-      "--exclude",
-      EXCLUDE_DIRS_PYTHON,
+      "--extend-exclude",
+      context.exclusions.toGlobs().join(","),
     ];
     if (configPath) {
       args.push("--config", configPath);
     }
     args.push(".");
 
-    const result = spawnSync("ruff", args, {
+    const result = await runProcess("ruff", args, {
       cwd: rootPath,
-      encoding: "utf-8",
-      shell: true,
       maxBuffer: MAX_OUTPUT_BUFFER,
     });
 
@@ -61,8 +65,10 @@ export function runRuff(rootPath: string, configPath?: string): Finding[] {
         console.warn("Failed to parse ruff JSON output");
       }
     }
+    context.markIncomplete("no JSON output");
   } catch (error) {
     console.warn("ruff failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
@@ -71,32 +77,35 @@ export function runRuff(rootPath: string, configPath?: string): Finding[] {
 /**
  * Run Mypy type checker for Python code.
  */
-export function runMypy(rootPath: string, configPath?: string): Finding[] {
+export async function runMypy(
+  rootPath: string,
+  configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running mypy...");
 
   try {
     const { available } = isToolAvailable("mypy", false);
     if (!available) {
       console.log("  Mypy not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
-    // Use --output=json for native JSON output (Python 3.10+)
-    const args = ["--output", "json", "--exclude", EXCLUDE_DIRS_PYTHON];
+    // Use --output=json for native JSON output (Python 3.10+);
+    // mypy's --exclude is a regular expression, not a list
+    const args = [
+      "--output",
+      "json",
+      "--exclude",
+      context.exclusions.toRegex(),
+    ];
     if (configPath) {
       args.push("--config-file", configPath);
     }
     args.push(".");
 
-    const result = spawnSync("mypy", args, {
-      cwd: rootPath,
-      encoding: "utf-8",
-      shell: true,
-      maxBuffer: MAX_OUTPUT_BUFFER,
-    });
-
-    // Mypy JSON output is one JSON object per line
-    const output = result.stdout || "";
+    // Mypy JSON output is one JSON object per line; parse lines as they arrive
     const errors: Array<{
       file: string;
       line: number;
@@ -107,22 +116,31 @@ export function runMypy(rootPath: string, configPath?: string): Finding[] {
       severity: string;
     }> = [];
 
-    for (const line of output.split("\n")) {
-      const trimmed = line.trim();
-      if (trimmed.startsWith("{")) {
-        try {
-          errors.push(JSON.parse(trimmed));
-        } catch {
-          // skip malformed lines
+    const result = await runProcess("mypy", args, {
+      cwd: rootPath,
+      onStdoutLine: (line) => {
+        const trimmed = line.trim();
+        if (trimmed.startsWith("{")) {
+          try {
+            errors.push(JSON.parse(trimmed));
+          } catch {
+            // skip malformed lines
+          }
         }
-      }
-    }
+      },
+    });
 
+    // Exit code 1 means type errors were found; anything else is a crash
+    if (result.status !== 0 && result.status !== 1) {
+      console.warn(`  mypy exited with code ${result.status}`);
+      context.markIncomplete(`exit code ${result.status}`);
+    }
     if (errors.length > 0) {
       return parseMypyOutput(errors);
     }
   } catch (error) {
     console.warn("mypy failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
@@ -131,25 +149,35 @@ export function runMypy(rootPath: string, configPath?: string): Finding[] {
 /**
  * Run Bandit security scanner for Python code.
  */
-export function runBandit(rootPath: string, configPath?: string): Finding[] {
+export async function runBandit(
+  rootPath: string,
+  configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running bandit...");
 
   try {
     const { available } = isToolAvailable("bandit", false);
     if (!available) {
       console.log("  Bandit not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
-    const args = ["-f", "json", "-r", ".", "--exclude", EXCLUDE_DIRS_PYTHON];
+    const args = [
+      "-f",
+      "json",
+      "-r",
+      ".",
+      "--exclude",
+      context.exclusions.toGlobs().join(","),
+    ];
     if (configPath) {
       args.push("-c", configPath);
     }
 
-    const result = spawnSync("bandit", args, {
+    const result = await runProcess("bandit", args, {
       cwd: rootPath,
-      encoding: "utf-8",
-      shell: true,
       maxBuffer: MAX_OUTPUT_BUFFER,
     });
 
@@ -159,8 +187,10 @@ export function runBandit(rootPath: string, configPath?: string): Finding[] {
     if (parsed) {
       return parseBanditOutput(parsed);
     }
+    context.markIncomplete("no JSON output");
   } catch (error) {
     console.warn("bandit failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
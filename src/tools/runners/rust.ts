@@ -4,11 +4,16 @@
  * Runners for Rust analysis tools: Clippy, cargo-audit, cargo-deny
  */
 
-import { spawnSync } from "node:child_process";
 import { existsSync } from "node:fs";
 import { join, relative } from "node:path";
 import type { Finding } from "../../core/types.js";
-import { isToolAvailable, safeParseJson, findCargoDirectories } from "../tool-utils.js";
+import { runProcess } from "../process-runner.js";
+import {
+  findCargoDirectories,
+  isToolAvailable,
+  safeParseJson,
+  type ToolRunContext,
+} from "../tool-utils.js";
 import {
   parseClippyOutput,
   parseCargoAuditOutput,
@@ -18,14 +23,15 @@ import {
 } from "../../parsers.js";
 import { MAX_OUTPUT_BUFFER } from "../../utils/shared.js";
 
-/** Directories to exclude for Rust (comma-separated) */
-export const EXCLUDE_DIRS_RUST = "target,.cargo";
-
 /**
  * Run Clippy linter for Rust code.
- * Searches for Cargo.toml in root and common subdirectories.
+ * Runs in every crate (or workspace root) found in the file inventory.
  */
-export function runClippy(rootPath: string, _configPath?: string): Finding[] {
+export async function runClippy(
+  rootPath: string,
+  _configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running clippy...");
 
   try {
@@ -33,11 +39,12 @@ export function runClippy(rootPath: string, _configPath?: string): Finding[] {
     const { available } = isToolAvailable("cargo", false);
     if (!available) {
       console.log("  Cargo not installed, skipping clippy");
+      context.markIncomplete("not installed");
       return [];
     }
 
     // Find directories containing Cargo.toml
-    const cargoDirs = findCargoDirectories(rootPath);
+    const cargoDirs = findCargoDirectories(rootPath, context.inventory);
     if (cargoDirs.length === 0) {
       console.log("  No Cargo.toml found, skipping clippy");
       return [];
@@ -59,31 +66,26 @@ export function runClippy(rootPath: string, _configPath?: string): Finding[] {
         "clippy::all",
       ];
 
-      const result = spawnSync("cargo", args, {
-        cwd: cargoDir,
-        encoding: "utf-8",
-        shell: true,
-        maxBuffer: MAX_OUTPUT_BUFFER,
-      });
-
-      // Clippy outputs JSON messages to stdout, one per line
-      const output = result.stdout || "";
+      // Clippy outputs JSON messages to stdout, one per line; keep only
+      // the compiler messages as they arrive (build-artifact lines dominate)
       const messages: unknown[] = [];
-
-      for (const line of output.split("\n")) {
-        const trimmed = line.trim();
-        if (trimmed.startsWith("{")) {
-          try {
-            const parsed = JSON.parse(trimmed);
-            // Only keep compiler_message type entries
-            if (parsed.reason === "compiler-message" && parsed.message) {
-              messages.push(parsed.message);
+      await runProcess("cargo", args, {
+        cwd: cargoDir,
+        onStdoutLine: (line) => {
+          const trimmed = line.trim();
+          if (trimmed.startsWith("{")) {
+            try {
+              const parsed = JSON.parse(trimmed);
+              // Only keep compiler_message type entries
+              if (parsed.reason === "compiler-message" && parsed.message) {
+                messages.push(parsed.message);
+              }
+            } catch {
+              // Skip malformed lines
             }
-          } catch {
-            // Skip malformed lines
           }
-        }
-      }
+        },
+      });
 
       if (messages.length > 0) {
         const findings = parseClippyOutput(messages);
@@ -105,6 +107,7 @@ export function runClippy(rootPath: string, _configPath?: string): Finding[] {
     return allFindings;
   } catch (error) {
     console.warn("clippy failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
@@ -112,9 +115,12 @@ export function runClippy(rootPath: string, _configPath?: string): Finding[] {
 
 /**
  * Run cargo-audit to check for security vulnerabilities in dependencies.
- * Searches for Cargo.toml in root and common subdirectories.
+ * Runs in every crate (or workspace root) found in the file inventory.
  */
-export function runCargoAudit(rootPath: string): Finding[] {
+export async function runCargoAudit(
+  rootPath: string,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running cargo-audit...");
 
   try {
@@ -122,11 +128,12 @@ export function runCargoAudit(rootPath: string): Finding[] {
     const { available } = isToolAvailable("cargo-audit", false);
     if (!available) {
       console.log("  cargo-audit not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
     // Find directories containing Cargo.toml
-    const cargoDirs = findCargoDirectories(rootPath);
+    const cargoDirs = findCargoDirectories(rootPath, context.inventory);
     if (cargoDirs.length === 0) {
       console.log("  No Cargo.toml found, skipping cargo-audit");
       return [];
@@ -139,10 +146,8 @@ export function runCargoAudit(rootPath: string): Finding[] {
 
       const args = ["audit", "--json"];
 
-      const result = spawnSync("cargo", args, {
+      const result = await runProcess("cargo", args, {
         cwd: cargoDir,
-        encoding: "utf-8",
-        shell: true,
         maxBuffer: MAX_OUTPUT_BUFFER,
       });
 
@@ -163,12 +168,17 @@ export function runCargoAudit(rootPath: string): Finding[] {
           }
         }
         allFindings.push(...findings);
+      } else {
+        context.markIncomplete(
+          `no JSON output in ${relative(rootPath, cargoDir) || "."}`,
+        );
       }
     }
 
     return allFindings;
   } catch (error) {
     console.warn("cargo-audit failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
@@ -176,9 +186,13 @@ export function runCargoAudit(rootPath: string): Finding[] {
 
 /**
  * Run cargo-deny to check dependencies for licenses, bans, advisories, and sources.
- * Searches for Cargo.toml in root and common subdirectories.
+ * Runs in every crate (or workspace root) found in the file inventory.
  */
-export function runCargoDeny(rootPath: string, configPath?: string): Finding[] {
+export async function runCargoDeny(
+  rootPath: string,
+  configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running cargo-deny...");
 
   try {
@@ -186,11 +200,12 @@ export function runCargoDeny(rootPath: string, configPath?: string): Finding[] {
     const { available } = isToolAvailable("cargo-deny", false);
     if (!available) {
       console.log("  cargo-deny not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
     // Find directories containing Cargo.toml
-    const cargoDirs = findCargoDirectories(rootPath);
+    const cargoDirs = findCargoDirectories(rootPath, context.inventory);
     if (cargoDirs.length === 0) {
       console.log("  No Cargo.toml found, skipping cargo-deny");
       return [];
@@ -213,10 +228,8 @@ export function runCargoDeny(rootPath: string, configPath?: string): Finding[] {
         args.push("--config", configPath);
       }
 
-      const result = spawnSync("cargo", args, {
+      const result = await runProcess("cargo", args, {
         cwd: cargoDir,
-        encoding: "utf-8",
-        shell: true,
         maxBuffer: MAX_OUTPUT_BUFFER,
       });
 
@@ -257,6 +270,7 @@ export function runCargoDeny(rootPath: string, configPath?: string): Finding[] {
     return allFindings;
   } catch (error) {
     console.warn("cargo-deny failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
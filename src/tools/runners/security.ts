@@ -4,55 +4,64 @@
  * Runners for security scanning tools: Semgrep
  */
 
-import { spawnSync } from "node:child_process";
 import type { Finding } from "../../core/types.js";
-import { EXCLUDE_DIRS_COMMON, isToolAvailable } from "../tool-utils.js";
-import { parseSemgrepOutput } from "../../parsers.js";
+import { runProcess } from "../process-runner.js";
+import {
+  isToolAvailable,
+  JsonOutputCollector,
+  type ToolRunContext,
+} from "../tool-utils.js";
+import { parseInPool } from "../../parsers/parse-pool.js";
+import type { SemgrepOutput } from "../../parsers/security.js";
 import { MAX_OUTPUT_BUFFER } from "../../utils/shared.js";
 
 /**
  * Run Semgrep for security vulnerability detection.
  */
-export function runSemgrep(rootPath: string, configPath?: string): Finding[] {
+export async function runSemgrep(
+  rootPath: string,
+  configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running semgrep...");
 
   try {
     const { available } = isToolAvailable("semgrep", false); // semgrep is Python-based, no npx
     if (!available) {
       console.log("  Semgrep not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
     // Use security-audit ruleset by default (works better than 'auto' on Windows)
     const config = configPath || "p/security-audit";
+    // --exclude takes one pattern per flag
     const args = [
       "scan",
       "--json",
       "--config",
       config,
-      "--exclude",
-      EXCLUDE_DIRS_COMMON,
+      ...context.exclusions.toGlobs().flatMap((glob) => ["--exclude", glob]),
       ".",
     ];
 
-    const result = spawnSync("semgrep", args, {
+    // Semgrep outputs JSON mixed with progress info; scan stdout for the
+    // JSON report (the object with a "version" field) as it arrives
+    const collector = new JsonOutputCollector("version");
+    const result = await runProcess("semgrep", args, {
       cwd: rootPath,
-      encoding: "utf-8",
-      shell: true,
       maxBuffer: MAX_OUTPUT_BUFFER,
+      onStdout: collector.write,
       env: {
         ...process.env,
         PYTHONIOENCODING: "utf-8",
       },
     });
 
-    // Semgrep outputs JSON mixed with progress info, extract JSON portion
-    const output = result.stdout || "";
-    const jsonMatch = output.match(/\{[\s\S]*"version"[\s\S]*\}(?=\s*$)/);
-    if (jsonMatch) {
+    const { marked } = collector.finish();
+    if (marked) {
       try {
-        const semgrepOutput = JSON.parse(jsonMatch[0]);
-        return parseSemgrepOutput(semgrepOutput);
+        return await parseInPool("semgrep", marked as SemgrepOutput);
       } catch (e) {
         console.warn("Failed to parse semgrep JSON output:", e);
       }
@@ -63,10 +72,11 @@ export function runSemgrep(rootPath: string, configPath?: string): Finding[] {
       console.log(
         "  Semgrep has encoding issues, try: semgrep scan --config p/security-audit .",
       );
-      return [];
     }
+    context.markIncomplete("no JSON report");
   } catch (error) {
     console.warn("semgrep failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
@@ -8,17 +8,18 @@
  * - knip (dead code)
  */
 
-import { spawnSync } from "node:child_process";
-import { existsSync, readFileSync } from "node:fs";
+import { existsSync, readFileSync, rmSync } from "node:fs";
 import { dirname, join } from "node:path";
 import { fileURLToPath } from "node:url";
 import type { Finding } from "../../core/types.js";
+import { runProcess } from "../process-runner.js";
 import {
   findConfigFile,
   findSourceDirs,
   isToolAvailable,
   runTool,
   safeParseJson,
+  type ToolRunContext,
 } from "../tool-utils.js";
 import {
   parseTscTextOutput,
@@ -26,11 +27,11 @@ import {
   parseJscpdOutput,
   parseDepcruiseOutput,
   parseKnipOutput,
-  parseEslintOutput,
   type DepcruiseOutput,
   type KnipOutput,
   type EslintOutput,
 } from "../../parsers.js";
+import { parseInPool } from "../../parsers/parse-pool.js";
 
 // ESM equivalent of __dirname
 const __filename = fileURLToPath(import.meta.url);
@@ -39,22 +40,27 @@ const __dirname = dirname(__filename);
 /**
  * Run TypeScript type checking.
  */
-export function runTsc(rootPath: string): Finding[] {
+export async function runTsc(
+  rootPath: string,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running TypeScript check...");
   const allFindings: Finding[] = [];
 
   try {
     // Check main project
-    const result = spawnSync("npx", ["tsc", "--noEmit", "--pretty", "false"], {
+    const result = await runProcess("npx", ["tsc", "--noEmit", "--pretty", "false"], {
       cwd: rootPath,
-      encoding: "utf-8",
-      shell: true,
     });
 
     // tsc exits with error code when there are type errors
     const output = result.stdout + result.stderr;
     const diagnostics = parseTscTextOutput(output);
     allFindings.push(...parseTscOutput(diagnostics));
+    // A non-zero exit without diagnostics means tsc itself did not run
+    if (result.status !== 0 && diagnostics.length === 0) {
+      context.markIncomplete(`tsc exited with ${result.status ?? result.error?.message}`);
+    }
 
     // Also check test-fixtures if it has its own tsconfig
     const testFixturesDir = join(rootPath, "test-fixtures");
@@ -63,7 +69,7 @@ export function runTsc(rootPath: string): Finding[] {
       console.log("  Also checking test-fixtures...");
       // Run from vibeCheck action's directory (parent of src/tools/runners/) to use its TypeScript
       const vibeCheckRoot = join(__dirname, "../../..");
-      const fixturesResult = spawnSync(
+      const fixturesResult = await runProcess(
         "npx",
         [
           "tsc",
@@ -75,12 +81,13 @@ export function runTsc(rootPath: string): Finding[] {
         ],
         {
           cwd: vibeCheckRoot,
-          encoding: "utf-8",
-          shell: true,
         },
       );
       const fixturesOutput = fixturesResult.stdout + fixturesResult.stderr;
       const fixturesDiagnostics = parseTscTextOutput(fixturesOutput);
+      if (fixturesResult.status !== 0 && fixturesDiagnostics.length === 0) {
+        context.markIncomplete("tsc failed on test-fixtures");
+      }
       console.log(
         `  Found ${fixturesDiagnostics.length} TypeScript errors in test-fixtures`,
       );
@@ -88,6 +95,7 @@ export function runTsc(rootPath: string): Finding[] {
     }
   } catch (error) {
     console.warn("TypeScript check failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return allFindings;
@@ -96,21 +104,21 @@ export function runTsc(rootPath: string): Finding[] {
 /**
  * Run jscpd (copy-paste detector).
  */
-export function runJscpd(rootPath: string, minTokens: number = 70): Finding[] {
+export async function runJscpd(
+  rootPath: string,
+  minTokens: number,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log(`Running jscpd (min-tokens: ${minTokens})...`);
 
   try {
     const outputDir = join(rootPath, ".vibecheck-output");
     const outputPath = join(outputDir, "jscpd-report.json");
 
-    // Files/patterns that commonly have legitimate duplicate content
-    const ignorePatterns = [
-      "**/node_modules/**",
-      "**/dist/**",
-      "**/build/**",
-      "**/.git/**",
+    // Excluded paths, plus files that commonly have legitimate duplicate content
+    const ignorePatterns = new Set([
+      ...context.exclusions.toGlobs(),
       "**/.vibecheck-output/**",
-      "**/.trunk/**",
       // Lock files - always have duplicate structure
       "**/package-lock.json",
       "**/pnpm-lock.yaml",
@@ -126,10 +134,13 @@ export function runJscpd(rootPath: string, minTokens: number = 70): Finding[] {
       // Test snapshots
       "**/__snapshots__/**",
       "**/*.snap",
-    ];
+    ]);
+
+    // Remove the last run's report so a failed run cannot be mistaken for it
+    rmSync(outputPath, { force: true });
 
     // Run jscpd - we don't need the result, just the output file
-    spawnSync(
+    await runProcess(
       "npx",
       [
         "jscpd",
@@ -138,12 +149,11 @@ export function runJscpd(rootPath: string, minTokens: number = 70): Finding[] {
         "--min-lines=5",
         "--reporters=json",
         `--output=${outputDir}`,
-        `--ignore="${ignorePatterns.join(",")}"`,
+        // Passed as a single argument (no shell), so the list is not quoted
+        `--ignore=${[...ignorePatterns].join(",")}`,
       ],
       {
         cwd: rootPath,
-        encoding: "utf-8",
-        shell: true,
       },
     );
 
@@ -153,8 +163,10 @@ export function runJscpd(rootPath: string, minTokens: number = 70): Finding[] {
       console.log(`  Found ${findings.length} findings`);
       return findings;
     }
+    context.markIncomplete("no jscpd report written");
   } catch (error) {
     console.warn("jscpd failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
@@ -163,28 +175,27 @@ export function runJscpd(rootPath: string, minTokens: number = 70): Finding[] {
 /**
  * Run dependency-cruiser for circular dependencies and architecture violations.
  */
-export function runDependencyCruiser(
+export async function runDependencyCruiser(
   rootPath: string,
-  configPath?: string,
-): Finding[] {
+  configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running dependency-cruiser...");
 
   try {
     const { available, useNpx } = isToolAvailable("depcruise");
     if (!available) {
       console.log("  dependency-cruiser not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
     // Determine source directories to scan
-    const srcDirs = findSourceDirs(rootPath, [
-      "src",
-      "lib",
-      "app",
-      "scripts",
-      "packages",
-      "test-fixtures",
-    ]);
+    const srcDirs = findSourceDirs(
+      rootPath,
+      ["src", "lib", "app", "scripts", "packages", "test-fixtures"],
+      context.inventory,
+    );
     if (srcDirs.length === 0) {
       console.log(
         "  No source directories found (src, lib, app, scripts, packages)",
@@ -210,7 +221,7 @@ export function runDependencyCruiser(
       console.log("  Running with built-in cycle detection (no config file)");
     }
 
-    const result = runTool("depcruise", args, { cwd: rootPath, useNpx });
+    const result = await runTool("depcruise", args, { cwd: rootPath, useNpx });
 
     // dependency-cruiser outputs JSON to stdout even with violations
     const output = result.stdout || "";
@@ -222,8 +233,10 @@ export function runDependencyCruiser(
     } else if (result.stderr) {
       console.log(`  stderr: ${result.stderr.substring(0, 200)}`);
     }
+    context.markIncomplete("no JSON output");
   } catch (error) {
     console.warn("dependency-cruiser failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
@@ -232,13 +245,18 @@ export function runDependencyCruiser(
 /**
  * Run knip for unused exports and dead code detection.
  */
-export function runKnip(rootPath: string, configPath?: string): Finding[] {
+export async function runKnip(
+  rootPath: string,
+  configPath: string | undefined,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running knip...");
 
   try {
     const { available, useNpx } = isToolAvailable("knip");
     if (!available) {
       console.log("  knip not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
@@ -262,7 +280,7 @@ export function runKnip(rootPath: string, configPath?: string): Finding[] {
       console.log("  Running with auto-detection (no config file)");
     }
 
-    const result = runTool("knip", args, { cwd: rootPath, useNpx });
+    const result = await runTool("knip", args, { cwd: rootPath, useNpx });
 
     // knip outputs JSON to stdout, exits with code 1 if issues found
     const output = result.stdout || "";
@@ -286,8 +304,10 @@ export function runKnip(rootPath: string, configPath?: string): Finding[] {
       // Only log stderr if it's not the known ESLint loading issue
       console.log(`  stderr: ${stderr.substring(0, 200)}`);
     }
+    context.markIncomplete("no JSON output");
   } catch (error) {
     console.warn("knip failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
@@ -297,7 +317,10 @@ export function runKnip(rootPath: string, configPath?: string): Finding[] {
  * Run ESLint for JavaScript/TypeScript linting.
  * Runs as a standalone tool (not through Trunk) to ensure config is loaded properly.
  */
-export function runEslint(rootPath: string): Finding[] {
+export async function runEslint(
+  rootPath: string,
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running ESLint...");
 
   try {
@@ -305,6 +328,7 @@ export function runEslint(rootPath: string): Finding[] {
     const { available, useNpx } = isToolAvailable("eslint");
     if (!available) {
       console.log("  ESLint not installed, skipping");
+      context.markIncomplete("not installed");
       return [];
     }
 
@@ -328,12 +352,11 @@ export function runEslint(rootPath: string): Finding[] {
     console.log(`  Using config: ${configFile}`);
 
     // Find source directories to scan
-    const srcDirs = findSourceDirs(rootPath, [
-      "src",
-      "lib",
-      "app",
-      "test-fixtures",
-    ]);
+    const srcDirs = findSourceDirs(
+      rootPath,
+      ["src", "lib", "app", "test-fixtures"],
+      context.inventory,
+    );
 
     if (srcDirs.length === 0) {
       console.log("  No source directories found");
@@ -347,7 +370,7 @@ export function runEslint(rootPath: string): Finding[] {
       "--no-error-on-unmatched-pattern",
     ];
 
-    const result = runTool("eslint", args, { cwd: rootPath, useNpx });
+    const result = await runTool("eslint", args, { cwd: rootPath, useNpx });
 
     // ESLint exits with code 1 when there are linting errors
     // The JSON output is in stdout regardless
@@ -355,12 +378,13 @@ export function runEslint(rootPath: string): Finding[] {
 
     if (!output.trim()) {
       console.log("  No output from ESLint");
+      context.markIncomplete("no output");
       return [];
     }
 
     const parsed = safeParseJson<EslintOutput>(output);
     if (parsed) {
-      const findings = parseEslintOutput(parsed);
+      const findings = await parseInPool("eslint", parsed);
       console.log(`  Found ${findings.length} findings`);
       return findings;
     } else {
@@ -368,9 +392,11 @@ export function runEslint(rootPath: string): Finding[] {
       if (result.stderr) {
         console.log(`  stderr: ${result.stderr.substring(0, 200)}`);
       }
+      context.markIncomplete("unparseable output");
     }
   } catch (error) {
     console.warn("ESLint failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
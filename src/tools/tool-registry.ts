@@ -5,7 +5,8 @@
  * Provides a data-driven approach to tool execution.
  */
 
-import { existsSync, readFileSync } from "node:fs";
+import { existsSync, mkdirSync, readFileSync, writeFileSync } from "node:fs";
+import { availableParallelism } from "node:os";
 import { join } from "node:path";
 import type {
   Cadence,
@@ -15,7 +16,26 @@ import type {
   VibeCopConfig,
 } from "../core/types.js";
 import { shouldRunTool } from "../core/config-loader.js";
-import { shouldExcludePath } from "./tool-utils.js";
+import { FileInventory } from "../core/file-inventory.js";
+import { ExclusionMatcher } from "./exclusions.js";
+import {
+  DEFAULT_CACHE_MAX_SIZE_MB,
+  FindingsCache,
+  type ToolCacheSpec,
+} from "./findings-cache.js";
+import {
+  hashToolConfig,
+  loadIncrementalState,
+  type IncrementalState,
+} from "./incremental.js";
+import { runInProcessScope, type ProcessRecord } from "./process-runner.js";
+import {
+  getResolvedTool,
+  resolveTools,
+  type ToolProbe,
+} from "./tool-resolution.js";
+import type { ToolRunContext } from "./tool-utils.js";
+import { mapWithConcurrency } from "../utils/shared.js";
 import {
   runTrunk,
   runTsc,
@@ -48,9 +68,45 @@ export interface ToolDefinition {
   /** Returns true if tool should run for this repo profile */
   detector: (profile: RepoProfile) => boolean;
   /** The runner function */
-  run: (rootPath: string, configPath?: string) => Finding[];
+  run: (
+    rootPath: string,
+    configPath: string | undefined,
+    context: ToolRunContext,
+  ) => Promise<Finding[]>;
   /** Config key path in VibeCopConfig.tools */
   configKey: string;
+  /** Findings cache participation; omit for tools with external inputs */
+  cache?: ToolCacheSpec;
+  /** Binaries the runner checks for; probed once, in parallel, before tools start */
+  probes?: ToolProbe[];
+}
+
+export interface ToolExecutionOptions {
+  /** Max tools running at once (overrides config.execution.concurrency) */
+  concurrency?: number;
+  /** Output directory for tool caches and state (default: <root>/.vibecheck-output) */
+  outputDir?: string;
+  /** Cadence of this run (monthly runs are always full) */
+  cadence?: Cadence;
+  /** Default incremental mode for tools without an explicit setting */
+  incremental?: boolean;
+  /** Per-tool baselines; loaded from outputDir if omitted */
+  incrementalState?: IncrementalState;
+  /** Set to false to bypass the findings cache (overrides config.cache.enabled) */
+  cache?: boolean;
+  /** Repository file listing; built from rootPath if omitted */
+  inventory?: FileInventory;
+}
+
+/** Outcome of a single tool run, used for the summary table */
+interface ToolRunResult {
+  name: ToolName;
+  displayName: string;
+  findings: Finding[];
+  status: "success" | "cached" | "failed";
+  durationMs: number;
+  /** Processes the tool started (exit code, duration, peak RSS, output bytes) */
+  processes: ProcessRecord[];
 }
 
 // ============================================================================
@@ -71,9 +127,12 @@ const TOOL_TO_TRUNK_LINTER: Record<string, string> = {
   mypy: "mypy",
 };
 
+/** Files that affect PMD results (sources and build definitions) */
+const JAVA_CACHE_INPUTS = [".java", "pom.xml", ".gradle", ".gradle.kts"];
+
 /**
  * Registry of all available analysis tools.
- * Order matters - tools run in this order.
+ * Order matters - tools are started and their findings merged in this order.
  */
 const TOOL_REGISTRY: ToolDefinition[] = [
   // Daily tools - run frequently
@@ -82,24 +141,28 @@ const TOOL_REGISTRY: ToolDefinition[] = [
     displayName: "Trunk (ESLint, Prettier, etc.)",
     defaultCadence: "daily",
     detector: () => true, // Always try trunk
-    run: (rootPath) => runTrunk(rootPath),
+    run: (rootPath, _config, context) => runTrunk(rootPath, context),
     configKey: "trunk",
+    cache: { command: "trunk" },
   },
   {
     name: "tsc",
     displayName: "TypeScript",
     defaultCadence: "daily",
     detector: (p) => p.hasTypeScript,
-    run: (rootPath) => runTsc(rootPath),
+    run: (rootPath, _config, context) => runTsc(rootPath, context),
     configKey: "tsc",
+    cache: { command: "tsc" },
   },
   {
     name: "eslint",
     displayName: "ESLint",
     defaultCadence: "daily",
     detector: (p) => p.hasTypeScript || p.languages.includes("javascript"),
-    run: (rootPath) => runEslint(rootPath),
+    run: (rootPath, _config, context) => runEslint(rootPath, context),
     configKey: "eslint",
+    probes: [{ command: "eslint" }],
+    cache: { command: "eslint" },
   },
 
   // Weekly tools - more expensive analysis
@@ -108,35 +171,42 @@ const TOOL_REGISTRY: ToolDefinition[] = [
     displayName: "Copy-Paste Detector",
     defaultCadence: "weekly",
     detector: () => true, // Always run
-    run: (rootPath, config) => {
+    run: (rootPath, config, context) => {
       const minTokens = config ? parseInt(config, 10) : 70;
-      return runJscpd(rootPath, minTokens);
+      return runJscpd(rootPath, minTokens, context);
     },
     configKey: "jscpd",
+    cache: { command: "jscpd" },
   },
   {
     name: "dependency-cruiser",
     displayName: "Dependency Cruiser",
     defaultCadence: "weekly",
     detector: (p) => p.hasTypeScript || p.languages.includes("javascript"),
-    run: (rootPath, config) => runDependencyCruiser(rootPath, config),
+    run: (rootPath, config, context) =>
+      runDependencyCruiser(rootPath, config, context),
     configKey: "dependency_cruiser",
+    probes: [{ command: "depcruise" }],
+    cache: { command: "depcruise" },
   },
   {
     name: "knip",
     displayName: "Knip (Dead Code)",
     defaultCadence: "weekly",
     detector: (p) => p.hasTypeScript || p.languages.includes("javascript"),
-    run: (rootPath, config) => runKnip(rootPath, config),
+    run: (rootPath, config, context) => runKnip(rootPath, config, context),
     configKey: "knip",
+    probes: [{ command: "knip" }],
+    cache: { command: "knip" },
   },
   {
     name: "semgrep",
     displayName: "Semgrep (Security)",
     defaultCadence: "weekly",
     detector: () => true, // Try on all repos
-    run: (rootPath, config) => runSemgrep(rootPath, config),
+    run: (rootPath, config, context) => runSemgrep(rootPath, config, context),
     configKey: "semgrep",
+    probes: [{ command: "semgrep", npxFallback: false }],
   },
 
   // Python tools
@@ -145,24 +215,36 @@ const TOOL_REGISTRY: ToolDefinition[] = [
     displayName: "Ruff (Python Linter)",
     defaultCadence: "daily",
     detector: (p) => p.languages.includes("python"),
-    run: (rootPath, config) => runRuff(rootPath, config),
+    run: (rootPath, config, context) => runRuff(rootPath, config, context),
     configKey: "ruff",
+    probes: [{ command: "ruff", npxFallback: false }],
+    cache: {
+      command: "ruff",
+      inputs: [".py", ".pyi", "pyproject.toml", "ruff.toml"],
+    },
   },
   {
     name: "mypy",
     displayName: "Mypy (Python Types)",
     defaultCadence: "weekly",
     detector: (p) => p.languages.includes("python"),
-    run: (rootPath, config) => runMypy(rootPath, config),
+    run: (rootPath, config, context) => runMypy(rootPath, config, context),
     configKey: "mypy",
+    probes: [{ command: "mypy", npxFallback: false }],
+    cache: {
+      command: "mypy",
+      inputs: [".py", ".pyi", "pyproject.toml", "mypy.ini", "setup.cfg"],
+    },
   },
   {
     name: "bandit",
     displayName: "Bandit (Python Security)",
     defaultCadence: "weekly",
     detector: (p) => p.languages.includes("python"),
-    run: (rootPath, config) => runBandit(rootPath, config),
+    run: (rootPath, config, context) => runBandit(rootPath, config, context),
     configKey: "bandit",
+    probes: [{ command: "bandit", npxFallback: false }],
+    cache: { command: "bandit", inputs: [".py", "pyproject.toml", ".bandit"] },
   },
 
   // Java tools
@@ -171,16 +253,21 @@ const TOOL_REGISTRY: ToolDefinition[] = [
     displayName: "PMD (Java)",
     defaultCadence: "weekly",
     detector: (p) => p.languages.includes("java"),
-    run: (rootPath, config) => runPmd(rootPath, config),
+    run: (rootPath, config, context) => runPmd(rootPath, config, context),
     configKey: "pmd",
+    probes: [{ command: "pmd", probe: "path" }],
+    cache: { command: "pmd", inputs: JAVA_CACHE_INPUTS },
   },
   {
     name: "spotbugs",
     displayName: "SpotBugs (Java)",
     defaultCadence: "weekly",
     detector: (p) => p.languages.includes("java"),
-    run: (rootPath, config) => runSpotBugs(rootPath, config),
+    run: (rootPath, config, context) => runSpotBugs(rootPath, config, context),
     configKey: "spotbugs",
+    probes: [{ command: "spotbugs", probe: "path" }],
+    // Not cached: SpotBugs reads compiled classes and jars, which are build
+    // output (gitignored) and so never part of the inventory-based key
   },
 
   // Rust tools
@@ -189,24 +276,27 @@ const TOOL_REGISTRY: ToolDefinition[] = [
     displayName: "Clippy (Rust Linter)",
     defaultCadence: "daily",
     detector: (p) => p.languages.includes("rust"),
-    run: (rootPath, config) => runClippy(rootPath, config),
+    run: (rootPath, config, context) => runClippy(rootPath, config, context),
     configKey: "clippy",
+    probes: [{ command: "cargo", npxFallback: false }],
   },
   {
     name: "cargo-audit",
     displayName: "cargo-audit (Rust Security)",
     defaultCadence: "weekly",
     detector: (p) => p.languages.includes("rust"),
-    run: (rootPath) => runCargoAudit(rootPath),
+    run: (rootPath, _config, context) => runCargoAudit(rootPath, context),
     configKey: "cargo_audit",
+    probes: [{ command: "cargo-audit", npxFallback: false }],
   },
   {
     name: "cargo-deny",
     displayName: "cargo-deny (Rust Dependencies)",
     defaultCadence: "weekly",
     detector: (p) => p.languages.includes("rust"),
-    run: (rootPath, config) => runCargoDeny(rootPath, config),
+    run: (rootPath, config, context) => runCargoDeny(rootPath, config, context),
     configKey: "cargo_deny",
+    probes: [{ command: "cargo-deny", npxFallback: false }],
   },
 ];
 
@@ -225,6 +315,7 @@ function getToolConfig(
       enabled?: boolean | "auto" | Cadence;
       config_path?: string;
       min_tokens?: number;
+      incremental?: boolean;
     }
   | undefined {
   const tools = config.tools as Record<string, unknown> | undefined;
@@ -234,6 +325,7 @@ function getToolConfig(
         enabled?: boolean | "auto" | Cadence;
         config_path?: string;
         min_tokens?: number;
+        incremental?: boolean;
       }
     | undefined;
 }
@@ -303,6 +395,22 @@ export function getToolsToRun(
   });
 }
 
+/**
+ * Versions of the resolved tool binaries, keyed by tool name.
+ * Only tools that were probed and reported a version are included.
+ */
+export function getToolVersions(tools: ToolDefinition[]): Record<string, string> {
+  const versions: Record<string, string> = {};
+  for (const tool of tools) {
+    const command = tool.probes?.[0]?.command;
+    const version = command ? getResolvedTool(command)?.version : null;
+    if (version) {
+      versions[tool.name] = version;
+    }
+  }
+  return versions;
+}
+
 /**
  * Check if running in GitHub Actions environment.
  */
@@ -330,78 +438,335 @@ function endGroup(): void {
   }
 }
 
+/**
+ * Resolve how many tools may run at once.
+ * Explicit options win over config; defaults to the number of available cores.
+ */
+function resolveConcurrency(
+  config: VibeCopConfig,
+  options: ToolExecutionOptions,
+): number {
+  const requested = options.concurrency ?? config.execution?.concurrency;
+  if (requested && requested > 0) {
+    return Math.floor(requested);
+  }
+  return availableParallelism();
+}
+
+/**
+ * Decide whether a tool may run incrementally.
+ * Monthly runs are always full sweeps; otherwise the tool's own setting wins,
+ * then the run-wide option, then daily cadence enables it by default.
+ */
+function resolveIncremental(
+  toolIncremental: boolean | undefined,
+  cadence: Cadence,
+  options: ToolExecutionOptions,
+): boolean {
+  if (cadence === "monthly") return false;
+  return toolIncremental ?? options.incremental ?? cadence === "daily";
+}
+
+/**
+ * Open the findings cache unless disabled by option or config.
+ */
+function openFindingsCache(
+  inventory: FileInventory,
+  outputDir: string,
+  config: VibeCopConfig,
+  options: ToolExecutionOptions,
+): FindingsCache | null {
+  if ((options.cache ?? config.cache?.enabled) === false) {
+    return null;
+  }
+  return FindingsCache.open(
+    inventory,
+    outputDir,
+    config.cache?.max_size_mb ?? DEFAULT_CACHE_MAX_SIZE_MB,
+  );
+}
+
+/**
+ * Format a duration in milliseconds for log output.
+ */
+function formatDuration(ms: number): string {
+  return ms < 1000 ? `${ms}ms` : `${(ms / 1000).toFixed(1)}s`;
+}
+
+/**
+ * Format a byte count in megabytes for log output.
+ */
+function formatMb(bytes: number): string {
+  return `${(bytes / 1024 / 1024).toFixed(1)} MB`;
+}
+
+/** Per-tool time limit when execution.tool_timeout_minutes is not set */
+const DEFAULT_TOOL_TIMEOUT_MINUTES = 60;
+
+/** File (in the output directory) recording each tool's processes */
+const TOOL_RUNS_FILE = "tool-runs.json";
+
+/**
+ * Resolve a tool's time limit: execution.tool_timeouts.<tool>, then
+ * execution.tool_timeout_minutes, then the default.
+ */
+function resolveToolTimeoutMs(config: VibeCopConfig, tool: ToolName): number {
+  const minutes =
+    config.execution?.tool_timeouts?.[tool] ??
+    config.execution?.tool_timeout_minutes ??
+    DEFAULT_TOOL_TIMEOUT_MINUTES;
+  return minutes * 60_000;
+}
+
+/**
+ * Settle with `promise`, or reject with the abort reason as soon as `signal`
+ * aborts (a runner may still be doing non-process work when it times out).
+ */
+function raceAbort<T>(promise: Promise<T>, signal: AbortSignal): Promise<T> {
+  return new Promise<T>((resolve, reject) => {
+    const onAbort = () => reject(signal.reason);
+    signal.addEventListener("abort", onAbort, { once: true });
+    promise.then(resolve, reject).finally(() => {
+      signal.removeEventListener("abort", onAbort);
+    });
+  });
+}
+
+/**
+ * Summarize a tool's processes for the summary table.
+ */
+function formatProcessStats(processes: ProcessRecord[]): string {
+  if (processes.length === 0) return "";
+  const outputBytes = processes.reduce(
+    (sum, p) => sum + p.stdoutBytes + p.stderrBytes,
+    0,
+  );
+  const peakRss = Math.max(0, ...processes.map((p) => p.peakRssBytes ?? 0));
+  const parts = [
+    `${processes.length} process${processes.length === 1 ? "" : "es"}`,
+    `${formatMb(outputBytes)} output`,
+  ];
+  if (peakRss > 0) parts.push(`peak RSS ${formatMb(peakRss)}`);
+  return `, ${parts.join(", ")}`;
+}
+
+/**
+ * Record every tool's outcome and processes in the output directory.
+ */
+function writeToolRuns(outputDir: string, results: ToolRunResult[]): void {
+  mkdirSync(outputDir, { recursive: true });
+  const runs = results.map((result) => ({
+    tool: result.name,
+    status: result.status,
+    durationMs: result.durationMs,
+    findings: result.findings.length,
+    processes: result.processes,
+  }));
+  writeFileSync(join(outputDir, TOOL_RUNS_FILE), JSON.stringify(runs, null, 2));
+}
+
 /**
  * Execute all applicable tools and collect findings.
+ *
+ * Independent tools run concurrently on a bounded worker pool. Findings are
+ * merged in registry order (not completion order) so output stays deterministic.
  */
-export function executeTools(
+export async function executeTools(
   tools: ToolDefinition[],
   rootPath: string,
   config: VibeCopConfig,
-): Finding[] {
-  const allFindings: Finding[] = [];
-  const toolResults: { name: string; count: number; status: "success" | "failed" }[] = [];
-
-  console.log("\n=== Running Analysis Tools ===\n");
+  options: ToolExecutionOptions = {},
+): Promise<Finding[]> {
+  const concurrency = resolveConcurrency(config, options);
+  const sequential = concurrency === 1 || tools.length <= 1;
+  const outputDir = options.outputDir ?? join(rootPath, ".vibecheck-output");
+  const cadence = options.cadence ?? "weekly";
+  const incrementalState =
+    options.incrementalState ?? loadIncrementalState(outputDir);
+  const inventory = options.inventory ?? (await FileInventory.build(rootPath));
+  const cache = openFindingsCache(inventory, outputDir, config, options);
+  const exclusions = ExclusionMatcher.compile({ patterns: config.exclude });
 
-  for (const tool of tools) {
-    const toolConfig = getToolConfig(config, tool.configKey);
-    const configPath =
-      toolConfig?.config_path ||
-      (tool.configKey === "jscpd"
-        ? String(toolConfig?.min_tokens || 70)
-        : undefined);
-
-    startGroup(`🔍 ${tool.displayName}`);
-    
-    try {
-      const findings = tool.run(rootPath, configPath);
-      allFindings.push(...findings);
-      toolResults.push({ name: tool.displayName, count: findings.length, status: "success" });
-      console.log(`✅ Found ${findings.length} findings`);
-    } catch (error) {
-      toolResults.push({ name: tool.displayName, count: 0, status: "failed" });
-      console.warn(`❌ Failed: ${error}`);
+  // Probe every binary once, in parallel, instead of per runner call
+  const probeStart = Date.now();
+  const resolvedTools = await resolveTools(tools.flatMap((t) => t.probes ?? []));
+  if (resolvedTools.length > 0) {
+    console.log(
+      `Resolved ${resolvedTools.length} tool binaries in ${formatDuration(Date.now() - probeStart)}:`,
+    );
+    for (const tool of resolvedTools) {
+      const where = tool.useNpx ? "npx" : (tool.path ?? "PATH");
+      console.log(
+        tool.available
+          ? `  ${tool.command} ${tool.version ?? "(unknown version)"} (${where})`
+          : `  ${tool.command} not installed`,
+      );
     }
-    
-    endGroup();
   }
 
+  console.log("\n=== Running Analysis Tools ===\n");
+  if (!sequential) {
+    console.log(
+      `Running ${tools.length} tools with concurrency ${Math.min(concurrency, tools.length)}`,
+    );
+  }
+
+  const wallStart = Date.now();
+
+  const toolResults = await mapWithConcurrency(
+    tools,
+    concurrency,
+    async (tool): Promise<ToolRunResult> => {
+      const toolConfig = getToolConfig(config, tool.configKey);
+      const configPath =
+        toolConfig?.config_path ||
+        (tool.configKey === "jscpd"
+          ? String(toolConfig?.min_tokens || 70)
+          : undefined);
+
+      const cacheKey =
+        cache && tool.cache
+          ? cache.computeKey(
+              tool.name,
+              tool.cache,
+              hashToolConfig(rootPath, configPath ?? "") +
+                JSON.stringify(toolConfig ?? {}) +
+                exclusions.signature,
+            )
+          : null;
+
+      const cached = cache && cacheKey ? cache.get(tool.name, cacheKey) : null;
+      if (cached) {
+        // Findings still describe the files the previous baseline covered
+        incrementalState.retain(tool.name);
+        console.log(`♻️  ${tool.displayName}: ${cached.length} findings from cache`);
+        return {
+          name: tool.name,
+          displayName: tool.displayName,
+          findings: cached,
+          status: "cached",
+          durationMs: 0,
+          processes: [],
+        };
+      }
+
+      // Collapsible groups only make sense when tool output isn't interleaved
+      if (sequential) {
+        startGroup(`🔍 ${tool.displayName}`);
+      } else {
+        console.log(`▶ Started ${tool.displayName}`);
+      }
+
+      // Every process the tool starts is killed when it runs out of time
+      const timeoutMs = resolveToolTimeoutMs(config, tool.name);
+      const controller = new AbortController();
+      const timer = setTimeout(() => {
+        controller.abort(
+          new Error(`timed out after ${formatDuration(timeoutMs)}`),
+        );
+      }, timeoutMs);
+      const processes: ProcessRecord[] = [];
+
+      // Set by the runner when it swallowed a failure; such runs are not cached
+      let incompleteReason: string | null = null;
+
+      const start = Date.now();
+      let result: ToolRunResult;
+      try {
+        const findings = await runInProcessScope(controller.signal, processes, () =>
+          raceAbort(
+            tool.run(rootPath, configPath, {
+              outputDir,
+              cadence,
+              incremental: resolveIncremental(toolConfig?.incremental, cadence, options),
+              incrementalState,
+              jvmClassCache: config.execution?.jvm_class_cache !== false,
+              inventory,
+              exclusions,
+              markIncomplete: (reason) => {
+                incompleteReason ??= reason;
+              },
+            }),
+            controller.signal,
+          ),
+        );
+        result = {
+          name: tool.name,
+          displayName: tool.displayName,
+          findings,
+          status: "success",
+          durationMs: Date.now() - start,
+          processes,
+        };
+        console.log(
+          `✅ ${tool.displayName}: ${findings.length} findings in ${formatDuration(result.durationMs)}`,
+        );
+        if (cache && cacheKey) {
+          if (incompleteReason) {
+            console.log(`  Not caching ${tool.displayName} (${incompleteReason})`);
+          } else {
+            cache.set(tool.name, cacheKey, findings);
+          }
+        }
+      } catch (error) {
+        result = {
+          name: tool.name,
+          displayName: tool.displayName,
+          findings: [],
+          status: "failed",
+          durationMs: Date.now() - start,
+          processes,
+        };
+        console.warn(`❌ ${tool.displayName} failed: ${error}`);
+      } finally {
+        clearTimeout(timer);
+      }
+
+      if (sequential) {
+        endGroup();
+      }
+      return result;
+    },
+  );
+
+  const wallTimeMs = Date.now() - wallStart;
+  const toolTimeMs = toolResults.reduce((sum, r) => sum + r.durationMs, 0);
+
   // Print summary table
   console.log("\n=== Tool Summary ===\n");
   for (const result of toolResults) {
-    const icon = result.status === "success" ? "✓" : "✗";
-    const countStr = result.status === "success" ? `${result.count} findings` : "failed";
-    console.log(`  ${icon} ${result.name}: ${countStr}`);
+    const icon = result.status === "failed" ? "✗" : "✓";
+    const countStr =
+      result.status === "failed"
+        ? "failed"
+        : `${result.findings.length} findings${result.status === "cached" ? ", cached" : ""}`;
+    console.log(
+      `  ${icon} ${result.displayName}: ${countStr} (${formatDuration(result.durationMs)}${formatProcessStats(result.processes)})`,
+    );
   }
+  console.log(
+    `\n  Wall time: ${formatDuration(wallTimeMs)} (sum of tool times: ${formatDuration(toolTimeMs)}, ` +
+      `speedup: ${wallTimeMs > 0 ? (toolTimeMs / wallTimeMs).toFixed(1) : "1.0"}x)`,
+  );
 
-  // Filter out findings from excluded directories (e.g., .trunk, node_modules)
-  const filteredFindings = allFindings.filter((finding) => {
-    // Check if ANY location is in an excluded path
-    const allLocationsExcluded = finding.locations.every((loc) =>
-      shouldExcludePath(loc.path)
-    );
-    
-    if (allLocationsExcluded && finding.locations.length > 0) {
-      return false; // Exclude this finding
-    }
-    
-    // For findings with mixed locations, filter out excluded locations
-    if (finding.locations.some((loc) => shouldExcludePath(loc.path))) {
-      finding.locations = finding.locations.filter(
-        (loc) => !shouldExcludePath(loc.path)
-      );
-      // If no locations remain, exclude the finding
-      if (finding.locations.length === 0) {
-        return false;
-      }
+  writeToolRuns(outputDir, toolResults);
+
+  if (cache) {
+    const evicted = cache.evict();
+    if (evicted > 0) {
+      console.log(`  Evicted ${evicted} stale findings cache entries`);
     }
-    
-    return true;
-  });
+  }
+
+  // Merge in registry order so output does not depend on which tool finished first
+  const allFindings = toolResults.flatMap((result) => result.findings);
+
+  // Filter out findings from excluded paths (e.g., .trunk, node_modules, config exclude)
+  const filteredFindings = exclusions.filterFindings(allFindings);
 
   const excludedCount = allFindings.length - filteredFindings.length;
   if (excludedCount > 0) {
-    console.log(`\n  (Filtered ${excludedCount} findings from excluded directories)`);
+    console.log(`\n  (Filtered ${excludedCount} findings from excluded paths)`);
   }
 
   console.log(`\nTotal raw findings: ${filteredFindings.length}\n`);
@@ -0,0 +1,233 @@
+/**
+ * Tool Resolution
+ *
+ * Process-wide registry of external tool binaries. Each tool is probed at
+ * most once per pipeline run (the pipeline probes every tool it needs in
+ * parallel up front); runners, runTool and the output metadata all read the
+ * memoized result instead of spawning `<tool> --version` again.
+ */
+
+import { spawnSync } from "node:child_process";
+import { accessSync, constants, statSync } from "node:fs";
+import { delimiter, join } from "node:path";
+import {
+  runProcess,
+  SPAWN_SHELL,
+  type ProcessResult,
+} from "./process-runner.js";
+
+// ============================================================================
+// Types
+// ============================================================================
+
+export interface ToolProbe {
+  /** Executable name, e.g. "eslint" */
+  command: string;
+  /** Fall back to `npx <command>` if not installed directly (default: true) */
+  npxFallback?: boolean;
+  /**
+   * "version" runs `<command> --version`; "path" only looks the binary up on
+   * PATH, for tools where starting the process is expensive (JVM tools).
+   */
+  probe?: "version" | "path";
+}
+
+export interface ResolvedTool {
+  command: string;
+  available: boolean;
+  /** True if the tool must be invoked through npx */
+  useNpx: boolean;
+  /** Resolved binary path, if found on PATH */
+  path: string | null;
+  /** Version reported by the tool (or inferred from its install path) */
+  version: string | null;
+}
+
+/** Results of finished probes */
+const resolved = new Map<string, ResolvedTool>();
+
+/** In-flight probes, so concurrent callers share one process */
+const pending = new Map<string, Promise<ResolvedTool>>();
+
+// ============================================================================
+// Path Lookup
+// ============================================================================
+
+/**
+ * Resolve a command to an executable on PATH without spawning anything.
+ * Used for JVM tools, where a `--version` probe costs a full JVM startup.
+ */
+export function findExecutable(command: string): string | null {
+  const dirs = (process.env.PATH ?? "").split(delimiter).filter(Boolean);
+  const extensions =
+    process.platform === "win32"
+      ? (process.env.PATHEXT ?? ".EXE;.CMD;.BAT").split(";")
+      : [""];
+
+  for (const dir of dirs) {
+    for (const ext of extensions) {
+      const candidate = join(dir, command + ext);
+      try {
+        accessSync(candidate, constants.X_OK);
+        if (statSync(candidate).isFile()) {
+          return candidate;
+        }
+      } catch {
+        // Not here, keep looking
+      }
+    }
+  }
+  return null;
+}
+
+// ============================================================================
+// Version Parsing
+// ============================================================================
+
+/**
+ * Extract a version from `--version` output (first line mentioning one).
+ */
+function parseVersion(output: string): string | null {
+  for (const line of output.split("\n")) {
+    const match = line.match(/\d+\.\d+(?:\.\d+)?(?:[-+][\w.-]+)?/);
+    if (match) return match[0];
+  }
+  const firstLine = output.trim().split("\n")[0];
+  return firstLine ? firstLine.trim() : null;
+}
+
+/**
+ * Infer a version from an install path such as /opt/pmd-bin-7.0.0/bin/pmd.
+ */
+function versionFromPath(path: string): string | null {
+  const match = path.match(/[-_/](\d+\.\d+(?:\.\d+)?)(?=[/\\])/);
+  return match ? match[1] : null;
+}
+
+/**
+ * Convert probe output into a resolution result.
+ */
+function toResolvedTool(
+  command: string,
+  direct: Pick<ProcessResult, "status" | "error" | "stdout" | "stderr">,
+  npx: Pick<ProcessResult, "status" | "error" | "stdout" | "stderr"> | null,
+): ResolvedTool {
+  const path = findExecutable(command);
+
+  if (!direct.error && direct.status === 0) {
+    return {
+      command,
+      available: true,
+      useNpx: false,
+      path,
+      version: parseVersion(direct.stdout || direct.stderr),
+    };
+  }
+
+  if (npx && !npx.error && npx.status === 0) {
+    return {
+      command,
+      available: true,
+      useNpx: true,
+      path: null,
+      version: parseVersion(npx.stdout || npx.stderr),
+    };
+  }
+
+  return { command, available: false, useNpx: false, path: null, version: null };
+}
+
+/**
+ * Resolve a tool by PATH lookup only.
+ */
+function resolveByPath(command: string): ResolvedTool {
+  const path = findExecutable(command);
+  return {
+    command,
+    available: path !== null,
+    useNpx: false,
+    path,
+    version: path ? versionFromPath(path) : null,
+  };
+}
+
+// ============================================================================
+// Resolution
+// ============================================================================
+
+/**
+ * Resolve a tool, probing it only the first time it is requested.
+ */
+export function resolveTool(probe: ToolProbe): Promise<ResolvedTool> {
+  const { command, npxFallback = true } = probe;
+
+  const known = resolved.get(command);
+  if (known) return Promise.resolve(known);
+
+  const inFlight = pending.get(command);
+  if (inFlight) return inFlight;
+
+  const promise = (async (): Promise<ResolvedTool> => {
+    if (probe.probe === "path") {
+      return resolveByPath(command);
+    }
+
+    const direct = await runProcess(command, ["--version"]);
+    const npx =
+      (direct.error || direct.status !== 0) && npxFallback
+        ? await runProcess("npx", [command, "--version"])
+        : null;
+    return toResolvedTool(command, direct, npx);
+  })().then((tool) => {
+    resolved.set(command, tool);
+    pending.delete(command);
+    return tool;
+  });
+
+  pending.set(command, promise);
+  return promise;
+}
+
+/**
+ * Probe a set of tools in parallel (duplicates are probed once).
+ */
+export function resolveTools(probes: ToolProbe[]): Promise<ResolvedTool[]> {
+  return Promise.all(probes.map((probe) => resolveTool(probe)));
+}
+
+/**
+ * Synchronous resolution for callers outside the async pipeline.
+ * Uses the memoized result when available, otherwise probes and memoizes.
+ */
+export function resolveToolSync(
+  command: string,
+  npxFallback = true,
+): ResolvedTool {
+  const known = resolved.get(command);
+  if (known) return known;
+
+  const direct = spawnSync(command, ["--version"], {
+    encoding: "utf-8",
+    shell: SPAWN_SHELL,
+    stdio: "pipe",
+  });
+  const npx =
+    (direct.error || direct.status !== 0) && npxFallback
+      ? spawnSync("npx", [command, "--version"], {
+          encoding: "utf-8",
+          shell: SPAWN_SHELL,
+          stdio: "pipe",
+        })
+      : null;
+
+  const tool = toResolvedTool(command, direct, npx);
+  resolved.set(command, tool);
+  return tool;
+}
+
+/**
+ * Get a tool's resolution if it has already been probed.
+ */
+export function getResolvedTool(command: string): ResolvedTool | undefined {
+  return resolved.get(command);
+}
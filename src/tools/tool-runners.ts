@@ -5,12 +5,21 @@
  * Re-exports language-specific runners from ./runners/ modules.
  */
 
-import { spawnSync } from "node:child_process";
-import { existsSync } from "node:fs";
-import { join } from "node:path";
+import { copyFileSync, existsSync, mkdirSync } from "node:fs";
+import { dirname, join } from "node:path";
 import type { Finding } from "../core/types.js";
-import { extractJsonFromMixedOutput } from "./tool-utils.js";
-import { parseTrunkOutput } from "../parsers.js";
+import {
+  carryForwardFindings,
+  getHeadCommit,
+  hashToolConfig,
+  loadPreviousFindings,
+  planIncrementalRun,
+  type IncrementalPlan,
+} from "./incremental.js";
+import { runProcess } from "./process-runner.js";
+import { JsonOutputCollector, type ToolRunContext } from "./tool-utils.js";
+import { parseInPool } from "../parsers/parse-pool.js";
+import type { TrunkOutput } from "../parsers/typescript.js";
 import { MAX_OUTPUT_BUFFER, TOOL_INIT_TIMEOUT_MS } from "../utils/shared.js";
 
 // Re-export all language-specific runners
@@ -30,14 +39,28 @@ export { runClippy, runCargoAudit, runCargoDeny } from "./runners/rust.js";
 // Trunk Runner (kept here due to complexity and special handling)
 // ============================================================================
 
+/** Trunk config generated by `trunk init`, relative to the output directory */
+const TRUNK_SAVED_CONFIG = join("trunk", "trunk.yaml");
+
+/**
+ * Most changed files passed to `trunk check` as arguments. Larger change
+ * sets are checked with `--upstream` so the command line stays bounded.
+ */
+const TRUNK_MAX_FILE_ARGS = 500;
+
 /**
  * Run Trunk check and capture output.
  * Trunk wraps multiple linters (ESLint, Prettier, etc.)
+ *
+ * In incremental mode only files changed since the last analyzed commit are
+ * checked; findings for unchanged files are carried forward from the previous
+ * findings-all.ndjson. Monthly runs (and runs without a usable baseline)
+ * check the whole tree with `--all`.
  */
-export function runTrunk(
+export async function runTrunk(
   rootPath: string,
-  args: string[] = ["check", "--all"],
-): Finding[] {
+  context: ToolRunContext,
+): Promise<Finding[]> {
   console.log("Running Trunk...");
 
   try {
@@ -47,10 +70,7 @@ export function runTrunk(
 
     if (trunkPathEnv) {
       // Use trunk from TRUNK_PATH (set by GitHub Action)
-      const versionCheck = spawnSync(trunkPathEnv, ["--version"], {
-        encoding: "utf-8",
-        shell: true,
-      });
+      const versionCheck = await runProcess(trunkPathEnv, ["--version"]);
       if (versionCheck.status === 0) {
         console.log(`  Using trunk from TRUNK_PATH: ${trunkPathEnv}`);
         trunkCmd = [trunkPathEnv];
@@ -58,24 +78,21 @@ export function runTrunk(
         console.log(
           `  TRUNK_PATH set but trunk not working: ${versionCheck.stderr}`,
         );
+        context.markIncomplete("TRUNK_PATH not working");
         trunkCmd = [];
       }
     } else {
       // Check if trunk is available (via npm or global install)
-      const versionCheck = spawnSync("pnpm", ["exec", "trunk", "--version"], {
+      const versionCheck = await runProcess("pnpm", ["exec", "trunk", "--version"], {
         cwd: rootPath,
-        encoding: "utf-8",
-        shell: true,
       });
 
       if (versionCheck.error || versionCheck.status !== 0) {
         // Try global trunk
-        const globalCheck = spawnSync("trunk", ["--version"], {
-          encoding: "utf-8",
-          shell: true,
-        });
+        const globalCheck = await runProcess("trunk", ["--version"]);
         if (globalCheck.error || globalCheck.status !== 0) {
           console.log("  Trunk not installed, skipping");
+          context.markIncomplete("not installed");
           return [];
         }
         trunkCmd = ["trunk"];
@@ -89,17 +106,22 @@ export function runTrunk(
       return [];
     }
 
-    // Check if trunk is initialized in the repo, if not, initialize it
+    // Check if trunk is initialized in the repo, if not, reuse the config a
+    // previous run generated, or initialize it
+    const { outputDir, incrementalState } = context;
     const trunkConfigPath = join(rootPath, ".trunk", "trunk.yaml");
-    if (!existsSync(trunkConfigPath)) {
+    const savedConfigPath = join(outputDir, TRUNK_SAVED_CONFIG);
+    if (!existsSync(trunkConfigPath) && existsSync(savedConfigPath)) {
+      mkdirSync(dirname(trunkConfigPath), { recursive: true });
+      copyFileSync(savedConfigPath, trunkConfigPath);
+      console.log("  Restored trunk.yaml from a previous run, skipping trunk init");
+    } else if (!existsSync(trunkConfigPath)) {
       console.log("  Trunk not initialized, running trunk init...");
-      const initResult = spawnSync(
+      const initResult = await runProcess(
         trunkCmd[0],
         [...trunkCmd.slice(1), "init", "-n"],
         {
           cwd: rootPath,
-          encoding: "utf-8",
-          shell: true,
           timeout: TOOL_INIT_TIMEOUT_MS,
         },
       );
@@ -107,29 +129,95 @@ export function runTrunk(
         console.log(
           `  Trunk init failed: ${initResult.stderr || initResult.stdout}`,
         );
+        context.markIncomplete("trunk init failed");
         return [];
       }
       console.log("  Trunk initialized successfully");
+      // Fresh CI checkouts lose .trunk/; keep the generated config with the
+      // output directory so the next run can skip init
+      mkdirSync(dirname(savedConfigPath), { recursive: true });
+      copyFileSync(trunkConfigPath, savedConfigPath);
     }
 
-    const trunkArgs = [...args, "--output=json", "--no-progress"];
+    const configKey = hashToolConfig(rootPath, ".trunk/trunk.yaml");
+
+    // Full runs still record HEAD so later runs can go incremental from here
+    const plan: IncrementalPlan = context.incremental
+      ? await planIncrementalRun(
+          rootPath,
+          outputDir,
+          "trunk",
+          incrementalState,
+          configKey,
+        )
+      : {
+          mode: "full",
+          reason: "incremental disabled",
+          headCommit: await getHeadCommit(rootPath),
+        };
+
+    let carriedForward: Finding[] = [];
+    let targetArgs = ["--all"];
+
+    if (plan.mode === "incremental") {
+      const changedFiles = [...plan.changedFiles].filter(
+        (path) =>
+          !context.exclusions.excludes(path) &&
+          existsSync(join(rootPath, path)),
+      );
+      carriedForward = carryForwardFindings(
+        loadPreviousFindings(outputDir, "trunk"),
+        plan.changedFiles,
+        rootPath,
+      );
+      console.log(
+        `  Incremental since ${plan.baseCommit.substring(0, 8)}: ` +
+          `${changedFiles.length} changed files, ${carriedForward.length} findings carried forward`,
+      );
+
+      if (changedFiles.length === 0) {
+        incrementalState.markAnalyzed("trunk", plan.headCommit, configKey);
+        return carriedForward;
+      }
+
+      // Without --all Trunk only reports issues new since upstream;
+      // --show-existing reports everything in the checked files, which is
+      // what replaces their carried-forward findings
+      targetArgs =
+        changedFiles.length <= TRUNK_MAX_FILE_ARGS
+          ? ["--show-existing", ...changedFiles]
+          : ["--show-existing", `--upstream=${plan.baseCommit}`];
+    } else if (context.incremental) {
+      console.log(`  Full analysis (${plan.reason})`);
+    }
+
+    const trunkArgs = [
+      "check",
+      ...targetArgs,
+      "--output=json",
+      "--no-progress",
+    ];
+    // Summarize file arguments instead of logging every changed path
+    const shownArgs =
+      targetArgs.length > 2
+        ? ["check", "--show-existing", `<${targetArgs.length - 1} files>`]
+        : trunkArgs;
     console.log(
-      `  Running: ${trunkCmd[0]} ${[...trunkCmd.slice(1), ...trunkArgs].join(" ")}`,
+      `  Running: ${trunkCmd[0]} ${[...trunkCmd.slice(1), ...shownArgs].join(" ")}`,
     );
 
-    const trunkResult = spawnSync(
+    // Trunk outputs JSON but may include ANSI codes and progress text;
+    // scan stdout for the JSON report as it arrives
+    const collector = new JsonOutputCollector("issues");
+    const trunkResult = await runProcess(
       trunkCmd[0],
       [...trunkCmd.slice(1), ...trunkArgs],
       {
         cwd: rootPath,
-        encoding: "utf-8",
-        shell: true,
         maxBuffer: MAX_OUTPUT_BUFFER,
+        onStdout: collector.write,
       },
     );
-
-    // Trunk outputs JSON but may include ANSI codes, extract JSON portion
-    const output = trunkResult.stdout || "";
     const stderr = trunkResult.stderr || "";
 
     console.log(`  Trunk exit code: ${trunkResult.status}`);
@@ -137,38 +225,56 @@ export function runTrunk(
       console.log(`  Trunk stderr: ${stderr}`);
     }
 
-    // Extract JSON from mixed output (handles ANSI codes)
-    // Try to find JSON with "issues" field first, then fall back to any JSON
-    let jsonStr = extractJsonFromMixedOutput(output, "issues");
-    if (!jsonStr) {
-      // Trunk may return JSON without issues field when there are no findings
-      jsonStr = extractJsonFromMixedOutput(output);
-    }
+    // Prefer the JSON with an "issues" field; Trunk may return JSON without
+    // it when there are no findings
+    const { marked, first } = collector.finish();
+    const report = marked ?? first;
 
-    if (jsonStr) {
+    if (report) {
       try {
-        const trunkOutput = JSON.parse(jsonStr);
+        const trunkOutput = report as TrunkOutput & {
+          checkStats?: { fileCount?: number };
+        };
         // Check if issues field exists
         if (!trunkOutput.issues || trunkOutput.issues.length === 0) {
           const fileCount = trunkOutput.checkStats?.fileCount || "unknown";
           console.log(`  Trunk checked ${fileCount} files, no issues found`);
-          return [];
+          markTrunkAnalyzed(context, plan, configKey);
+          return carriedForward;
         }
-        const findings = parseTrunkOutput(trunkOutput);
+        const findings = await parseInPool("trunk", trunkOutput);
         console.log(`  Parsed ${findings.length} findings from trunk JSON`);
-        return findings;
+        markTrunkAnalyzed(context, plan, configKey);
+        return [...carriedForward, ...findings];
       } catch (e) {
         console.warn("Failed to parse Trunk JSON output:", e);
+        context.markIncomplete("unparseable JSON report");
       }
     } else {
       console.log("  No JSON found in trunk output");
-      if (output.length < 1000) {
-        console.log("  Output:", output);
+      if (collector.head) {
+        console.log("  Output:", collector.head);
       }
+      context.markIncomplete("no JSON report");
     }
   } catch (error) {
     console.warn("Trunk not available or failed:", error);
+    context.markIncomplete(String(error));
   }
 
   return [];
 }
+
+/**
+ * Record HEAD as Trunk's baseline. Only runs that produced a JSON report
+ * qualify, so a failed check is retried in full next time.
+ */
+function markTrunkAnalyzed(
+  context: ToolRunContext,
+  plan: IncrementalPlan,
+  configKey: string,
+): void {
+  if (plan.headCommit) {
+    context.incrementalState.markAnalyzed("trunk", plan.headCommit, configKey);
+  }
+}
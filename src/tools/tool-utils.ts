@@ -5,9 +5,15 @@
  * running with fallbacks, config file detection, and output parsing.
  */
 
-import { spawnSync, type SpawnSyncReturns } from "node:child_process";
-import { existsSync } from "node:fs";
-import { join } from "node:path";
+import { existsSync, readFileSync } from "node:fs";
+import { join, posix } from "node:path";
+import type { FileInventory } from "../core/file-inventory.js";
+import type { Cadence } from "../core/types.js";
+import { JsonDocumentScanner } from "../utils/json-stream.js";
+import { shouldExcludePath, type ExclusionMatcher } from "./exclusions.js";
+import type { IncrementalState } from "./incremental.js";
+import { runProcess, type ProcessResult } from "./process-runner.js";
+import { getResolvedTool, resolveToolSync } from "./tool-resolution.js";
 
 // ============================================================================
 // Types
@@ -17,7 +23,31 @@ export interface ToolRunOptions {
   cwd: string;
   shell?: boolean;
   maxBuffer?: number;
-  encoding?: BufferEncoding;
+}
+
+/**
+ * Per-run settings passed to every tool runner.
+ */
+export interface ToolRunContext {
+  /** Output directory for caches and state (default: .vibecheck-output) */
+  outputDir: string;
+  cadence: Cadence;
+  /** True if the runner may analyze only files changed since its last run */
+  incremental: boolean;
+  /** Last analyzed commit per tool; persisted after findings are written */
+  incrementalState: IncrementalState;
+  /** True if JVM tools may reuse a persisted class-data-sharing archive */
+  jvmClassCache: boolean;
+  /** Repository file listing shared by every tool in the run */
+  inventory: FileInventory;
+  /** Paths the run never analyzes (defaults and config `exclude`) */
+  exclusions: ExclusionMatcher;
+  /**
+   * Report that the tool did not finish cleanly (error, missing or unreadable
+   * report). Its findings are still used but never stored in the findings
+   * cache, so a transient failure is not replayed on later runs.
+   */
+  markIncomplete: (reason: string) => void;
 }
 
 export interface ToolAvailability {
@@ -31,36 +61,14 @@ export interface ToolAvailability {
 
 /**
  * Check if a tool is available (try direct command, then npx fallback).
+ * Probes once per process; later calls read the memoized resolution.
  */
 export function isToolAvailable(
   command: string,
   npxFallback = true,
 ): ToolAvailability {
-  // Try direct command first
-  const directCheck = spawnSync(command, ["--version"], {
-    encoding: "utf-8",
-    shell: true,
-    stdio: "pipe",
-  });
-
-  if (!directCheck.error && directCheck.status === 0) {
-    return { available: true, useNpx: false };
-  }
-
-  // Try npx fallback if enabled
-  if (npxFallback) {
-    const npxCheck = spawnSync("npx", [command, "--version"], {
-      encoding: "utf-8",
-      shell: true,
-      stdio: "pipe",
-    });
-
-    if (!npxCheck.error && npxCheck.status === 0) {
-      return { available: true, useNpx: true };
-    }
-  }
-
-  return { available: false, useNpx: false };
+  const { available, useNpx } = resolveToolSync(command, npxFallback);
+  return { available, useNpx };
 }
 
 // ============================================================================
@@ -70,36 +78,40 @@ export function isToolAvailable(
 /**
  * Run a tool command with automatic npx fallback.
  */
-export function runTool(
+export async function runTool(
   command: string,
   args: string[],
   options: ToolRunOptions & { useNpx?: boolean },
-): SpawnSyncReturns<string> {
+): Promise<ProcessResult> {
   const {
     cwd,
-    shell = true,
+    shell,
     maxBuffer = 50 * 1024 * 1024,
-    encoding = "utf-8",
     useNpx = false,
   } = options;
 
   const spawnOptions = {
     cwd,
-    encoding,
     shell,
     maxBuffer,
   };
 
   if (useNpx) {
-    return spawnSync("npx", [command, ...args], spawnOptions);
+    return runProcess("npx", [command, ...args], spawnOptions);
   }
 
   // Try direct command first
-  const result = spawnSync(command, args, spawnOptions);
+  const result = await runProcess(command, args, spawnOptions);
+
+  // A tool known to be installed directly failed for real; npx won't help
+  const resolved = getResolvedTool(command);
+  if (resolved?.available && !resolved.useNpx) {
+    return result;
+  }
 
   // If direct command failed, try npx
   if (result.error || (result.status !== 0 && !result.stdout)) {
-    return spawnSync("npx", [command, ...args], spawnOptions);
+    return runProcess("npx", [command, ...args], spawnOptions);
   }
 
   return result;
@@ -152,99 +164,52 @@ export function safeParseJson<T>(output: string): T | null {
 // Directory Utilities
 // ============================================================================
 
-/** Common directories to exclude from analysis */
-export const COMMON_EXCLUDE_DIRS = [
-  ".trunk",
-  "node_modules",
-  ".git",
-  "build",
-  "target",
-  "dist",
-  "venv",
-  ".venv",
-  "__pycache__",
-];
-
-/** Pre-built exclude string for general tools (comma-separated) */
-export const EXCLUDE_DIRS_COMMON = COMMON_EXCLUDE_DIRS.slice(0, 3).join(","); // .trunk,node_modules,.git
-
-/** Pre-built exclude string for Python tools (includes venv) */
-export const EXCLUDE_DIRS_PYTHON = [
-  ...COMMON_EXCLUDE_DIRS.slice(0, 3),
-  "venv",
-  ".venv",
-].join(",");
-
-/** Pre-built exclude string for Rust tools (includes target, .cargo) */
-export const EXCLUDE_DIRS_RUST = ["target", ".cargo"].join(",");
-
-/**
- * Check if a path should be excluded from analysis.
- * Returns true if the path is inside any of the common exclude directories.
- */
-export function shouldExcludePath(filePath: string): boolean {
-  const normalizedPath = filePath.replace(/\\/g, "/");
-  
-  for (const excludeDir of COMMON_EXCLUDE_DIRS) {
-    // Match paths that start with the exclude dir or contain it as a segment
-    if (
-      normalizedPath.startsWith(`${excludeDir}/`) ||
-      normalizedPath.includes(`/${excludeDir}/`) ||
-      normalizedPath === excludeDir
-    ) {
-      return true;
-    }
-  }
-  
-  return false;
-}
-
 /**
  * Find existing directories from a list of common source directories.
+ * With an inventory, only directories holding repo files count (an ignored
+ * `lib/` of build output does not).
  */
 export function findSourceDirs(
   rootPath: string,
   candidates?: string[],
+  inventory?: FileInventory,
 ): string[] {
   const defaultCandidates = ["src", "lib", "app", "scripts", "packages"];
   const dirs = candidates || defaultCandidates;
 
-  return dirs.filter((dir) => existsSync(join(rootPath, dir)));
+  return dirs.filter((dir) =>
+    inventory ? inventory.hasFilesUnder(dir) : existsSync(join(rootPath, dir)),
+  );
 }
 
 /**
  * Find directories containing Cargo.toml files (for Rust projects).
  * Returns an array of directory paths that contain Cargo.toml.
+ *
+ * Every crate in the repo is found; crates inside a Cargo workspace are left
+ * to the workspace root, which checks its members.
  */
-export function findCargoDirectories(rootPath: string): string[] {
-  const cargoDirs: string[] = [];
-
-  // Check root first
-  if (existsSync(join(rootPath, "Cargo.toml"))) {
-    cargoDirs.push(rootPath);
-  }
-
-  // Check common subdirectories that might contain Rust code
-  const candidates = [
-    "test-fixtures",
-    "rust",
-    "crates",
-    "src",
-    "lib",
-    "examples",
-  ];
-
-  for (const candidate of candidates) {
-    const candidatePath = join(rootPath, candidate);
-    if (
-      existsSync(candidatePath) &&
-      existsSync(join(candidatePath, "Cargo.toml"))
-    ) {
-      cargoDirs.push(candidatePath);
-    }
-  }
-
-  return cargoDirs;
+export function findCargoDirectories(
+  rootPath: string,
+  inventory: FileInventory,
+): string[] {
+  const manifests = inventory
+    .named("Cargo.toml")
+    .map((file) => file.path)
+    .filter((path) => !shouldExcludePath(path));
+  const crateDirs = manifests.map((path) => posix.dirname(path));
+  const workspaceDirs = crateDirs.filter((_, i) =>
+    /^\[workspace\]/m.test(readFileSync(join(rootPath, manifests[i]), "utf-8")),
+  );
+
+  return crateDirs
+    .filter(
+      (dir) =>
+        !workspaceDirs.some(
+          (ws) => ws !== dir && (ws === "." || dir.startsWith(`${ws}/`)),
+        ),
+    )
+    .map((dir) => join(rootPath, dir));
 }
 
 // ============================================================================
@@ -259,47 +224,59 @@ export function stripAnsiCodes(output: string): string {
 }
 
 /**
- * Extract JSON object or array from mixed output (may contain ANSI codes, progress text, etc.).
- * Returns the extracted JSON string or null if not found.
+ * Collects the JSON report a tool prints among progress text and ANSI codes,
+ * scanning stdout as it arrives (pass `write` as the process's onStdout).
+ * Only the documents worth keeping are retained, never the whole output.
  */
-export function extractJsonFromMixedOutput(
-  output: string,
-  marker?: string,
-): string | null {
-  // Strip ANSI codes first
-  const clean = stripAnsiCodes(output);
-
-  // If a marker is provided, look for JSON containing that marker
-  if (marker) {
-    const pattern = new RegExp(
-      `\\{[\\s\\S]*"${marker}"[\\s\\S]*\\}(?=\\s*$|\\n)`,
-    );
-    const match = clean.match(pattern);
-    return match ? match[0] : null;
+export class JsonOutputCollector {
+  private readonly scanner: JsonDocumentScanner;
+  private marked: unknown = null;
+  private first: unknown = null;
+  private headText = "";
+
+  /**
+   * @param marker - Top-level key identifying the tool's report
+   */
+  constructor(private readonly marker: string) {
+    this.scanner = new JsonDocumentScanner((document) => {
+      if (this.marked === null && hasKey(document, this.marker)) {
+        this.marked = document;
+      } else if (this.first === null) {
+        this.first = document;
+      }
+    });
   }
 
-  // Otherwise try to find any JSON object or array
-  // Look for JSON object
-  const objMatch = clean.match(/\{[\s\S]*\}(?=\s*$|\n)/);
-  if (objMatch) {
-    try {
-      JSON.parse(objMatch[0]);
-      return objMatch[0];
-    } catch {
-      // Not valid JSON, continue
+  readonly write = (chunk: string): void => {
+    if (this.headText.length < OUTPUT_HEAD_CHARS) {
+      this.headText += chunk.slice(0, OUTPUT_HEAD_CHARS - this.headText.length);
     }
+    this.scanner.write(chunk);
+  };
+
+  /**
+   * End of output. Returns the first object with the marker key, and the
+   * first other document (the report may lack its marker when empty).
+   */
+  finish(): { marked: unknown; first: unknown } {
+    this.scanner.end();
+    return { marked: this.marked, first: this.first };
   }
 
-  // Look for JSON array
-  const arrMatch = clean.match(/\[[\s\S]*\](?=\s*$|\n)/);
-  if (arrMatch) {
-    try {
-      JSON.parse(arrMatch[0]);
-      return arrMatch[0];
-    } catch {
-      // Not valid JSON
-    }
+  /** Start of the raw output, for diagnostics */
+  get head(): string {
+    return stripAnsiCodes(this.headText);
   }
+}
 
-  return null;
+/** Raw output characters kept by JsonOutputCollector for diagnostics */
+const OUTPUT_HEAD_CHARS = 1000;
+
+function hasKey(document: unknown, key: string): boolean {
+  return (
+    typeof document === "object" &&
+    document !== null &&
+    !Array.isArray(document) &&
+    key in document
+  );
 }
@@ -6,10 +6,11 @@
 
 import { existsSync } from "node:fs";
 import type { Finding, RunContext } from "../core/types.js";
+import { readFindingsStore } from "./findings-store.js";
 import { buildRepoInfo, getRunNumber, loadJsonFile } from "./shared.js";
 
 /**
- * Load findings from a JSON file.
+ * Load findings from a findings store (.ndjson) or a JSON array file.
  * Exits the process if the file is not found.
  */
 function loadFindings(findingsPath: string): Finding[] {
@@ -17,6 +18,9 @@ function loadFindings(findingsPath: string): Finding[] {
     console.error(`Findings file not found: ${findingsPath}`);
     process.exit(1);
   }
+  if (findingsPath.endsWith(".ndjson")) {
+    return readFindingsStore(findingsPath);
+  }
   return loadJsonFile<Finding[]>(findingsPath);
 }
 
@@ -0,0 +1,221 @@
+/**
+ * Findings Store
+ *
+ * Compact on-disk format for findings: NDJSON, one finding per line, with
+ * each finding's `rawOutput` tool record moved to a side file
+ * (`<store>.raw`) and referenced by byte offset. Writers never build the
+ * whole document as one string, and readers parse one line at a time and
+ * only load raw records when asked, so memory stays bounded by the findings
+ * actually kept.
+ *
+ * Layout:
+ *   line 1      {"format":"vibecheck-findings","version":1,"count":N}
+ *   line 2..N+1 finding JSON (without rawOutput), plus "$raw":[offset,length]
+ */
+
+import { closeSync, openSync, readSync, rmSync, writeSync } from "node:fs";
+import { StringDecoder } from "node:string_decoder";
+import type { Finding } from "../core/types.js";
+import { internFinding } from "./symbol-table.js";
+
+// ============================================================================
+// Format
+// ============================================================================
+
+const STORE_FORMAT = "vibecheck-findings";
+const STORE_VERSION = 1;
+
+/** Bytes buffered per write and read */
+const CHUNK_BYTES = 1024 * 1024;
+
+interface StoreHeader {
+  format: string;
+  version: number;
+  count: number;
+}
+
+/** A stored line: the finding plus the location of its raw record */
+type StoredFinding = Omit<Finding, "rawOutput"> & {
+  $raw?: [offset: number, length: number];
+};
+
+function rawPath(path: string): string {
+  return `${path}.raw`;
+}
+
+// ============================================================================
+// Writing
+// ============================================================================
+
+/**
+ * Buffered append-only writer over a file descriptor; tracks its offset.
+ */
+class ChunkedWriter {
+  private readonly fd: number;
+  private chunks: Buffer[] = [];
+  private buffered = 0;
+  offset = 0;
+
+  constructor(path: string) {
+    this.fd = openSync(path, "w");
+  }
+
+  write(text: string): void {
+    const chunk = Buffer.from(text, "utf-8");
+    this.chunks.push(chunk);
+    this.buffered += chunk.length;
+    this.offset += chunk.length;
+    if (this.buffered >= CHUNK_BYTES) this.flush();
+  }
+
+  close(): void {
+    this.flush();
+    closeSync(this.fd);
+  }
+
+  private flush(): void {
+    if (this.buffered === 0) return;
+    writeSync(this.fd, Buffer.concat(this.chunks, this.buffered));
+    this.chunks = [];
+    this.buffered = 0;
+  }
+}
+
+/**
+ * Write findings to a store (and its raw side file, when any finding has
+ * raw output).
+ */
+export function writeFindingsStore(path: string, findings: Finding[]): void {
+  const store = new ChunkedWriter(path);
+  let raw: ChunkedWriter | null = null;
+
+  try {
+    const header: StoreHeader = {
+      format: STORE_FORMAT,
+      version: STORE_VERSION,
+      count: findings.length,
+    };
+    store.write(JSON.stringify(header) + "\n");
+
+    for (const finding of findings) {
+      const { rawOutput, ...rest } = finding;
+      const stored: StoredFinding = rest;
+      if (rawOutput !== undefined) {
+        raw ??= new ChunkedWriter(rawPath(path));
+        const offset = raw.offset;
+        raw.write(JSON.stringify(rawOutput) + "\n");
+        stored.$raw = [offset, raw.offset - offset];
+      }
+      store.write(JSON.stringify(stored) + "\n");
+    }
+  } finally {
+    store.close();
+    raw?.close();
+  }
+
+  // Don't leave a previous run's side file next to a store without one
+  if (!raw) rmSync(rawPath(path), { force: true });
+}
+
+// ============================================================================
+// Reading
+// ============================================================================
+
+/**
+ * Read a file line by line in fixed-size chunks.
+ */
+function* readLines(path: string): Generator<string> {
+  const fd = openSync(path, "r");
+  const buffer = Buffer.alloc(CHUNK_BYTES);
+  const decoder = new StringDecoder("utf-8");
+  let pending = "";
+
+  try {
+    let bytesRead: number;
+    while ((bytesRead = readSync(fd, buffer, 0, CHUNK_BYTES, null)) > 0) {
+      pending += decoder.write(buffer.subarray(0, bytesRead));
+      let start = 0;
+      let newline: number;
+      while ((newline = pending.indexOf("\n", start)) !== -1) {
+        const line = pending.slice(start, newline);
+        start = newline + 1;
+        if (line) yield line;
+      }
+      pending = pending.slice(start);
+    }
+    pending += decoder.end();
+    if (pending) yield pending;
+  } finally {
+    closeSync(fd);
+  }
+}
+
+/**
+ * Random-access reader for raw records.
+ */
+class RawReader {
+  private fd: number | null = null;
+
+  constructor(private readonly path: string) {}
+
+  read([offset, length]: [number, number]): unknown {
+    this.fd ??= openSync(this.path, "r");
+    const buffer = Buffer.alloc(length);
+    readSync(this.fd, buffer, 0, length, offset);
+    return JSON.parse(buffer.toString("utf-8"));
+  }
+
+  close(): void {
+    if (this.fd !== null) closeSync(this.fd);
+  }
+}
+
+interface ReadFindingsOptions {
+  /** Load each finding's rawOutput from the side file (default: false) */
+  withRaw?: boolean;
+  /** Keep only matching findings (raw records are loaded for these only) */
+  filter?: (finding: Finding) => boolean;
+}
+
+/**
+ * Read findings from a store.
+ */
+export function readFindingsStore(
+  path: string,
+  options: ReadFindingsOptions = {},
+): Finding[] {
+  const findings: Finding[] = [];
+  const raw = options.withRaw ? new RawReader(rawPath(path)) : null;
+  let header: StoreHeader | null = null;
+
+  try {
+    for (const line of readLines(path)) {
+      if (!header) {
+        header = JSON.parse(line) as StoreHeader;
+        if (
+          header.format !== STORE_FORMAT ||
+          header.version !== STORE_VERSION
+        ) {
+          throw new Error(`Not a findings store (v${STORE_VERSION}): ${path}`);
+        }
+        continue;
+      }
+
+      const { $raw, ...finding } = JSON.parse(line) as StoredFinding;
+      if (options.filter && !options.filter(finding)) continue;
+      // Parsed strings are fresh copies; share them across findings
+      internFinding(finding);
+      if (raw && $raw) {
+        (finding as Finding).rawOutput = raw.read($raw);
+      }
+      findings.push(finding);
+    }
+  } finally {
+    raw?.close();
+  }
+
+  if (!header) {
+    throw new Error(`Empty findings store: ${path}`);
+  }
+  return findings;
+}
@@ -11,6 +11,7 @@ import { createHash } from "node:crypto";
 import type { Finding, MergeStrategy } from "../core/types.js";
 import { DEFAULT_MERGE_STRATEGY } from "../core/types.js";
 import { groupBy } from "./shared.js";
+import { definePathForm, memoizeSymbol } from "./symbol-table.js";
 
 // Re-export for backwards compatibility
 export type { MergeStrategy } from "../core/types.js";
@@ -46,9 +47,14 @@ export function bucketLine(line: number): number {
  * but does NOT lowercase (for display). This version lowercases for comparison.
  */
 export function normalizePathForFingerprint(path: string): string {
-  return path.replace(/\\/g, "/").replace(/^\.\//g, "").toLowerCase();
+  return comparisonPath(path);
 }
 
+/** Memoized per distinct path in the shared symbol table */
+const comparisonPath = definePathForm((path) =>
+  path.replace(/\\/g, "/").replace(/^\.\//g, "").toLowerCase(),
+);
+
 // Alias for tests - this lowercases paths for comparison/fingerprinting
 // NOT the same as parser-utils.normalizePath which preserves case for display
 export { normalizePathForFingerprint as normalizePathForComparison };
@@ -104,6 +110,38 @@ export function computeFingerprint(key: string): string {
   return `sha256:${hash}`;
 }
 
+// ============================================================================
+// Memoized Normalization
+// ============================================================================
+
+// Paths are memoized by normalizePathForFingerprint itself; these cover the
+// repeated strings that are not paths (messages are mostly unique, so they
+// are normalized directly). Results are interned in the symbol table.
+const memoNormalizeRuleId = memoizeSymbol(normalizeRuleId);
+const memoLowerCase = memoizeSymbol((value) => value.toLowerCase());
+/** Keyed on "tool\0ruleId" -> normalized "tool|ruleId" key prefix */
+const memoNormalizePrefix = memoizeSymbol((toolAndRule) => {
+  const separator = toolAndRule.indexOf("\0");
+  const tool = toolAndRule.substring(0, separator).toLowerCase();
+  return `${tool}|${normalizeRuleId(toolAndRule.substring(separator + 1))}`;
+});
+
+/**
+ * Build the fingerprint key for a finding using memoized normalization.
+ * Produces exactly the same string as buildFingerprintKey.
+ */
+function buildFindingKey(finding: Omit<Finding, "fingerprint">): string {
+  const primaryLocation = finding.locations[0];
+  // No location - use tool + ruleId + message only
+  const path = primaryLocation ? primaryLocation.path : "__no_location__";
+  const startLine = primaryLocation ? primaryLocation.startLine : 0;
+
+  const prefix = memoNormalizePrefix(`${finding.tool}\0${finding.ruleId}`);
+  const normalizedPath = normalizePathForFingerprint(path);
+  const normalizedMsg = normalizeMessage(finding.message);
+  return `${prefix}|${normalizedPath}|${bucketLine(startLine)}|${normalizedMsg}`;
+}
+
 /**
  * Generate a fingerprint for a Finding object.
  * Uses the primary location (first in array).
@@ -111,27 +149,7 @@ export function computeFingerprint(key: string): string {
 export function fingerprintFinding(
   finding: Omit<Finding, "fingerprint">,
 ): string {
-  const primaryLocation = finding.locations[0];
-  if (!primaryLocation) {
-    // No location - use tool + ruleId + message only
-    const key = buildFingerprintKey(
-      finding.tool,
-      finding.ruleId,
-      "__no_location__",
-      0,
-      finding.message,
-    );
-    return computeFingerprint(key);
-  }
-
-  const key = buildFingerprintKey(
-    finding.tool,
-    finding.ruleId,
-    primaryLocation.path,
-    primaryLocation.startLine,
-    finding.message,
-  );
-  return computeFingerprint(key);
+  return computeFingerprint(buildFindingKey(finding));
 }
 
 /**
@@ -257,8 +275,8 @@ export function isTestFixtureFinding(finding: Finding): boolean {
  * to keep them separate from real issues.
  */
 function buildMergeKey(finding: Finding, strategy: MergeStrategy): string {
-  const tool = finding.tool.toLowerCase();
-  const ruleId = normalizeRuleId(finding.ruleId);
+  const tool = memoLowerCase(finding.tool);
+  const ruleId = memoNormalizeRuleId(finding.ruleId);
   const file = finding.locations[0]?.path
     ? normalizePathForFingerprint(finding.locations[0].path)
     : "__no_file__";
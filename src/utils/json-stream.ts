@@ -0,0 +1,370 @@
+/**
+ * Streaming JSON Helpers
+ *
+ * Incremental scanners for tool output that is too large to buffer and
+ * parse in one piece, or that mixes JSON with progress text.
+ */
+
+// ============================================================================
+// Array Element Streamer
+// ============================================================================
+
+/**
+ * Emits each element of a top-level array property as soon as it is complete.
+ *
+ * Feed it arbitrary string chunks (e.g. from a child process stdout) and it
+ * calls `onElement` with every parsed element of `document[key]`. Only the
+ * element currently being read is held in memory, so peak memory is bounded
+ * by the largest element rather than the whole document.
+ *
+ * Example: `new JsonArrayStreamer("files", onFile)` over PMD's JSON report
+ * yields one `{ filename, violations }` entry at a time.
+ */
+export class JsonArrayStreamer<T = unknown> {
+  private readonly key: string;
+  private readonly onElement: (element: T) => void;
+
+  /** Nesting depth of objects/arrays at the current position */
+  private depth = 0;
+  private inString = false;
+  private escaped = false;
+
+  /** True while the next string at depth 1 is an object key */
+  private expectKey = false;
+  /** Last object key read at depth 1 (only collected while short) */
+  private currentKey = "";
+  private readingKey = false;
+
+  /** Depth inside the target array, or 0 when not inside it */
+  private arrayDepth = 0;
+  /** Text of the element being read (spans chunk boundaries) */
+  private elementParts: string[] = [];
+  private inElement = false;
+  /** True when the current element is a scalar (ends at `,` or `]`) */
+  private scalarElement = false;
+
+  private finished = false;
+  private failure: Error | null = null;
+  private count = 0;
+
+  constructor(key: string, onElement: (element: T) => void) {
+    this.key = key;
+    this.onElement = onElement;
+  }
+
+  /** Number of elements emitted so far */
+  get elementCount(): number {
+    return this.count;
+  }
+
+  /** True once the top-level document has been fully read */
+  get complete(): boolean {
+    return this.finished;
+  }
+
+  /** First parse or callback error, if any (streaming stops after it) */
+  get error(): Error | null {
+    return this.failure;
+  }
+
+  /**
+   * Consume the next chunk of the document.
+   */
+  write(chunk: string): void {
+    if (this.failure || this.finished) return;
+
+    try {
+      this.scan(chunk);
+    } catch (error) {
+      this.failure = error instanceof Error ? error : new Error(String(error));
+    }
+  }
+
+  private scan(chunk: string): void {
+    let elementStart = this.inElement ? 0 : -1;
+
+    for (let i = 0; i < chunk.length; i++) {
+      const ch = chunk[i];
+
+      if (this.inString) {
+        if (this.escaped) {
+          this.escaped = false;
+        } else if (ch === "\\") {
+          this.escaped = true;
+        } else if (ch === '"') {
+          this.inString = false;
+          if (this.readingKey) {
+            this.readingKey = false;
+          }
+        } else if (this.readingKey && this.currentKey.length <= this.key.length) {
+          this.currentKey += ch;
+        }
+        continue;
+      }
+
+      // Start of an element inside the target array
+      if (
+        this.arrayDepth > 0 &&
+        !this.inElement &&
+        this.depth === this.arrayDepth &&
+        ch !== "," &&
+        ch !== "]" &&
+        !isJsonWhitespace(ch)
+      ) {
+        this.inElement = true;
+        this.scalarElement = ch !== "{" && ch !== "[";
+        elementStart = i;
+      }
+
+      // Scalar elements end at the next separator at array level
+      if (
+        this.inElement &&
+        this.scalarElement &&
+        this.depth === this.arrayDepth &&
+        (ch === "," || ch === "]")
+      ) {
+        this.emitElement(chunk.slice(elementStart, i));
+        elementStart = -1;
+      }
+
+      switch (ch) {
+        case '"':
+          this.inString = true;
+          if (this.depth === 1 && this.expectKey) {
+            this.readingKey = true;
+            this.currentKey = "";
+          }
+          break;
+        case ":":
+          if (this.depth === 1) this.expectKey = false;
+          break;
+        case ",":
+          if (this.depth === 1) this.expectKey = true;
+          break;
+        case "{":
+        case "[":
+          if (
+            ch === "[" &&
+            this.depth === 1 &&
+            !this.expectKey &&
+            this.arrayDepth === 0 &&
+            this.currentKey === this.key
+          ) {
+            this.arrayDepth = 2;
+          }
+          this.depth++;
+          if (this.depth === 1 && ch === "{") this.expectKey = true;
+          break;
+        case "}":
+        case "]":
+          this.depth--;
+          if (this.inElement && !this.scalarElement && this.depth === this.arrayDepth) {
+            this.emitElement(chunk.slice(elementStart, i + 1));
+            elementStart = -1;
+          } else if (this.arrayDepth > 0 && this.depth < this.arrayDepth) {
+            // Closing bracket of the target array itself
+            this.arrayDepth = 0;
+          }
+          if (this.depth === 0) this.finished = true;
+          break;
+        default:
+          break;
+      }
+    }
+
+    // Carry the partial element over to the next chunk
+    if (this.inElement && elementStart >= 0) {
+      this.elementParts.push(chunk.slice(elementStart));
+    }
+  }
+
+  private emitElement(tail: string): void {
+    this.elementParts.push(tail);
+    const text = this.elementParts.join("");
+    this.elementParts = [];
+    this.inElement = false;
+    this.scalarElement = false;
+
+    this.onElement(JSON.parse(text) as T);
+    this.count++;
+  }
+}
+
+// ============================================================================
+// Document Scanner
+// ============================================================================
+
+/** Position inside an ANSI escape sequence (ESC [ params final) */
+type AnsiState = "none" | "escape" | "params";
+
+/**
+ * Finds the top-level JSON documents in mixed tool output.
+ *
+ * Feed it stdout chunks as they arrive; ANSI escape sequences are dropped,
+ * brackets and string state are tracked in a single pass, and every balanced
+ * `{...}` or `[...]` that parses as JSON is passed to `onDocument`. Text
+ * outside documents (progress lines, banners) is never buffered, and
+ * candidates that are not JSON (e.g. `[INFO] ...`) are discarded.
+ *
+ * An unterminated candidate (a stray `[` in a progress line) is abandoned
+ * when a raw newline appears inside one of its strings, or when a line
+ * starting with `{` or `[` in column 0 follows it, since pretty-printed
+ * JSON indents every nested line.
+ */
+export class JsonDocumentScanner {
+  private readonly onDocument: (document: unknown, text: string) => void;
+
+  /** Nesting depth of the current candidate, or 0 between documents */
+  private depth = 0;
+  private inString = false;
+  private escaped = false;
+  private ansi: AnsiState = "none";
+  /** Column of the next character (ANSI sequences excluded) */
+  private column = 0;
+  /** True once the current candidate spans more than one line */
+  private multiline = false;
+  /** Text of the current candidate (spans chunk boundaries) */
+  private parts: string[] = [];
+  private count = 0;
+
+  constructor(onDocument: (document: unknown, text: string) => void) {
+    this.onDocument = onDocument;
+  }
+
+  /** Number of documents emitted so far */
+  get documentCount(): number {
+    return this.count;
+  }
+
+  /**
+   * Consume the next chunk of output.
+   */
+  write(chunk: string): void {
+    let start = this.depth > 0 ? 0 : -1;
+
+    for (let i = 0; i < chunk.length; i++) {
+      const ch = chunk[i];
+
+      // Drop ANSI escape sequences wherever they appear (the open
+      // candidate's text resumes after each skipped character)
+      if (this.ansi !== "none") {
+        let skip = true;
+        if (this.ansi === "escape") {
+          skip = ch === "[";
+          this.ansi = skip ? "params" : "none";
+        } else if (!isAnsiParam(ch)) {
+          // The final byte ends the sequence
+          skip = isAsciiLetter(ch);
+          this.ansi = "none";
+        }
+        if (skip) {
+          if (start >= 0) start = i + 1;
+          continue;
+        }
+      }
+      if (ch === "\x1B") {
+        if (start >= 0) {
+          this.parts.push(chunk.slice(start, i));
+          start = i + 1;
+        }
+        this.ansi = "escape";
+        continue;
+      }
+
+      if (ch === "\n") {
+        this.column = 0;
+        if (this.inString) {
+          // JSON strings cannot contain raw newlines
+          this.reset();
+          start = -1;
+        } else if (this.depth > 0) {
+          this.multiline = true;
+        }
+        continue;
+      }
+      const column = this.column++;
+
+      if (this.inString) {
+        if (this.escaped) {
+          this.escaped = false;
+        } else if (ch === "\\") {
+          this.escaped = true;
+        } else if (ch === '"') {
+          this.inString = false;
+        }
+        continue;
+      }
+
+      if (ch === "{" || ch === "[") {
+        if (this.depth > 0 && column === 0 && this.multiline) {
+          // A new top-level document; the open candidate never closed
+          this.reset();
+        }
+        if (this.depth === 0) start = i;
+        this.depth++;
+      } else if (this.depth === 0) {
+        continue;
+      } else if (ch === '"') {
+        this.inString = true;
+      } else if (ch === "}" || ch === "]") {
+        this.depth--;
+        if (this.depth === 0) {
+          this.emitDocument(chunk.slice(start, i + 1));
+          start = -1;
+        }
+      }
+    }
+
+    // Carry the open candidate over to the next chunk
+    if (this.depth > 0 && start >= 0) {
+      this.parts.push(chunk.slice(start));
+    }
+  }
+
+  /**
+   * Signal the end of output; an unterminated candidate is discarded.
+   */
+  end(): void {
+    this.reset();
+    this.ansi = "none";
+    this.column = 0;
+  }
+
+  private emitDocument(tail: string): void {
+    this.parts.push(tail);
+    const text = this.parts.join("");
+    this.reset();
+
+    let document: unknown;
+    try {
+      document = JSON.parse(text);
+    } catch {
+      return; // Balanced brackets, but not JSON
+    }
+    this.count++;
+    this.onDocument(document, text);
+  }
+
+  private reset(): void {
+    this.depth = 0;
+    this.inString = false;
+    this.escaped = false;
+    this.multiline = false;
+    this.parts = [];
+  }
+}
+
+function isAnsiParam(ch: string): boolean {
+  return (ch >= "0" && ch <= "9") || ch === ";";
+}
+
+function isAsciiLetter(ch: string): boolean {
+  return (ch >= "A" && ch <= "Z") || (ch >= "a" && ch <= "z");
+}
+
+/**
+ * JSON insignificant whitespace (RFC 8259).
+ */
+function isJsonWhitespace(ch: string): boolean {
+  return ch === " " || ch === "\n" || ch === "\r" || ch === "\t";
+}
@@ -6,6 +6,7 @@
  */
 
 import { fingerprintFinding } from "./fingerprints.js";
+import { definePathForm, internFinding } from "./symbol-table.js";
 import { classifyLayer } from "../scoring.js";
 import type {
   AutofixLevel,
@@ -29,6 +30,11 @@ import type {
  * - Converts backslashes to forward slashes
  */
 export function normalizePath(path: string): string {
+  return displayPath(path);
+}
+
+/** Memoized per distinct path in the shared symbol table */
+const displayPath = definePathForm((path) => {
   let normalized = path;
 
   // Convert backslashes to forward slashes (Windows compatibility)
@@ -69,7 +75,7 @@ export function normalizePath(path: string): string {
   }
 
   return normalized;
-}
+});
 
 // ============================================================================
 // Types
@@ -151,7 +157,7 @@ export function buildLocationFromRowCol(
 
 /**
  * Create a Finding from configuration.
- * Handles layer classification, labels, and fingerprinting.
+ * Handles layer classification, labels, interning, and fingerprinting.
  */
 export function createFinding<T>(config: FindingConfig<T>): Finding {
   const {
@@ -208,6 +214,9 @@ export function createFinding<T>(config: FindingConfig<T>): Finding {
     finding.evidence = evidence;
   }
 
+  // Share tool, rule, label and path strings with every other finding
+  internFinding(finding);
+
   // Add fingerprint and return
   return {
     ...finding,
@@ -6,6 +6,7 @@
 
 import { existsSync, readFileSync } from "node:fs";
 import type { Severity } from "../core/types.js";
+import { definePathForm } from "./symbol-table.js";
 
 // ============================================================================
 // Constants
@@ -129,19 +130,6 @@ export function groupBy<T, K extends string | number>(
   return groups;
 }
 
-/**
- * Add an item to a Map of arrays (multimap pattern).
- * Creates the array if the key doesn't exist.
- */
-export function addToMapArray<K, V>(map: Map<K, V[]>, key: K, value: V): void {
-  const existing = map.get(key);
-  if (existing) {
-    existing.push(value);
-  } else {
-    map.set(key, [value]);
-  }
-}
-
 /**
  * Check if two arrays are equal (shallow comparison).
  */
@@ -153,6 +141,48 @@ export function arraysEqual<T>(a: T[], b: T[]): boolean {
   return true;
 }
 
+/**
+ * Stable bucket for a key (32-bit FNV-1a), the same across runs and
+ * platforms. Used to split work so an item's bucket does not depend on
+ * what else is being split.
+ */
+export function stableBucket(key: string, buckets: number): number {
+  let hash = 0x811c9dc5;
+  for (let i = 0; i < key.length; i++) {
+    hash ^= key.charCodeAt(i);
+    hash = Math.imul(hash, 0x01000193);
+  }
+  return (hash >>> 0) % buckets;
+}
+
+// ============================================================================
+// Async Helpers
+// ============================================================================
+
+/**
+ * Map items through an async function with at most `limit` calls in flight.
+ * Results keep the input order regardless of completion order.
+ */
+export async function mapWithConcurrency<T, R>(
+  items: T[],
+  limit: number,
+  fn: (item: T, index: number) => Promise<R>,
+): Promise<R[]> {
+  const results = new Array<R>(items.length);
+  let nextIndex = 0;
+
+  const workerCount = Math.max(1, Math.min(limit, items.length));
+  const workers = Array.from({ length: workerCount }, async () => {
+    while (nextIndex < items.length) {
+      const index = nextIndex++;
+      results[index] = await fn(items[index], index);
+    }
+  });
+
+  await Promise.all(workers);
+  return results;
+}
+
 // ============================================================================
 // Language Detection
 // ============================================================================
@@ -203,6 +233,14 @@ export function getLanguageFromPath(
   path: string,
   forLabeling = false,
 ): string | null {
+  return forLabeling ? labelLanguage(path) : syntaxLanguage(path);
+}
+
+/** Memoized per distinct path in the shared symbol table */
+const syntaxLanguage = definePathForm((path) => languageFromPath(path, false));
+const labelLanguage = definePathForm((path) => languageFromPath(path, true));
+
+function languageFromPath(path: string, forLabeling: boolean): string | null {
   const ext = path.split(".").pop()?.toLowerCase();
   const lang = EXT_TO_LANGUAGE[ext || ""];
 
@@ -0,0 +1,107 @@
+/**
+ * Symbol Table
+ *
+ * Findings repeat the same few strings over and over: tool names, rule IDs,
+ * labels and, above all, paths (hundreds of thousands of findings usually
+ * point into a few thousand files). This module interns those strings so
+ * each distinct value is held once, and memoizes every form derived from a
+ * path (display path, comparison key, language, exclusion) so each is
+ * computed once per distinct path instead of once per finding.
+ *
+ * Tables are per thread (parse workers keep their own, and the pool interns
+ * their findings again on arrival) and are reset when they reach
+ * SYMBOL_LIMIT entries, which bounds memory on huge runs.
+ */
+
+import type { Finding } from "../core/types.js";
+
+/** Entries kept per table before it is reset */
+const SYMBOL_LIMIT = 200_000;
+
+// ============================================================================
+// Interning
+// ============================================================================
+
+let symbols = new Map<string, string>();
+
+/**
+ * Return the canonical instance of a string.
+ *
+ * @internal Exported for tests
+ */
+export function intern(value: string): string {
+  const existing = symbols.get(value);
+  if (existing !== undefined) return existing;
+  if (symbols.size >= SYMBOL_LIMIT) symbols = new Map();
+  symbols.set(value, value);
+  return value;
+}
+
+/**
+ * Intern a finding's repeated strings (tool, rule, labels, paths) in place.
+ */
+export function internFinding<T extends Omit<Finding, "fingerprint">>(
+  finding: T,
+): T {
+  finding.tool = intern(finding.tool) as Finding["tool"];
+  finding.ruleId = intern(finding.ruleId);
+  for (let i = 0; i < finding.labels.length; i++) {
+    finding.labels[i] = intern(finding.labels[i]);
+  }
+  for (const location of finding.locations) {
+    location.path = intern(location.path);
+  }
+  return finding;
+}
+
+// ============================================================================
+// Memoized Forms
+// ============================================================================
+
+/**
+ * Memoize a string normalizer (rule IDs, tool names). Results are interned, so
+ * findings sharing an input also share the normalized string.
+ */
+export function memoizeSymbol(
+  normalize: (value: string) => string,
+): (value: string) => string {
+  let memo = new Map<string, string>();
+  return (value) => {
+    let normalized = memo.get(value);
+    if (normalized === undefined) {
+      if (memo.size >= SYMBOL_LIMIT) memo = new Map();
+      normalized = intern(normalize(value));
+      memo.set(value, normalized);
+    }
+    return normalized;
+  };
+}
+
+/** Derived forms per raw path, one slot per definePathForm call */
+let paths = new Map<string, unknown[]>();
+let pathFormCount = 0;
+
+/**
+ * Define a form derived from a path (e.g. its display path or language).
+ * All forms of a path share one table entry, so a path seen by the parser,
+ * the fingerprinter and the formatters is looked up once per use and
+ * derived once per form. Derived values must not be undefined.
+ */
+export function definePathForm<T>(derive: (path: string) => T): (path: string) => T {
+  const slot = pathFormCount++;
+  return (path) => {
+    let forms = paths.get(path);
+    if (forms === undefined) {
+      if (paths.size >= SYMBOL_LIMIT) paths = new Map();
+      forms = new Array<unknown>(pathFormCount);
+      paths.set(intern(path), forms);
+    }
+    let value = forms[slot] as T | undefined;
+    if (value === undefined) {
+      const derived = derive(path);
+      value = (typeof derived === "string" ? intern(derived) : derived) as T;
+      forms[slot] = value;
+    }
+    return value;
+  };
+}
@@ -0,0 +1,13 @@
+package com.acme.app;
+
+import com.acme.core.Greeter;
+
+public class App {
+    static class Config {
+        String name = "world";
+    }
+
+    public static void main(String[] args) {
+        System.out.println(new Greeter().greet(new Config().name));
+    }
+}
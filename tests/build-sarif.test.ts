@@ -0,0 +1,178 @@
+/**
+ * SARIF Writer Tests
+ */
+
+import { existsSync, mkdtempSync, readFileSync, readdirSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { gunzipSync } from "node:zlib";
+import { describe, it, expect } from "vitest";
+import { buildSarifLog, writeSarif } from "../src/output/build-sarif.js";
+import type { Finding, RunContext, SarifLog } from "../src/core/types.js";
+import { createFinding } from "./helpers.js";
+
+const context = {
+  repo: { owner: "test", name: "repo", defaultBranch: "main", commit: "0" },
+  config: { version: 1 },
+  workspacePath: "/repo",
+  outputDir: ".",
+} as RunContext;
+
+const findings: Finding[] = [
+  createFinding({ fingerprint: "sha256:1" }),
+  createFinding({
+    fingerprint: "sha256:2",
+    ruleId: "no-console",
+    locations: [{ path: "src\\b.ts", startLine: 2 }],
+  }),
+  createFinding({ fingerprint: "sha256:3" }),
+  createFinding({ fingerprint: "sha256:4", tool: "tsc", ruleId: "TS2322" }),
+];
+
+function readSarif(path: string): SarifLog {
+  const raw = readFileSync(path);
+  const text = path.endsWith(".gz") ? gunzipSync(raw) : raw;
+  return JSON.parse(text.toString()) as SarifLog;
+}
+
+describe("buildSarifLog", () => {
+  it("should reference rules and artifacts by index", () => {
+    const [eslintRun] = buildSarifLog(findings, context).runs;
+
+    expect(eslintRun.tool.driver.rules?.map((r) => r.id)).toEqual([
+      "no-unused-vars",
+      "no-console",
+    ]);
+    expect(eslintRun.artifacts?.map((a) => a.location.uri)).toEqual([
+      "src/a.ts",
+      "src/b.ts",
+    ]);
+    expect(eslintRun.results.map((r) => r.ruleIndex)).toEqual([0, 1, 0]);
+    expect(
+      eslintRun.results[1].locations[0].physicalLocation.artifactLocation,
+    ).toEqual({ uri: "src/b.ts", index: 1 });
+  });
+});
+
+describe("writeSarif", () => {
+  it("should stream the same log buildSarifLog builds", async () => {
+    const path = join(mkdtempSync(join(tmpdir(), "sarif-")), "results.sarif");
+    const written = await writeSarif(findings, context, path);
+
+    expect(written.files).toEqual([path]);
+    expect(written.results).toBe(4);
+
+    const streamed = readSarif(path);
+    const built = buildSarifLog(findings, context);
+    for (const run of [...streamed.runs, ...built.runs]) {
+      delete run.invocations;
+    }
+    expect(streamed).toEqual(built);
+  });
+
+  it("should split into one gzipped file per category past the limits", async () => {
+    const dir = mkdtempSync(join(tmpdir(), "sarif-"));
+    const path = join(dir, "results.sarif");
+    const written = await writeSarif(findings, context, path, {
+      gzip: true,
+      maxResultsPerRun: 2,
+    });
+
+    expect(existsSync(path)).toBe(false);
+    expect(readdirSync(join(dir, "sarif")).sort()).toEqual([
+      "eslint-1.sarif.gz",
+      "eslint-2.sarif.gz",
+      "tsc.sarif.gz",
+    ]);
+    expect(written.results).toBe(4);
+
+    const second = readSarif(join(dir, "sarif", "eslint-2.sarif.gz"));
+    expect(second.runs).toHaveLength(1);
+    expect(second.runs[0].automationDetails).toEqual({
+      id: "vibeCheck/eslint-2/",
+    });
+    expect(second.runs[0].results).toHaveLength(1);
+  });
+
+  it("should keep a file's findings in one category as counts change", async () => {
+    const dir = mkdtempSync(join(tmpdir(), "sarif-"));
+    const path = join(dir, "results.sarif");
+    const eslintPaths = (file: string) =>
+      readSarif(join(dir, "sarif", file)).runs[0].results.map(
+        (r) => r.locations[0].physicalLocation.artifactLocation.uri,
+      );
+
+    await writeSarif(findings, context, path, { maxResultsPerRun: 2 });
+    expect(eslintPaths("eslint-1.sarif")).toEqual(["src/a.ts", "src/a.ts"]);
+    expect(eslintPaths("eslint-2.sarif")).toEqual(["src/b.ts"]);
+
+    // One src/a.ts finding fixed, a src/c.ts one added ahead of it
+    await writeSarif(
+      [
+        findings[1],
+        createFinding({
+          fingerprint: "sha256:5",
+          locations: [{ path: "src/c.ts", startLine: 1 }],
+        }),
+        findings[0],
+      ],
+      context,
+      path,
+      { maxResultsPerRun: 2 },
+    );
+    expect(eslintPaths("eslint-1.sarif")).toEqual(["src/c.ts", "src/a.ts"]);
+    expect(eslintPaths("eslint-2.sarif")).toEqual(["src/b.ts"]);
+  });
+
+  it("should close categories that are no longer uploaded", async () => {
+    const dir = mkdtempSync(join(tmpdir(), "sarif-"));
+    const path = join(dir, "results.sarif");
+    const runsOf = (file: string) =>
+      readSarif(file).runs.map((run) => ({
+        tool: run.tool.driver.name,
+        category: run.automationDetails?.id,
+        results: run.results.length,
+      }));
+
+    // One file, then split: the single-file category is closed
+    await writeSarif(findings, context, path);
+    const split = await writeSarif(findings, context, path, {
+      maxResultsPerRun: 2,
+    });
+    expect(split.closing).toEqual([join(dir, "sarif", "vibeCheck.sarif")]);
+    expect(runsOf(split.closing[0])).toEqual([
+      { tool: "vibeCheck/eslint", category: "vibeCheck/", results: 0 },
+      { tool: "vibeCheck/tsc", category: "vibeCheck/", results: 0 },
+    ]);
+
+    // Split, then one file: every split category is closed
+    const single = await writeSarif([findings[0]], context, path);
+    expect(single.files).toEqual([path]);
+    expect(single.closing.sort()).toEqual(
+      ["eslint-1", "eslint-2", "tsc"].map((name) =>
+        join(dir, "sarif", `${name}.sarif`),
+      ),
+    );
+    expect(runsOf(join(dir, "sarif", "tsc.sarif"))).toEqual([
+      { tool: "vibeCheck/tsc", category: "vibeCheck/tsc/", results: 0 },
+    ]);
+
+    // A tool without findings gets an empty run in the single file, once
+    await writeSarif([], context, path);
+    expect(runsOf(path)).toEqual([
+      { tool: "vibeCheck/eslint", category: undefined, results: 0 },
+    ]);
+    const after = await writeSarif([], context, path);
+    expect(after.closing).toEqual([]);
+    expect(runsOf(path)).toEqual([
+      { tool: "vibeCheck", category: undefined, results: 0 },
+    ]);
+    expect(existsSync(join(dir, "sarif"))).toBe(false);
+  });
+
+  it("should write an empty run when there are no findings", async () => {
+    const path = join(mkdtempSync(join(tmpdir(), "sarif-")), "results.sarif");
+    await writeSarif([], context, path);
+    expect(readSarif(path).runs).toHaveLength(1);
+  });
+});
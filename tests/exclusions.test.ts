@@ -0,0 +1,83 @@
+/**
+ * Exclusion Matcher Tests
+ */
+
+import { describe, it, expect } from "vitest";
+import { ExclusionMatcher, shouldExcludePath } from "../src/tools/exclusions.js";
+import type { Finding } from "../src/core/types.js";
+
+describe("shouldExcludePath", () => {
+  it("should exclude common directories at any depth", () => {
+    expect(shouldExcludePath("node_modules/pkg/index.js")).toBe(true);
+    expect(shouldExcludePath("packages/app/target/classes/A.class")).toBe(true);
+    expect(shouldExcludePath(".\\build\\out.js")).toBe(true);
+    expect(shouldExcludePath("build")).toBe(true);
+    expect(shouldExcludePath("src/build.ts")).toBe(false);
+    expect(shouldExcludePath("src/build")).toBe(false);
+  });
+});
+
+describe("ExclusionMatcher", () => {
+  it("should apply literal names, anchored paths and globs", () => {
+    const matcher = ExclusionMatcher.compile({
+      dirs: [],
+      patterns: ["generated/", "/legacy/vendor", "**/*.min.js", "docs/*.md"],
+    });
+
+    expect(matcher.excludes("src/generated/api.ts")).toBe(true);
+    expect(matcher.excludes("src/generated")).toBe(false); // directories only
+    expect(matcher.excludes("legacy/vendor/lib.js")).toBe(true);
+    expect(matcher.excludes("src/legacy/vendor/lib.js")).toBe(false);
+    expect(matcher.excludes("web/app.min.js")).toBe(true);
+    expect(matcher.excludes("docs/guide.md")).toBe(true);
+    expect(matcher.excludes("docs/api/guide.md")).toBe(false);
+    expect(matcher.excludes("src/app.ts")).toBe(false);
+  });
+
+  it("should honor comments and negations", () => {
+    const matcher = ExclusionMatcher.compile({
+      patterns: ["# output", "*.log", "!keep.log", "coverage/"],
+    });
+
+    expect(matcher.excludes("logs/run.log")).toBe(true);
+    expect(matcher.excludes("logs/keep.log")).toBe(false);
+    expect(matcher.excludes("coverage/index.html")).toBe(true);
+    expect(matcher.excludes("node_modules/x/keep.log")).toBe(true);
+  });
+
+  it("should produce tool-native globs and regex", () => {
+    const matcher = ExclusionMatcher.compile({
+      dirs: ["node_modules", ".venv"],
+      patterns: ["generated/", "/legacy"],
+    });
+
+    expect(matcher.toGlobs()).toEqual([
+      "**/node_modules/**",
+      "**/.venv/**",
+      "**/generated/**",
+      "legacy",
+      "legacy/**",
+    ]);
+
+    const regex = new RegExp(matcher.toRegex());
+    expect(regex.test("pkg/.venv/lib/site.py")).toBe(true);
+    expect(regex.test("legacy/old.py")).toBe(true);
+    expect(regex.test("src/generated/models.py")).toBe(true);
+    expect(regex.test("src/app.py")).toBe(false);
+  });
+
+  it("should drop excluded locations and findings left without any", () => {
+    const matcher = ExclusionMatcher.compile();
+    const finding = (paths: string[]) =>
+      ({ locations: paths.map((path) => ({ path, startLine: 1 })) }) as Finding;
+
+    const kept = matcher.filterFindings([
+      finding(["src/a.ts", "node_modules/b.js"]),
+      finding(["dist/c.js"]),
+      finding([]),
+    ]);
+
+    expect(kept).toHaveLength(2);
+    expect(kept[0].locations.map((loc) => loc.path)).toEqual(["src/a.ts"]);
+  });
+});
@@ -0,0 +1,110 @@
+/**
+ * File Inventory Tests
+ */
+
+import { execFileSync } from "node:child_process";
+import { mkdirSync, mkdtempSync, writeFileSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { describe, it, expect } from "vitest";
+import { FileInventory } from "../src/core/file-inventory.js";
+import { findCargoDirectories } from "../src/tools/tool-utils.js";
+
+/** Create a directory tree from a map of relative path to content */
+function createTree(files: Record<string, string>): string {
+  const root = mkdtempSync(join(tmpdir(), "inventory-"));
+  for (const [path, content] of Object.entries(files)) {
+    mkdirSync(join(root, path, ".."), { recursive: true });
+    writeFileSync(join(root, path), content);
+  }
+  return root;
+}
+
+function git(root: string, ...args: string[]): string {
+  return execFileSync("git", args, { cwd: root, encoding: "utf-8" }).trim();
+}
+
+describe("FileInventory (directory walk)", () => {
+  const root = createTree({
+    "src/App.ts": "export {};\n",
+    "src/util/helpers.PY": "pass\n",
+    "node_modules/pkg/index.js": "module.exports = {};\n",
+    "README.md": "# demo\n",
+  });
+
+  it("should list files outside dependency directories", async () => {
+    const inventory = await FileInventory.build(root);
+    expect(inventory.source).toBe("walk");
+    expect(inventory.files.map((f) => f.path)).toEqual([
+      "README.md",
+      "src/App.ts",
+      "src/util/helpers.PY",
+    ]);
+    expect(inventory.get("src/App.ts")?.size).toBe(11);
+  });
+
+  it("should index files by extension, name and directory", async () => {
+    const inventory = await FileInventory.build(root);
+    expect(inventory.withExtension(".py").map((f) => f.path)).toEqual([
+      "src/util/helpers.PY",
+    ]);
+    expect(inventory.named("README.md")).toHaveLength(1);
+    expect(inventory.hasFilesUnder("src")).toBe(true);
+    expect(inventory.hasFilesUnder("sr")).toBe(false);
+    expect(inventory.hasFilesUnder("lib")).toBe(false);
+  });
+});
+
+describe("FileInventory (git)", () => {
+  it("should use blob ids from the index and hash modified files", async () => {
+    const root = createTree({
+      ".gitignore": "dist/\n",
+      "a.txt": "one\n",
+      "b.txt": "two\n",
+      "dist/out.js": "ignored\n",
+    });
+    git(root, "init", "-q");
+    git(root, "add", ".gitignore", "a.txt", "b.txt");
+    writeFileSync(join(root, "b.txt"), "changed\n");
+    writeFileSync(join(root, "new.txt"), "untracked\n");
+
+    const inventory = await FileInventory.build(root);
+    expect(inventory.source).toBe("git");
+    expect(inventory.files.map((f) => f.path)).toEqual([
+      ".gitignore",
+      "a.txt",
+      "b.txt",
+      "new.txt",
+    ]);
+    expect(inventory.contentHash("a.txt")).toBe(git(root, "hash-object", "a.txt"));
+    expect(inventory.contentHash("b.txt")).toBe(git(root, "hash-object", "b.txt"));
+    expect(inventory.contentHash("new.txt")).toBe(
+      git(root, "hash-object", "new.txt"),
+    );
+    expect(inventory.contentHash("dist/out.js")).toBeNull();
+  });
+});
+
+describe("findCargoDirectories", () => {
+  it("should leave workspace members to the workspace root", async () => {
+    const root = createTree({
+      "Cargo.toml": '[workspace]\nmembers = ["crates/*"]\n',
+      "crates/core/Cargo.toml": '[package]\nname = "core"\n',
+      "target/debug/build/Cargo.toml": "[package]\n",
+    });
+    const standalone = createTree({
+      "tools/cli/Cargo.toml": '[package]\nname = "cli"\n',
+      "test-fixtures/rust/Cargo.toml": '[package]\nname = "fixture"\n',
+    });
+
+    expect(
+      findCargoDirectories(root, await FileInventory.build(root)),
+    ).toEqual([root]);
+    expect(
+      findCargoDirectories(standalone, await FileInventory.build(standalone)),
+    ).toEqual([
+      join(standalone, "test-fixtures/rust"),
+      join(standalone, "tools/cli"),
+    ]);
+  });
+});
@@ -0,0 +1,71 @@
+/**
+ * Findings Store Tests
+ */
+
+import { existsSync, mkdtempSync, readFileSync, writeFileSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { describe, it, expect } from "vitest";
+import {
+  readFindingsStore,
+  writeFindingsStore,
+} from "../src/utils/findings-store.js";
+import type { Finding } from "../src/core/types.js";
+import { createFinding } from "./helpers.js";
+
+function storePath(): string {
+  return join(mkdtempSync(join(tmpdir(), "findings-")), "findings.ndjson");
+}
+
+const findings: Finding[] = [
+  createFinding({ fingerprint: "sha256:1", rawOutput: { line: 10, ü: "ß" } }),
+  createFinding({ fingerprint: "sha256:2", tool: "pmd", ruleId: "UnusedField" }),
+  createFinding({ fingerprint: "sha256:3", rawOutput: ["a", { b: 1 }] }),
+];
+
+describe("writeFindingsStore / readFindingsStore", () => {
+  it("should round-trip findings with raw output", () => {
+    const path = storePath();
+    writeFindingsStore(path, findings);
+
+    expect(readFindingsStore(path, { withRaw: true })).toEqual(findings);
+    // Raw records live in the side file, not the store
+    expect(readFileSync(path, "utf-8")).not.toContain('"rawOutput"');
+    expect(readFileSync(path, "utf-8").split("\n")[0]).toBe(
+      '{"format":"vibecheck-findings","version":1,"count":3}',
+    );
+  });
+
+  it("should skip raw output unless asked and apply filters", () => {
+    const path = storePath();
+    writeFindingsStore(path, findings);
+
+    const withoutRaw = readFindingsStore(path);
+    expect(withoutRaw.every((f) => f.rawOutput === undefined)).toBe(true);
+
+    const eslint = readFindingsStore(path, {
+      withRaw: true,
+      filter: (f) => f.tool === "eslint",
+    });
+    expect(eslint.map((f) => f.fingerprint)).toEqual(["sha256:1", "sha256:3"]);
+    expect(eslint[1].rawOutput).toEqual(["a", { b: 1 }]);
+  });
+
+  it("should remove a stale side file when nothing has raw output", () => {
+    const path = storePath();
+    writeFindingsStore(path, findings);
+    expect(existsSync(`${path}.raw`)).toBe(true);
+
+    writeFindingsStore(path, [createFinding()]);
+    expect(existsSync(`${path}.raw`)).toBe(false);
+    expect(readFindingsStore(path, { withRaw: true })).toEqual([
+      createFinding(),
+    ]);
+  });
+
+  it("should reject files that are not findings stores", () => {
+    const path = storePath();
+    writeFileSync(path, "[]\n");
+    expect(() => readFindingsStore(path)).toThrow("Not a findings store");
+  });
+});
@@ -178,6 +178,43 @@ describe("fingerprintFinding", () => {
   });
 });
 
+describe("memoized fingerprinting", () => {
+  const findings = [
+    createTestFinding(),
+    createTestFinding({ locations: [] }),
+    createTestFinding({
+      tool: "PMD",
+      ruleId: " UnusedLocalVariable ",
+      message: "  Avoid   unused local variable 42 ",
+      locations: [{ path: ".\\Src\\Main.java", startLine: 57 }],
+    }),
+    createTestFinding({ message: "Unicode → ✓ é" }),
+  ];
+
+  /** Reference implementation: the documented key format + SHA-256 */
+  const reference = (finding: Omit<Finding, "fingerprint">) => {
+    const location = finding.locations[0];
+    return computeFingerprint(
+      buildFingerprintKey(
+        finding.tool,
+        finding.ruleId,
+        location?.path ?? "__no_location__",
+        location?.startLine ?? 0,
+        finding.message,
+      ),
+    );
+  };
+
+  it("should keep existing fingerprints byte-identical", () => {
+    expect(fingerprintFinding(createTestFinding())).toBe(
+      "sha256:01f615b719628243ac620473f500e9aaa8e66a2bfd9c003c226ba89e60e2c12f",
+    );
+    for (const finding of findings) {
+      expect(fingerprintFinding(finding)).toBe(reference(finding));
+    }
+  });
+});
+
 describe("shortFingerprint", () => {
   it("should return first 12 chars of hash", () => {
     const fp =
@@ -0,0 +1,23 @@
+/**
+ * Shared Test Helpers
+ */
+
+import type { Finding } from "../src/core/types.js";
+
+/** Create a test finding with optional overrides */
+export function createFinding(overrides: Partial<Finding> = {}): Finding {
+  return {
+    fingerprint: "sha256:finding",
+    layer: "code",
+    tool: "eslint",
+    ruleId: "no-unused-vars",
+    title: "eslint: no-unused-vars",
+    message: "Variable x is declared but never used",
+    severity: "medium",
+    confidence: "high",
+    autofix: "safe",
+    locations: [{ path: "src/a.ts", startLine: 10 }],
+    labels: ["vibeCheck"],
+    ...overrides,
+  };
+}
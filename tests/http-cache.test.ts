@@ -0,0 +1,231 @@
+/**
+ * Conditional Request Cache Tests
+ */
+
+import { mkdtempSync, readdirSync, readFileSync, writeFileSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { describe, it, expect, vi, beforeEach } from "vitest";
+import type { Octokit } from "@octokit/rest";
+import { getHttpCacheDir, installHttpCache } from "../src/github/http-cache.js";
+
+type Headers = Record<string, string | number | undefined>;
+
+interface StubResponse {
+  status: number;
+  url: string;
+  headers: Headers;
+  data: unknown;
+}
+
+interface StubOptions {
+  method: string;
+  url: string;
+  headers: Headers;
+  [key: string]: unknown;
+}
+
+/** What GitHub would answer; receives the options as actually sent */
+let server: (options: StubOptions) => StubResponse;
+
+/**
+ * Octokit stand-in whose `hook.wrap("request")` is the only request path,
+ * like the real client.
+ */
+function createStubOctokit() {
+  const request = vi.fn(async (options: StubOptions) => server(options));
+  let wrapper:
+    | ((req: typeof request, options: StubOptions) => Promise<StubResponse>)
+    | null = null;
+  const octokit = {
+    hook: {
+      wrap: (name: string, fn: NonNullable<typeof wrapper>) => {
+        expect(name).toBe("request");
+        wrapper = fn;
+      },
+    },
+  };
+  const send = (options: StubOptions) =>
+    wrapper ? wrapper(request, options) : request(options);
+  return { octokit: octokit as unknown as Octokit, request, send };
+}
+
+function listLabels(): StubOptions {
+  return {
+    method: "GET",
+    url: "/repos/{owner}/{repo}/labels",
+    owner: "acme",
+    repo: "app",
+    per_page: 100,
+    headers: { authorization: "token secret-token" },
+  };
+}
+
+/** 304 Not Modified, as Octokit throws it */
+function notModified(headers: Headers): Error {
+  return Object.assign(new Error("Not Modified"), {
+    status: 304,
+    response: { status: 304, headers, data: "" },
+  });
+}
+
+const LABELS = [{ name: "vibeCheck" }, { name: "severity:high" }];
+
+let cacheDir: string;
+
+beforeEach(() => {
+  cacheDir = getHttpCacheDir(
+    mkdtempSync(join(tmpdir(), "http-cache-")),
+    "acme",
+    "app",
+  );
+});
+
+describe("installHttpCache", () => {
+  it("should send the stored ETag and replay the body on 304", async () => {
+    const { octokit, request, send } = createStubOctokit();
+    const cache = installHttpCache(octokit, cacheDir);
+
+    server = () => ({
+      status: 200,
+      url: "https://api.github.com/repos/acme/app/labels",
+      headers: { etag: 'W/"abc"', "x-ratelimit-remaining": "4999" },
+      data: LABELS,
+    });
+    const first = await send(listLabels());
+    expect(first.data).toEqual(LABELS);
+    expect(request.mock.calls[0][0].headers["if-none-match"]).toBeUndefined();
+
+    server = (options) => {
+      if (options.headers["if-none-match"] === 'W/"abc"') {
+        throw notModified({ "x-ratelimit-remaining": "4998", etag: 'W/"abc"' });
+      }
+      throw new Error("expected a conditional request");
+    };
+    const second = await send(listLabels());
+
+    expect(second).toEqual({
+      status: 200,
+      url: "https://api.github.com/repos/acme/app/labels",
+      headers: { etag: 'W/"abc"', "x-ratelimit-remaining": "4998" },
+      data: LABELS,
+    });
+    expect(cache.hits()).toBe(1);
+  });
+
+  it("should send If-Modified-Since for Last-Modified responses", async () => {
+    const { octokit, request, send } = createStubOctokit();
+    installHttpCache(octokit, cacheDir);
+    const lastModified = "Mon, 01 Jan 2024 00:00:00 GMT";
+
+    server = () => ({
+      status: 200,
+      url: "https://api.github.com/repos/acme/app/labels",
+      headers: { "last-modified": lastModified },
+      data: LABELS,
+    });
+    await send(listLabels());
+
+    server = () => {
+      throw notModified({});
+    };
+    const replayed = await send(listLabels());
+
+    expect(request.mock.calls[1][0].headers).toMatchObject({
+      "if-modified-since": lastModified,
+    });
+    expect(request.mock.calls[1][0].headers["if-none-match"]).toBeUndefined();
+    expect(replayed.data).toEqual(LABELS);
+  });
+
+  it("should key entries by parameters and keep the token off disk", async () => {
+    const { octokit, request, send } = createStubOctokit();
+    installHttpCache(octokit, cacheDir);
+
+    server = (options) => ({
+      status: 200,
+      url: `https://api.github.com/repos/acme/app/labels?page=${String(options.page ?? 1)}`,
+      headers: { etag: `"page-${String(options.page ?? 1)}"` },
+      data: [],
+    });
+    await send(listLabels());
+    await send({ ...listLabels(), page: 2 });
+
+    const entries = readdirSync(cacheDir);
+    expect(entries).toHaveLength(2);
+    for (const entry of entries) {
+      expect(readFileSync(join(cacheDir, entry), "utf-8")).not.toContain(
+        "secret-token",
+      );
+    }
+
+    // Page 2 is revalidated with its own ETag
+    server = () => {
+      throw notModified({});
+    };
+    await send({ ...listLabels(), page: 2 });
+    expect(request.mock.calls[2][0].headers["if-none-match"]).toBe('"page-2"');
+  });
+
+  it("should not cache responses without validators or non-GET requests", async () => {
+    const { octokit, request, send } = createStubOctokit();
+    installHttpCache(octokit, cacheDir);
+
+    server = () => ({
+      status: 200,
+      url: "https://api.github.com/repos/acme/app/labels",
+      headers: {},
+      data: LABELS,
+    });
+    await send(listLabels());
+    await send(listLabels());
+    expect(request.mock.calls[1][0].headers["if-none-match"]).toBeUndefined();
+
+    server = () => ({
+      status: 200,
+      url: "https://api.github.com/graphql",
+      headers: { etag: '"graphql"' },
+      data: {},
+    });
+    await send({ method: "POST", url: "/graphql", headers: {} });
+    await send({ method: "POST", url: "/graphql", headers: {} });
+    expect(request.mock.calls[3][0].headers["if-none-match"]).toBeUndefined();
+    expect(() => readdirSync(cacheDir)).toThrow();
+  });
+
+  it("should rethrow a 304 without a stored entry and other errors", async () => {
+    const { octokit, send } = createStubOctokit();
+    installHttpCache(octokit, cacheDir);
+
+    const notModifiedError = notModified({});
+    server = () => {
+      throw notModifiedError;
+    };
+    await expect(send(listLabels())).rejects.toBe(notModifiedError);
+
+    const serverError = Object.assign(new Error("Server Error"), { status: 500 });
+    server = () => {
+      throw serverError;
+    };
+    await expect(send(listLabels())).rejects.toBe(serverError);
+  });
+
+  it("should ignore an unreadable entry", async () => {
+    const { octokit, request, send } = createStubOctokit();
+    installHttpCache(octokit, cacheDir);
+
+    server = () => ({
+      status: 200,
+      url: "https://api.github.com/repos/acme/app/labels",
+      headers: { etag: '"abc"' },
+      data: LABELS,
+    });
+    await send(listLabels());
+    const [entry] = readdirSync(cacheDir);
+    writeFileSync(join(cacheDir, entry), "{ torn");
+
+    const response = await send(listLabels());
+    expect(request.mock.calls[1][0].headers["if-none-match"]).toBeUndefined();
+    expect(response.data).toEqual(LABELS);
+  });
+});
@@ -0,0 +1,209 @@
+/**
+ * Incremental Analysis Tests
+ */
+
+import { execFileSync } from "node:child_process";
+import { mkdirSync, mkdtempSync, readFileSync, rmSync, writeFileSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { describe, it, expect } from "vitest";
+import {
+  INCREMENTAL_STATE_FILE,
+  IncrementalState,
+  carryForwardFindings,
+  getChangedFiles,
+  loadIncrementalState,
+  loadPreviousFindings,
+  planIncrementalRun,
+  saveIncrementalState,
+} from "../src/tools/incremental.js";
+import { writeFindingsStore } from "../src/utils/findings-store.js";
+import { createFinding } from "./helpers.js";
+
+function git(root: string, ...args: string[]): string {
+  return execFileSync(
+    "git",
+    ["-c", "user.name=test", "-c", "user.email=test@example.com", ...args],
+    { cwd: root, encoding: "utf-8" },
+  ).trim();
+}
+
+/** Create a git repository with one commit of the given files */
+function createRepo(files: Record<string, string>): { root: string; commit: string } {
+  const root = mkdtempSync(join(tmpdir(), "incremental-"));
+  for (const [path, content] of Object.entries(files)) {
+    mkdirSync(join(root, path, ".."), { recursive: true });
+    writeFileSync(join(root, path), content);
+  }
+  git(root, "init", "-q");
+  git(root, "add", ".");
+  git(root, "commit", "-q", "-m", "initial");
+  return { root, commit: git(root, "rev-parse", "HEAD") };
+}
+
+function createOutputDir(): string {
+  return mkdtempSync(join(tmpdir(), "incremental-out-"));
+}
+
+describe("getChangedFiles", () => {
+  it("should include committed, uncommitted, deleted and untracked files", async () => {
+    const { root, commit } = createRepo({
+      ".gitignore": "ignored/\n",
+      "src/A.java": "class A {}\n",
+      "src/B.java": "class B {}\n",
+      "src/C.java": "class C {}\n",
+      "src/D.java": "class D {}\n",
+    });
+    writeFileSync(join(root, "src/A.java"), "class A { int x; }\n");
+    git(root, "commit", "-q", "-am", "edit A");
+    writeFileSync(join(root, "src/B.java"), "class B { int y; }\n");
+    rmSync(join(root, "src/C.java"));
+    writeFileSync(join(root, "src/E.java"), "class E {}\n");
+    mkdirSync(join(root, "ignored"));
+    writeFileSync(join(root, "ignored/F.java"), "class F {}\n");
+
+    const changed = await getChangedFiles(root, commit);
+    expect([...(changed ?? [])].sort()).toEqual([
+      "src/A.java",
+      "src/B.java",
+      "src/C.java",
+      "src/E.java",
+    ]);
+  });
+
+  it("should keep paths git would quote", async () => {
+    const { root, commit } = createRepo({
+      "src/Café.java": "class Café {}\n",
+      'src/Say "Hi".java': "class Hi {}\n",
+    });
+    writeFileSync(join(root, "src/Café.java"), "class Café { int x; }\n");
+    writeFileSync(join(root, 'src/Say "Hi".java'), "class Hi { int x; }\n");
+    writeFileSync(join(root, "src/Ünïcode New.java"), "class New {}\n");
+
+    const changed = await getChangedFiles(root, commit);
+    expect([...(changed ?? [])].sort()).toEqual([
+      "src/Café.java",
+      'src/Say "Hi".java',
+      "src/Ünïcode New.java",
+    ]);
+  });
+
+  it("should return null for an unknown commit", async () => {
+    const { root } = createRepo({ "a.txt": "a\n" });
+    expect(await getChangedFiles(root, "0".repeat(40))).toBeNull();
+  });
+});
+
+describe("planIncrementalRun", () => {
+  it("should run incrementally from a matching baseline", async () => {
+    const { root, commit } = createRepo({ "src/A.java": "class A {}\n" });
+    const outputDir = createOutputDir();
+    writeFindingsStore(join(outputDir, "findings-all.ndjson"), []);
+    writeFileSync(join(root, "src/A.java"), "class A { int x; }\n");
+
+    const state = new IncrementalState({
+      pmd: { commit, configKey: "key", updatedAt: "" },
+    });
+    const plan = await planIncrementalRun(root, outputDir, "pmd", state, "key");
+
+    expect(plan).toMatchObject({ mode: "incremental", baseCommit: commit, headCommit: commit });
+    expect(plan.mode === "incremental" && [...plan.changedFiles]).toEqual(["src/A.java"]);
+  });
+
+  it("should run incrementally from a pre-store findings-all.json", async () => {
+    const { root, commit } = createRepo({ "src/A.java": "class A {}\n" });
+    const outputDir = createOutputDir();
+    const previous = [
+      createFinding({ tool: "pmd", fingerprint: "sha256:pmd" }),
+      createFinding({ tool: "eslint" }),
+    ];
+    writeFileSync(join(outputDir, "findings-all.json"), JSON.stringify(previous));
+
+    const state = new IncrementalState({
+      pmd: { commit, configKey: "key", updatedAt: "" },
+    });
+    const plan = await planIncrementalRun(root, outputDir, "pmd", state, "key");
+
+    expect(plan).toMatchObject({ mode: "incremental", baseCommit: commit });
+    expect(loadPreviousFindings(outputDir, "pmd")).toEqual([previous[0]]);
+  });
+
+  it("should fall back to a full run when the baseline is unusable", async () => {
+    const { root, commit } = createRepo({ "a.txt": "a\n" });
+    const outputDir = createOutputDir();
+    const state = (configKey: string, baseCommit = commit) =>
+      new IncrementalState({ pmd: { commit: baseCommit, configKey, updatedAt: "" } });
+
+    expect(
+      await planIncrementalRun(root, outputDir, "pmd", new IncrementalState(), "key"),
+    ).toMatchObject({ mode: "full", reason: "no previous baseline" });
+    expect(
+      await planIncrementalRun(root, outputDir, "pmd", state("old"), "key"),
+    ).toMatchObject({ mode: "full", reason: "configuration changed" });
+    expect(
+      await planIncrementalRun(root, outputDir, "pmd", state("key"), "key"),
+    ).toMatchObject({ mode: "full", reason: "previous findings missing" });
+
+    writeFindingsStore(join(outputDir, "findings-all.ndjson"), []);
+    expect(
+      await planIncrementalRun(root, outputDir, "pmd", state("key", "f".repeat(40)), "key"),
+    ).toMatchObject({ mode: "full", headCommit: commit });
+
+    expect(
+      await planIncrementalRun(createOutputDir(), outputDir, "pmd", state("key"), "key"),
+    ).toMatchObject({ mode: "full", reason: "not a git repository", headCommit: null });
+  });
+});
+
+describe("carryForwardFindings", () => {
+  it("should keep findings in unchanged files that still exist", () => {
+    const { root } = createRepo({
+      "src/A.java": "class A {}\n",
+      "src/B.java": "class B {}\n",
+    });
+    const inA = createFinding({ locations: [{ path: "src/A.java", startLine: 1 }] });
+    const inB = createFinding({ locations: [{ path: "src/B.java", startLine: 1 }] });
+    const inDeleted = createFinding({ locations: [{ path: "src/Gone.java", startLine: 1 }] });
+    const withoutLocation = createFinding({ locations: [] });
+
+    expect(
+      carryForwardFindings(
+        [inA, inB, inDeleted, withoutLocation],
+        new Set(["src/B.java"]),
+        root,
+      ),
+    ).toEqual([inA]);
+  });
+});
+
+describe("IncrementalState", () => {
+  it("should persist only tools analyzed or retained this run", () => {
+    const outputDir = createOutputDir();
+    saveIncrementalState(
+      outputDir,
+      new IncrementalState({
+        pmd: { commit: "a", configKey: "k", updatedAt: "t" },
+        trunk: { commit: "b", updatedAt: "t" },
+        spotbugs: { commit: "c", updatedAt: "t" },
+      }),
+    );
+
+    const state = loadIncrementalState(outputDir);
+    expect(state.baseline("trunk")?.commit).toBe("b");
+    state.markAnalyzed("pmd", "d", "k2");
+    state.retain("spotbugs");
+    state.retain("eslint");
+    saveIncrementalState(outputDir, state);
+
+    const saved = JSON.parse(readFileSync(join(outputDir, INCREMENTAL_STATE_FILE), "utf-8"));
+    expect(Object.keys(saved).sort()).toEqual(["pmd", "spotbugs"]);
+    expect(saved.pmd).toMatchObject({ commit: "d", configKey: "k2" });
+    expect(saved.spotbugs).toEqual({ commit: "c", updatedAt: "t" });
+  });
+
+  it("should ignore unreadable state", () => {
+    const outputDir = createOutputDir();
+    writeFileSync(join(outputDir, INCREMENTAL_STATE_FILE), "{not json");
+    expect(loadIncrementalState(outputDir).baseline("pmd")).toBeUndefined();
+  });
+});
@@ -0,0 +1,357 @@
+/**
+ * Issue Gateway Tests
+ *
+ * The GraphQL gateway runs against a stubbed client: `graphql` answers the
+ * label/issue queries and records every mutation document, and the REST
+ * helpers record the fallback calls.
+ */
+
+import { describe, it, expect, vi, beforeEach } from "vitest";
+import { createIssueGateway } from "../src/github/issue-gateway.js";
+
+const { octokit, rest } = vi.hoisted(() => ({
+  octokit: { graphql: vi.fn() },
+  rest: {
+    createIssue: vi.fn(),
+    updateIssue: vi.fn(),
+    closeIssue: vi.fn(),
+  },
+}));
+
+vi.mock("../src/github/github.js", async (importOriginal) => ({
+  ...(await importOriginal<typeof import("../src/github/github.js")>()),
+  ...rest,
+  getOctokit: () => octokit,
+  withRateLimit: <T>(fn: () => Promise<T>) => fn(),
+}));
+
+// ============================================================================
+// Stub GraphQL API
+// ============================================================================
+
+/** Repo labels, served over two pages */
+const LABEL_PAGES = [
+  [
+    { id: "LA_vibe", name: "vibeCheck" },
+    { id: "LA_high", name: "severity:high" },
+  ],
+  [{ id: "LA_eslint", name: "tool:eslint" }],
+];
+
+interface MutationRequest {
+  document: string;
+  variables: Record<string, Record<string, unknown>>;
+  /** Mutation field per alias, in document order */
+  fields: Array<{ alias: string; field: string }>;
+}
+
+let mutations: MutationRequest[];
+let labelQueries: number;
+/** Per-request hook to fail a mutation request */
+let failMutation: (request: MutationRequest) => unknown;
+
+function parseMutation(
+  document: string,
+  variables: Record<string, Record<string, unknown>>,
+): MutationRequest {
+  const fields = [...document.matchAll(/(m\d+): (\w+)\(input: \$m\d+\)/g)].map(
+    ([, alias, field]) => ({ alias, field }),
+  );
+  return { document, variables, fields };
+}
+
+beforeEach(() => {
+  mutations = [];
+  labelQueries = 0;
+  failMutation = () => undefined;
+
+  octokit.graphql.mockReset();
+  octokit.graphql.mockImplementation(
+    async (document: string, variables: Record<string, unknown>) => {
+      if (document.includes("labels(first: 100")) {
+        labelQueries++;
+        const page = variables.cursor === "labels-2" ? 1 : 0;
+        return {
+          repository: {
+            labels: {
+              pageInfo: {
+                hasNextPage: page === 0,
+                endCursor: page === 0 ? "labels-2" : null,
+              },
+              nodes: LABEL_PAGES[page],
+            },
+          },
+        };
+      }
+      if (document.includes("issues(first: 100")) {
+        const page = variables.cursor === "issues-2" ? 1 : 0;
+        return {
+          repository: {
+            issues: {
+              pageInfo: {
+                hasNextPage: page === 0,
+                endCursor: page === 0 ? "issues-2" : null,
+              },
+              nodes: [
+                {
+                  id: `I_${page + 1}`,
+                  number: page + 1,
+                  title: `Issue ${page + 1}`,
+                  body: `<!-- vibecheck:fingerprint=sha256:f${page + 1} -->`,
+                  state: "OPEN",
+                  labels: { nodes: [{ name: "vibeCheck" }] },
+                },
+              ],
+            },
+          },
+        };
+      }
+
+      const request = parseMutation(
+        document,
+        variables as MutationRequest["variables"],
+      );
+      mutations.push(request);
+      const error = failMutation(request);
+      if (error) throw error;
+      return {};
+    },
+  );
+
+  rest.createIssue.mockReset().mockResolvedValue(99);
+  rest.updateIssue.mockReset().mockResolvedValue(undefined);
+  rest.closeIssue.mockReset().mockResolvedValue(undefined);
+});
+
+/** A partial GraphQL failure, as thrown by @octokit/graphql */
+function graphqlError(errors: Array<{ path?: string[]; message: string }>) {
+  return Object.assign(new Error(errors[0].message), { errors });
+}
+
+// ============================================================================
+// Tests
+// ============================================================================
+
+describe("GraphQLIssueGateway", () => {
+  it("should fetch open issues across pages with node IDs", async () => {
+    const gateway = createIssueGateway("acme", "app");
+
+    const issues = await gateway.fetchOpenIssues(["vibeCheck", "vibeCop"]);
+
+    expect(issues.map((i) => [i.number, i.nodeId])).toEqual([
+      [1, "I_1"],
+      [2, "I_2"],
+    ]);
+    expect(issues[0].state).toBe("open");
+    expect(octokit.graphql).toHaveBeenCalledWith(
+      expect.stringContaining("issues(first: 100"),
+      expect.objectContaining({ labels: ["vibeCheck", "vibeCop"], cursor: null }),
+    );
+  });
+
+  it("should coalesce operations from the same tick into one request", async () => {
+    const gateway = createIssueGateway("acme", "app");
+
+    await Promise.all([
+      gateway.updateIssue({ number: 1, nodeId: "I_1" }, { title: "One" }),
+      gateway.updateIssue({ number: 2, nodeId: "I_2" }, { body: "Two" }),
+      gateway.closeIssue({ number: 3, nodeId: "I_3" }, "Fixed"),
+    ]);
+
+    expect(mutations).toHaveLength(1);
+    expect(mutations[0].fields).toEqual([
+      { alias: "m0", field: "updateIssue" },
+      { alias: "m1", field: "updateIssue" },
+      { alias: "m2", field: "addComment" },
+      { alias: "m3", field: "closeIssue" },
+    ]);
+    expect(mutations[0].variables.m0).toMatchObject({ id: "I_1", title: "One" });
+    expect(mutations[0].variables.m2).toEqual({ subjectId: "I_3", body: "Fixed" });
+    expect(mutations[0].variables.m3).toEqual({
+      issueId: "I_3",
+      stateReason: "COMPLETED",
+    });
+    expect(rest.updateIssue).not.toHaveBeenCalled();
+    expect(rest.closeIssue).not.toHaveBeenCalled();
+  });
+
+  it("should send at most 25 mutations per request without splitting a close", async () => {
+    const gateway = createIssueGateway("acme", "app");
+
+    await Promise.all([
+      ...Array.from({ length: 30 }, (_, i) =>
+        gateway.updateIssue({ number: i, nodeId: `I_${i}` }, { title: `T${i}` }),
+      ),
+      ...Array.from({ length: 13 }, (_, i) =>
+        gateway.closeIssue({ number: 100 + i, nodeId: `I_c${i}` }, "Fixed"),
+      ),
+    ]);
+
+    const sizes = mutations.map((m) => m.fields.length);
+    expect(Math.max(...sizes)).toBeLessThanOrEqual(25);
+    expect(sizes.reduce((a, b) => a + b, 0)).toBe(30 + 13 * 2);
+    expect(sizes[0]).toBe(25);
+
+    // Each close's comment and close travel together, in that order
+    for (const { fields, variables } of mutations) {
+      fields.forEach(({ alias, field }, i) => {
+        if (field !== "addComment") return;
+        const next = fields[i + 1];
+        expect(next?.field).toBe("closeIssue");
+        expect(variables[next.alias].issueId).toBe(variables[alias].subjectId);
+      });
+    }
+  });
+
+  it("should reject only the operation whose alias failed", async () => {
+    const gateway = createIssueGateway("acme", "app");
+    failMutation = () =>
+      graphqlError([
+        { path: ["m1"], message: "Could not resolve to a node with the global id of 'I_2'" },
+        { path: ["m3"], message: "Issue is locked" },
+      ]);
+
+    const results = await Promise.allSettled([
+      gateway.updateIssue({ number: 1, nodeId: "I_1" }, { title: "One" }),
+      gateway.updateIssue({ number: 2, nodeId: "I_2" }, { title: "Two" }),
+      gateway.closeIssue({ number: 3, nodeId: "I_3" }, "Fixed"),
+      gateway.updateIssue({ number: 4, nodeId: "I_4" }, { title: "Four" }),
+    ]);
+
+    expect(mutations).toHaveLength(1);
+    expect(results.map((r) => r.status)).toEqual([
+      "fulfilled",
+      "rejected",
+      "rejected",
+      "fulfilled",
+    ]);
+    expect((results[1] as PromiseRejectedResult).reason.message).toBe(
+      "GraphQL mutation failed: Could not resolve to a node with the global id of 'I_2'",
+    );
+    // The close's second mutation (m3) failed: the whole close is rejected
+    expect((results[2] as PromiseRejectedResult).reason.message).toBe(
+      "GraphQL mutation failed: Issue is locked",
+    );
+  });
+
+  it("should reject the whole batch when errors cannot be attributed", async () => {
+    const gateway = createIssueGateway("acme", "app");
+    failMutation = () => graphqlError([{ message: "Something went wrong" }]);
+
+    const results = await Promise.allSettled([
+      gateway.updateIssue({ number: 1, nodeId: "I_1" }, { title: "One" }),
+      gateway.closeIssue({ number: 2, nodeId: "I_2" }, "Fixed"),
+    ]);
+
+    expect(results.every((r) => r.status === "rejected")).toBe(true);
+    expect((results[0] as PromiseRejectedResult).reason.message).toBe(
+      "GraphQL mutation failed: Something went wrong",
+    );
+  });
+
+  it("should reject every operation with a transport error", async () => {
+    const gateway = createIssueGateway("acme", "app");
+    const failure = new Error("socket hang up");
+    failMutation = () => failure;
+
+    const results = await Promise.allSettled([
+      gateway.updateIssue({ number: 1, nodeId: "I_1" }, { title: "One" }),
+      gateway.updateIssue({ number: 2, nodeId: "I_2" }, { title: "Two" }),
+    ]);
+
+    expect(results).toEqual([
+      { status: "rejected", reason: failure },
+      { status: "rejected", reason: failure },
+    ]);
+  });
+
+  it("should resolve label names to node IDs once per run", async () => {
+    const gateway = createIssueGateway("acme", "app");
+
+    await Promise.all([
+      gateway.updateIssue(
+        { number: 1, nodeId: "I_1" },
+        { labels: ["vibeCheck", "Severity:High"] },
+      ),
+      gateway.updateIssue(
+        { number: 2, nodeId: "I_2" },
+        { labels: ["tool:eslint"], state: "closed" },
+      ),
+    ]);
+
+    expect(labelQueries).toBe(2); // two pages, fetched once
+    const variables = mutations.flatMap((m) => Object.values(m.variables));
+    expect(variables).toEqual([
+      expect.objectContaining({ id: "I_1", labelIds: ["LA_vibe", "LA_high"] }),
+      expect.objectContaining({
+        id: "I_2",
+        labelIds: ["LA_eslint"],
+        state: "CLOSED",
+      }),
+    ]);
+  });
+
+  it("should fall back to REST for unknown labels", async () => {
+    const gateway = createIssueGateway("acme", "app");
+
+    await gateway.updateIssue(
+      { number: 7, nodeId: "I_7" },
+      { title: "Seven", labels: ["vibeCheck", "not-a-label"] },
+    );
+
+    expect(mutations).toHaveLength(0);
+    expect(rest.updateIssue).toHaveBeenCalledWith("acme", "app", {
+      number: 7,
+      title: "Seven",
+      labels: ["vibeCheck", "not-a-label"],
+    });
+  });
+
+  it("should fall back to REST for issues without a node ID", async () => {
+    const gateway = createIssueGateway("acme", "app");
+
+    await gateway.updateIssue({ number: 5 }, { body: "New body" });
+    await gateway.closeIssue({ number: 6 }, "Fixed");
+
+    expect(mutations).toHaveLength(0);
+    expect(rest.updateIssue).toHaveBeenCalledWith("acme", "app", {
+      number: 5,
+      body: "New body",
+    });
+    expect(rest.closeIssue).toHaveBeenCalledWith("acme", "app", 6, "Fixed");
+  });
+
+  it("should create issues over REST", async () => {
+    const gateway = createIssueGateway("acme", "app");
+
+    const number = await gateway.createIssue({
+      title: "New",
+      body: "Body",
+      labels: ["vibeCheck"],
+    });
+
+    expect(number).toBe(99);
+    expect(rest.createIssue).toHaveBeenCalledWith("acme", "app", {
+      title: "New",
+      body: "Body",
+      labels: ["vibeCheck"],
+    });
+    expect(octokit.graphql).not.toHaveBeenCalled();
+  });
+});
+
+describe("RestIssueGateway", () => {
+  it("should never use GraphQL", async () => {
+    const gateway = createIssueGateway("acme", "app", "rest");
+
+    await gateway.updateIssue({ number: 1, nodeId: "I_1" }, { labels: ["vibeCheck"] });
+    await gateway.closeIssue({ number: 2, nodeId: "I_2" }, "Fixed");
+
+    expect(octokit.graphql).not.toHaveBeenCalled();
+    expect(rest.updateIssue).toHaveBeenCalledWith("acme", "app", {
+      number: 1,
+      labels: ["vibeCheck"],
+    });
+    expect(rest.closeIssue).toHaveBeenCalledWith("acme", "app", 2, "Fixed");
+  });
+});
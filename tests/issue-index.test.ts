@@ -0,0 +1,148 @@
+/**
+ * Issue Index Tests
+ */
+
+import { describe, it, expect } from "vitest";
+import {
+  IssueIndex,
+  indexMergedFindings,
+  normalizeIssueTitle,
+} from "../src/github/issue-index.js";
+import type { ExistingIssue } from "../src/core/types.js";
+import { createFinding } from "./helpers.js";
+
+/** Create an open issue with optional overrides */
+function createIssue(
+  number: number,
+  title: string,
+  overrides: Partial<ExistingIssue> = {},
+): ExistingIssue {
+  return {
+    number,
+    title,
+    body: "",
+    state: "open",
+    labels: ["vibeCheck"],
+    ...overrides,
+  };
+}
+
+describe("normalizeIssueTitle", () => {
+  it("should strip prefix, occurrence counts and file suffix", () => {
+    expect(
+      normalizeIssueTitle(
+        "[vibeCheck] Duplicate Code: 22 lines (126 occurrences)",
+      ),
+    ).toBe("duplicate code: 22 lines");
+    expect(normalizeIssueTitle("[vibeCheck] eslint: no-console in app.ts")).toBe(
+      "eslint: no-console",
+    );
+  });
+});
+
+describe("IssueIndex.match", () => {
+  it("should prefer fingerprint matches", () => {
+    const byFingerprint = createIssue(5, "[vibeCheck] Something else", {
+      metadata: {
+        fingerprint: "sha256:finding",
+        lastSeenRun: 1,
+        consecutiveMisses: 0,
+      },
+    });
+    const byRule = createIssue(9, "[vibeCheck] eslint: no-unused-vars");
+    const index = new IssueIndex([byFingerprint, byRule]);
+
+    const match = index.match(createFinding());
+    expect(match.issue).toBe(byFingerprint);
+    expect(match.matchedBy).toBe("fingerprint");
+  });
+
+  it("should pick the newest open issue for a tool+rule key", () => {
+    const older = createIssue(3, "[vibeCheck] eslint: no-unused-vars");
+    const newest = createIssue(
+      12,
+      "[vibeCheck] eslint: no-unused-vars (2 occurrences)",
+    );
+    const closed = createIssue(20, "[vibeCheck] eslint: no-unused-vars", {
+      state: "closed",
+    });
+    const index = new IssueIndex([older, closed, newest]);
+
+    const match = index.match(createFinding());
+    expect(match.issue).toBe(newest);
+    expect(match.matchedBy).toBe("tool+rule(eslint|no-unused-vars)");
+  });
+
+  it("should match merged rule IDs by any individual rule", () => {
+    const issue = createIssue(4, "[vibeCheck] tsc: ts2322");
+    const index = new IssueIndex([issue]);
+
+    const match = index.match(
+      createFinding({ tool: "tsc", ruleId: "TS2578+TS2322", title: "tsc" }),
+    );
+    expect(match.issue).toBe(issue);
+    expect(match.matchedBy).toBe("merged-rule(ts2322)");
+  });
+
+  it("should match trunk findings by sublinter using the first indexed key", () => {
+    const first = createIssue(7, "[vibeCheck] markdownlint: md013");
+    const second = createIssue(8, "[vibeCheck] markdownlint: md041");
+    const index = new IssueIndex([first, second]);
+
+    const match = index.match(
+      createFinding({
+        tool: "trunk",
+        ruleId: "MD999",
+        title: "markdownlint: MD999",
+        fingerprint: "sha256:other",
+      }),
+    );
+    expect(match.issue).toBe(first);
+    expect(match.matchedBy).toBe("sublinter(markdownlint)");
+  });
+
+  it("should match issues registered during the run, newest first", () => {
+    const index = new IssueIndex([
+      createIssue(2, "[vibeCheck] eslint: no-unused-vars"),
+    ]);
+    const firstNew = createIssue(0, "[vibeCheck] eslint: no-unused-vars");
+    const secondNew = createIssue(0, "[vibeCheck] eslint: no-unused-vars");
+    index.register(firstNew, createFinding({ fingerprint: "sha256:a" }));
+    index.register(secondNew, createFinding({ fingerprint: "sha256:b" }));
+
+    expect(index.match(createFinding({ fingerprint: "sha256:c" })).issue).toBe(
+      secondNew,
+    );
+    expect(index.match(createFinding({ fingerprint: "sha256:a" })).issue).toBe(
+      firstNew,
+    );
+  });
+
+  it("should report no match when no strategy applies", () => {
+    const index = new IssueIndex([createIssue(1, "[vibeCheck] ruff: f401")]);
+    const match = index.match(createFinding({ tool: "tsc", ruleId: "TS1" }));
+    expect(match.issue).toBeUndefined();
+    expect(match.matchedBy).toBe("none");
+  });
+});
+
+describe("indexMergedFindings", () => {
+  it("should index the first merged finding per tool and sublinter", () => {
+    const single = createFinding({ tool: "trunk", title: "yamllint: truthy" });
+    const merged = createFinding({
+      tool: "trunk",
+      ruleId: "truthy+line-length",
+      title: "yamllint: 2 issues across 3 files",
+    });
+    const later = createFinding({
+      tool: "trunk",
+      ruleId: "a+b",
+      title: "yamllint: later",
+    });
+
+    const index = indexMergedFindings([single, merged, later]);
+    expect(index.get("trunk")).toBe(merged);
+    expect(index.get("yamllint")).toBe(merged);
+    expect(index.has("eslint")).toBe(false);
+  });
+});
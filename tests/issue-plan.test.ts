@@ -0,0 +1,314 @@
+/**
+ * Issue Plan Tests
+ */
+
+import { existsSync, mkdtempSync, readFileSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { describe, it, expect } from "vitest";
+import {
+  applyIssuePlan,
+  planIssueSync,
+  resolveIssuesConfig,
+} from "../src/github/issue-plan.js";
+import type { IssueGateway } from "../src/github/issue-gateway.js";
+import type {
+  ExistingIssue,
+  Finding,
+  RunContext,
+} from "../src/core/types.js";
+import { createFinding } from "./helpers.js";
+
+const GENERATED_AT = "2024-01-01T00:00:00.000Z";
+
+/** Create an open issue tracking a fingerprint */
+function createIssue(
+  number: number,
+  title: string,
+  fingerprint?: string,
+): ExistingIssue {
+  return {
+    number,
+    title,
+    body: "old body",
+    state: "open",
+    labels: ["vibeCheck"],
+    metadata: fingerprint
+      ? { fingerprint, lastSeenRun: 1, consecutiveMisses: 0 }
+      : undefined,
+  };
+}
+
+function createContext(): RunContext {
+  return {
+    repo: {
+      owner: "test",
+      name: "repo",
+      defaultBranch: "main",
+      commit: "0000000000000000000000000000000000000000",
+    },
+    profile: {
+      languages: ["typescript"],
+      packageManager: "pnpm",
+      isMonorepo: false,
+      workspacePackages: [],
+      hasTypeScript: true,
+      hasEslint: true,
+      hasPrettier: false,
+      hasTrunk: false,
+      hasDependencyCruiser: false,
+      hasKnip: false,
+      rootPath: "/repo",
+      hasPython: false,
+      hasJava: false,
+      hasRuff: false,
+      hasMypy: false,
+      hasPmd: false,
+      hasSpotBugs: false,
+      hasRust: false,
+      hasClippy: false,
+      hasCargoDeny: false,
+    },
+    config: { version: 1 },
+    cadence: "weekly",
+    runNumber: 2,
+    workspacePath: "/repo",
+    outputDir: ".",
+  };
+}
+
+function plan(
+  findings: Finding[],
+  existingIssues: ExistingIssue[],
+  maxNew = 25,
+) {
+  const context = createContext();
+  return planIssueSync({
+    findings,
+    existingIssues,
+    context,
+    config: { ...resolveIssuesConfig(context.config), max_new_per_run: maxNew },
+    generatedAt: GENERATED_AT,
+  });
+}
+
+describe("planIssueSync", () => {
+  it("should plan creates, updates and closes with reasons", () => {
+    const tracked = createIssue(
+      1,
+      "[vibeCheck] eslint: no-unused-vars in a.ts",
+      "sha256:a",
+    );
+    const resolved = createIssue(
+      2,
+      "[vibeCheck] ruff: f401 in x.py",
+      "sha256:gone",
+    );
+
+    const result = plan(
+      [
+        createFinding({ fingerprint: "sha256:a" }),
+        createFinding({
+          fingerprint: "sha256:b",
+          ruleId: "no-console",
+          title: "eslint: no-console",
+          locations: [{ path: "src/b.ts", startLine: 3 }],
+        }),
+      ],
+      [tracked, resolved],
+    );
+
+    expect(result.actions.map((a) => [a.type, a.id, a.reason])).toEqual([
+      ["update", "update:#1", "matched by fingerprint"],
+      ["create", "create:sha256:b", "no matching open issue"],
+      ["close", "close:#2", "finding no longer detected"],
+    ]);
+    expect(result.summary).toMatchObject({ create: 1, update: 1, close: 1 });
+    // The snapshot is left untouched
+    expect(tracked.body).toBe("old body");
+  });
+
+  it("should be deterministic and skip issues that are up to date", () => {
+    const finding = createFinding({ fingerprint: "sha256:a" });
+    const first = plan([finding], []);
+    expect(plan([finding], []).digest).toBe(first.digest);
+
+    const create = first.actions[0];
+    if (create.type !== "create") throw new Error("expected a create");
+    const existing: ExistingIssue = {
+      number: 7,
+      title: create.title,
+      body: create.body,
+      state: "open",
+      labels: create.labels,
+      metadata: {
+        fingerprint: "sha256:a",
+        lastSeenRun: 2,
+        consecutiveMisses: 0,
+      },
+    };
+
+    const second = plan([finding], [existing]);
+    expect(second.actions).toEqual([
+      {
+        id: "skip:sha256:a",
+        type: "skip",
+        reason: "no changes (matched by fingerprint)",
+        fingerprint: "sha256:a",
+      },
+    ]);
+  });
+
+  it("should write each issue once and respect max_new_per_run", () => {
+    const result = plan(
+      [
+        createFinding({ fingerprint: "sha256:c" }),
+        createFinding({
+          fingerprint: "sha256:d",
+          locations: [{ path: "src/d.ts", startLine: 1 }],
+        }),
+        createFinding({
+          fingerprint: "sha256:e",
+          tool: "tsc",
+          ruleId: "TS2322",
+          title: "tsc: TS2322",
+        }),
+      ],
+      [createIssue(5, "[vibeCheck] eslint: no-unused-vars")],
+      0,
+    );
+
+    expect(result.actions.filter((a) => a.type === "update")).toHaveLength(1);
+    expect(result.summary.create).toBe(0);
+    expect(result.summary.maxReached).toBe(1);
+  });
+
+  it("should close older duplicates, keeping the newest issue", () => {
+    const result = plan(
+      [],
+      [
+        createIssue(3, "[vibeCheck] Duplicate Code: 22 lines (4 occurrences)"),
+        createIssue(9, "[vibeCheck] Duplicate Code: 22 lines (6 occurrences)"),
+      ],
+    );
+
+    expect(result.actions).toHaveLength(1);
+    expect(result.actions[0]).toMatchObject({
+      type: "close",
+      id: "close:#3",
+      reason: 'duplicate of #9 ("duplicate code: 22 lines")',
+    });
+  });
+
+  it("should record the issues API and HTTP cache for a later --apply", () => {
+    const context = createContext();
+    const config = resolveIssuesConfig(context.config);
+
+    expect(plan([], [])).toMatchObject({ api: "graphql", httpCache: true });
+    expect(
+      planIssueSync({
+        findings: [],
+        existingIssues: [],
+        context: {
+          ...context,
+          config: { ...context.config, cache: { enabled: false } },
+        },
+        config,
+        generatedAt: GENERATED_AT,
+      }).httpCache,
+    ).toBe(false);
+    expect(
+      planIssueSync({
+        findings: [],
+        existingIssues: [],
+        context,
+        config: { ...config, api: "rest" },
+        generatedAt: GENERATED_AT,
+      }).api,
+    ).toBe("rest");
+  });
+});
+
+describe("applyIssuePlan", () => {
+  it("should resume from the journal after a failure", async () => {
+    const result = plan(
+      [
+        createFinding({ fingerprint: "sha256:a" }),
+        createFinding({
+          fingerprint: "sha256:b",
+          tool: "tsc",
+          ruleId: "TS2322",
+          title: "tsc: TS2322",
+        }),
+      ],
+      [createIssue(2, "[vibeCheck] ruff: f401 in x.py", "sha256:gone")],
+    );
+    const dir = mkdtempSync(join(tmpdir(), "issue-plan-"));
+    const planPath = join(dir, "plan.json");
+
+    const created: string[] = [];
+    const closed: number[] = [];
+    let failNext = true;
+    const gateway: IssueGateway = {
+      fetchOpenIssues: async () => [],
+      createIssue: async ({ title }) => {
+        if (title.includes("TS2322") && failNext) {
+          failNext = false;
+          throw new Error("boom");
+        }
+        created.push(title);
+        return created.length + 100;
+      },
+      updateIssue: async () => {},
+      closeIssue: async ({ number }) => {
+        closed.push(number);
+      },
+    };
+
+    await expect(applyIssuePlan(result, gateway, planPath)).rejects.toThrow(
+      "1 issue action(s) failed",
+    );
+    expect(created).toHaveLength(1);
+    expect(closed).toEqual([]); // closes wait for creates and updates
+    expect(readFileSync(`${planPath}.journal`, "utf-8")).toContain(
+      '"id":"create:sha256:a"',
+    );
+
+    await applyIssuePlan(result, gateway, planPath);
+    expect(created).toHaveLength(2);
+    expect(closed).toEqual([2]);
+    expect(existsSync(`${planPath}.journal`)).toBe(false);
+  });
+
+  it("should create at most a few issues at a time", async () => {
+    const result = plan(
+      Array.from({ length: 8 }, (_, i) =>
+        createFinding({
+          fingerprint: `sha256:${i}`,
+          ruleId: `rule-${i}`,
+          title: `eslint: rule-${i}`,
+        }),
+      ),
+      [],
+    );
+    expect(result.summary.create).toBe(8);
+    const dir = mkdtempSync(join(tmpdir(), "issue-plan-"));
+
+    let active = 0;
+    let maxActive = 0;
+    const gateway: IssueGateway = {
+      fetchOpenIssues: async () => [],
+      createIssue: async () => {
+        maxActive = Math.max(maxActive, ++active);
+        await new Promise((resolve) => setTimeout(resolve, 5));
+        active--;
+        return 100 + maxActive;
+      },
+      updateIssue: async () => {},
+      closeIssue: async () => {},
+    };
+
+    await applyIssuePlan(result, gateway, join(dir, "plan.json"));
+    expect(maxActive).toBe(3);
+  });
+});
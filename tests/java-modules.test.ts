@@ -0,0 +1,79 @@
+/**
+ * Java Module Discovery Tests
+ */
+
+import { mkdirSync, mkdtempSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { fileURLToPath } from "node:url";
+import { describe, it, expect } from "vitest";
+import { FileInventory } from "../src/core/file-inventory.js";
+import {
+  buildAuxClasspath,
+  discoverJavaModules,
+} from "../src/tools/runners/java.js";
+
+const fixtureRoot = fileURLToPath(
+  new URL("../test-fixtures/java-modules", import.meta.url),
+);
+
+describe("discoverJavaModules", () => {
+  it("should find Maven and Gradle modules with their classes and jars", async () => {
+    const modules = discoverJavaModules(
+      fixtureRoot,
+      await FileInventory.build(fixtureRoot),
+    );
+
+    // The aggregator pom.xml has no compiled classes of its own
+    expect(modules).toEqual([
+      {
+        path: "app",
+        classDirs: [join(fixtureRoot, "app", "build", "classes", "java", "main")],
+        jars: [join(fixtureRoot, "app", "lib", "acme-runtime.jar")],
+      },
+      {
+        path: "core",
+        classDirs: [join(fixtureRoot, "core", "target", "classes")],
+        jars: [join(fixtureRoot, "core", "target", "dependency", "acme-util.jar")],
+      },
+    ]);
+  });
+
+  it("should fall back to the legacy locations without build files", async () => {
+    const root = mkdtempSync(join(tmpdir(), "java-legacy-"));
+    mkdirSync(join(root, "test-fixtures", "target", "classes"), { recursive: true });
+    expect(discoverJavaModules(root, await FileInventory.build(root))).toEqual([
+      {
+        path: "test-fixtures",
+        classDirs: [join(root, "test-fixtures", "target", "classes")],
+        jars: [],
+      },
+    ]);
+
+    mkdirSync(join(root, "target", "classes"), { recursive: true });
+    expect(
+      discoverJavaModules(root, await FileInventory.build(root)).map((m) => m.path),
+    ).toEqual(["."]);
+  });
+});
+
+describe("buildAuxClasspath", () => {
+  it("should put the other modules' classes and every jar on the classpath", async () => {
+    const modules = discoverJavaModules(
+      fixtureRoot,
+      await FileInventory.build(fixtureRoot),
+    );
+    const [app, core] = modules;
+
+    expect(buildAuxClasspath(app, modules)).toEqual([
+      ...app.jars,
+      ...core.classDirs,
+      ...core.jars,
+    ]);
+    expect(buildAuxClasspath(core, modules)).toEqual([
+      ...app.classDirs,
+      ...app.jars,
+      ...core.jars,
+    ]);
+  });
+});
@@ -0,0 +1,138 @@
+/**
+ * Streaming JSON Tests
+ */
+
+import { describe, it, expect } from "vitest";
+import {
+  JsonArrayStreamer,
+  JsonDocumentScanner,
+} from "../src/utils/json-stream.js";
+import { JsonOutputCollector } from "../src/tools/tool-utils.js";
+
+/** Feed a document to a streamer in fixed-size chunks */
+function streamInChunks<T>(
+  doc: string,
+  key: string,
+  chunkSize: number,
+): { elements: T[]; streamer: JsonArrayStreamer<T> } {
+  const elements: T[] = [];
+  const streamer = new JsonArrayStreamer<T>(key, (e) => elements.push(e));
+  for (let i = 0; i < doc.length; i += chunkSize) {
+    streamer.write(doc.slice(i, i + chunkSize));
+  }
+  return { elements, streamer };
+}
+
+describe("JsonArrayStreamer", () => {
+  const pmdReport = {
+    formatVersion: 0,
+    pmdVersion: "7.0.0",
+    files: [
+      {
+        filename: 'src/A"],{.java',
+        violations: [{ rule: "UnusedLocalVariable", description: "x [}" }],
+      },
+      { filename: "src/B.java", violations: [] },
+    ],
+    processingErrors: [{ files: ["nested arrays are ignored"] }],
+  };
+
+  it("should emit every element regardless of chunk boundaries", () => {
+    const doc = JSON.stringify(pmdReport, null, 2);
+    for (let size = 1; size <= doc.length; size += 7) {
+      const { elements, streamer } = streamInChunks(doc, "files", size);
+      expect(streamer.error).toBeNull();
+      expect(streamer.complete).toBe(true);
+      expect(elements).toEqual(pmdReport.files);
+    }
+  });
+
+  it("should only match the exact top-level key", () => {
+    const doc = '{"filesX":[1],"meta":{"files":[2]},"files":[3]}';
+    const { elements } = streamInChunks<number>(doc, "files", 4);
+    expect(elements).toEqual([3]);
+  });
+
+  it("should handle scalar elements", () => {
+    const doc = '{"files":[1, "a,]", true ,null,[2,3]]}';
+    const { elements } = streamInChunks(doc, "files", 3);
+    expect(elements).toEqual([1, "a,]", true, null, [2, 3]]);
+  });
+
+  it("should report truncated documents as incomplete", () => {
+    const doc = JSON.stringify(pmdReport);
+    const { elements, streamer } = streamInChunks(
+      doc.slice(0, doc.indexOf("src/B.java")),
+      "files",
+      16,
+    );
+    expect(streamer.complete).toBe(false);
+    expect(elements).toHaveLength(1);
+  });
+
+  it("should stop and record an error on malformed elements", () => {
+    const { streamer } = streamInChunks('{"files":[{"a":}]}', "files", 5);
+    expect(streamer.error).toBeInstanceOf(Error);
+  });
+});
+
+describe("JsonDocumentScanner", () => {
+  const ESC = "\x1B";
+  const report = { issues: [{ file: "a[b.ts", message: 'x}"y' }] };
+  const output =
+    `${ESC}[1;32m[INFO]${ESC}[0m Checking [1/3 files\n` +
+    "progress {\n" +
+    JSON.stringify(report, null, 2).replace('"issues"', `"iss${ESC}[0mues"`) +
+    "\n✔ done\n";
+
+  function scan(chunks: string[]): unknown[] {
+    const documents: unknown[] = [];
+    const scanner = new JsonDocumentScanner((d) => documents.push(d));
+    for (const chunk of chunks) scanner.write(chunk);
+    scanner.end();
+    return documents;
+  }
+
+  it("should find documents among ANSI codes and unbalanced progress text", () => {
+    for (let size = 1; size <= output.length; size += 5) {
+      const chunks: string[] = [];
+      for (let i = 0; i < output.length; i += size) {
+        chunks.push(output.slice(i, i + size));
+      }
+      expect(scan(chunks)).toEqual([report]);
+    }
+  });
+
+  it("should emit every top-level document and skip non-JSON brackets", () => {
+    expect(scan(['[INFO] start\n[1,2]\n{"a":1} trailing'])).toEqual([
+      [1, 2],
+      { a: 1 },
+    ]);
+  });
+
+  it("should abandon candidates broken by a newline inside a string", () => {
+    expect(scan(['Scanning "foo [bar\n{"a":"b"}'])).toEqual([{ a: "b" }]);
+  });
+});
+
+describe("JsonOutputCollector", () => {
+  it("should keep the first object with the marker across chunks", () => {
+    const collector = new JsonOutputCollector("issues");
+    const output = '\x1B[32mScanning...\x1B[0m\n[1]\n{"checkStats":{}}\n{"issues":[],"x":1}\n{"issues":[2]}\n';
+    for (let i = 0; i < output.length; i += 5) {
+      collector.write(output.slice(i, i + 5));
+    }
+
+    expect(collector.finish()).toEqual({
+      marked: { issues: [], x: 1 },
+      first: [1],
+    });
+    expect(collector.head.startsWith("Scanning...\n[1]")).toBe(true);
+  });
+
+  it("should report nothing for output without JSON", () => {
+    const collector = new JsonOutputCollector("issues");
+    collector.write("no json\n");
+    expect(collector.finish()).toEqual({ marked: null, first: null });
+  });
+});
@@ -0,0 +1,73 @@
+/**
+ * JVM Launch Helper Tests
+ */
+
+import { existsSync, mkdtempSync, readdirSync, writeFileSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { afterEach, describe, it, expect, vi } from "vitest";
+import { buildJvmToolEnv } from "../src/tools/jvm.js";
+import { runProcess } from "../src/tools/process-runner.js";
+import { findExecutable } from "../src/tools/tool-resolution.js";
+
+function createOutputDir(): string {
+  return mkdtempSync(join(tmpdir(), "jvm-"));
+}
+
+/** The archive path named in a JAVA_TOOL_OPTIONS value */
+function archiveOf(options: string | undefined): string | undefined {
+  return /-XX:(?:ArchiveClassesAtExit|SharedArchiveFile)=(\S+)/.exec(options ?? "")?.[1];
+}
+
+describe("buildJvmToolEnv", () => {
+  afterEach(() => {
+    vi.unstubAllEnvs();
+  });
+
+  it("should dump an archive on the first launch and reuse it afterwards", () => {
+    vi.stubEnv("JAVA_TOOL_OPTIONS", "");
+    const outputDir = createOutputDir();
+
+    const dumping = buildJvmToolEnv("pmd", outputDir, { dumpArchive: true });
+    expect(dumping.JAVA_TOOL_OPTIONS).toMatch(
+      /^-XX:\+IgnoreUnrecognizedVMOptions -XX:ArchiveClassesAtExit=\S+\.jsa$/,
+    );
+    const archivePath = archiveOf(dumping.JAVA_TOOL_OPTIONS)!;
+    expect(archivePath.startsWith(join(outputDir, "jvm-cds"))).toBe(true);
+    expect(existsSync(join(outputDir, "jvm-cds"))).toBe(true);
+
+    writeFileSync(archivePath, "");
+    const reusing = buildJvmToolEnv("pmd", outputDir, { dumpArchive: false });
+    expect(reusing.JAVA_TOOL_OPTIONS).toBe(
+      `-XX:+IgnoreUnrecognizedVMOptions -XX:SharedArchiveFile=${archivePath} -Xshare:auto`,
+    );
+  });
+
+  it("should leave the environment alone when this launch may not dump", () => {
+    const outputDir = createOutputDir();
+    expect(buildJvmToolEnv("spotbugs", outputDir, { dumpArchive: false })).toBe(
+      process.env,
+    );
+    expect(readdirSync(outputDir)).toEqual([]);
+  });
+
+  it("should append to existing JAVA_TOOL_OPTIONS", () => {
+    vi.stubEnv("JAVA_TOOL_OPTIONS", "-Xmx2g");
+    const env = buildJvmToolEnv("pmd", createOutputDir(), { dumpArchive: true });
+    expect(env.JAVA_TOOL_OPTIONS).toMatch(
+      /^-Xmx2g -XX:\+IgnoreUnrecognizedVMOptions -XX:ArchiveClassesAtExit=/,
+    );
+  });
+
+  it("should skip output directories containing whitespace", () => {
+    const outputDir = mkdtempSync(join(tmpdir(), "jvm with space-"));
+    expect(buildJvmToolEnv("pmd", outputDir, { dumpArchive: true })).toBe(process.env);
+  });
+
+  it.skipIf(!findExecutable("java"))("should not stop the JVM from starting", async () => {
+    vi.stubEnv("JAVA_TOOL_OPTIONS", "");
+    const env = buildJvmToolEnv("pmd", createOutputDir(), { dumpArchive: true });
+    const result = await runProcess("java", ["-version"], { env, shell: false });
+    expect(result.status).toBe(0);
+  });
+});
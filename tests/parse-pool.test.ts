@@ -0,0 +1,202 @@
+/**
+ * Parse Pool Tests
+ *
+ * Pooled and sharded parsing must produce exactly what the inline parsers
+ * produce: same findings, same order, same fingerprints.
+ */
+
+import { EventEmitter } from "node:events";
+import { describe, it, expect, vi, afterEach } from "vitest";
+import {
+  generatePmdOutput,
+  generateSpotBugsOutput,
+  generateTrunkOutput,
+} from "../benchmarks/generators.js";
+import { parsePmdOutput, parseSpotBugsOutput } from "../src/parsers/java.js";
+import {
+  SHARD_PARSERS,
+  parseShardInline,
+  shardParseInput,
+  type ParseInputs,
+  type ParseKind,
+  type ParseRequest,
+} from "../src/parsers/parse-shards.js";
+import { parseTrunkOutput } from "../src/parsers/typescript.js";
+
+const ITEMS = 12_000;
+
+/** Two SpotBugs runs, so shards must keep each run's own driver */
+function twoRunSpotBugsOutput() {
+  const first = generateSpotBugsOutput(ITEMS / 2, 2);
+  const second = generateSpotBugsOutput(ITEMS / 2, 5);
+  second.runs[0].tool.driver.version = "4.8.4";
+  return { ...first, runs: [...first.runs, ...second.runs] };
+}
+
+const CASES = [
+  {
+    kind: "pmd" as const,
+    input: generatePmdOutput(ITEMS),
+    parse: () => parsePmdOutput(generatePmdOutput(ITEMS)),
+  },
+  {
+    kind: "spotbugs" as const,
+    input: twoRunSpotBugsOutput(),
+    parse: () => parseSpotBugsOutput(twoRunSpotBugsOutput()),
+  },
+  {
+    kind: "trunk" as const,
+    input: generateTrunkOutput(ITEMS),
+    parse: () => parseTrunkOutput(generateTrunkOutput(ITEMS)),
+  },
+];
+
+// ============================================================================
+// Fake Worker
+// ============================================================================
+
+type WorkerBehavior = (worker: FakeWorker, request: ParseRequest) => void;
+
+/** Replies like parse-worker.ts, after a delay that varies per request */
+const replyFromParser: WorkerBehavior = (worker, request) => {
+  const parse = SHARD_PARSERS[request.kind] as (
+    input: ParseInputs[ParseKind],
+  ) => ReturnType<(typeof SHARD_PARSERS)[ParseKind]>;
+  const findings = structuredClone(parse(request.shard));
+  // Finish out of order so results have to be put back in shard order
+  setTimeout(
+    () => worker.emit("message", { id: request.id, findings }),
+    (request.id * 7) % 5,
+  );
+};
+
+let behavior: WorkerBehavior = replyFromParser;
+let spawned = 0;
+
+class FakeWorker extends EventEmitter {
+  constructor() {
+    super();
+    spawned++;
+  }
+
+  ref(): void {}
+  unref(): void {}
+
+  postMessage(request: ParseRequest): void {
+    behavior(this, request);
+  }
+
+  terminate(): Promise<number> {
+    return Promise.resolve(0);
+  }
+}
+
+/**
+ * Fresh parse-pool module (the pool is a module singleton) on fake workers.
+ */
+async function loadPool() {
+  vi.resetModules();
+  vi.doMock("node:worker_threads", () => ({ Worker: FakeWorker }));
+  return import("../src/parsers/parse-pool.js");
+}
+
+afterEach(() => {
+  vi.doUnmock("node:worker_threads");
+  behavior = replyFromParser;
+  spawned = 0;
+});
+
+// ============================================================================
+// Tests
+// ============================================================================
+
+describe("shardParseInput", () => {
+  it.each(CASES)("should match the inline $kind parser", ({ kind, input, parse }) => {
+    const shards = shardParseInput(kind, input);
+    expect(shards.length).toBeGreaterThan(1);
+
+    const sharded = shards.flatMap((shard) => parseShardInline(kind, shard));
+    const inline = parse();
+
+    expect(sharded).toHaveLength(ITEMS);
+    expect(sharded).toEqual(inline);
+    expect(sharded.map((f) => f.fingerprint)).toEqual(
+      inline.map((f) => f.fingerprint),
+    );
+  });
+});
+
+describe("parseInPool", () => {
+  it.each(CASES)("should match the inline $kind parser", async ({ kind, input, parse }) => {
+    const { parseInPool } = await loadPool();
+
+    const pooled = await parseInPool(kind, input);
+
+    expect(spawned).toBeGreaterThan(0);
+    expect(pooled).toEqual(parse());
+  });
+
+  it("should parse small outputs inline", async () => {
+    const { parseInPool } = await loadPool();
+
+    const output = generateTrunkOutput(100);
+    expect(await parseInPool("trunk", output)).toEqual(
+      parseTrunkOutput(generateTrunkOutput(100)),
+    );
+    expect(spawned).toBe(0);
+  });
+
+  it.each(CASES)(
+    "should fall back to inline $kind parsing when a worker fails",
+    async ({ kind, input, parse }) => {
+      const { parseInPool, parseShard } = await loadPool();
+      // First shard succeeds, the second crashes its worker mid-run
+      behavior = (worker, request) => {
+        if (request.id === 1) {
+          setImmediate(() => worker.emit("error", new Error("worker crashed")));
+          return;
+        }
+        replyFromParser(worker, request);
+      };
+
+      expect(await parseInPool(kind, input)).toEqual(parse());
+
+      // The pool stays disabled; later shards are parsed inline
+      const before = spawned;
+      const [shard] = shardParseInput(kind, input);
+      expect(await parseShard(kind, shard)).toEqual(parseShardInline(kind, shard));
+      expect(spawned).toBe(before);
+    },
+  );
+
+  it("should fall back to inline parsing when a worker reports an error", async () => {
+    const { parseInPool } = await loadPool();
+    behavior = (worker, request) => {
+      setImmediate(() =>
+        worker.emit("message", { id: request.id, error: "parse failed" }),
+      );
+    };
+
+    const output = generatePmdOutput(ITEMS);
+    expect(await parseInPool("pmd", output)).toEqual(
+      parsePmdOutput(generatePmdOutput(ITEMS)),
+    );
+  });
+
+  it("should fall back to inline parsing when workers cannot start", async () => {
+    vi.resetModules();
+    vi.doMock("node:worker_threads", () => ({
+      Worker: class {
+        constructor() {
+          throw new Error("no worker support");
+        }
+      },
+    }));
+    const { parseInPool } = await import("../src/parsers/parse-pool.js");
+
+    const output = generateSpotBugsOutput(ITEMS);
+    expect(await parseInPool("spotbugs", output)).toEqual(
+      parseSpotBugsOutput(generateSpotBugsOutput(ITEMS)),
+    );
+  });
+});
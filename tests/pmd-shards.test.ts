@@ -0,0 +1,75 @@
+/**
+ * PMD Shard Planning Tests
+ */
+
+import { describe, it, expect } from "vitest";
+import { planPmdShards, withPmdHeap } from "../src/tools/runners/java.js";
+
+const MB = 1024 * 1024;
+const GB = 1024 * MB;
+
+describe("planPmdShards", () => {
+  it("should size threads from cores and memory", () => {
+    const files = ["b/B.java", "a/A.java"];
+    expect(planPmdShards(files, 32, 64 * GB)).toEqual({
+      shards: [["a/A.java", "b/B.java"]],
+      threadsPerShard: 32,
+    });
+    expect(planPmdShards(files, 32, 2 * GB).threadsPerShard).toBe(4);
+    expect(planPmdShards(files, 8, 0).threadsPerShard).toBe(1);
+  });
+
+  it("should split large file lists into shards by path", () => {
+    const files = Array.from({ length: 25_000 }, (_, i) => `src/F${i}.java`);
+    const plan = planPmdShards(files, 32, 64 * GB);
+
+    expect(plan.shards).toHaveLength(3);
+    expect(plan.threadsPerShard).toBe(10);
+    // Each shard JVM gets a heap sized to its threads, all within memory
+    expect(plan.heapMbPerShard).toBe(10 * 512);
+    expect(plan.shards.length * plan.heapMbPerShard! * MB).toBeLessThanOrEqual(64 * GB);
+    expect(plan.shards.flat().sort()).toEqual([...files].sort());
+    for (const shard of plan.shards) {
+      expect(shard).toEqual([...shard].sort());
+      expect(shard.length).toBeGreaterThan(7_500);
+    }
+
+    // Too few threads to give each shard a useful pool: stay in one process
+    expect(planPmdShards(files, 4, 64 * GB).shards).toHaveLength(1);
+  });
+
+  it("should keep each file in its shard as other files come and go", () => {
+    const files = Array.from({ length: 25_000 }, (_, i) => `src/F${i}.java`);
+    const shardOf = (shards: string[][]) =>
+      new Map(shards.flatMap((shard, i) => shard.map((path) => [path, i])));
+
+    const before = shardOf(planPmdShards(files, 32, 64 * GB).shards);
+    // 500 files deleted, 2,000 generated ones added
+    const changed = [
+      ...files.slice(500),
+      ...files.slice(0, 2_000).map((path) => `gen/${path}`),
+    ];
+    const after = shardOf(planPmdShards(changed, 32, 64 * GB).shards);
+
+    for (const path of files.slice(500)) {
+      expect(after.get(path)).toBe(before.get(path));
+    }
+  });
+});
+
+describe("withPmdHeap", () => {
+  it("should add -Xmx to PMD_JAVA_OPTS", () => {
+    expect(withPmdHeap({ PATH: "/bin" }, 2048)).toEqual({
+      PATH: "/bin",
+      PMD_JAVA_OPTS: "-Xmx2048m",
+    });
+    expect(withPmdHeap({ PMD_JAVA_OPTS: "-Dfile.encoding=UTF-8" }, 2048)).toEqual({
+      PMD_JAVA_OPTS: "-Dfile.encoding=UTF-8 -Xmx2048m",
+    });
+  });
+
+  it("should keep an -Xmx the user already set", () => {
+    const env = { PMD_JAVA_OPTS: "-Xms1g -Xmx6g" };
+    expect(withPmdHeap(env, 2048)).toBe(env);
+  });
+});
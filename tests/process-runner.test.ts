@@ -0,0 +1,143 @@
+/**
+ * Process Runner Tests
+ */
+
+import { existsSync, mkdtempSync, readFileSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { describe, it, expect } from "vitest";
+import {
+  runInProcessScope,
+  runProcess,
+  type ProcessRecord,
+} from "../src/tools/process-runner.js";
+
+const node = process.execPath;
+
+/** A wrapper that starts a long-lived grandchild sharing its stdout, like npx */
+const WRAPPER_SCRIPT = `
+const { spawn } = require("node:child_process");
+const grandchild = spawn(process.execPath, ["-e", "setTimeout(() => {}, 60000)"], {
+  stdio: "inherit",
+});
+console.log(grandchild.pid);
+setTimeout(() => {}, 60000);
+`;
+
+/**
+ * Whether a process is still running (zombies awaiting a reaper count as gone).
+ */
+function isRunning(pid: number): boolean {
+  if (process.platform === "linux") {
+    const stat = `/proc/${pid}/stat`;
+    if (!existsSync(stat)) return false;
+    // State follows the parenthesised command name
+    return !/\) Z /.test(readFileSync(stat, "utf-8"));
+  }
+  try {
+    process.kill(pid, 0);
+    return true;
+  } catch {
+    return false;
+  }
+}
+
+describe("runProcess", () => {
+  it("should pass arguments verbatim without a shell", async () => {
+    const result = await runProcess(
+      node,
+      ["-e", "console.log(JSON.stringify(process.argv.slice(1)))", "a b", '"q"', "$HOME"],
+      { shell: false },
+    );
+    expect(result.status).toBe(0);
+    expect(JSON.parse(result.stdout)).toEqual(["a b", '"q"', "$HOME"]);
+    expect(result.stdoutBytes).toBe(Buffer.byteLength(result.stdout));
+  });
+
+  it("should report a missing command as an error", async () => {
+    const result = await runProcess("vibecheck-no-such-command", [], {
+      shell: false,
+    });
+    expect(result.status).toBeNull();
+    expect(result.error).toBeInstanceOf(Error);
+  });
+
+  it("should deliver stdout line by line", async () => {
+    const lines: string[] = [];
+    const result = await runProcess(
+      node,
+      ["-e", 'process.stdout.write("one\\ntwo\\r\\nthree")'],
+      { shell: false, onStdoutLine: (line) => lines.push(line) },
+    );
+    expect(lines).toEqual(["one", "two", "three"]);
+    expect(result.stdout).toBe("");
+  });
+
+  it("should stream stdout to a file", async () => {
+    const path = join(mkdtempSync(join(tmpdir(), "process-")), "out.txt");
+    const result = await runProcess(
+      node,
+      ["-e", 'process.stdout.write("x".repeat(200000))'],
+      { shell: false, stdoutFile: path },
+    );
+    expect(result.stdout).toBe("");
+    expect(result.stdoutBytes).toBe(200000);
+    expect(readFileSync(path, "utf-8")).toHaveLength(200000);
+  });
+
+  it("should kill processes when the scope is aborted and record them", async () => {
+    const controller = new AbortController();
+    const records: ProcessRecord[] = [];
+    setTimeout(() => controller.abort(new Error("timed out")), 100);
+
+    const result = await runInProcessScope(controller.signal, records, () =>
+      runProcess(node, ["-e", "setTimeout(() => {}, 10000)"], { shell: false }),
+    );
+
+    expect(result.status).toBeNull();
+    expect(result.error?.message).toBe("timed out");
+    expect(result.durationMs).toBeLessThan(5000);
+    expect(records).toHaveLength(1);
+    expect(records[0]).toMatchObject({ status: null, error: "timed out" });
+  });
+
+  it.skipIf(process.platform === "win32")(
+    "should kill grandchildren that hold stdout open on timeout",
+    async () => {
+      const result = await runProcess(node, ["-e", WRAPPER_SCRIPT], {
+        shell: false,
+        timeout: 500,
+      });
+
+      expect(result.status).toBeNull();
+      expect(result.error?.message).toBe("Process timed out after 500ms");
+      // Well before the SIGKILL grace period: SIGTERM reached the grandchild too
+      expect(result.durationMs).toBeLessThan(5000);
+
+      const grandchild = Number(result.stdout.trim());
+      expect(grandchild).toBeGreaterThan(0);
+      await new Promise((resolve) => setTimeout(resolve, 100));
+      expect(isRunning(grandchild)).toBe(false);
+    },
+    10_000,
+  );
+
+  it.skipIf(process.platform === "win32")(
+    "should kill grandchildren when the scope is aborted",
+    async () => {
+      const controller = new AbortController();
+      const records: ProcessRecord[] = [];
+      setTimeout(() => controller.abort(new Error("cancelled")), 500);
+
+      const result = await runInProcessScope(controller.signal, records, () =>
+        runProcess(node, ["-e", WRAPPER_SCRIPT], { shell: false }),
+      );
+
+      expect(result.error?.message).toBe("cancelled");
+      expect(result.durationMs).toBeLessThan(5000);
+      await new Promise((resolve) => setTimeout(resolve, 100));
+      expect(isRunning(Number(result.stdout.trim()))).toBe(false);
+    },
+    10_000,
+  );
+});
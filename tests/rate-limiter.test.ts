@@ -0,0 +1,213 @@
+/**
+ * Rate Limiter Tests
+ */
+
+import { describe, it, expect, vi, beforeEach, afterEach } from "vitest";
+import { RateLimiter } from "../src/github/rate-limiter.js";
+
+/** An Octokit RequestError as far as the limiter looks at it */
+function requestError(
+  status: number,
+  headers: Record<string, string>,
+  message = "API rate limit exceeded",
+): Error {
+  return Object.assign(new Error(message), {
+    status,
+    response: { headers },
+  });
+}
+
+function delay(ms: number): Promise<void> {
+  return new Promise((resolve) => setTimeout(resolve, ms));
+}
+
+/** Epoch seconds, as sent in x-ratelimit-reset */
+function epochSeconds(offsetMs: number): string {
+  return String((Date.now() + offsetMs) / 1000);
+}
+
+describe("RateLimiter", () => {
+  beforeEach(() => {
+    vi.useFakeTimers();
+    vi.setSystemTime(new Date("2024-01-01T00:00:00Z"));
+    vi.spyOn(console, "warn").mockImplementation(() => {});
+  });
+
+  afterEach(() => {
+    vi.useRealTimers();
+    vi.restoreAllMocks();
+  });
+
+  it("should run requests concurrently until a limit is signalled", async () => {
+    const limiter = new RateLimiter({ concurrency: 3 });
+    let active = 0;
+    let maxActive = 0;
+    const task = async () => {
+      maxActive = Math.max(maxActive, ++active);
+      await delay(100);
+      active--;
+    };
+
+    const all = Promise.all(Array.from({ length: 6 }, () => limiter.schedule(task)));
+    await vi.advanceTimersByTimeAsync(200);
+    await all;
+
+    expect(maxActive).toBe(3);
+    expect(limiter.throttledMs).toBe(0);
+  });
+
+  it("should retry a 429 after retry-after seconds", async () => {
+    const limiter = new RateLimiter();
+    const fn = vi
+      .fn()
+      .mockRejectedValueOnce(requestError(429, { "retry-after": "2" }))
+      .mockResolvedValue("ok");
+
+    const result = limiter.schedule(fn);
+    await vi.advanceTimersByTimeAsync(1999);
+    expect(fn).toHaveBeenCalledTimes(1);
+
+    await vi.advanceTimersByTimeAsync(1);
+    await expect(result).resolves.toBe("ok");
+    expect(fn).toHaveBeenCalledTimes(2);
+    expect(limiter.secondaryLimits).toBe(1);
+    expect(limiter.throttledMs).toBe(2000);
+  });
+
+  it("should back off exponentially on a secondary limit without retry-after", async () => {
+    const limiter = new RateLimiter();
+    const secondary = requestError(
+      403,
+      {},
+      "You have exceeded a secondary rate limit",
+    );
+    const calls: number[] = [];
+    const fn = vi.fn(async () => {
+      calls.push(Date.now());
+      if (calls.length <= 2) throw secondary;
+      return "ok";
+    });
+
+    const result = limiter.schedule(fn);
+    await vi.advanceTimersByTimeAsync(180_000);
+
+    await expect(result).resolves.toBe("ok");
+    expect(calls.map((at) => at - calls[0])).toEqual([0, 60_000, 180_000]);
+    expect(limiter.secondaryLimits).toBe(2);
+  });
+
+  it("should switch to serial, paced requests after a secondary limit", async () => {
+    const limiter = new RateLimiter({ concurrency: 4 });
+    const starts: number[] = [];
+    let active = 0;
+    let maxActive = 0;
+    let limited = false;
+    const task = async () => {
+      starts.push(Date.now());
+      maxActive = Math.max(maxActive, ++active);
+      await delay(100);
+      active--;
+      if (!limited) {
+        limited = true;
+        throw requestError(403, { "retry-after": "1" });
+      }
+    };
+
+    const first = limiter.schedule(task);
+    await vi.advanceTimersByTimeAsync(1200);
+    await first;
+
+    starts.length = 0;
+    maxActive = 0;
+    const rest = Promise.all(Array.from({ length: 3 }, () => limiter.schedule(task)));
+    await vi.advanceTimersByTimeAsync(5000);
+    await rest;
+
+    expect(maxActive).toBe(1);
+    expect(starts).toHaveLength(3);
+    for (let i = 1; i < starts.length; i++) {
+      expect(starts[i] - starts[i - 1]).toBeGreaterThanOrEqual(750);
+    }
+  });
+
+  it("should wait for the reset when the primary quota is exhausted", async () => {
+    const limiter = new RateLimiter();
+    const fn = vi
+      .fn()
+      .mockRejectedValueOnce(
+        requestError(403, {
+          "x-ratelimit-remaining": "0",
+          "x-ratelimit-reset": epochSeconds(30_000),
+        }),
+      )
+      .mockResolvedValue("ok");
+
+    const result = limiter.schedule(fn);
+    await vi.advanceTimersByTimeAsync(29_999);
+    expect(fn).toHaveBeenCalledTimes(1);
+
+    await vi.advanceTimersByTimeAsync(1);
+    await expect(result).resolves.toBe("ok");
+    expect(limiter.secondaryLimits).toBe(0);
+  });
+
+  it("should keep a quota reserve and hold requests until the reset", async () => {
+    const limiter = new RateLimiter();
+    limiter.observe({
+      "x-ratelimit-remaining": "11",
+      "x-ratelimit-reset": epochSeconds(20_000),
+    });
+    const fn = vi.fn().mockResolvedValue("ok");
+
+    // 11 left: above the reserve of 10, so this one goes straight through
+    await limiter.schedule(fn);
+    expect(fn).toHaveBeenCalledTimes(1);
+
+    const held = limiter.schedule(fn);
+    await vi.advanceTimersByTimeAsync(19_999);
+    expect(fn).toHaveBeenCalledTimes(1);
+
+    await vi.advanceTimersByTimeAsync(1);
+    await expect(held).resolves.toBe("ok");
+    expect(limiter.throttledMs).toBe(20_000);
+  });
+
+  it("should not hold requests once the quota has reset", async () => {
+    const limiter = new RateLimiter();
+    limiter.observe({
+      "x-ratelimit-remaining": "5",
+      "x-ratelimit-reset": epochSeconds(-1000),
+    });
+    const fn = vi.fn().mockResolvedValue("ok");
+
+    await expect(limiter.schedule(fn)).resolves.toBe("ok");
+    expect(limiter.throttledMs).toBe(0);
+  });
+
+  it("should not retry other errors", async () => {
+    const limiter = new RateLimiter();
+    const error = requestError(500, {}, "Server Error");
+    const fn = vi.fn().mockRejectedValue(error);
+
+    await expect(limiter.schedule(fn)).rejects.toBe(error);
+    expect(fn).toHaveBeenCalledTimes(1);
+
+    // A 403 that is not a rate limit (e.g. missing permission) is final too
+    const forbidden = requestError(403, { "x-ratelimit-remaining": "4000" }, "Forbidden");
+    const denied = vi.fn().mockRejectedValue(forbidden);
+    await expect(limiter.schedule(denied)).rejects.toBe(forbidden);
+    expect(denied).toHaveBeenCalledTimes(1);
+  });
+
+  it("should give up after maxRetries", async () => {
+    const limiter = new RateLimiter({ maxRetries: 1 });
+    const error = requestError(429, { "retry-after": "1" });
+    const fn = vi.fn().mockRejectedValue(error);
+
+    const result = limiter.schedule(fn);
+    const assertion = expect(result).rejects.toBe(error);
+    await vi.advanceTimersByTimeAsync(1000);
+    await assertion;
+    expect(fn).toHaveBeenCalledTimes(2);
+  });
+});
@@ -0,0 +1,62 @@
+/**
+ * SpotBugs Incremental Analysis Tests
+ */
+
+import { mkdirSync, mkdtempSync, writeFileSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { describe, it, expect } from "vitest";
+import {
+  describeJavaSource,
+  findCompiledClasses,
+  type JavaModule,
+} from "../src/tools/runners/java.js";
+
+describe("describeJavaSource", () => {
+  it("should derive the reported source path from the package declaration", () => {
+    expect(
+      describeJavaSource(
+        "app/src/main/java/com/acme/SpotBugsIssues.java",
+        "// header\n\npackage com.acme ;\n\npublic class SpotBugsIssues {}\n",
+      ),
+    ).toEqual({
+      packageName: "com.acme",
+      className: "SpotBugsIssues",
+      sourceKey: "com/acme/SpotBugsIssues.java",
+    });
+    expect(describeJavaSource("src/Main.java", "class Main {}\n").sourceKey).toBe(
+      "Main.java",
+    );
+  });
+});
+
+describe("findCompiledClasses", () => {
+  it("should include nested and anonymous classes", () => {
+    const classDir = mkdtempSync(join(tmpdir(), "spotbugs-classes-"));
+    mkdirSync(join(classDir, "com", "acme"), { recursive: true });
+    for (const name of [
+      "SpotBugsIssues.class",
+      "SpotBugsIssues$NoHashCode.class",
+      "SpotBugsIssues$1.class",
+      "SpotBugsIssuesTest.class",
+      "Other.class",
+    ]) {
+      writeFileSync(join(classDir, "com", "acme", name), "");
+    }
+    writeFileSync(join(classDir, "Main.class"), "");
+    const module: JavaModule = { path: ".", classDirs: [classDir], jars: [] };
+
+    expect(
+      findCompiledClasses(module, [
+        describeJavaSource("SpotBugsIssues.java", "package com.acme;"),
+        describeJavaSource("Main.java", ""),
+        describeJavaSource("Missing.java", "package com.acme;"),
+      ]),
+    ).toEqual([
+      "Main",
+      "com.acme.SpotBugsIssues",
+      "com.acme.SpotBugsIssues$1",
+      "com.acme.SpotBugsIssues$NoHashCode",
+    ]);
+  });
+});
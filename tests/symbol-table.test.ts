@@ -0,0 +1,87 @@
+/**
+ * Symbol Table Tests
+ */
+
+import { describe, it, expect } from "vitest";
+import {
+  definePathForm,
+  intern,
+  internFinding,
+  memoizeSymbol,
+} from "../src/utils/symbol-table.js";
+import { normalizePath } from "../src/utils/parser-utils.js";
+import { normalizePathForComparison } from "../src/utils/fingerprints.js";
+import type { Finding } from "../src/core/types.js";
+
+describe("intern", () => {
+  it("should return the first instance of equal strings", () => {
+    const first = intern(["src", "a.ts"].join("/"));
+    expect(intern(["src", "a.ts"].join("/"))).toBe(first);
+  });
+});
+
+describe("definePathForm", () => {
+  it("should derive each form once per distinct path", () => {
+    let calls = 0;
+    const excluded = definePathForm((path) => {
+      calls++;
+      return path.startsWith("node_modules/");
+    });
+    const upper = definePathForm((path) => path.toUpperCase());
+
+    expect(excluded("node_modules/x.js")).toBe(true);
+    expect(excluded("src/x.js")).toBe(false);
+    expect(excluded("src/x.js")).toBe(false);
+    expect(upper("src/x.js")).toBe("SRC/X.JS");
+    expect(calls).toBe(2);
+  });
+
+  it("should memoize null results", () => {
+    let calls = 0;
+    const none = definePathForm(() => {
+      calls++;
+      return null;
+    });
+    none("README");
+    none("README");
+    expect(calls).toBe(1);
+  });
+});
+
+describe("memoizeSymbol", () => {
+  it("should share normalized results across inputs", () => {
+    const lower = memoizeSymbol((value) => value.toLowerCase());
+    expect(lower("No-Console")).toBe(lower("NO-CONSOLE"));
+  });
+});
+
+describe("internFinding", () => {
+  it("should intern tool, rule, labels and paths in place", () => {
+    const finding = {
+      layer: "code",
+      tool: "pmd",
+      ruleId: ["Unused", "Field"].join(""),
+      title: "pmd: UnusedField",
+      message: "Avoid unused private fields",
+      severity: "low",
+      confidence: "high",
+      autofix: "none",
+      locations: [{ path: ["src", "A.java"].join("/"), startLine: 1 }],
+      labels: ["vibeCheck", ["tool", "pmd"].join(":")],
+    } as Omit<Finding, "fingerprint">;
+
+    expect(internFinding(finding)).toBe(finding);
+    expect(finding.ruleId).toBe(intern("UnusedField"));
+    expect(finding.labels[1]).toBe(intern("tool:pmd"));
+    expect(finding.locations[0].path).toBe(intern("src/A.java"));
+  });
+});
+
+describe("memoized path normalizers", () => {
+  it("should keep their existing results", () => {
+    const ciPath = "/home/runner/work/repo/repo/src/App.ts";
+    expect(normalizePath(ciPath)).toBe("src/App.ts");
+    expect(normalizePath(ciPath)).toBe("src/App.ts");
+    expect(normalizePathForComparison(".\\Src\\App.ts")).toBe("src/app.ts");
+  });
+});
@@ -0,0 +1,93 @@
+/**
+ * Tool Registry Tests
+ */
+
+import { execFileSync } from "node:child_process";
+import { mkdirSync, mkdtempSync, writeFileSync } from "node:fs";
+import { tmpdir } from "node:os";
+import { join } from "node:path";
+import { describe, it, expect } from "vitest";
+import { executeTools, type ToolDefinition } from "../src/tools/tool-registry.js";
+import { createFinding } from "./helpers.js";
+
+describe("executeTools findings cache", () => {
+  it("should only cache runs that completed cleanly", async () => {
+    const root = mkdtempSync(join(tmpdir(), "registry-"));
+    writeFileSync(join(root, "index.ts"), "export {};\n");
+    execFileSync("git", ["init", "-q"], { cwd: root });
+    execFileSync("git", ["add", "."], { cwd: root });
+    const outputDir = mkdtempSync(join(tmpdir(), "registry-out-"));
+
+    let runs = 0;
+    const tool: ToolDefinition = {
+      name: "tsc",
+      displayName: "Fake tool",
+      defaultCadence: "daily",
+      detector: () => true,
+      run: async (_rootPath, _config, context) => {
+        runs++;
+        if (runs === 1) {
+          context.markIncomplete("no report");
+          return [];
+        }
+        return [createFinding({ tool: "tsc" })];
+      },
+      configKey: "tsc",
+      // Any installed binary stands in for the tool version
+      cache: { command: "git" },
+    };
+    const execute = () =>
+      executeTools([tool], root, { version: 1 }, { outputDir, cache: true });
+
+    // The incomplete first run must not be replayed
+    expect(await execute()).toEqual([]);
+    expect(await execute()).toHaveLength(1);
+    expect(runs).toBe(2);
+
+    // The clean second run is
+    expect(await execute()).toHaveLength(1);
+    expect(runs).toBe(2);
+  });
+});
+
+describe("executeTools exclusions", () => {
+  it("should keep findings on tracked files that .gitignore matches", async () => {
+    const root = mkdtempSync(join(tmpdir(), "registry-"));
+    writeFileSync(join(root, ".gitignore"), "Cargo.lock\nlib/\n");
+    writeFileSync(join(root, "Cargo.lock"), "# lockfile\n");
+    mkdirSync(join(root, "src", "lib"), { recursive: true });
+    writeFileSync(join(root, "src", "lib", "mod.rs"), "fn main() {}\n");
+    execFileSync("git", ["init", "-q"], { cwd: root });
+    // Tracked despite the ignore patterns, like a library's committed lockfile
+    execFileSync("git", ["add", "-f", "."], { cwd: root });
+
+    const at = (path: string) =>
+      createFinding({
+        tool: "cargo-audit",
+        fingerprint: `sha256:${path}`,
+        locations: [{ path, startLine: 1 }],
+      });
+    const tool: ToolDefinition = {
+      name: "cargo-audit",
+      displayName: "Fake tool",
+      defaultCadence: "daily",
+      detector: () => true,
+      run: async () => [
+        at("Cargo.lock"),
+        at("src/lib/mod.rs"),
+        at("node_modules/dep/index.js"),
+      ],
+      configKey: "cargo_audit",
+    };
+
+    const findings = await executeTools([tool], root, { version: 1 }, {
+      outputDir: mkdtempSync(join(tmpdir(), "registry-out-")),
+      cache: false,
+    });
+
+    expect(findings.map((f) => f.locations[0].path)).toEqual([
+      "Cargo.lock",
+      "src/lib/mod.rs",
+    ]);
+  });
+});